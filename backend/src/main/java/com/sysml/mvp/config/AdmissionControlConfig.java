@@ -0,0 +1,27 @@
+package com.sysml.mvp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 准入控制配置 - 为API请求注册舱壁过滤器（app.limits.admission.enabled=false时关闭）
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.limits.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(LimitsProperties limits,
+                                                                                  MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+            new FilterRegistrationBean<>(new AdmissionControlFilter(limits, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        // 在CORS等过滤器之后、进入业务处理之前排队
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+        return registration;
+    }
+}
@@ -0,0 +1,167 @@
+package com.sysml.mvp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 准入控制过滤器
+ *
+ * 设计说明：
+ * 1. API请求按类别进入各自的舱壁：读、写、验证、导入导出，互不占用并发额度，
+ *    大型导入导出（含备份、恢复、备份垃圾回收和存储格式切换等整个项目文件的读写）不会挤占交互式的元素读取
+ * 2. 舱壁为公平信号量，满额时按到达顺序排队，超过最长等待时间返回503和Retry-After
+ * 3. 通过Micrometer暴露：
+ *    - sysml.admission.active{bulkhead}：正在执行的请求数
+ *    - sysml.admission.wait{bulkhead}：排队等待时间
+ *    - sysml.admission.rejected{bulkhead}：被拒绝的请求数
+ * 4. CORS预检请求和非/api请求不受控制
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    /**
+     * 请求类别
+     */
+    public enum Category {
+        READ, WRITE, VALIDATION, IMPORT_EXPORT
+    }
+
+    private static final Pattern IMPORT_EXPORT_PATH = Pattern.compile(
+        "^/api/v1/(projects/[^/]+/(import|export|storage-format|backups(/restore)?)|backups/gc)$");
+
+    private final long retryAfterSeconds;
+    private final Map<Category, Bulkhead> bulkheads = new EnumMap<>(Category.class);
+
+    public AdmissionControlFilter(LimitsProperties limits, MeterRegistry meterRegistry) {
+        LimitsProperties.Admission admission = limits.getAdmission();
+        int users = Math.max(1, limits.getMaxConcurrentUsers());
+        this.retryAfterSeconds = admission.getRetryAfterSeconds();
+        bulkheads.put(Category.READ, new Bulkhead("read", admission.getRead(), users * 4, meterRegistry));
+        bulkheads.put(Category.WRITE, new Bulkhead("write", admission.getWrite(), users, meterRegistry));
+        bulkheads.put(Category.VALIDATION, new Bulkhead("validation", admission.getValidation(), users, meterRegistry));
+        bulkheads.put(Category.IMPORT_EXPORT, new Bulkhead("import-export", admission.getImportExport(), 1, meterRegistry));
+    }
+
+    /**
+     * 按路径和方法确定请求类别
+     * @return 请求类别，不受控制的请求返回null
+     */
+    public static Category classify(String method, String path) {
+        if (path == null || !path.startsWith("/api/") || "OPTIONS".equalsIgnoreCase(method)) {
+            return null;
+        }
+        if (IMPORT_EXPORT_PATH.matcher(path).matches()) {
+            return Category.IMPORT_EXPORT;
+        }
+        if (path.startsWith("/api/v1/validation") || path.startsWith("/api/v1/traces/validate")) {
+            return Category.VALIDATION;
+        }
+        if ("GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method)) {
+            return Category.READ;
+        }
+        return Category.WRITE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Category category = classify(request.getMethod(), path);
+        if (category == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(category);
+        boolean admitted;
+        try {
+            admitted = bulkhead.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            bulkhead.rejected.increment();
+            log.warn("请求被准入控制拒绝: bulkhead={}, {} {}", bulkhead.name, request.getMethod(), path);
+            reject(response, bulkhead);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private void reject(HttpServletResponse response, Bulkhead bulkhead) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(String.format(
+            "{\"error\":\"Service Unavailable\",\"message\":\"Too many concurrent %s requests, retry later\","
+                + "\"bulkhead\":\"%s\",\"status\":503}", bulkhead.name, bulkhead.name));
+    }
+
+    /**
+     * 单个舱壁：公平信号量及其指标
+     */
+    private static final class Bulkhead {
+        private final String name;
+        private final Semaphore permits;
+        private final long maxWaitMs;
+        private final Timer wait;
+        private final Counter rejected;
+
+        Bulkhead(String name, LimitsProperties.Bulkhead config, int defaultMaxConcurrent, MeterRegistry meterRegistry) {
+            int maxConcurrent = config.getMaxConcurrent() != null ? config.getMaxConcurrent() : defaultMaxConcurrent;
+            this.name = name;
+            this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+            this.maxWaitMs = Math.max(0, config.getMaxWaitMs());
+            this.wait = Timer.builder("sysml.admission.wait")
+                .description("Time spent queued for admission")
+                .tags("bulkhead", name)
+                .register(meterRegistry);
+            this.rejected = Counter.builder("sysml.admission.rejected")
+                .description("Requests rejected by admission control")
+                .tags("bulkhead", name)
+                .register(meterRegistry);
+            int capacity = Math.max(1, maxConcurrent);
+            Gauge.builder("sysml.admission.active", permits, p -> capacity - p.availablePermits())
+                .description("Requests currently admitted")
+                .tags("bulkhead", name)
+                .register(meterRegistry);
+        }
+
+        boolean acquire() throws InterruptedException {
+            // 公平信号量的tryAcquire()会插队，无等待时也用带超时的版本以保持FIFO
+            long start = System.nanoTime();
+            boolean acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+            wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return acquired;
+        }
+
+        void release() {
+            permits.release();
+        }
+    }
+}
@@ -17,6 +17,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("*")  // 允许所有源
                 .allowedMethods("*")          // 允许所有方法
                 .allowedHeaders("*")          // 允许所有头
+                .exposedHeaders("ETag", ModelSnapshotInterceptor.MODEL_VERSION_HEADER)  // 允许前端读取版本头
                 .allowCredentials(true)       // 允许凭证
                 .maxAge(3600);               // 缓存时间
     }
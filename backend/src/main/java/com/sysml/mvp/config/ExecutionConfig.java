@@ -0,0 +1,77 @@
+package com.sysml.mvp.config;
+
+import com.sysml.mvp.util.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求执行配置 - 按app.execution为Tomcat连接器提供请求线程
+ *
+ * 设计说明：
+ * 1. 虚拟线程模式：每个请求一个虚拟线程，阻塞在模型文件I/O上时不占用平台线程
+ * 2. 平台线程模式：Tomcat的有界线程池（先扩容到maxThreads再排队），参数见app.execution.platform
+ * 3. 执行器由Spring容器管理并在关闭时停止，Tomcat不会关闭外部提供的执行器
+ */
+@Slf4j
+@Configuration
+public class ExecutionConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor(ExecutionProperties properties) {
+        return newRequestExecutor(properties);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> requestExecutionCustomizer(
+            ExecutorService requestExecutor, ExecutionProperties properties) {
+        return protocolHandler -> customize(protocolHandler, requestExecutor, properties);
+    }
+
+    /**
+     * 按配置创建请求执行器
+     * @param properties 执行模式配置
+     * @return 虚拟线程执行器或有界平台线程池
+     */
+    public static ExecutorService newRequestExecutor(ExecutionProperties properties) {
+        if (properties.getMode() == ExecutionProperties.Mode.VIRTUAL && !VirtualThreads.isSupported()) {
+            log.warn("当前JVM (Java {}) 不支持虚拟线程，回退到平台线程池", Runtime.version().feature());
+        }
+        if (properties.resolveVirtualThreads()) {
+            log.info("请求执行模式: 虚拟线程");
+            return VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+        }
+
+        ExecutionProperties.Platform platform = properties.getPlatform();
+        log.info("请求执行模式: 平台线程池 (minSpare={}, max={}, queue={})",
+            platform.getMinSpareThreads(), platform.getMaxThreads(), platform.getQueueCapacity());
+        TaskQueue queue = new TaskQueue(platform.getQueueCapacity());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            platform.getMinSpareThreads(), platform.getMaxThreads(),
+            platform.getKeepAliveSeconds(), TimeUnit.SECONDS, queue,
+            new TaskThreadFactory("http-exec-", true, Thread.NORM_PRIORITY));
+        queue.setParent(executor);
+        return executor;
+    }
+
+    /**
+     * 将执行器和连接数限制应用到Tomcat协议处理器
+     */
+    public static void customize(ProtocolHandler protocolHandler, ExecutorService executor,
+                                 ExecutionProperties properties) {
+        protocolHandler.setExecutor(executor);
+        if (protocolHandler instanceof AbstractProtocol<?> protocol) {
+            protocol.setMaxConnections(properties.getMaxConnections());
+            protocol.setAcceptCount(properties.getAcceptCount());
+        }
+    }
+}
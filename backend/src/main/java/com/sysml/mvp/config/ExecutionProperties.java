@@ -0,0 +1,75 @@
+package com.sysml.mvp.config;
+
+import com.sysml.mvp.util.VirtualThreads;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 请求执行模式配置 - app.execution
+ *
+ * 设计说明：
+ * 1. mode=auto：JVM支持时使用虚拟线程，否则使用有界平台线程池
+ * 2. mode=virtual：强制虚拟线程，JVM不支持时回退到平台线程池并告警
+ * 3. mode=platform：始终使用有界平台线程池（platform.*调优）
+ * 4. 虚拟线程模式下Servlet请求处理与项目写线程（模型文件保存）都运行在虚拟线程上
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.execution")
+public class ExecutionProperties {
+
+    /**
+     * 执行模式
+     */
+    public enum Mode {
+        AUTO, VIRTUAL, PLATFORM
+    }
+
+    private Mode mode = Mode.AUTO;
+
+    /**
+     * 最大并发连接数，超出后进入accept队列
+     */
+    private int maxConnections = 8192;
+
+    /**
+     * 连接数达到上限后操作系统accept队列长度
+     */
+    private int acceptCount = 1000;
+
+    private Platform platform = new Platform();
+
+    /**
+     * 按配置和JVM能力确定是否使用虚拟线程
+     */
+    public boolean resolveVirtualThreads() {
+        return mode != Mode.PLATFORM && VirtualThreads.isSupported();
+    }
+
+    /**
+     * 平台线程池配置（Java 17回退模式）
+     */
+    @Data
+    public static class Platform {
+        /**
+         * 最大工作线程数；请求大部分时间阻塞在文件I/O上，可明显高于CPU核数
+         */
+        private int maxThreads = 400;
+
+        /**
+         * 常驻线程数
+         */
+        private int minSpareThreads = 25;
+
+        /**
+         * 线程全部忙碌时的任务队列长度
+         */
+        private int queueCapacity = 2000;
+
+        /**
+         * 空闲线程存活时间（秒）
+         */
+        private int keepAliveSeconds = 60;
+    }
+}
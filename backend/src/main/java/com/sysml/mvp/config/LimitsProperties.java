@@ -0,0 +1,77 @@
+package com.sysml.mvp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 性能限制配置 - app.limits
+ * 
+ * 设计说明：
+ * 1. max-nodes：单个项目的元素数上限，创建与导入时检查
+ * 2. max-file-size：导入文件大小上限（字节）
+ * 3. max-concurrent-users：写、验证请求的默认并发上限，读请求默认为其4倍
+ * 4. admission：按请求类别划分的舱壁（bulkhead），未配置max-concurrent时按max-concurrent-users推导
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.limits")
+public class LimitsProperties {
+    
+    private int maxNodes = 500;
+    
+    private long maxFileSize = 10 * 1024 * 1024;
+    
+    private int maxConcurrentUsers = 5;
+    
+    private int pageSizeDefault = 50;
+    
+    private int pageSizeMax = 200;
+    
+    private Admission admission = new Admission();
+    
+    /**
+     * 准入控制配置
+     */
+    @Data
+    public static class Admission {
+        /**
+         * 是否启用准入控制
+         */
+        private boolean enabled = true;
+        
+        /**
+         * 过载时Retry-After响应头（秒）
+         */
+        private long retryAfterSeconds = 1;
+        
+        private Bulkhead read = new Bulkhead(null, 200);
+        private Bulkhead write = new Bulkhead(null, 1000);
+        private Bulkhead validation = new Bulkhead(null, 500);
+        private Bulkhead importExport = new Bulkhead(1, 0);
+    }
+    
+    /**
+     * 单个舱壁配置
+     */
+    @Data
+    public static class Bulkhead {
+        /**
+         * 最大并发数，null表示按max-concurrent-users推导
+         */
+        private Integer maxConcurrent;
+        
+        /**
+         * 排队等待的最长时间（毫秒），超时返回503
+         */
+        private long maxWaitMs;
+        
+        public Bulkhead() {
+        }
+        
+        public Bulkhead(Integer maxConcurrent, long maxWaitMs) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxWaitMs = maxWaitMs;
+        }
+    }
+}
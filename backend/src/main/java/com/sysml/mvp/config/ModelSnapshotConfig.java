@@ -0,0 +1,23 @@
+package com.sysml.mvp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 模型快照配置 - 为API请求注册快照固定拦截器
+ */
+@Configuration
+public class ModelSnapshotConfig implements WebMvcConfigurer {
+
+    private final ModelSnapshotInterceptor modelSnapshotInterceptor;
+
+    public ModelSnapshotConfig(ModelSnapshotInterceptor modelSnapshotInterceptor) {
+        this.modelSnapshotInterceptor = modelSnapshotInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(modelSnapshotInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,78 @@
+package com.sysml.mvp.config;
+
+import com.sysml.mvp.service.ModelSnapshot;
+import com.sysml.mvp.service.UniversalElementService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 请求级模型快照固定
+ *
+ * 设计说明：
+ * 1. 请求开始时只声明延迟固定，首次读取快照时才固定，请求内的所有读操作基于同一版本；
+ *    健康检查、点查询等不读取快照的请求不会加载整个项目
+ * 2. 通过X-Model-Version响应头返回本次响应所基于的模型版本：写出响应体前按固定（或写后前移）的快照设置；
+ *    请求未读取快照时使用已加载模型的当前版本，模型尚未加载时不设置
+ * 3. 请求结束时解除固定
+ * 4. UniversalElementService不可用（如控制器切片测试）时不做任何处理
+ */
+@ControllerAdvice
+public class ModelSnapshotInterceptor implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    public static final String MODEL_VERSION_HEADER = "X-Model-Version";
+
+    private final ObjectProvider<UniversalElementService> universalElementService;
+
+    public ModelSnapshotInterceptor(ObjectProvider<UniversalElementService> universalElementService) {
+        this.universalElementService = universalElementService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        UniversalElementService service = universalElementService.getIfAvailable();
+        if (service != null) {
+            service.pinSnapshotOnFirstRead();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        UniversalElementService service = universalElementService.getIfAvailable();
+        if (service != null) {
+            service.unpinSnapshot();
+        }
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        UniversalElementService service = universalElementService.getIfAvailable();
+        if (service != null && response instanceof ServletServerHttpResponse) {
+            ModelSnapshot snapshot = service.pinnedSnapshot();
+            long version = snapshot != null ? snapshot.getVersion() : service.getLoadedModelVersion();
+            if (version > 0) {
+                ((ServletServerHttpResponse) response).getServletResponse()
+                    .setHeader(MODEL_VERSION_HEADER, Long.toString(version));
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,71 @@
+package com.sysml.mvp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 追溯语义规则配置 - app.validation.trace-semantics
+ * 
+ * 需求实现：
+ * - REQ-C3-4: 追溯语义约束 - 规则表可通过配置覆盖
+ * 
+ * 每条规则按追溯类型（derive/satisfy/refine/trace）声明允许的源端和目标端EClass，
+ * 子类型自动继承父类型的许可；"*"表示不限制。
+ * 未配置时使用MVP默认规则。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.validation.trace-semantics")
+public class TraceSemanticsProperties {
+    
+    /**
+     * 通配符：匹配任意EClass
+     */
+    public static final String ANY = "*";
+    
+    /**
+     * 追溯类型 → 语义规则
+     */
+    private Map<String, Rule> rules = defaultRules();
+    
+    /**
+     * 单条语义规则
+     */
+    @Data
+    public static class Rule {
+        private List<String> sources = new ArrayList<>();
+        private List<String> targets = new ArrayList<>();
+        
+        public Rule() {
+        }
+        
+        public Rule(List<String> sources, List<String> targets) {
+            this.sources = new ArrayList<>(sources);
+            this.targets = new ArrayList<>(targets);
+        }
+    }
+    
+    /**
+     * MVP默认规则
+     * - Satisfy: source∈{PartUsage,ActionUsage}, target∈{RequirementUsage,RequirementDefinition}
+     * - DeriveRequirement/Refine: source/target∈{RequirementDefinition,RequirementUsage}
+     * - Trace: 无约束
+     */
+    private static Map<String, Rule> defaultRules() {
+        List<String> requirements = List.of("RequirementDefinition", "RequirementUsage");
+        
+        Map<String, Rule> rules = new LinkedHashMap<>();
+        rules.put("satisfy", new Rule(List.of("PartUsage", "ActionUsage"), 
+            List.of("RequirementUsage", "RequirementDefinition")));
+        rules.put("derive", new Rule(requirements, requirements));
+        rules.put("refine", new Rule(requirements, requirements));
+        rules.put("trace", new Rule(List.of(ANY), List.of(ANY)));
+        return rules;
+    }
+}
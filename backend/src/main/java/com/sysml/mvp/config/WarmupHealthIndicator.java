@@ -0,0 +1,40 @@
+package com.sysml.mvp.config;
+
+import com.sysml.mvp.service.ProjectWarmupService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 启动预热健康指示器（/actuator/health/warmup，并纳入readiness组）
+ *
+ * 设计说明：
+ * 1. 预热进行中报告OUT_OF_SERVICE，负载均衡在预热完成前不把流量导向本实例
+ * 2. 预热完成（含部分项目失败）或关闭时报告UP，失败数在详情中给出
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final ProjectWarmupService warmupService;
+
+    public WarmupHealthIndicator(ProjectWarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    @Override
+    public Health health() {
+        ProjectWarmupService.Progress progress = warmupService.getProgress();
+        boolean ready = progress.state() == ProjectWarmupService.State.COMPLETED
+            || progress.state() == ProjectWarmupService.State.DISABLED;
+        Health.Builder builder = ready ? Health.up() : Health.outOfService();
+        return builder
+            .withDetail("state", progress.state())
+            .withDetail("progress", (progress.completed() + progress.failed()) + "/" + progress.planned())
+            .withDetail("completed", progress.completed())
+            .withDetail("failed", progress.failed())
+            .withDetail("skipped", progress.skipped())
+            .withDetail("estimatedMb", progress.estimatedBytes() / (1024 * 1024))
+            .withDetail("budgetMb", progress.budgetBytes() / (1024 * 1024))
+            .build();
+    }
+}
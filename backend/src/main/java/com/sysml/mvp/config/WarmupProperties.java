@@ -0,0 +1,56 @@
+package com.sysml.mvp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 启动预热配置 - app.warmup
+ *
+ * 设计说明：
+ * 1. 应用就绪后按最近更新时间挑选项目并行预加载，预热完成前readiness为OUT_OF_SERVICE
+ * 2. 内存预算按磁盘大小乘以expansion-factor估算每个项目加载后的堆占用，累计超出预算的项目跳过；
+ *    预算同时不超过最大堆的一半
+ * 3. parallelism为0时取可用处理器数（模型解析是CPU密集型）
+ * 4. index-checkpoint开启时，派生索引持久化到项目目录，重启时摘要一致则直接恢复（见IndexCheckpointService）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 最多预热的项目数
+     */
+    private int maxProjects = 8;
+
+    /**
+     * 预热线程数，0表示可用处理器数
+     */
+    private int parallelism = 0;
+
+    /**
+     * 预热可占用的堆内存预算（MB）
+     */
+    private long memoryBudgetMb = 512;
+
+    /**
+     * 加载后堆占用与磁盘大小之比的估计值
+     */
+    private double expansionFactor = 8.0;
+
+    /**
+     * 是否使用持久化的索引检查点
+     */
+    private boolean indexCheckpoint = true;
+
+    public int resolveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public long resolveMemoryBudgetBytes() {
+        return Math.min(memoryBudgetMb * 1024 * 1024, Runtime.getRuntime().maxMemory() / 2);
+    }
+}
@@ -2,6 +2,7 @@ package com.sysml.mvp.controller;
 
 import com.sysml.mvp.dto.ElementDTO;
 import com.sysml.mvp.service.UniversalElementService;
+import com.sysml.mvp.util.SingleFlight;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -21,6 +22,7 @@ import java.util.stream.Collectors;
  * - 排序支持：sort参数，支持多字段排序
  * - 过滤支持：filter参数，支持字段过滤
  * - 全文搜索：search参数
+ * - 并发的相同查询合并为一次计算（single-flight）
  */
 @Slf4j
 @RestController
@@ -28,6 +30,7 @@ import java.util.stream.Collectors;
 public class AdvancedQueryController {
     
     private final UniversalElementService universalElementService;
+    private final SingleFlight<String, Map<String, Object>> queryFlights = new SingleFlight<>();
     
     // 支持排序的字段白名单
     private static final Set<String> SORTABLE_FIELDS = Set.of(
@@ -149,44 +152,14 @@ public class AdvancedQueryController {
                 ));
             }
             
-            // 获取所有元素
-            List<ElementDTO> allElements = universalElementService.getAllElements();
-            
-            // 应用过滤
-            List<ElementDTO> filteredElements = applyFilters(allElements, filter);
-            
-            // 应用搜索
-            List<ElementDTO> searchedElements = applySearch(filteredElements, search);
-            
-            // 应用排序
-            List<ElementDTO> sortedElements = applySort(searchedElements, sort);
+            // 相同模型版本下的相同查询同时只计算一次，并发请求共享结果
+            String queryKey = universalElementService.getModelVersion() + "|" + page + "|" + size
+                + "|" + sort + "|" + filter + "|" + search;
+            Map<String, Object> response = queryFlights.execute(queryKey,
+                () -> computeAdvancedQuery(page, size, sort, filter, search));
             
-            // 应用分页
-            PagedResult pagedResult = applyPagination(sortedElements, page, size);
-            
-            // 构建响应
-            Map<String, Object> response = new HashMap<>();
-            response.put("content", pagedResult.content);
-            response.put("page", page);
-            response.put("size", size);
-            response.put("totalElements", pagedResult.totalElements);
-            response.put("totalPages", pagedResult.totalPages);
-            response.put("first", page == 0);
-            response.put("last", page >= pagedResult.totalPages - 1);
-            
-            // 添加查询参数到响应中用于验证
-            if (sort != null && !sort.isEmpty()) {
-                response.put("sort", parseSortParameters(sort));
-            }
-            if (filter != null && !filter.isEmpty()) {
-                response.put("filter", parseFilterParameters(filter));
-            }
-            if (search != null) {
-                response.put("search", search);
-            }
-            
-            long resultCount = pagedResult.content.size();
-            log.info("高级查询完成: 返回{}个元素，总计{}个元素", resultCount, pagedResult.totalElements);
+            log.info("高级查询完成: 返回{}个元素，总计{}个元素", 
+                ((List<?>) response.get("content")).size(), response.get("totalElements"));
             
             return ResponseEntity.ok(response);
             
@@ -199,6 +172,51 @@ public class AdvancedQueryController {
         }
     }
     
+    /**
+     * 执行高级查询：过滤、搜索、排序、分页并构建响应
+     * 结果可能被多个并发请求共享，调用方不得修改
+     */
+    private Map<String, Object> computeAdvancedQuery(int page, int size, List<String> sort,
+                                                     List<String> filter, String search) {
+        // 获取所有元素
+        List<ElementDTO> allElements = universalElementService.getAllElements();
+        
+        // 应用过滤
+        List<ElementDTO> filteredElements = applyFilters(allElements, filter);
+        
+        // 应用搜索
+        List<ElementDTO> searchedElements = applySearch(filteredElements, search);
+        
+        // 应用排序
+        List<ElementDTO> sortedElements = applySort(searchedElements, sort);
+        
+        // 应用分页
+        PagedResult pagedResult = applyPagination(sortedElements, page, size);
+        
+        // 构建响应
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", pagedResult.content);
+        response.put("page", page);
+        response.put("size", size);
+        response.put("totalElements", pagedResult.totalElements);
+        response.put("totalPages", pagedResult.totalPages);
+        response.put("first", page == 0);
+        response.put("last", page >= pagedResult.totalPages - 1);
+        
+        // 添加查询参数到响应中用于验证
+        if (sort != null && !sort.isEmpty()) {
+            response.put("sort", parseSortParameters(sort));
+        }
+        if (filter != null && !filter.isEmpty()) {
+            response.put("filter", parseFilterParameters(filter));
+        }
+        if (search != null) {
+            response.put("search", search);
+        }
+        
+        return response;
+    }
+    
     /**
      * 验证查询参数
      */
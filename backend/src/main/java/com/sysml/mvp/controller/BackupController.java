@@ -0,0 +1,94 @@
+package com.sysml.mvp.controller;
+
+import com.sysml.mvp.dto.BackupSnapshotDTO;
+import com.sysml.mvp.service.BackupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 备份控制器 - 项目快照的创建、列出、按时间点恢复和垃圾回收
+ *
+ * - POST /api/v1/projects/{pid}/backups：创建快照
+ * - GET /api/v1/projects/{pid}/backups：列出快照
+ * - POST /api/v1/projects/{pid}/backups/restore?at=2024-01-01T00:00:00Z：恢复到该时间点及之前最近的快照，省略at时恢复最新快照
+ * - POST /api/v1/backups/gc：删除超出保留数量的快照和不再引用的块
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1")
+public class BackupController {
+
+    private final BackupService backupService;
+
+    public BackupController(BackupService backupService) {
+        this.backupService = backupService;
+    }
+
+    @PostMapping("/projects/{pid}/backups")
+    public ResponseEntity<?> createBackup(@PathVariable("pid") String projectId) {
+        try {
+            return ResponseEntity.status(201).body(backupService.backup(projectId));
+        } catch (IllegalArgumentException e) {
+            log.warn("备份项目失败: {}", e.getMessage());
+            return error(404, "Not Found", e.getMessage());
+        } catch (Exception e) {
+            log.error("备份项目异常", e);
+            return error(500, "Internal Server Error", "Failed to back up project");
+        }
+    }
+
+    @GetMapping("/projects/{pid}/backups")
+    public ResponseEntity<?> listBackups(@PathVariable("pid") String projectId) {
+        try {
+            return ResponseEntity.ok(backupService.listSnapshots(projectId));
+        } catch (IllegalArgumentException e) {
+            return error(400, "Bad Request", e.getMessage());
+        } catch (Exception e) {
+            log.error("列出备份异常", e);
+            return error(500, "Internal Server Error", "Failed to list backups");
+        }
+    }
+
+    @PostMapping("/projects/{pid}/backups/restore")
+    public ResponseEntity<?> restoreBackup(@PathVariable("pid") String projectId,
+                                           @RequestParam(value = "at", required = false) String at) {
+        try {
+            Instant pointInTime = at == null ? Instant.now() : Instant.parse(at);
+            BackupSnapshotDTO restored = backupService.restore(projectId, pointInTime);
+            if (restored == null) {
+                return error(404, "Not Found", "No backup of project " + projectId + " at or before " + pointInTime);
+            }
+            return ResponseEntity.ok(restored);
+        } catch (DateTimeParseException e) {
+            return error(400, "Bad Request", "Invalid point in time: " + at);
+        } catch (IllegalArgumentException e) {
+            return error(400, "Bad Request", e.getMessage());
+        } catch (Exception e) {
+            log.error("恢复项目异常", e);
+            return error(500, "Internal Server Error", "Failed to restore project");
+        }
+    }
+
+    @PostMapping("/backups/gc")
+    public ResponseEntity<?> collectGarbage() {
+        try {
+            return ResponseEntity.ok(backupService.collectGarbage());
+        } catch (Exception e) {
+            log.error("备份垃圾回收异常", e);
+            return error(500, "Internal Server Error", "Failed to collect backup garbage");
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(int status, String error, String message) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", error);
+        body.put("message", message);
+        return ResponseEntity.status(status).body(body);
+    }
+}
@@ -0,0 +1,48 @@
+package com.sysml.mvp.controller;
+
+import com.sysml.mvp.dto.BatchOperationDTO;
+import com.sysml.mvp.dto.BatchOperationResultDTO;
+import com.sysml.mvp.dto.BatchResultDTO;
+import com.sysml.mvp.service.BatchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 批量变更控制器
+ * 
+ * 需求实现：
+ * - REQ-B2-1/REQ-B2-4/REQ-B5-3: 一次请求提交一批创建/更新/删除操作 - POST /api/v1/batch
+ * 
+ * 设计说明：
+ * 1. 请求体为按顺序执行的操作列表，整批原子执行：全部生效或全部不生效
+ * 2. 整批只获取一次项目写锁、只持久化一次，吞吐量随批次大小而非请求次数增长
+ * 3. 提交成功返回200；被拒绝时返回首个失败操作的状态码（400/404/409/412），响应体中给出逐条结果
+ */
+@RestController
+@RequestMapping("/api/v1/batch")
+public class BatchController {
+    
+    private final BatchService batchService;
+    
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+    
+    /**
+     * 执行批量变更
+     * @param operations 操作列表
+     * @return 200 OK 和逐条结果，或首个失败操作的状态码和逐条结果
+     */
+    @PostMapping
+    public ResponseEntity<BatchResultDTO> executeBatch(@RequestBody List<BatchOperationDTO> operations) {
+        BatchResultDTO result = batchService.execute(operations);
+        if (result.isCommitted()) {
+            return ResponseEntity.ok(result);
+        }
+        BatchOperationResultDTO failure = result.getFirstFailure();
+        int status = failure != null ? failure.getStatus() : BatchOperationResultDTO.STATUS_FAILED_DEPENDENCY;
+        return ResponseEntity.status(status).body(result);
+    }
+}
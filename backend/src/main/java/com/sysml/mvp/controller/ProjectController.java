@@ -19,6 +19,7 @@ import java.util.Map;
  * - REQ-B3-1: 导出JSON项目文件 - GET /api/v1/projects/{pid}/export
  * - REQ-B3-2: 导入JSON项目文件 - POST /api/v1/projects/{pid}/import
  * - REQ-B3-3: 导入导出一致性保证 - ID稳定性和引用完整性
+ * - 存储格式切换 - PUT /api/v1/projects/{pid}/storage-format?format=binary
  */
 @Slf4j
 @RestController
@@ -113,4 +114,32 @@ public class ProjectController {
             return ResponseEntity.status(500).body(error);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 切换项目的磁盘存储格式
+     * @param projectId 项目ID
+     * @param format 目标格式：json/binary/segmented/indexed
+     * @return 切换前后的格式
+     */
+    @PutMapping("/{pid}/storage-format")
+    public ResponseEntity<?> convertStorageFormat(
+            @PathVariable("pid") String projectId,
+            @RequestParam("format") String format) {
+        try {
+            log.info("切换存储格式请求: {} -> {}", projectId, format);
+            return ResponseEntity.ok(projectService.convertStorageFormat(projectId, format));
+        } catch (IllegalArgumentException e) {
+            log.warn("切换存储格式失败: {}", e.getMessage());
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Bad Request");
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(400).body(error);
+        } catch (Exception e) {
+            log.error("切换存储格式异常", e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Internal Server Error");
+            error.put("message", "Failed to convert storage format");
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+}
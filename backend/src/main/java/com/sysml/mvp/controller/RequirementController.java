@@ -2,8 +2,10 @@ package com.sysml.mvp.controller;
 
 import com.sysml.mvp.dto.ElementDTO;
 import com.sysml.mvp.dto.RequirementDTO;
+import com.sysml.mvp.service.ElementVersionRegistry;
 import com.sysml.mvp.service.RequirementService;
 import com.sysml.mvp.mapper.ElementMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -20,8 +23,9 @@ import java.util.stream.Collectors;
  * - REQ-A1-1: 需求定义CRUD API - 完整的REST API端点
  * - REQ-C1-1: 创建需求定义 - POST /api/v1/requirements
  * - REQ-C1-2: 查询需求定义 - GET /api/v1/requirements
- * - REQ-C1-3: 更新需求定义 - PUT /api/v1/requirements/{id}
+ * - REQ-C1-3: 更新需求定义 - PUT /api/v1/requirements/{id}（支持If-Match乐观并发）
  * - REQ-C1-4: 参数化文本渲染 - POST /api/v1/requirements/{id}/render
+ * - REQ-C2-4: 引用查询 - GET /api/v1/requirements/{id}/references
  * - REQ-C2-1: 创建需求使用 - POST /api/v1/requirements/usages
  * - REQ-C2-2: 查询需求使用 - GET /api/v1/requirements/usages
  * 
@@ -37,10 +41,13 @@ public class RequirementController {
     
     private final RequirementService requirementService;
     private final ElementMapper elementMapper;
+    private final ElementVersionRegistry elementVersionRegistry;
     
-    public RequirementController(RequirementService requirementService, ElementMapper elementMapper) {
+    public RequirementController(RequirementService requirementService, ElementMapper elementMapper,
+                                 ElementVersionRegistry elementVersionRegistry) {
         this.requirementService = requirementService;
         this.elementMapper = elementMapper;
+        this.elementVersionRegistry = elementVersionRegistry;
     }
     
     /**
@@ -54,8 +61,9 @@ public class RequirementController {
             Map<String, Object> elementData = elementMapper.toElementData(requirementDto);
             ElementDTO createdElement = requirementService.createRequirement(elementData);
             RequirementDTO responseDto = elementMapper.toRequirementDTO(createdElement);
-            return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
-        } catch (IllegalArgumentException e) {
+            return withETag(ResponseEntity.status(HttpStatus.CREATED), createdElement).body(responseDto);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // reqId重复、elementId重复或节点数达到上限
             Map<String, Object> error = new HashMap<>();
             error.put("error", "Conflict");
             error.put("message", e.getMessage());
@@ -79,7 +87,7 @@ public class RequirementController {
     /**
      * 【REQ-C1-2】根据ID查询需求定义
      * @param id 需求定义ID
-     * @return 200 OK 和需求定义，或404 Not Found如果不存在
+     * @return 200 OK 和需求定义（ETag为元素版本），或404 Not Found如果不存在
      */
     @GetMapping("/{id}")
     public ResponseEntity<?> getRequirementById(@PathVariable String id) {
@@ -92,34 +100,63 @@ public class RequirementController {
         }
         
         RequirementDTO responseDto = elementMapper.toRequirementDTO(requirement);
-        return ResponseEntity.ok(responseDto);
+        return withETag(ResponseEntity.ok(), requirement).body(responseDto);
+    }
+    
+    /**
+     * 【REQ-C2-4】查询引用该需求的元素（where-used）
+     * @param id 需求ID
+     * @return 200 OK 和按特征分组的引用者ID
+     */
+    @GetMapping("/{id}/references")
+    public ResponseEntity<Map<String, Object>> getRequirementReferences(@PathVariable String id) {
+        Map<String, Set<String>> references = requirementService.getReferences(id);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("elementId", id);
+        response.put("references", references);
+        response.put("total", references.values().stream().mapToInt(Set::size).sum());
+        return ResponseEntity.ok(response);
     }
     
     /**
      * 【REQ-C1-3】更新需求定义
      * @param id 需求定义ID
      * @param requirementDto 更新数据
-     * @return 200 OK 和更新后的需求定义
+     * @param ifMatch 可选的If-Match请求头，版本不一致时返回412
+     * @return 200 OK 和更新后的需求定义，或409 Conflict如果新reqId已存在
      */
     @PutMapping("/{id}")
-    public ResponseEntity<RequirementDTO> updateRequirement(
+    public ResponseEntity<?> updateRequirement(
             @PathVariable String id, 
-            @RequestBody RequirementDTO requirementDto) {
-        Map<String, Object> updateData = elementMapper.toElementData(requirementDto);
-        ElementDTO updatedElement = requirementService.updateRequirement(id, updateData);
-        RequirementDTO responseDto = elementMapper.toRequirementDTO(updatedElement);
-        return ResponseEntity.ok(responseDto);
+            @RequestBody RequirementDTO requirementDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Map<String, Object> updateData = elementMapper.toElementData(requirementDto);
+            Long expectedVersion = elementVersionRegistry.parseIfMatch(ifMatch);
+            ElementDTO updatedElement = requirementService.updateRequirement(id, updateData, expectedVersion);
+            RequirementDTO responseDto = elementMapper.toRequirementDTO(updatedElement);
+            return withETag(ResponseEntity.ok(), updatedElement).body(responseDto);
+        } catch (IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Conflict");
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
     }
     
     /**
      * 【REQ-C1-3】删除需求定义
      * @param id 需求定义ID
+     * @param ifMatch 可选的If-Match请求头，版本不一致时返回412
      * @return 204 No Content，或409 Conflict如果被引用
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteRequirement(@PathVariable String id) {
+    public ResponseEntity<?> deleteRequirement(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            requirementService.deleteRequirement(id);
+            requirementService.deleteRequirement(id, elementVersionRegistry.parseIfMatch(ifMatch));
             return ResponseEntity.noContent().build();
         } catch (IllegalStateException e) {
             Map<String, Object> error = new HashMap<>();
@@ -155,7 +192,7 @@ public class RequirementController {
     /**
      * 【REQ-C2-1】创建需求使用
      * @param requirementDto 需求使用数据
-     * @return 201 Created 和创建的需求使用，或400 Bad Request如果缺少subject
+     * @return 201 Created 和创建的需求使用，400 Bad Request如果缺少subject，或409 Conflict如果elementId重复或节点数达到上限
      */
     @PostMapping("/usages")
     public ResponseEntity<?> createRequirementUsage(@RequestBody RequirementDTO requirementDto) {
@@ -169,6 +206,12 @@ public class RequirementController {
             error.put("error", "Bad Request");
             error.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (IllegalStateException e) {
+            // elementId重复或节点数达到上限
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Conflict");
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         }
     }
     
@@ -184,4 +227,17 @@ public class RequirementController {
             .collect(Collectors.toList());
         return ResponseEntity.ok(responseList);
     }
-}
\ No newline at end of file
+    
+    /**
+     * 以元素版本设置ETag响应头
+     */
+    private ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, ElementDTO element) {
+        if (element != null && element.getVersion() != null) {
+            String eTag = elementVersionRegistry.toETag(element.getVersion());
+            if (eTag != null) {
+                builder.eTag(eTag);
+            }
+        }
+        return builder;
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Map;
  * - REQ-C3-3: 追溯关系去重检测 - 409 Conflict响应
  * - REQ-C3-4: 追溯关系语义约束验证 - 400 Bad Request响应
  * - REQ-C3-5: 删除追溯关系 - DELETE /api/v1/traces/{id}
+ * - REQ-C3-3/REQ-C3-4: 批量验证追溯候选 - POST /api/v1/traces/validate/batch
  * 
  * 设计说明：
  * 1. 提供标准的REST API端点用于追溯关系管理
@@ -88,6 +89,12 @@ public class TraceController {
             error.put("error", "Bad Request");
             error.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (IllegalStateException e) {
+            // elementId重复或节点数达到上限
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Conflict");
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         }
     }
     
@@ -191,4 +198,27 @@ public class TraceController {
         
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    /**
+     * 【REQ-C3-3/REQ-C3-4】批量验证追溯候选
+     * 供导入工具一次性检查大量(source, target, type)三元组
+     * @param candidates 追溯候选列表
+     * @return 200 OK 和逐条验证结果
+     */
+    @PostMapping("/validate/batch")
+    public ResponseEntity<Map<String, Object>> validateTraceCandidates(@RequestBody List<TraceDTO> candidates) {
+        List<Map<String, Object>> results = validationService.validateTraceCandidates(candidates);
+        
+        long validCount = results.stream()
+            .filter(result -> Boolean.TRUE.equals(result.get("isValid")))
+            .count();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        response.put("total", results.size());
+        response.put("validCount", validCount);
+        response.put("invalidCount", results.size() - validCount);
+        
+        return ResponseEntity.ok(response);
+    }
+}
@@ -2,8 +2,11 @@ package com.sysml.mvp.controller;
 
 import com.sysml.mvp.dto.ElementDTO;
 import com.sysml.mvp.dto.ValidationResultDTO;
+import com.sysml.mvp.service.ValidationResultCache;
 import com.sysml.mvp.service.ValidationService;
 import com.sysml.mvp.service.UniversalElementService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,33 +32,61 @@ import java.util.Map;
  * 3. 提供追溯关系验证接口（重复性和语义约束）
  * 4. 提供综合验证接口，组合多种验证场景
  * 5. 标准HTTP状态码和JSON响应格式
+ * 6. 静态验证结果按模型版本缓存，支持ETag/If-None-Match条件请求
  */
 @RestController
 @RequestMapping("/api/v1/validation")
 public class ValidationController {
     
+    private static final String DEFAULT_PROJECT_ID = "default";
+    
     private final ValidationService validationService;
     private final UniversalElementService universalElementService;
+    private final ValidationResultCache validationResultCache;
     
-    public ValidationController(ValidationService validationService, UniversalElementService universalElementService) {
+    public ValidationController(ValidationService validationService, 
+                                UniversalElementService universalElementService,
+                                ValidationResultCache validationResultCache) {
         this.validationService = validationService;
         this.universalElementService = universalElementService;
+        this.validationResultCache = validationResultCache;
     }
     
     /**
      * 【REQ-E1-3】静态验证
      * 对整个模型执行3条核心验证规则
-     * @return 200 OK 和验证结果DTO
+     * 模型未变化时直接返回缓存结果；If-None-Match与当前ETag一致时返回304
+     * @param ifNoneMatch 客户端持有的ETag
+     * @return 200 OK 和验证结果DTO，或304 Not Modified
      */
     @PostMapping("/static")
-    public ResponseEntity<ValidationResultDTO> validateStatic() {
+    public ResponseEntity<ValidationResultDTO> validateStatic(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long modelVersion = universalElementService.getModelVersion();
+        
+        ValidationResultCache.Entry cached = validationResultCache.get(
+            DEFAULT_PROJECT_ID, modelVersion, ValidationService.RULE_SET_VERSION);
+        if (cached != null) {
+            if (cached.getETag().equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached.getETag()).build();
+            }
+            return ResponseEntity.ok().eTag(cached.getETag()).body(cached.getResult());
+        }
+        
         // 获取所有元素
         List<ElementDTO> allElements = universalElementService.getAllElements();
         
         // 执行静态验证
         ValidationResultDTO result = validationService.validateStatic(allElements);
         
-        return ResponseEntity.ok(result);
+        // 验证期间模型发生变化时，结果可能混合了两个版本，不缓存
+        if (universalElementService.getModelVersion() != modelVersion) {
+            return ResponseEntity.ok(result);
+        }
+        
+        ValidationResultCache.Entry entry = validationResultCache.put(
+            DEFAULT_PROJECT_ID, modelVersion, ValidationService.RULE_SET_VERSION, result);
+        return ResponseEntity.ok().eTag(entry.getETag()).body(result);
     }
     
     /**
@@ -209,7 +240,7 @@ public class ValidationController {
         brokenRef.put("severity", "ERROR");
         
         response.put("rules", java.util.Arrays.asList(dupReqId, cycleDeriveRefine, brokenRef));
-        response.put("version", "1.0");
+        response.put("version", ValidationService.RULE_SET_VERSION);
         response.put("totalRules", 3);
         
         return ResponseEntity.ok(response);
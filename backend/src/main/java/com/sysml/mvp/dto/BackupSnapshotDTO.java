@@ -0,0 +1,40 @@
+package com.sysml.mvp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 备份快照数据传输对象
+ *
+ * 设计说明：
+ * 1. 对应备份目录中的一个快照manifest，snapshotId按创建时间排序
+ * 2. newChunks/storedBytes为本次备份实际写入的块数和字节数（压缩后），其余块与之前的快照共享
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupSnapshotDTO {
+
+    private String snapshotId;
+
+    private String projectId;
+
+    /**
+     * 创建时间（ISO-8601）
+     */
+    private String createdAt;
+
+    private int fileCount;
+
+    /**
+     * 项目文件的原始总字节数
+     */
+    private long totalBytes;
+
+    private int chunkCount;
+
+    private int newChunks;
+
+    private long storedBytes;
+}
@@ -0,0 +1,74 @@
+package com.sysml.mvp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 批量变更操作数据传输对象
+ * 
+ * 需求实现：
+ * - REQ-B2-1: 创建API - op=create
+ * - REQ-B2-4: DTO选择性映射 - op=patch，PATCH语义
+ * - REQ-B5-3: 删除元素 - op=delete
+ * 
+ * 设计说明：
+ * 1. POST /api/v1/batch 请求体中的单个操作，按列表顺序执行
+ * 2. 后续操作可以引用同一批次中先前创建的元素
+ * 3. expectedVersion对应单个请求的If-Match，用于乐观并发校验
+ * 4. checkReferences由领域服务设置，不接受客户端传入
+ */
+@Data
+@NoArgsConstructor
+public class BatchOperationDTO {
+    
+    public static final String OP_CREATE = "create";
+    public static final String OP_PATCH = "patch";
+    public static final String OP_DELETE = "delete";
+    
+    /**
+     * 操作类型：create/patch/delete
+     */
+    private String op;
+    
+    /**
+     * 目标元素ID，三种操作均必填
+     */
+    private String elementId;
+    
+    /**
+     * 【REQ-B2-1】创建时的SysML类型名称（如RequirementDefinition）
+     * patch/delete忽略
+     */
+    private String eClass;
+    
+    /**
+     * 创建时的初始属性或patch时要更新的属性
+     */
+    private Map<String, Object> attributes = new HashMap<>();
+    
+    /**
+     * 期望的元素版本，null表示不校验
+     * patch/delete时有效
+     */
+    private Long expectedVersion;
+    
+    /**
+     * 是否在写锁内校验引用完整性（of/fromId/toId）：
+     * 创建时被引用元素必须存在，删除时不能仍被其他元素引用
+     */
+    @JsonIgnore
+    private boolean checkReferences;
+    
+    public BatchOperationDTO(String op, String elementId, String eClass,
+                             Map<String, Object> attributes, Long expectedVersion) {
+        this.op = op;
+        this.elementId = elementId;
+        this.eClass = eClass;
+        this.attributes = attributes;
+        this.expectedVersion = expectedVersion;
+    }
+}
@@ -0,0 +1,60 @@
+package com.sysml.mvp.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 批量变更中单个操作的结果
+ * 
+ * 设计说明：
+ * 1. status沿用单个请求的HTTP状态码语义：201创建、200更新、204删除、
+ *    400请求无效、404元素不存在、409冲突、412版本不一致
+ * 2. 批次因其他操作失败而整体回滚时，未出错的操作状态为424 Failed Dependency
+ * 3. element为批次提交后该元素的状态，删除操作为null
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationResultDTO {
+    
+    public static final int STATUS_FAILED_DEPENDENCY = 424;
+    
+    /**
+     * 操作在请求列表中的下标（从0开始）
+     */
+    private int index;
+    
+    /**
+     * 操作类型
+     */
+    private String op;
+    
+    /**
+     * 目标元素ID
+     */
+    private String elementId;
+    
+    /**
+     * 操作结果状态码
+     */
+    private int status;
+    
+    /**
+     * 提交后的元素，失败或删除时为null
+     */
+    private ElementDTO element;
+    
+    /**
+     * 失败原因，成功时为null
+     */
+    private String error;
+    
+    /**
+     * 便捷方法：操作是否成功
+     * @return true如果状态码为2xx
+     */
+    public boolean isSuccess() {
+        return status >= 200 && status < 300;
+    }
+}
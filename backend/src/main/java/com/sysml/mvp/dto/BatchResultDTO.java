@@ -0,0 +1,51 @@
+package com.sysml.mvp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量变更结果数据传输对象
+ * 
+ * 设计说明：
+ * 1. 批次原子执行：committed=true时全部操作已生效并一次持久化，false时没有任何操作生效
+ * 2. results与请求中的操作一一对应，顺序一致
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDTO {
+    
+    /**
+     * 批次是否已提交
+     */
+    private boolean committed;
+    
+    /**
+     * 提交后的模型版本号，未提交时为执行前的版本
+     */
+    private long modelVersion;
+    
+    /**
+     * 各操作结果
+     */
+    private List<BatchOperationResultDTO> results = new ArrayList<>();
+    
+    /**
+     * 便捷方法：获取第一个失败的操作
+     * @return 失败操作结果，全部成功时返回null
+     */
+    @JsonIgnore
+    public BatchOperationResultDTO getFirstFailure() {
+        for (BatchOperationResultDTO result : results) {
+            if (!result.isSuccess() && result.getStatus() != BatchOperationResultDTO.STATUS_FAILED_DEPENDENCY) {
+                return result;
+            }
+        }
+        return null;
+    }
+}
@@ -52,6 +52,12 @@ public class ElementDTO {
      */
     private Map<String, Object> properties = new HashMap<>();
     
+    /**
+     * 元素版本号（乐观并发控制）
+     * 每次更新递增，同时以ETag形式返回，更新/删除时通过If-Match校验
+     */
+    private Long version;
+    
     /**
      * 设置动态属性
      * @param key 属性名
@@ -119,6 +119,12 @@ public class RequirementDTO {
      */
     private String updatedAt;
     
+    /**
+     * 元素版本号
+     * 由服务器维护，每次更新递增，对应响应头ETag
+     */
+    private Long version;
+    
     /**
      * 便捷方法：检查是否为活跃状态
      * @return true如果状态为active
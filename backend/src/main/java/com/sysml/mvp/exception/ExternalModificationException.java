@@ -0,0 +1,20 @@
+package com.sysml.mvp.exception;
+
+/**
+ * 项目文件被外部修改异常
+ * 保存时发现磁盘上的模型已不是本进程加载或提交的版本（其他实例、同步任务写入）时抛出，映射为409 Conflict；
+ * 本次修改不落盘，项目缓存已清除，重试时基于新模型执行
+ */
+public class ExternalModificationException extends IllegalStateException {
+    
+    private final String projectId;
+    
+    public ExternalModificationException(String projectId) {
+        super(String.format("Project %s has been modified externally, retry against the current model", projectId));
+        this.projectId = projectId;
+    }
+    
+    public String getProjectId() {
+        return projectId;
+    }
+}
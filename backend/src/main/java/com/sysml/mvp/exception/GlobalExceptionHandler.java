@@ -31,6 +31,33 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
     
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleVersionConflict(VersionConflictException ex) {
+        log.warn("版本冲突: {}", ex.getMessage());
+        
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Precondition Failed");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("elementId", ex.getElementId());
+        errorResponse.put("currentVersion", ex.getCurrentVersion());
+        errorResponse.put("status", 412);
+        
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
+    }
+    
+    @ExceptionHandler(ExternalModificationException.class)
+    public ResponseEntity<Map<String, Object>> handleExternalModification(ExternalModificationException ex) {
+        log.warn("项目文件被外部修改: {}", ex.getMessage());
+        
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Conflict");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("projectId", ex.getProjectId());
+        errorResponse.put("status", 409);
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         log.warn("参数验证失败: {}", ex.getMessage());
@@ -0,0 +1,25 @@
+package com.sysml.mvp.exception;
+
+/**
+ * 元素版本冲突异常
+ * If-Match指定的版本与元素当前版本不一致时抛出，映射为412 Precondition Failed
+ */
+public class VersionConflictException extends RuntimeException {
+    
+    private final String elementId;
+    private final long currentVersion;
+    
+    public VersionConflictException(String elementId, long currentVersion) {
+        super(String.format("Element %s has been modified (current version %d)", elementId, currentVersion));
+        this.elementId = elementId;
+        this.currentVersion = currentVersion;
+    }
+    
+    public String getElementId() {
+        return elementId;
+    }
+    
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -150,6 +150,7 @@ public class ElementMapper {
         
         // 基本字段
         reqDto.setElementId(elementDto.getElementId());
+        reqDto.setVersion(elementDto.getVersion());
         
         // 从properties Map中提取需求特定字段
         if (elementDto.getProperties() != null) {
@@ -0,0 +1,170 @@
+package com.sysml.mvp.model;
+
+import com.sysml.mvp.config.TraceSemanticsProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EPackage;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 追溯语义类型兼容矩阵
+ * 
+ * 需求实现：
+ * - REQ-C3-4: 追溯语义约束 - 启动时把规则表编译为EClass序号上的位矩阵
+ * 
+ * 设计说明：
+ * 1. 为Pilot元模型中每个EClass分配序号，规则中的基类型沿完整父类型闭包展开，
+ *    子类型自动获得父类型的许可
+ * 2. 每种追溯类型对应源端、目标端两行位图；一次检查只需两次序号查找和两次位测试
+ * 3. 规则中出现但元模型中不存在的类型名也分配序号（仅匹配自身），
+ *    元模型不可用时退化为按名称精确匹配
+ * 4. 编译结果不可变，可被并发读取
+ */
+@Slf4j
+@Component
+public class TraceSemanticsMatrix {
+    
+    private final Map<String, Integer> ordinalByEClass;
+    private final Map<String, Integer> rowByType;
+    private final int words;
+    private final long[] sourceBits;
+    private final long[] targetBits;
+    private final boolean[] anySource;
+    private final boolean[] anyTarget;
+    
+    public TraceSemanticsMatrix(EMFModelRegistry modelRegistry, TraceSemanticsProperties properties) {
+        this(modelRegistry.getSysMLPackage(), properties.getRules());
+    }
+    
+    /**
+     * 按给定元模型和规则表编译矩阵
+     * @param sysmlPackage SysML EPackage，可为null（仅按名称匹配）
+     * @param rules 追溯类型 → 规则
+     */
+    public TraceSemanticsMatrix(EPackage sysmlPackage, Map<String, TraceSemanticsProperties.Rule> rules) {
+        // 1. 分配EClass序号
+        List<EClass> eClasses = new ArrayList<>();
+        Map<String, Integer> ordinals = new HashMap<>();
+        if (sysmlPackage != null) {
+            for (EClassifier classifier : sysmlPackage.getEClassifiers()) {
+                if (classifier instanceof EClass eClass) {
+                    ordinals.put(eClass.getName(), eClasses.size());
+                    eClasses.add(eClass);
+                }
+            }
+        }
+        int metamodelCount = eClasses.size();
+        for (TraceSemanticsProperties.Rule rule : rules.values()) {
+            for (String name : concat(rule.getSources(), rule.getTargets())) {
+                if (!TraceSemanticsProperties.ANY.equals(name) && !ordinals.containsKey(name)) {
+                    ordinals.put(name, ordinals.size());
+                }
+            }
+        }
+        
+        // 2. 分配追溯类型行号并展开父类型闭包
+        int rows = rules.size();
+        this.words = Math.max(1, (ordinals.size() + 63) >>> 6);
+        this.sourceBits = new long[rows * words];
+        this.targetBits = new long[rows * words];
+        this.anySource = new boolean[rows];
+        this.anyTarget = new boolean[rows];
+        
+        Map<String, Integer> rowIndex = new HashMap<>();
+        for (Map.Entry<String, TraceSemanticsProperties.Rule> entry : rules.entrySet()) {
+            int row = rowIndex.size();
+            rowIndex.put(entry.getKey(), row);
+            anySource[row] = fill(sourceBits, row, entry.getValue().getSources(), eClasses, metamodelCount, ordinals);
+            anyTarget[row] = fill(targetBits, row, entry.getValue().getTargets(), eClasses, metamodelCount, ordinals);
+        }
+        
+        this.ordinalByEClass = Collections.unmodifiableMap(ordinals);
+        this.rowByType = Collections.unmodifiableMap(rowIndex);
+        
+        log.info("追溯语义矩阵编译完成: {}种追溯类型, {}个EClass", rows, ordinals.size());
+    }
+    
+    /**
+     * 【REQ-C3-4】检查追溯关系语义是否允许
+     * @param type 追溯类型（derive/satisfy/refine/trace）
+     * @param sourceEClass 源端EClass名称
+     * @param targetEClass 目标端EClass名称
+     * @return true如果规则允许；未知追溯类型返回false
+     */
+    public boolean isAllowed(String type, String sourceEClass, String targetEClass) {
+        Integer row = rowByType.get(type);
+        if (row == null) {
+            return false;
+        }
+        return test(sourceBits, anySource, row, sourceEClass) 
+            && test(targetBits, anyTarget, row, targetEClass);
+    }
+    
+    /**
+     * 是否配置了该追溯类型的规则
+     */
+    public boolean supportsType(String type) {
+        return rowByType.containsKey(type);
+    }
+    
+    private boolean test(long[] bits, boolean[] any, int row, String eClassName) {
+        if (any[row]) {
+            return true;
+        }
+        Integer ordinal = eClassName != null ? ordinalByEClass.get(eClassName) : null;
+        if (ordinal == null) {
+            return false;
+        }
+        return (bits[row * words + (ordinal >>> 6)] & (1L << ordinal)) != 0;
+    }
+    
+    /**
+     * 设置一行位图，返回该行是否为通配
+     */
+    private boolean fill(long[] bits, int row, List<String> allowed, List<EClass> eClasses, 
+                         int metamodelCount, Map<String, Integer> ordinals) {
+        if (allowed.contains(TraceSemanticsProperties.ANY)) {
+            return true;
+        }
+        Set<String> allowedNames = new HashSet<>(allowed);
+        
+        // 元模型中的EClass：自身或任一父类型被允许即置位
+        for (int ordinal = 0; ordinal < metamodelCount; ordinal++) {
+            EClass eClass = eClasses.get(ordinal);
+            boolean match = allowedNames.contains(eClass.getName());
+            if (!match) {
+                for (EClass superType : eClass.getEAllSuperTypes()) {
+                    if (allowedNames.contains(superType.getName())) {
+                        match = true;
+                        break;
+                    }
+                }
+            }
+            if (match) {
+                set(bits, row, ordinal);
+            }
+        }
+        
+        // 元模型之外的类型名：仅匹配自身
+        for (String name : allowed) {
+            int ordinal = ordinals.get(name);
+            if (ordinal >= metamodelCount) {
+                set(bits, row, ordinal);
+            }
+        }
+        return false;
+    }
+    
+    private void set(long[] bits, int row, int ordinal) {
+        bits[row * words + (ordinal >>> 6)] |= 1L << ordinal;
+    }
+    
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+}
@@ -0,0 +1,147 @@
+package com.sysml.mvp.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 崩溃安全的文件写入
+ *
+ * 设计说明：
+ * 1. 内容先写入同目录下的"文件名.tmp"并fsync，再以原子重命名替换目标文件，最后fsync所在目录使重命名持久化；
+ *    任意时刻崩溃，目标文件要么是旧内容要么是完整的新内容
+ * 2. 写临时文件与提交分为两步（writeTemp/commit），多个文件可以先全部落盘，再按约定顺序依次提交
+ * 3. 写入时同步计算SHA-256，调用方据此把相关文件关联起来（如metadata.json记录模型文件摘要）
+ * 4. 调用方负责同一目标的写入互斥（项目文件锁），临时文件名固定，遗留的临时文件由恢复流程清理
+ */
+@Slf4j
+public final class AtomicFiles {
+
+    public static final String TEMP_SUFFIX = ".tmp";
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * 内容写出回调（流由AtomicFiles负责关闭，回调中关闭也无影响）
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 目标文件对应的临时文件
+     */
+    public static Path tempPathFor(Path target) {
+        return target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+    }
+
+    /**
+     * 写入临时文件、提交并fsync目录
+     * @return 内容的SHA-256（十六进制）
+     */
+    public static String write(Path target, ContentWriter writer) throws IOException {
+        String checksum = writeTemp(target, writer);
+        commit(target);
+        fsyncDirectory(target.getParent());
+        return checksum;
+    }
+
+    /**
+     * 写入临时文件并fsync，不替换目标文件
+     * @return 内容的SHA-256（十六进制）
+     */
+    public static String writeTemp(Path target, ContentWriter writer) throws IOException {
+        Path temp = tempPathFor(target);
+        MessageDigest digest = sha256Digest();
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(
+                new DigestOutputStream(new NonClosingOutputStream(Channels.newOutputStream(channel)), digest),
+                64 * 1024);
+            writer.writeTo(out);
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 以原子重命名用临时文件替换目标文件（不fsync目录，调用方提交完一组文件后统一fsync）
+     */
+    public static void commit(Path target) throws IOException {
+        Files.move(tempPathFor(target), target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 将已写出的文件内容刷到磁盘
+     */
+    public static void fsync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * fsync目录，使其中的创建、重命名和删除持久化
+     * 不支持以通道打开目录的平台（如Windows）上忽略
+     */
+    public static void fsyncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException | UnsupportedOperationException e) {
+            log.debug("当前平台不支持fsync目录: {}", directory);
+        }
+    }
+
+    /**
+     * 计算文件内容的SHA-256（十六进制）
+     */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest = sha256Digest();
+        try (InputStream in = new DigestInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 64 * 1024), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 关闭时只刷新，通道由writeTemp在fsync后关闭
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
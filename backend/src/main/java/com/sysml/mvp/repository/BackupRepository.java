@@ -0,0 +1,445 @@
+package com.sysml.mvp.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sysml.mvp.dto.BackupSnapshotDTO;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 内容寻址的增量备份仓库（app.data.backup-path）
+ *
+ * 目录结构：
+ * - chunks/ab/abcd...：按SHA-256寻址的数据块（GZIP压缩），所有项目、所有快照共享
+ * - manifests/{projectId}/{snapshotId}.json：快照清单，记录每个项目文件的大小、摘要和块列表
+ *
+ * 设计说明：
+ * 1. 备份时持有项目文件锁读取项目目录下的全部文件（跳过临时文件和锁文件），看到的总是已提交的状态；
+ *    文件按内容切块（ContentDefinedChunker），已存在的块直接复用，大模型的小改动只写入变化的块
+ * 2. 块先于清单落盘，清单最后以原子替换写入，清单存在即表示快照完整
+ * 3. 恢复到指定时间点：取该时间及之前最近的快照，各文件由块重组到临时文件并校验摘要，
+ *    按提交协议的顺序（模型文件、提交标记、metadata.json）依次原子替换，再删除快照中没有的文件
+ * 4. 垃圾回收：每个项目保留最近retain-snapshots个快照，删除其余清单后清除不再被任何清单引用的块
+ * 5. 备份、恢复和垃圾回收经备份目录的文件锁互斥（跨进程）；锁顺序为先备份目录、后项目目录
+ */
+@Slf4j
+@Repository
+public class BackupRepository {
+
+    private static final String CHUNKS_DIR = "chunks";
+    private static final String MANIFESTS_DIR = "manifests";
+    private static final String MANIFEST_SUFFIX = ".json";
+    private static final Pattern PROJECT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+    private static final DateTimeFormatter SNAPSHOT_ID =
+        DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    /**
+     * 块压缩级别：模型文本重复度高，级别1已有约10倍压缩比，CPU开销最小（见ModelCompressionBenchmarkTest）
+     */
+    private static final int CHUNK_COMPRESSION_LEVEL = 1;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Value("${app.data.backup-path:./data/backups}")
+    private String backupRoot;
+
+    @Value("${app.data.backup.retain-snapshots:30}")
+    private int retainSnapshots = 30;
+
+    @Value("${app.file-lock.retry-count:3}")
+    private int lockRetryCount = 3;
+
+    @Value("${app.file-lock.retry-delay-ms:100}")
+    private long lockRetryDelayMs = 100;
+
+    private final FileModelRepository fileModelRepository;
+
+    public BackupRepository(FileModelRepository fileModelRepository) {
+        this.fileModelRepository = fileModelRepository;
+    }
+
+    // 允许测试时设置备份目录和保留数量
+    public void setBackupRoot(String backupRoot) {
+        this.backupRoot = backupRoot;
+    }
+
+    public void setRetainSnapshots(int retainSnapshots) {
+        this.retainSnapshots = retainSnapshots;
+    }
+
+    /**
+     * 垃圾回收结果
+     */
+    public record GarbageCollection(int deletedSnapshots, int deletedChunks, long reclaimedBytes, int liveChunks) {
+    }
+
+    /**
+     * 为项目创建快照
+     * @return 新快照
+     * @throws IllegalArgumentException 项目ID非法或项目不存在
+     */
+    public BackupSnapshotDTO backup(String projectId) throws IOException {
+        Path projectDir = projectDirectory(projectId);
+        if (!Files.isDirectory(projectDir)) {
+            throw new IllegalArgumentException("Project not found: " + projectId);
+        }
+        try (ProjectFileLock storeLock = lockStore();
+             ProjectFileLock projectLock = ProjectFileLock.acquire(projectDir, lockRetryCount, lockRetryDelayMs)) {
+            Instant createdAt = Instant.now();
+            Manifest manifest = new Manifest();
+            manifest.setProjectId(projectId);
+            manifest.setCreatedAt(createdAt.toString());
+            for (Path file : projectFiles(projectDir)) {
+                manifest.getFiles().add(storeFile(projectDir, file, manifest));
+            }
+
+            Path manifestDir = manifestDirectory(projectId);
+            Files.createDirectories(manifestDir);
+            String snapshotId = nextSnapshotId(manifestDir, createdAt);
+            manifest.setSnapshotId(snapshotId);
+            AtomicFiles.write(manifestDir.resolve(snapshotId + MANIFEST_SUFFIX), out -> MAPPER.writeValue(out, manifest));
+
+            BackupSnapshotDTO snapshot = toDTO(manifest);
+            log.info("备份项目: {} -> {}, {}个块中新写入{}个（{}KB）", projectId, snapshotId,
+                snapshot.getChunkCount(), snapshot.getNewChunks(), snapshot.getStoredBytes() / 1024);
+            return snapshot;
+        }
+    }
+
+    /**
+     * 列出项目的全部快照，按创建时间从旧到新
+     */
+    public List<BackupSnapshotDTO> listSnapshots(String projectId) throws IOException {
+        List<BackupSnapshotDTO> snapshots = new ArrayList<>();
+        for (Path file : manifestFiles(projectId)) {
+            snapshots.add(toDTO(readManifest(file)));
+        }
+        return snapshots;
+    }
+
+    /**
+     * 把项目恢复到指定时间点
+     * 调用方负责清除项目缓存和派生数据
+     * @param pointInTime 取该时间及之前最近的快照
+     * @return 恢复所用的快照，没有符合条件的快照时返回null
+     */
+    public BackupSnapshotDTO restore(String projectId, Instant pointInTime) throws IOException {
+        try (ProjectFileLock storeLock = lockStore()) {
+            Manifest manifest = null;
+            for (Path file : manifestFiles(projectId)) {
+                Manifest candidate = readManifest(file);
+                if (!Instant.parse(candidate.getCreatedAt()).isAfter(pointInTime)) {
+                    manifest = candidate;
+                }
+            }
+            if (manifest == null) {
+                return null;
+            }
+
+            Path projectDir = projectDirectory(projectId);
+            Files.createDirectories(projectDir);
+            try (ProjectFileLock projectLock = ProjectFileLock.acquire(projectDir, lockRetryCount, lockRetryDelayMs)) {
+                List<FileEntry> files = new ArrayList<>(manifest.getFiles());
+                files.sort(Comparator.comparingInt(entry -> commitRank(projectDir, entry)));
+                for (FileEntry entry : files) {
+                    restoreTemp(projectDir, entry);
+                }
+                for (FileEntry entry : files) {
+                    Path target = resolve(projectDir, entry.getPath());
+                    AtomicFiles.commit(target);
+                    AtomicFiles.fsyncDirectory(target.getParent());
+                }
+                deleteOtherFiles(projectDir, files.stream().map(FileEntry::getPath).collect(Collectors.toSet()));
+            }
+            log.info("恢复项目: {} <- {}", projectId, manifest.getSnapshotId());
+            return toDTO(manifest);
+        }
+    }
+
+    /**
+     * 按保留数量删除旧快照，并清除不再被引用的块
+     */
+    public GarbageCollection collectGarbage() throws IOException {
+        try (ProjectFileLock storeLock = lockStore()) {
+            int deletedSnapshots = 0;
+            Set<String> live = new HashSet<>();
+            Path manifestsRoot = root().resolve(MANIFESTS_DIR);
+            List<Path> projectDirs = Files.isDirectory(manifestsRoot) ? list(manifestsRoot) : List.of();
+            for (Path projectManifests : projectDirs) {
+                List<Path> manifests = manifestFiles(projectManifests.getFileName().toString());
+                int excess = Math.max(0, manifests.size() - Math.max(1, retainSnapshots));
+                for (int i = 0; i < manifests.size(); i++) {
+                    if (i < excess) {
+                        Files.delete(manifests.get(i));
+                        deletedSnapshots++;
+                    } else {
+                        readManifest(manifests.get(i)).getFiles().forEach(entry -> live.addAll(entry.getChunks()));
+                    }
+                }
+            }
+
+            int deletedChunks = 0;
+            long reclaimedBytes = 0;
+            Path chunksRoot = root().resolve(CHUNKS_DIR);
+            if (Files.isDirectory(chunksRoot)) {
+                try (Stream<Path> chunks = Files.walk(chunksRoot)) {
+                    for (Path chunk : chunks.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                        if (!live.contains(chunk.getFileName().toString())) {
+                            reclaimedBytes += Files.size(chunk);
+                            Files.delete(chunk);
+                            deletedChunks++;
+                        }
+                    }
+                }
+            }
+            log.info("备份垃圾回收: 删除{}个快照、{}个块（{}KB），保留{}个块",
+                deletedSnapshots, deletedChunks, reclaimedBytes / 1024, live.size());
+            return new GarbageCollection(deletedSnapshots, deletedChunks, reclaimedBytes, live.size());
+        }
+    }
+
+    // ==================== 备份 ====================
+
+    /**
+     * 切块写入文件内容，返回清单条目
+     */
+    private FileEntry storeFile(Path projectDir, Path file, Manifest manifest) throws IOException {
+        FileEntry entry = new FileEntry();
+        entry.setPath(projectDir.relativize(file).toString().replace('\\', '/'));
+        MessageDigest fileDigest = sha256();
+        MessageDigest chunkDigest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            ContentDefinedChunker.split(in, (buffer, length) -> {
+                fileDigest.update(buffer, 0, length);
+                chunkDigest.update(buffer, 0, length);
+                String hash = HexFormat.of().formatHex(chunkDigest.digest());
+                Path chunkPath = chunkPath(hash);
+                if (!Files.exists(chunkPath)) {
+                    Files.createDirectories(chunkPath.getParent());
+                    AtomicFiles.write(chunkPath,
+                        out -> ModelCompression.write(out, CHUNK_COMPRESSION_LEVEL, compressed -> compressed.write(buffer, 0, length)));
+                    manifest.setNewChunks(manifest.getNewChunks() + 1);
+                    manifest.setStoredBytes(manifest.getStoredBytes() + Files.size(chunkPath));
+                }
+                entry.getChunks().add(hash);
+                entry.setSize(entry.getSize() + length);
+            });
+        }
+        entry.setSha256(HexFormat.of().formatHex(fileDigest.digest()));
+        return entry;
+    }
+
+    private static List<Path> projectFiles(Path projectDir) throws IOException {
+        try (Stream<Path> files = Files.walk(projectDir)) {
+            return files
+                .filter(Files::isRegularFile)
+                .filter(file -> !FileModelRepository.isTransientFile(file))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    // ==================== 恢复 ====================
+
+    /**
+     * 由块重组出临时文件并校验摘要
+     */
+    private void restoreTemp(Path projectDir, FileEntry entry) throws IOException {
+        Path target = resolve(projectDir, entry.getPath());
+        Files.createDirectories(target.getParent());
+        String checksum = AtomicFiles.writeTemp(target, out -> copyChunks(entry, out));
+        if (!checksum.equals(entry.getSha256())) {
+            Files.deleteIfExists(AtomicFiles.tempPathFor(target));
+            throw new IOException("Backup chunks do not match recorded checksum: " + entry.getPath());
+        }
+    }
+
+    private void copyChunks(FileEntry entry, OutputStream out) throws IOException {
+        for (String hash : entry.getChunks()) {
+            Path chunkPath = chunkPath(hash);
+            if (!Files.exists(chunkPath)) {
+                throw new IOException("Backup chunk missing: " + hash);
+            }
+            try (InputStream in = ModelCompression.decoding(Files.newInputStream(chunkPath))) {
+                in.transferTo(out);
+            }
+        }
+    }
+
+    /**
+     * 提交顺序：普通文件、提交标记（分段manifest、偏移索引），最后metadata.json
+     */
+    private static int commitRank(Path projectDir, FileEntry entry) {
+        Path path = resolve(projectDir, entry.getPath());
+        if (path.equals(projectDir.resolve(FileModelRepository.METADATA_FILE))) {
+            return 2;
+        }
+        boolean segmentManifest = path.getFileName().toString().equals(SegmentedModelResource.MANIFEST)
+            && path.getParent().getFileName().toString().equals(StorageFormat.SEGMENTED.getFileName());
+        boolean offsetIndex = path.equals(
+            IndexedModelFile.indexPathFor(projectDir.resolve(StorageFormat.INDEXED.getFileName())));
+        return segmentManifest || offsetIndex ? 1 : 0;
+    }
+
+    /**
+     * 删除快照中没有的文件（如恢复到切换格式之前）和因此变空的目录
+     */
+    private static void deleteOtherFiles(Path projectDir, Set<String> keep) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(projectDir)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            if (path.equals(projectDir) || FileModelRepository.isTransientFile(path)) {
+                continue;
+            }
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> children = Files.list(path)) {
+                    if (children.findAny().isEmpty()) {
+                        Files.delete(path);
+                    }
+                }
+            } else if (!keep.contains(projectDir.relativize(path).toString().replace('\\', '/'))) {
+                Files.delete(path);
+            }
+        }
+        AtomicFiles.fsyncDirectory(projectDir);
+    }
+
+    private static Path resolve(Path projectDir, String relativePath) {
+        Path path = projectDir.resolve(relativePath).normalize();
+        if (!path.startsWith(projectDir)) {
+            throw new IllegalArgumentException("Invalid path in backup manifest: " + relativePath);
+        }
+        return path;
+    }
+
+    // ==================== 存储布局 ====================
+
+    private Path root() {
+        return Paths.get(backupRoot).toAbsolutePath().normalize();
+    }
+
+    private ProjectFileLock lockStore() throws IOException {
+        Files.createDirectories(root());
+        return ProjectFileLock.acquire(root(), lockRetryCount, lockRetryDelayMs);
+    }
+
+    private Path projectDirectory(String projectId) {
+        return fileModelRepository.getProjectDirectory(validProjectId(projectId)).toAbsolutePath().normalize();
+    }
+
+    private Path manifestDirectory(String projectId) {
+        return root().resolve(MANIFESTS_DIR).resolve(validProjectId(projectId));
+    }
+
+    private Path chunkPath(String hash) {
+        return root().resolve(CHUNKS_DIR).resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * 快照清单文件，按snapshotId（即创建时间）排序
+     * 按去掉扩展名的ID比较：同一毫秒的后续快照（….SSSZ.0002）排在首个快照（….SSSZ）之后
+     */
+    private List<Path> manifestFiles(String projectId) throws IOException {
+        Path dir = manifestDirectory(projectId);
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        return list(dir).stream()
+            .filter(path -> path.getFileName().toString().endsWith(MANIFEST_SUFFIX))
+            .sorted(Comparator.comparing(BackupRepository::snapshotIdOf))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 新快照的ID：创建时间（毫秒）；同一毫秒已有快照时追加4位补零的序号，ID的字典序与创建顺序一致
+     */
+    static String nextSnapshotId(Path manifestDir, Instant createdAt) {
+        String base = SNAPSHOT_ID.format(createdAt);
+        String snapshotId = base;
+        for (int sequence = 2; Files.exists(manifestDir.resolve(snapshotId + MANIFEST_SUFFIX)); sequence++) {
+            snapshotId = String.format("%s.%04d", base, sequence);
+        }
+        return snapshotId;
+    }
+
+    private static String snapshotIdOf(Path manifestFile) {
+        String name = manifestFile.getFileName().toString();
+        return name.substring(0, name.length() - MANIFEST_SUFFIX.length());
+    }
+
+    private static List<Path> list(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.list(dir)) {
+            return paths.filter(path -> !FileModelRepository.isTransientFile(path)).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static String validProjectId(String projectId) {
+        if (projectId == null || !PROJECT_ID.matcher(projectId).matches()) {
+            throw new IllegalArgumentException("Invalid project id: " + projectId);
+        }
+        return projectId;
+    }
+
+    private static Manifest readManifest(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), Manifest.class);
+    }
+
+    private static BackupSnapshotDTO toDTO(Manifest manifest) {
+        return new BackupSnapshotDTO(manifest.getSnapshotId(), manifest.getProjectId(), manifest.getCreatedAt(),
+            manifest.getFiles().size(),
+            manifest.getFiles().stream().mapToLong(FileEntry::getSize).sum(),
+            manifest.getFiles().stream().mapToInt(entry -> entry.getChunks().size()).sum(),
+            manifest.getNewChunks(), manifest.getStoredBytes());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 快照清单
+     */
+    @Data
+    static class Manifest {
+        private String snapshotId;
+        private String projectId;
+        private String createdAt;
+        private int newChunks;
+        private long storedBytes;
+        private List<FileEntry> files = new ArrayList<>();
+    }
+
+    /**
+     * 清单中的一个项目文件
+     */
+    @Data
+    static class FileEntry {
+        private String path;
+        private long size;
+        private String sha256;
+        private List<String> chunks = new ArrayList<>();
+    }
+}
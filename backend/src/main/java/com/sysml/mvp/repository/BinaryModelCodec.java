@@ -0,0 +1,714 @@
+package com.sysml.mvp.repository;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.FeatureMap;
+import org.eclipse.emf.ecore.util.InternalEList;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 模型二进制编解码器
+ *
+ * 文件结构（整数均为LEB128变长编码，有符号整数先做zigzag）：
+ * <pre>
+ * "SYMB" 版本号
+ * 字符串表：数量，每项 UTF-8字节数 + 字节
+ * 类表：数量，每项 nsURI串号 类名串号 特征数 (特征名串号 值类型 是否多值)*
+ * 对象总数
+ * 根对象数，对象记录*
+ * 对象记录：类号 (特征号+1 值)* 0
+ * </pre>
+ *
+ * 设计说明：
+ * 1. 每个EClass的特征计划（可序列化特征的名称和值类型）只在类表中写一次，对象记录只写特征序号；
+ *    加载时按名称映射到当前元模型，元模型删除的特征按值类型跳过，不影响其余内容
+ * 2. 字符串全部进入去重的字符串表，对象记录中只写串号
+ * 3. 包含关系内联为嵌套记录；非包含引用写对象序号（先序遍历编号），加载完全部对象后统一解析，
+ *    资源外的引用写为代理URI
+ * 4. 跳过transient、derived和容器引用；值为null的非字符串单值特征视为未设置
+ * 5. 记录模式（RecordWriter/RecordReader）：每个根对象单独成记录、字符串内联，
+ *    可按偏移量单独解码，供IndexedModelFile按需加载
+ */
+public final class BinaryModelCodec {
+
+    static final byte[] MAGIC = {'S', 'Y', 'M', 'B'};
+    static final int FORMAT_VERSION = 1;
+
+    // 值类型
+    static final int KIND_STRING = 0;
+    static final int KIND_INTEGER = 1;
+    static final int KIND_BOOLEAN = 2;
+    static final int KIND_DOUBLE = 3;
+    static final int KIND_FLOAT = 4;
+    static final int KIND_DATE = 5;
+    static final int KIND_DATA = 6;
+    static final int KIND_CONTAINMENT = 7;
+    static final int KIND_REFERENCE = 8;
+
+    // 非包含引用的标记：0为null，1为资源外代理，≥2为对象序号+2
+    private static final int REF_NULL = 0;
+    private static final int REF_EXTERNAL = 1;
+    private static final int REF_LOCAL_BASE = 2;
+
+    private BinaryModelCodec() {
+    }
+
+    /**
+     * 编码根对象及其包含的全部对象
+     * @param roots 资源根对象
+     * @param out 输出流（不关闭）
+     */
+    public static void write(List<EObject> roots, OutputStream out) throws IOException {
+        new Writer().write(roots, out);
+    }
+
+    /**
+     * 解码为根对象列表
+     * @param in 输入流（不关闭）
+     * @param packageRegistry 按nsURI查找EPackage
+     * @return 根对象
+     * @throws IOException 如果格式不正确或引用了未注册的EClass
+     */
+    public static List<EObject> read(InputStream in, EPackage.Registry packageRegistry) throws IOException {
+        return new Reader(packageRegistry).read(in);
+    }
+
+    /**
+     * 确定特征的值类型，不支持序列化的特征返回-1
+     */
+    static int kindOf(EStructuralFeature feature) {
+        if (feature.isTransient() || feature.isDerived()) {
+            return -1;
+        }
+        if (feature instanceof EReference reference) {
+            if (reference.isContainer()) {
+                return -1;
+            }
+            return reference.isContainment() ? KIND_CONTAINMENT : KIND_REFERENCE;
+        }
+        EDataType type = ((EAttribute) feature).getEAttributeType();
+        Class<?> instanceClass = type.getInstanceClass();
+        if (instanceClass == null || type instanceof EEnum) {
+            return KIND_DATA;
+        }
+        if (instanceClass == FeatureMap.Entry.class) {
+            return -1;
+        }
+        if (instanceClass == String.class) {
+            return KIND_STRING;
+        }
+        if (instanceClass == int.class || instanceClass == Integer.class
+                || instanceClass == long.class || instanceClass == Long.class
+                || instanceClass == short.class || instanceClass == Short.class
+                || instanceClass == byte.class || instanceClass == Byte.class) {
+            return KIND_INTEGER;
+        }
+        if (instanceClass == boolean.class || instanceClass == Boolean.class) {
+            return KIND_BOOLEAN;
+        }
+        if (instanceClass == double.class || instanceClass == Double.class) {
+            return KIND_DOUBLE;
+        }
+        if (instanceClass == float.class || instanceClass == Float.class) {
+            return KIND_FLOAT;
+        }
+        if (instanceClass == Date.class) {
+            return KIND_DATE;
+        }
+        return KIND_DATA;
+    }
+
+    /**
+     * 单个EClass的特征计划
+     */
+    private static final class ClassPlan {
+        private final int index;
+        private final List<EStructuralFeature> features = new ArrayList<>();
+        private final List<Integer> kinds = new ArrayList<>();
+
+        ClassPlan(int index, EClass eClass) {
+            this.index = index;
+            for (EStructuralFeature feature : eClass.getEAllStructuralFeatures()) {
+                int kind = kindOf(feature);
+                if (kind >= 0) {
+                    features.add(feature);
+                    kinds.add(kind);
+                }
+            }
+        }
+    }
+
+    private static final class Writer {
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final Map<EClass, ClassPlan> plans = new LinkedHashMap<>();
+        private final Map<EObject, Integer> indices = new IdentityHashMap<>();
+        // 记录模式：字符串内联，资源外引用使用调用方给出的片段
+        private final boolean inline;
+        private final Function<EObject, String> externalFragment;
+
+        Writer() {
+            this(false, null);
+        }
+
+        Writer(boolean inline, Function<EObject, String> externalFragment) {
+            this.inline = inline;
+            this.externalFragment = externalFragment;
+        }
+
+        /**
+         * 记录模式：写出一个根对象及其包含的对象，引用只在记录内部编号
+         */
+        void writeRecord(EObject root, DataOutputStream out) throws IOException {
+            indices.clear();
+            number(root);
+            writeObject(out, root);
+        }
+
+        void write(List<EObject> roots, OutputStream out) throws IOException {
+            // 第一遍：先序编号，使引用可以指向尚未写出的对象
+            for (EObject root : roots) {
+                number(root);
+            }
+
+            // 第二遍：写对象记录（同时收集字符串）
+            ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(Math.max(1024, indices.size() * 64));
+            DataOutputStream body = new DataOutputStream(bodyBytes);
+            writeVarInt(body, roots.size());
+            for (EObject root : roots) {
+                writeObject(body, root);
+            }
+            body.flush();
+
+            DataOutputStream header = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+            header.write(MAGIC);
+            writeVarInt(header, FORMAT_VERSION);
+            // 类表中的名称在写出字符串表之前登记
+            for (Map.Entry<EClass, ClassPlan> entry : plans.entrySet()) {
+                intern(entry.getKey().getEPackage().getNsURI());
+                intern(entry.getKey().getName());
+                entry.getValue().features.forEach(feature -> intern(feature.getName()));
+            }
+            writeVarInt(header, strings.size());
+            for (String value : strings.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(header, bytes.length);
+                header.write(bytes);
+            }
+            writeClassTable(header);
+            writeVarInt(header, indices.size());
+            bodyBytes.writeTo(header);
+            header.flush();
+        }
+
+        void writeClassTable(DataOutputStream out) throws IOException {
+            writeVarInt(out, plans.size());
+            for (Map.Entry<EClass, ClassPlan> entry : plans.entrySet()) {
+                ClassPlan plan = entry.getValue();
+                writeName(out, entry.getKey().getEPackage().getNsURI());
+                writeName(out, entry.getKey().getName());
+                writeVarInt(out, plan.features.size());
+                for (int i = 0; i < plan.features.size(); i++) {
+                    EStructuralFeature feature = plan.features.get(i);
+                    writeName(out, feature.getName());
+                    out.writeByte(plan.kinds.get(i));
+                    out.writeByte(feature.isMany() ? 1 : 0);
+                }
+            }
+        }
+
+        private void number(EObject object) {
+            indices.put(object, indices.size());
+            ClassPlan plan = plan(object.eClass());
+            for (int i = 0; i < plan.features.size(); i++) {
+                EStructuralFeature feature = plan.features.get(i);
+                if (plan.kinds.get(i) != KIND_CONTAINMENT || !object.eIsSet(feature)) {
+                    continue;
+                }
+                for (EObject child : containedValues(object, feature)) {
+                    number(child);
+                }
+            }
+        }
+
+        private void writeObject(DataOutputStream out, EObject object) throws IOException {
+            ClassPlan plan = plan(object.eClass());
+            writeVarInt(out, plan.index);
+            for (int i = 0; i < plan.features.size(); i++) {
+                EStructuralFeature feature = plan.features.get(i);
+                if (!object.eIsSet(feature)) {
+                    continue;
+                }
+                int kind = plan.kinds.get(i);
+                Object value = object.eGet(feature, false);
+                if (feature.isMany()) {
+                    List<?> values = (List<?>) value;
+                    writeVarInt(out, i + 1);
+                    writeVarInt(out, values.size());
+                    for (Object item : values) {
+                        writeValue(out, feature, kind, item);
+                    }
+                } else if (value != null || kind == KIND_STRING || kind == KIND_DATA || kind == KIND_REFERENCE) {
+                    writeVarInt(out, i + 1);
+                    writeValue(out, feature, kind, value);
+                }
+            }
+            writeVarInt(out, 0);
+        }
+
+        private void writeValue(DataOutputStream out, EStructuralFeature feature, int kind, Object value)
+                throws IOException {
+            switch (kind) {
+                case KIND_STRING:
+                    writeNullable(out, (String) value);
+                    break;
+                case KIND_INTEGER:
+                    writeVarLong(out, zigzag(((Number) value).longValue()));
+                    break;
+                case KIND_BOOLEAN:
+                    out.writeByte((Boolean) value ? 1 : 0);
+                    break;
+                case KIND_DOUBLE:
+                    out.writeDouble((Double) value);
+                    break;
+                case KIND_FLOAT:
+                    out.writeFloat((Float) value);
+                    break;
+                case KIND_DATE:
+                    writeVarLong(out, zigzag(((Date) value).getTime()));
+                    break;
+                case KIND_DATA:
+                    String literal = value == null ? null
+                        : EcoreUtil.convertToString(((EAttribute) feature).getEAttributeType(), value);
+                    writeNullable(out, literal);
+                    break;
+                case KIND_CONTAINMENT:
+                    writeObject(out, (EObject) value);
+                    break;
+                case KIND_REFERENCE:
+                    writeReference(out, (EObject) value);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown value kind: " + kind);
+            }
+        }
+
+        private void writeReference(DataOutputStream out, EObject target) throws IOException {
+            if (target == null) {
+                writeVarInt(out, REF_NULL);
+                return;
+            }
+            Integer index = indices.get(target);
+            if (index != null) {
+                writeVarInt(out, index + REF_LOCAL_BASE);
+                return;
+            }
+            writeVarInt(out, REF_EXTERNAL);
+            writeVarInt(out, plan(target.eClass()).index);
+            String fragment = externalFragment != null ? externalFragment.apply(target) : null;
+            writeName(out, fragment != null ? "#" + fragment : EcoreUtil.getURI(target).toString());
+        }
+
+        private ClassPlan plan(EClass eClass) {
+            return plans.computeIfAbsent(eClass, c -> new ClassPlan(plans.size(), c));
+        }
+
+        private void writeName(DataOutputStream out, String value) throws IOException {
+            if (inline) {
+                writeUtf(out, value);
+            } else {
+                writeVarInt(out, intern(value));
+            }
+        }
+
+        /**
+         * 可为null的字符串：0为null，否则为串号+1（内联时为字节数+1）
+         */
+        private void writeNullable(DataOutputStream out, String value) throws IOException {
+            if (value == null) {
+                writeVarInt(out, 0);
+            } else if (inline) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length + 1);
+                out.write(bytes);
+            } else {
+                writeVarInt(out, intern(value) + 1);
+            }
+        }
+
+        private int intern(String value) {
+            Integer index = strings.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.put(value, index);
+            }
+            return index;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static List<EObject> containedValues(EObject object, EStructuralFeature feature) {
+            Object value = object.eGet(feature, false);
+            if (feature.isMany()) {
+                return (List<EObject>) value;
+            }
+            return value != null ? List.of((EObject) value) : List.of();
+        }
+    }
+
+    private static final class Reader {
+        private final EPackage.Registry packageRegistry;
+        private String[] strings;
+        private EClass[] classes;
+        private EStructuralFeature[][] features;
+        private int[][] kinds;
+        private boolean[][] many;
+        private final List<EObject> objects = new ArrayList<>();
+        private final List<PendingReference> pending = new ArrayList<>();
+
+        Reader(EPackage.Registry packageRegistry) {
+            this.packageRegistry = packageRegistry;
+        }
+
+        /**
+         * 记录模式：共享已解析的类表，字符串内联
+         */
+        Reader(Reader classTable) {
+            this.packageRegistry = classTable.packageRegistry;
+            this.classes = classTable.classes;
+            this.features = classTable.features;
+            this.kinds = classTable.kinds;
+            this.many = classTable.many;
+        }
+
+        EObject readRecord(DataInputStream data) throws IOException {
+            EObject root = readObject(data);
+            for (PendingReference reference : pending) {
+                reference.resolve(objects);
+            }
+            return root;
+        }
+
+        List<EObject> read(InputStream in) throws IOException {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+            byte[] magic = new byte[MAGIC.length];
+            data.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a binary model file");
+            }
+            int version = readVarInt(data);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported binary model version: " + version);
+            }
+
+            strings = new String[readVarInt(data)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readVarInt(data)];
+                data.readFully(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            readClassTable(data);
+
+            int objectCount = readVarInt(data);
+            ((ArrayList<EObject>) objects).ensureCapacity(objectCount);
+            int rootCount = readVarInt(data);
+            List<EObject> roots = new ArrayList<>(rootCount);
+            for (int i = 0; i < rootCount; i++) {
+                roots.add(readObject(data));
+            }
+            for (PendingReference reference : pending) {
+                reference.resolve(objects);
+            }
+            return roots;
+        }
+
+        void readClassTable(DataInputStream data) throws IOException {
+            int classCount = readVarInt(data);
+            classes = new EClass[classCount];
+            features = new EStructuralFeature[classCount][];
+            kinds = new int[classCount][];
+            many = new boolean[classCount][];
+            for (int c = 0; c < classCount; c++) {
+                String nsUri = readName(data);
+                String className = readName(data);
+                EPackage ePackage = packageRegistry.getEPackage(nsUri);
+                EClassifier classifier = ePackage != null ? ePackage.getEClassifier(className) : null;
+                if (!(classifier instanceof EClass eClass)) {
+                    throw new IOException("Unknown EClass " + nsUri + "#" + className);
+                }
+                classes[c] = eClass;
+                int featureCount = readVarInt(data);
+                features[c] = new EStructuralFeature[featureCount];
+                kinds[c] = new int[featureCount];
+                many[c] = new boolean[featureCount];
+                for (int f = 0; f < featureCount; f++) {
+                    String featureName = readName(data);
+                    kinds[c][f] = data.readUnsignedByte();
+                    many[c][f] = data.readUnsignedByte() != 0;
+                    EStructuralFeature feature = eClass.getEStructuralFeature(featureName);
+                    // 元模型变化：特征已删除或类型/多重性不再一致时，跳过该特征的值
+                    if (feature != null && kindOf(feature) == kinds[c][f] && feature.isMany() == many[c][f]) {
+                        features[c][f] = feature;
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private EObject readObject(DataInputStream data) throws IOException {
+            int classIndex = readVarInt(data);
+            EClass eClass = classes[classIndex];
+            EObject object = EcoreUtil.create(eClass);
+            objects.add(object);
+            int featureId;
+            while ((featureId = readVarInt(data)) != 0) {
+                int f = featureId - 1;
+                EStructuralFeature feature = features[classIndex][f];
+                int kind = kinds[classIndex][f];
+                if (many[classIndex][f]) {
+                    int count = readVarInt(data);
+                    if (kind == KIND_REFERENCE) {
+                        int[] targets = new int[count];
+                        for (int i = 0; i < count; i++) {
+                            targets[i] = readReference(data, feature);
+                        }
+                        if (feature != null) {
+                            pending.add(new PendingReference(object, feature, targets));
+                        }
+                        continue;
+                    }
+                    List<Object> values = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        values.add(readValue(data, feature, kind));
+                    }
+                    if (feature != null) {
+                        ((InternalEList<Object>) object.eGet(feature, false)).addAllUnique(values);
+                    }
+                } else if (kind == KIND_REFERENCE) {
+                    int target = readReference(data, feature);
+                    if (feature != null) {
+                        pending.add(new PendingReference(object, feature, new int[]{target}));
+                    }
+                } else {
+                    Object value = readValue(data, feature, kind);
+                    if (feature != null) {
+                        object.eSet(feature, value);
+                    }
+                }
+            }
+            return object;
+        }
+
+        private Object readValue(DataInputStream data, EStructuralFeature feature, int kind) throws IOException {
+            switch (kind) {
+                case KIND_STRING:
+                    return readNullable(data);
+                case KIND_INTEGER:
+                    long number = unzigzag(readVarLong(data));
+                    return feature != null ? narrow(number, ((EAttribute) feature).getEAttributeType().getInstanceClass())
+                        : null;
+                case KIND_BOOLEAN:
+                    return data.readUnsignedByte() != 0;
+                case KIND_DOUBLE:
+                    return data.readDouble();
+                case KIND_FLOAT:
+                    return data.readFloat();
+                case KIND_DATE:
+                    return new Date(unzigzag(readVarLong(data)));
+                case KIND_DATA:
+                    String literal = readNullable(data);
+                    if (literal == null || feature == null) {
+                        return null;
+                    }
+                    return EcoreUtil.createFromString(((EAttribute) feature).getEAttributeType(), literal);
+                case KIND_CONTAINMENT:
+                    return readObject(data);
+                default:
+                    throw new IOException("Unknown value kind: " + kind);
+            }
+        }
+
+        /**
+         * @return 对象序号；null为-1；资源外引用创建代理对象后返回其序号
+         */
+        private int readReference(DataInputStream data, EStructuralFeature feature) throws IOException {
+            int tag = readVarInt(data);
+            if (tag == REF_NULL) {
+                return -1;
+            }
+            if (tag == REF_EXTERNAL) {
+                EClass proxyClass = classes[readVarInt(data)];
+                String uri = readName(data);
+                InternalEObject proxy = (InternalEObject) EcoreUtil.create(proxyClass);
+                proxy.eSetProxyURI(URI.createURI(uri));
+                // 代理对象不属于资源内容，只登记到序号表供解析
+                objects.add(proxy);
+                return objects.size() - 1;
+            }
+            return tag - REF_LOCAL_BASE;
+        }
+
+        /**
+         * 未读取字符串表（记录模式）时字符串内联
+         */
+        private String readName(DataInputStream data) throws IOException {
+            return strings != null ? strings[readVarInt(data)] : readUtf(data);
+        }
+
+        private String readNullable(DataInputStream data) throws IOException {
+            int value = readVarInt(data);
+            if (value == 0) {
+                return null;
+            }
+            if (strings != null) {
+                return strings[value - 1];
+            }
+            byte[] bytes = new byte[value - 1];
+            data.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static Object narrow(long value, Class<?> type) {
+            if (type == int.class || type == Integer.class) {
+                return (int) value;
+            }
+            if (type == short.class || type == Short.class) {
+                return (short) value;
+            }
+            if (type == byte.class || type == Byte.class) {
+                return (byte) value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * 待解析的非包含引用
+     */
+    private static final class PendingReference {
+        private final EObject owner;
+        private final EStructuralFeature feature;
+        private final int[] targets;
+
+        PendingReference(EObject owner, EStructuralFeature feature, int[] targets) {
+            this.owner = owner;
+            this.feature = feature;
+            this.targets = targets;
+        }
+
+        @SuppressWarnings("unchecked")
+        void resolve(List<EObject> objects) throws IOException {
+            if (!feature.isMany()) {
+                owner.eSet(feature, targets[0] < 0 ? null : target(objects, targets[0]));
+                return;
+            }
+            List<EObject> values = new ArrayList<>(targets.length);
+            for (int target : targets) {
+                if (target >= 0) {
+                    values.add(target(objects, target));
+                }
+            }
+            ((InternalEList<EObject>) owner.eGet(feature, false)).addAllUnique(values);
+        }
+
+        private static EObject target(List<EObject> objects, int index) throws IOException {
+            if (index >= objects.size()) {
+                throw new IOException("Reference to unknown object #" + index);
+            }
+            return objects.get(index);
+        }
+    }
+
+    /**
+     * 按记录编码相互独立的根对象，所有记录共享一张类表（在全部记录之后写出）
+     * 资源外的引用和指向其他记录的引用都写为代理，片段由调用方决定
+     */
+    static final class RecordWriter {
+        private final Writer writer;
+
+        RecordWriter(Function<EObject, String> externalFragment) {
+            this.writer = new Writer(true, externalFragment);
+        }
+
+        void write(EObject root, DataOutputStream out) throws IOException {
+            writer.writeRecord(root, out);
+        }
+
+        void writeClassTable(DataOutputStream out) throws IOException {
+            writer.writeClassTable(out);
+        }
+    }
+
+    /**
+     * 按记录解码，类表解析一次后可在多个线程中并发使用
+     */
+    static final class RecordReader {
+        private final Reader classTable;
+
+        RecordReader(DataInputStream classTableData, EPackage.Registry packageRegistry) throws IOException {
+            this.classTable = new Reader(packageRegistry);
+            classTable.readClassTable(classTableData);
+        }
+
+        EObject read(DataInputStream data) throws IOException {
+            return new Reader(classTable).readRecord(data);
+        }
+    }
+
+    // 变长整数
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Varint out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static void writeUtf(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readUtf(DataInput in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
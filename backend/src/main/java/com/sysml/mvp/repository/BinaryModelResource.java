@@ -0,0 +1,38 @@
+package com.sysml.mvp.repository;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.InternalEList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 使用BinaryModelCodec读写的EMF资源
+ * EPackage从所属ResourceSet的包注册表查找，未加入ResourceSet时使用全局注册表
+ */
+public class BinaryModelResource extends ResourceImpl {
+
+    public BinaryModelResource(URI uri) {
+        super(uri);
+    }
+
+    @Override
+    protected void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+        EPackage.Registry registry = getResourceSet() != null
+            ? getResourceSet().getPackageRegistry() : EPackage.Registry.INSTANCE;
+        List<EObject> roots = BinaryModelCodec.read(inputStream, registry);
+        // 根对象互不相同，跳过唯一性检查
+        ((InternalEList<EObject>) getContents()).addAllUnique(roots);
+    }
+
+    @Override
+    protected void doSave(OutputStream outputStream, Map<?, ?> options) throws IOException {
+        BinaryModelCodec.write(getContents(), outputStream);
+    }
+}
@@ -0,0 +1,70 @@
+package com.sysml.mvp.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.SplittableRandom;
+
+/**
+ * 按内容切分数据块（Gear滚动哈希）
+ *
+ * 设计说明：
+ * 1. 块边界由最近若干字节的内容决定，而不是固定偏移：文件中间插入或删除内容后，只有附近一两个块变化，
+ *    其余块的内容和摘要不变，增量备份只需写入变化的块
+ * 2. 块大小限制在16KB~256KB之间，平均约80KB；Gear表以固定种子生成，保证不同版本、不同进程切分结果一致
+ * 3. 流式处理，内存占用与文件大小无关
+ */
+final class ContentDefinedChunker {
+
+    static final int MIN_SIZE = 16 * 1024;
+    static final int MAX_SIZE = 256 * 1024;
+
+    /**
+     * 低16位为0时切分，超过MIN_SIZE后平均每64KB出现一次
+     */
+    private static final long BOUNDARY_MASK = (1L << 16) - 1;
+    private static final long[] GEAR = new long[256];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5359534D4CL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private ContentDefinedChunker() {
+    }
+
+    /**
+     * 块回调，buffer在回调返回后复用
+     */
+    @FunctionalInterface
+    interface ChunkConsumer {
+        void accept(byte[] buffer, int length) throws IOException;
+    }
+
+    /**
+     * 切分输入流，依次回调每个块
+     */
+    static void split(InputStream in, ChunkConsumer consumer) throws IOException {
+        byte[] chunk = new byte[MAX_SIZE];
+        byte[] read = new byte[64 * 1024];
+        int length = 0;
+        long hash = 0;
+        int n;
+        while ((n = in.read(read)) > 0) {
+            for (int i = 0; i < n; i++) {
+                byte b = read[i];
+                chunk[length++] = b;
+                hash = (hash << 1) + GEAR[b & 0xff];
+                if ((length >= MIN_SIZE && (hash & BOUNDARY_MASK) == 0) || length == MAX_SIZE) {
+                    consumer.accept(chunk, length);
+                    length = 0;
+                    hash = 0;
+                }
+            }
+        }
+        if (length > 0) {
+            consumer.accept(chunk, length);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.sysml.mvp.repository;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 基于elementId的稳定URI片段
+ *
+ * 设计说明：
+ * 1. 片段格式为"@根对象elementId"，嵌套对象追加"/相对路径"，不依赖根对象在资源中的位置，
+ *    分段存储和按需加载都用它表示跨段/跨记录引用
+ * 2. 根对象没有elementId时返回null，由调用方回退到EMF默认片段
+ */
+final class ElementIdFragments {
+
+    static final String PREFIX = "@";
+
+    private ElementIdFragments() {
+    }
+
+    /**
+     * @return 对象的稳定片段，根对象没有elementId时返回null
+     */
+    static String fragmentOf(EObject eObject) {
+        EObject root = EcoreUtil.getRootContainer(eObject);
+        String id = elementIdOf(root);
+        if (id == null) {
+            return null;
+        }
+        if (root == eObject) {
+            return PREFIX + id;
+        }
+        return PREFIX + id + "/" + EcoreUtil.getRelativeURIFragmentPath(root, eObject);
+    }
+
+    static boolean isIdFragment(String fragment) {
+        return fragment != null && fragment.startsWith(PREFIX);
+    }
+
+    /**
+     * 片段中的根对象elementId
+     */
+    static String rootIdOf(String fragment) {
+        int slash = fragment.indexOf('/');
+        return slash < 0 ? fragment.substring(PREFIX.length()) : fragment.substring(PREFIX.length(), slash);
+    }
+
+    /**
+     * 在给定根对象中按片段的相对路径定位对象
+     */
+    static EObject navigate(EObject root, String fragment) {
+        int slash = fragment.indexOf('/');
+        if (root == null || slash < 0) {
+            return root;
+        }
+        return EcoreUtil.getEObject(root, fragment.substring(slash + 1));
+    }
+
+    static Map<String, EObject> indexRootsById(List<EObject> roots) {
+        Map<String, EObject> rootsById = new HashMap<>(roots.size() * 2);
+        for (EObject root : roots) {
+            String id = elementIdOf(root);
+            if (id != null) {
+                rootsById.put(id, root);
+            }
+        }
+        return rootsById;
+    }
+
+    static String elementIdOf(EObject object) {
+        EStructuralFeature feature = object.eClass().getEStructuralFeature("elementId");
+        if (feature == null) {
+            feature = object.eClass().getEStructuralFeature("id");
+        }
+        Object value = feature != null ? object.eGet(feature) : null;
+        return value instanceof String id && !id.isEmpty() ? id : null;
+    }
+
+    /**
+     * 将片段为elementId形式的代理替换为lookup找到的对象，找不到的保持代理
+     */
+    @SuppressWarnings("unchecked")
+    static void resolveProxies(TreeIterator<EObject> contents, Function<String, EObject> lookup) {
+        while (contents.hasNext()) {
+            EObject object = contents.next();
+            for (EReference reference : object.eClass().getEAllReferences()) {
+                if (reference.isContainment() || reference.isContainer() || reference.isDerived()
+                        || reference.isTransient() || !object.eIsSet(reference)) {
+                    continue;
+                }
+                if (reference.isMany()) {
+                    InternalEList<EObject> values = (InternalEList<EObject>) object.eGet(reference, false);
+                    for (int i = 0; i < values.size(); i++) {
+                        EObject resolved = resolve(values.basicGet(i), lookup);
+                        if (resolved != null) {
+                            values.setUnique(i, resolved);
+                        }
+                    }
+                } else {
+                    EObject resolved = resolve((EObject) object.eGet(reference, false), lookup);
+                    if (resolved != null) {
+                        object.eSet(reference, resolved);
+                    }
+                }
+            }
+        }
+    }
+
+    private static EObject resolve(EObject value, Function<String, EObject> lookup) {
+        if (value == null || !value.eIsProxy()) {
+            return null;
+        }
+        String fragment = ((InternalEObject) value).eProxyURI().fragment();
+        return isIdFragment(fragment) ? lookup.apply(fragment) : null;
+    }
+}
@@ -1,7 +1,9 @@
 package com.sysml.mvp.repository;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sysml.mvp.exception.ExternalModificationException;
 import com.sysml.mvp.model.EMFModelRegistry;
+import com.sysml.mvp.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.emf.common.util.URI;
@@ -10,6 +12,7 @@ import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.sirius.emfjson.resource.JsonResource;
 import org.eclipse.sirius.emfjson.resource.JsonResourceFactoryImpl;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,17 +20,33 @@ import org.springframework.stereotype.Repository;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * 文件系统模型仓库
- * 使用sirius-emfjson库进行JSON序列化
+ * 使用sirius-emfjson库进行JSON序列化，也可按项目使用BinaryModelCodec二进制格式存储；
+ * 导入导出始终使用JSON；json、binary格式可按app.data.compression以GZIP压缩保存，读取时自动识别
+ * 
+ * 提交协议（保存、导入、切换格式）：
+ * 1. 持有项目文件锁（ProjectFileLock），进程间互斥
+ * 2. 模型写入model.*.tmp并fsync；分段、索引格式由资源暂存（StagedModelResource），
+ *    数据落盘，提交标记（manifest/偏移索引）写为临时文件
+ * 3. metadata.json.tmp记录模型摘要（modelSha256，分段、索引格式为提交标记的摘要）并fsync
+ * 4. 依次原子重命名模型（或提交标记）和metadata，fsync项目目录；模型重命名即提交点
+ * 加载时若发现遗留的临时文件：摘要与当前模型一致的metadata补完提交，其余临时文件和未引用的段文件删除
+ * （仅在获取到项目文件锁时进行，不会删除其他写入者暂存中的文件）
  */
 @Slf4j
 @Repository
@@ -37,9 +56,44 @@ public class FileModelRepository {
     @Value("${app.data.projects-path:./data/projects}")
     private String dataRoot;
     
+    @Value("${app.data.storage-format:json}")
+    private String defaultStorageFormat;
+    
+    @Value("${app.data.segment-count:64}")
+    private int segmentCount = 64;
+    
+    @Value("${app.data.streaming-json-reader:true}")
+    private boolean streamingJsonReader = true;
+    
+    @Value("${app.data.compression:none}")
+    private String compression = "none";
+    
+    @Value("${app.data.compression-level:6}")
+    private int compressionLevel = 6;
+    
+    @Value("${app.file-lock.retry-count:3}")
+    private int lockRetryCount = 3;
+    
+    @Value("${app.file-lock.retry-delay-ms:100}")
+    private long lockRetryDelayMs = 100;
+    
+    static final String METADATA_FILE = "metadata.json";
+    
     private final EMFModelRegistry modelRegistry;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Map<String, ResourceSet> resourceCache = new ConcurrentHashMap<>();
+    private final Map<String, Resource> loadedResources = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> modelVersions = new ConcurrentHashMap<>();
+    private final SingleFlight<String, Resource> projectLoads = new SingleFlight<>();
+    private final Map<String, VersionedView> mappedViews = new ConcurrentHashMap<>();
+    /**
+     * 本进程最近一次读取或提交时提交标记文件的指纹，用于区分外部修改和自身的提交
+     */
+    private final Map<String, String> diskFingerprints = new ConcurrentHashMap<>();
+    /**
+     * 项目存储格式，本进程提交时更新，清除缓存时丢弃后从metadata重新读取
+     */
+    private final Map<String, StorageFormat> storageFormats = new ConcurrentHashMap<>();
     
     @PostConstruct
     public void init() throws IOException {
@@ -49,6 +103,8 @@ public class FileModelRepository {
             Files.createDirectories(dataPath);
             log.info("创建数据目录: {}", dataPath);
         }
+        // 配置错误时启动失败，而不是在首次保存时
+        ModelCompression.resolveLevel(compression, compressionLevel);
     }
     
     // 允许测试时设置数据目录
@@ -56,11 +112,130 @@ public class FileModelRepository {
         this.dataRoot = dataRoot;
     }
     
+    // 允许测试时设置模型压缩
+    public void setCompression(String compression, int level) {
+        ModelCompression.resolveLevel(compression, level);
+        this.compression = compression;
+        this.compressionLevel = level;
+    }
+    
+    // 允许测试时设置新项目的存储格式
+    public void setDefaultStorageFormat(StorageFormat format) {
+        this.defaultStorageFormat = format.name();
+    }
+    
     /**
-     * 获取项目文件路径
+     * 获取项目文件路径（按项目当前的存储格式）
      */
     private Path getProjectPath(String projectId) {
-        return Paths.get(dataRoot, "projects", projectId, "model.json");
+        return getProjectPath(projectId, getStorageFormat(projectId));
+    }
+    
+    private Path getProjectPath(String projectId, StorageFormat format) {
+        return getProjectDirectory(projectId).resolve(format.getFileName());
+    }
+    
+    /**
+     * 全部项目的父目录
+     */
+    public Path getProjectsDirectory() {
+        return Paths.get(dataRoot, "projects");
+    }
+    
+    /**
+     * 项目目录，模型文件、metadata.json和派生数据（如索引检查点）都放在其中
+     */
+    public Path getProjectDirectory(String projectId) {
+        return getProjectsDirectory().resolve(projectId);
+    }
+    
+    /**
+     * 获取项目的存储格式
+     * 以metadata.json的storageFormat为准（随模型一起提交），读取一次后按项目缓存；
+     * metadata缺失或早于该字段的项目按磁盘上的模型文件识别；尚无模型文件的新项目使用app.data.storage-format
+     */
+    public StorageFormat getStorageFormat(String projectId) {
+        StorageFormat cached = storageFormats.get(projectId);
+        if (cached != null) {
+            return cached;
+        }
+        StorageFormat format = readStorageFormat(projectId);
+        if (format == null) {
+            return defaultStorageFormat != null ? StorageFormat.fromValue(defaultStorageFormat) : StorageFormat.JSON;
+        }
+        storageFormats.put(projectId, format);
+        return format;
+    }
+    
+    /**
+     * 从metadata或模型文件识别存储格式
+     * @return 存储格式，磁盘上没有模型文件时返回null
+     */
+    private StorageFormat readStorageFormat(String projectId) {
+        Object recorded = readMetadata(projectId).get("storageFormat");
+        if (recorded != null) {
+            try {
+                StorageFormat format = StorageFormat.fromValue(recorded.toString());
+                if (Files.exists(getProjectPath(projectId, format))) {
+                    return format;
+                }
+            } catch (IllegalArgumentException e) {
+                log.debug("metadata中storageFormat无法识别: {}", projectId, e);
+            }
+        }
+        // 多种文件同时存在（切换格式中途中断）时以最新修改的为准
+        StorageFormat newest = null;
+        FileTime newestTime = null;
+        for (StorageFormat format : StorageFormat.values()) {
+            Path path = getProjectPath(projectId, format);
+            if (!Files.exists(path)) {
+                continue;
+            }
+            try {
+                FileTime modified = Files.getLastModifiedTime(path);
+                if (newestTime == null || modified.compareTo(newestTime) >= 0) {
+                    newest = format;
+                    newestTime = modified;
+                }
+            } catch (IOException e) {
+                newest = newest != null ? newest : format;
+            }
+        }
+        return newest;
+    }
+    
+    /**
+     * 切换项目的存储格式
+     * 以目标格式写出当前模型后删除旧格式文件，并清除缓存使后续访问从新文件加载；
+     * 调用方需持有项目写锁（ProjectService.convertStorageFormat）
+     */
+    public void setStorageFormat(String projectId, StorageFormat format) {
+        StorageFormat current = getStorageFormat(projectId);
+        if (current == format && Files.exists(getProjectPath(projectId, format))) {
+            return;
+        }
+        try {
+            Resource source = loadProject(projectId);
+            Path targetPath = getProjectPath(projectId, format);
+            
+            // 复制内容（不移动，源资源可能是共享的项目模型）
+            Resource target = createProjectResource(URI.createFileURI(targetPath.toAbsolutePath().toString()),
+                format, createConfiguredResourceSet());
+            target.getContents().addAll(EcoreUtil.copyAll(source.getContents()));
+            
+            try (ProjectFileLock lock = lockProject(projectId)) {
+                commitModel(projectId, target, format);
+                // 新文件提交后才删除旧文件，中途失败时旧文件仍可用
+                deleteModel(getProjectPath(projectId, current));
+                AtomicFiles.fsyncDirectory(getProjectDirectory(projectId));
+            }
+            clearCache(projectId);
+            storageFormats.put(projectId, format);
+            log.info("切换项目存储格式: {} {} -> {}", projectId, current, format);
+        } catch (IOException e) {
+            log.error("切换项目存储格式失败: {}", projectId, e);
+            throw new RuntimeException("Failed to convert project storage format: " + projectId, e);
+        }
     }
     
     /**
@@ -78,6 +253,53 @@ public class FileModelRepository {
         return resource;
     }
     
+    /**
+     * 按存储格式创建项目资源
+     */
+    private Resource createProjectResource(URI uri, StorageFormat format, ResourceSet resourceSet) {
+        Resource resource;
+        switch (format) {
+            case BINARY:
+                resource = new BinaryModelResource(uri);
+                break;
+            case SEGMENTED:
+                resource = new SegmentedModelResource(uri, segmentCount);
+                break;
+            case INDEXED:
+                resource = new IndexedModelResource(uri);
+                break;
+            default:
+                return createJsonResource(uri, resourceSet);
+        }
+        resourceSet.getResources().add(resource);
+        return resource;
+    }
+    
+    /**
+     * 删除模型文件或分段目录
+     */
+    private static void deleteModel(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            SegmentedModelResource.deleteDirectory(path);
+        } else {
+            Files.deleteIfExists(path);
+            if (path.getFileName().toString().equals(StorageFormat.INDEXED.getFileName())) {
+                Files.deleteIfExists(IndexedModelFile.indexPathFor(path));
+            }
+        }
+    }
+    
+    /**
+     * JSON保存选项：生成标准EMF JSON格式（二进制资源忽略这些选项）
+     */
+    private Map<String, Object> saveOptions() {
+        Map<String, Object> options = new HashMap<>();
+        options.put(JsonResource.OPTION_ENCODING, "UTF-8");
+        options.put(JsonResource.OPTION_FORCE_DEFAULT_REFERENCE_SERIALIZATION, Boolean.TRUE);
+        options.put(JsonResource.OPTION_SCHEMA_LOCATION, Boolean.TRUE);
+        return options;
+    }
+    
     /**
      * 创建正确配置的ResourceSet
      */
@@ -103,9 +325,86 @@ public class FileModelRepository {
     
     /**
      * 加载项目模型
+     * 已加载的项目直接返回缓存的Resource，同一项目的所有操作共享同一份模型内容，
+     * 并发访问由ProjectLockManager控制；未加载时同一项目的并发加载合并为一次
+     * @throws UncheckedIOException 模型文件存在但无法读取时；不返回空资源，否则写入会把空模型提交到磁盘上覆盖原模型
      */
     public Resource loadProject(String projectId) {
-        Path projectPath = getProjectPath(projectId);
+        Resource cached = loadedResources.get(projectId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        try {
+            // 冷启动或缓存清除后，并发请求只解析一次模型文件
+            return projectLoads.execute(projectId, () -> {
+                Resource loaded = loadedResources.get(projectId);
+                if (loaded != null) {
+                    return loaded;
+                }
+                long version = getModelVersion(projectId);
+                Resource opened = openProject(projectId);
+                if (getModelVersion(projectId) != version) {
+                    // 加载期间缓存被清除（如导入），读到的可能是旧文件，不放入缓存
+                    return opened;
+                }
+                Resource raced = loadedResources.putIfAbsent(projectId, opened);
+                return raced != null ? raced : opened;
+            });
+        } catch (UncheckedIOException e) {
+            // 加载失败不缓存，下次访问重新读取；读写请求均失败（5xx），不能以空资源继续
+            log.error("加载项目失败: {}", projectId, e.getCause());
+            throw e;
+        }
+    }
+    
+    /**
+     * 项目模型是否已整体加载到内存
+     */
+    public boolean isLoaded(String projectId) {
+        return loadedResources.containsKey(projectId);
+    }
+    
+    /**
+     * 获取项目的内存映射只读视图
+     * 仅INDEXED格式的项目可用；视图对应最近一次保存的文件内容，模型版本变化后重新映射
+     * @return 视图，格式不支持、文件不存在或索引失效时返回null（调用方回退到整体加载）
+     */
+    public MappedModelView getMappedView(String projectId) {
+        if (getStorageFormat(projectId) != StorageFormat.INDEXED) {
+            return null;
+        }
+        long version = getModelVersion(projectId);
+        VersionedView cached = mappedViews.get(projectId);
+        if (cached != null && cached.version == version) {
+            return cached.view;
+        }
+        Path dataPath = getProjectPath(projectId, StorageFormat.INDEXED);
+        if (!Files.exists(dataPath)) {
+            return null;
+        }
+        try {
+            ResourceSet resourceSet = resourceCache.computeIfAbsent(projectId, k -> createConfiguredResourceSet());
+            MappedModelView view = MappedModelView.open(dataPath, resourceSet.getPackageRegistry());
+            mappedViews.put(projectId, new VersionedView(version, view));
+            log.debug("映射项目: {}, {}个元素", projectId, view.size());
+            return view;
+        } catch (IOException e) {
+            log.warn("映射项目失败，回退到整体加载: {}", projectId, e);
+            return null;
+        }
+    }
+    
+    private record VersionedView(long version, MappedModelView view) {
+    }
+    
+    /**
+     * 首次打开项目：创建ResourceSet并从磁盘加载
+     */
+    private Resource openProject(String projectId) {
+        recoverInterruptedCommit(projectId);
+        StorageFormat format = getStorageFormat(projectId);
+        Path projectPath = getProjectPath(projectId, format);
         
         // 从缓存获取或创建新的ResourceSet
         ResourceSet resourceSet = resourceCache.computeIfAbsent(projectId, 
@@ -113,7 +412,7 @@ public class FileModelRepository {
         
         // 使用绝对路径创建URI
         URI uri = URI.createFileURI(projectPath.toAbsolutePath().toString());
-        JsonResource resource = createJsonResource(uri, resourceSet);
+        Resource resource = createProjectResource(uri, format, resourceSet);
         
         if (!Files.exists(projectPath)) {
             // 创建空项目
@@ -121,40 +420,78 @@ public class FileModelRepository {
             return resource;
         }
         
+        // 读取前记录指纹，读取期间发生的外部修改之后仍能被识别
+        String fingerprint = diskFingerprint(projectId, format);
         try {
             // 加载选项：避免循环引用
             Map<String, Object> options = new HashMap<>();
             options.put(JsonResource.OPTION_ENCODING, "UTF-8");
             options.put(JsonResource.OPTION_FORCE_DEFAULT_REFERENCE_SERIALIZATION, Boolean.TRUE);
             
-            resource.load(options);
-            log.debug("加载项目: {}, 包含{}个对象", projectId, resource.getContents().size());
+            if (format == StorageFormat.JSON) {
+                loadJson(resource, projectPath, options);
+            } else if (format == StorageFormat.BINARY) {
+                loadFile(resource, projectPath, options);
+            } else {
+                resource.load(options);
+            }
+            diskFingerprints.put(projectId, fingerprint);
+            log.debug("加载项目: {} ({}), 包含{}个对象", projectId, format, resource.getContents().size());
             return resource;
         } catch (IOException e) {
-            log.error("加载项目失败: {}", projectId, e);
-            // 如果加载失败，返回空资源
-            return resource;
+            resourceSet.getResources().remove(resource);
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * 加载JSON模型文件（GZIP压缩的文件自动解压）
+     * 默认使用流式读取器；其无法识别的内容（包括值转换、引用解析中的运行时异常）回退到sirius-emfjson重新加载。
+     * 流式读取器在解析引用之前已把根对象加入资源，回退前先丢弃这些部分结果
+     */
+    private void loadJson(Resource resource, Path path, Map<String, Object> options) throws IOException {
+        if (streamingJsonReader) {
+            try (InputStream in = ModelCompression.decoding(Files.newInputStream(path))) {
+                new StreamingJsonModelReader(resource).read(in);
+                resource.setModified(false);
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("流式读取失败，回退到emfjson: {} ({})", path, e.toString());
+                resource.unload();
+                // 未标记为已加载的资源unload不清空内容
+                resource.getContents().clear();
+            }
+        }
+        loadFile(resource, path, options);
+    }
+    
+    /**
+     * 从单个模型文件加载资源（GZIP压缩的文件自动解压）
+     */
+    private void loadFile(Resource resource, Path path, Map<String, Object> options) throws IOException {
+        try (InputStream in = ModelCompression.decoding(Files.newInputStream(path))) {
+            resource.load(in, options);
         }
     }
     
     /**
      * 保存项目模型
+     * 持有文件锁后先比较提交标记的指纹：磁盘上的模型已被其他实例或同步任务替换时不提交，
+     * 清除缓存并抛出冲突，避免以基于旧模型的修改覆盖外部写入
+     * @throws ExternalModificationException 如果磁盘上的模型不是本进程最近一次加载或提交的版本
      */
     public void saveProject(String projectId, Resource resource) {
-        try {
-            Path projectPath = getProjectPath(projectId);
-            Files.createDirectories(projectPath.getParent());
-            
-            // 保存选项：生成标准EMF JSON格式
-            Map<String, Object> options = new HashMap<>();
-            options.put(JsonResource.OPTION_ENCODING, "UTF-8");
-            options.put(JsonResource.OPTION_FORCE_DEFAULT_REFERENCE_SERIALIZATION, Boolean.TRUE);
-            options.put(JsonResource.OPTION_SCHEMA_LOCATION, Boolean.TRUE);
-            
-            resource.save(options);
-            
-            // 更新时间戳
-            updateProjectTimestamp(projectId);
+        try (ProjectFileLock lock = lockProject(projectId)) {
+            StorageFormat format = formatOf(resource);
+            String known = diskFingerprints.get(projectId);
+            if (known != null && !known.equals(diskFingerprint(projectId, format))) {
+                clearCache(projectId);
+                log.warn("保存前检测到项目文件被外部修改，放弃提交: {}", projectId);
+                throw new ExternalModificationException(projectId);
+            }
+            // 资源按打开时的格式写回自身URI
+            commitModel(projectId, resource, format);
+            bumpModelVersion(projectId);
             
             log.debug("保存项目: {}, 包含{}个对象", projectId, resource.getContents().size());
         } catch (IOException e) {
@@ -173,8 +510,8 @@ public class FileModelRepository {
             URI tempUri = URI.createURI("temp://export.json");
             JsonResource tempResource = createJsonResource(tempUri, tempResourceSet);
             
-            // 复制内容
-            tempResource.getContents().addAll(resource.getContents());
+            // 复制内容（不移动，源资源可能是共享的项目模型）
+            tempResource.getContents().addAll(EcoreUtil.copyAll(resource.getContents()));
             
             // 保存到字节流
             java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
@@ -229,8 +566,8 @@ public class FileModelRepository {
             URI exportUri = URI.createFileURI(exportPath.toString());
             JsonResource exportResource = createJsonResource(exportUri, exportResourceSet);
             
-            // 复制所有内容
-            exportResource.getContents().addAll(resource.getContents());
+            // 复制所有内容（不移动，避免清空缓存中的项目模型）
+            exportResource.getContents().addAll(EcoreUtil.copyAll(resource.getContents()));
             
             // 保存
             Map<String, Object> options = new HashMap<>();
@@ -261,24 +598,28 @@ public class FileModelRepository {
             options.put(JsonResource.OPTION_ENCODING, "UTF-8");
             options.put(JsonResource.OPTION_FORCE_DEFAULT_REFERENCE_SERIALIZATION, Boolean.TRUE);
             
-            importResource.load(options);
+            loadJson(importResource, importPath, options);
             
-            // 创建目标项目资源
+            // 创建目标项目资源（沿用项目的存储格式）
             ResourceSet targetResourceSet = createConfiguredResourceSet();
-            Path targetPath = getProjectPath(projectId);
-            Files.createDirectories(targetPath.getParent());
+            StorageFormat format = getStorageFormat(projectId);
+            Path targetPath = getProjectPath(projectId, format);
             
             URI targetUri = URI.createFileURI(targetPath.toString());
-            JsonResource targetResource = createJsonResource(targetUri, targetResourceSet);
+            Resource targetResource = createProjectResource(targetUri, format, targetResourceSet);
             
             // 复制内容
             targetResource.getContents().addAll(importResource.getContents());
             
             // 保存到目标位置
-            targetResource.save(options);
+            try (ProjectFileLock lock = lockProject(projectId)) {
+                commitModel(projectId, targetResource, format);
+            }
             
             // 更新缓存
             resourceCache.put(projectId, targetResourceSet);
+            loadedResources.put(projectId, targetResource);
+            bumpModelVersion(projectId);
             
             log.info("导入项目: {} 从 {}", projectId, importPath);
         } catch (IOException e) {
@@ -317,28 +658,203 @@ public class FileModelRepository {
     }
     
     /**
-     * 更新项目时间戳
+     * 获取项目文件锁（按app.file-lock配置重试）
+     */
+    private ProjectFileLock lockProject(String projectId) throws IOException {
+        Path projectDir = getProjectDirectory(projectId);
+        Files.createDirectories(projectDir);
+        return ProjectFileLock.acquire(projectDir, lockRetryCount, lockRetryDelayMs);
+    }
+    
+    /**
+     * 资源对应的存储格式（按资源类型，不依赖磁盘状态）
+     */
+    private static StorageFormat formatOf(Resource resource) {
+        if (resource instanceof BinaryModelResource) {
+            return StorageFormat.BINARY;
+        } else if (resource instanceof SegmentedModelResource) {
+            return StorageFormat.SEGMENTED;
+        } else if (resource instanceof IndexedModelResource) {
+            return StorageFormat.INDEXED;
+        }
+        return StorageFormat.JSON;
+    }
+    
+    /**
+     * 按提交协议写出模型和metadata，调用方需持有项目文件锁
+     */
+    private void commitModel(String projectId, Resource resource, StorageFormat format) throws IOException {
+        Path modelPath = getProjectPath(projectId, format);
+        boolean singleFile = format == StorageFormat.JSON || format == StorageFormat.BINARY;
+        String checksum;
+        if (singleFile) {
+            int level = ModelCompression.resolveLevel(compression, compressionLevel);
+            checksum = AtomicFiles.writeTemp(modelPath,
+                out -> ModelCompression.write(out, level, compressed -> resource.save(compressed, saveOptions())));
+            resource.setModified(false);
+        } else {
+            // 分段、索引格式先暂存：数据落盘，提交标记（manifest/偏移索引）写为临时文件
+            checksum = ((StagedModelResource) resource).stage(saveOptions());
+        }
+        
+        Path metadataPath = getProjectDirectory(projectId).resolve(METADATA_FILE);
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("projectId", projectId);
+        metadata.put("updatedAt", Instant.now().toString());
+        metadata.put("storageFormat", format.name().toLowerCase(Locale.ROOT));
+        metadata.put("modelSha256", checksum);
+        AtomicFiles.writeTemp(metadataPath, out -> objectMapper.writeValue(out, metadata));
+        
+        // metadata临时文件落盘后才提交模型，提交点之后中断时可按摘要补完metadata
+        if (singleFile) {
+            AtomicFiles.commit(modelPath);
+        } else {
+            ((StagedModelResource) resource).commitStaged();
+        }
+        AtomicFiles.commit(metadataPath);
+        AtomicFiles.fsyncDirectory(metadataPath.getParent());
+        storageFormats.put(projectId, format);
+        diskFingerprints.put(projectId, diskFingerprint(projectId, format));
+    }
+    
+    /**
+     * 提交标记文件的修改时间和大小
      */
-    private void updateProjectTimestamp(String projectId) {
+    private String diskFingerprint(String projectId, StorageFormat format) {
+        Path marker = commitMarker(getProjectPath(projectId, format), format);
         try {
-            Path metadataPath = Paths.get(dataRoot, "projects", projectId, "metadata.json");
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("projectId", projectId);
-            metadata.put("updatedAt", Instant.now().toString());
-            
-            String json = objectMapper.writeValueAsString(metadata);
-            Files.writeString(metadataPath, json);
+            BasicFileAttributes attributes = Files.readAttributes(marker, BasicFileAttributes.class);
+            return format + ":" + attributes.lastModifiedTime() + ":" + attributes.size();
+        } catch (IOException e) {
+            return format + ":missing";
+        }
+    }
+    
+    /**
+     * 磁盘上的模型被外部修改（同步任务、其他实例）时清除项目缓存
+     * 比较提交标记文件与本进程最近一次读取或提交时的指纹，与本进程的提交经项目锁互斥，自身的提交不会触发；
+     * 本进程从未读写过的项目视为外部修改
+     * @return 是否判定为外部修改并清除了缓存
+     */
+    public boolean invalidateIfModifiedExternally(String projectId) {
+        if (!Files.isDirectory(getProjectDirectory(projectId))) {
+            // 项目目录被删除，不再加锁（加锁会重建目录）
+            clearCache(projectId);
+            return true;
+        }
+        try (ProjectFileLock lock = lockProject(projectId)) {
+            String known = diskFingerprints.get(projectId);
+            if (known != null && known.equals(diskFingerprint(projectId, getStorageFormat(projectId)))) {
+                return false;
+            }
+        } catch (IOException e) {
+            // 其他进程正在提交，按外部修改处理
+            log.debug("检查外部修改时获取项目锁失败: {}", projectId, e);
+        }
+        clearCache(projectId);
+        log.info("检测到项目文件被外部修改，清除缓存: {}", projectId);
+        return true;
+    }
+    
+    /**
+     * 是否为提交过程中的临时文件或锁文件（文件监听时忽略）
+     */
+    public static boolean isTransientFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(AtomicFiles.TEMP_SUFFIX) || name.equals(ProjectFileLock.LOCK_FILE);
+    }
+    
+    /**
+     * metadata中摘要所对应的文件：单文件格式为模型文件本身，分段格式为manifest，索引格式为偏移索引
+     */
+    private static Path commitMarker(Path modelPath, StorageFormat format) {
+        switch (format) {
+            case SEGMENTED:
+                return modelPath.resolve(SegmentedModelResource.MANIFEST);
+            case INDEXED:
+                return IndexedModelFile.indexPathFor(modelPath);
+            default:
+                return modelPath;
+        }
+    }
+    
+    /**
+     * 恢复上次中断的提交
+     * metadata临时文件的摘要与当前模型一致说明模型已提交、只差metadata重命名，补完提交；
+     * 其余临时文件和manifest未引用的段文件属于未提交的写入，删除。项目正被写入（文件锁被占用）时跳过
+     */
+    private void recoverInterruptedCommit(String projectId) {
+        Path projectDir = getProjectDirectory(projectId);
+        Path metadataTemp = AtomicFiles.tempPathFor(projectDir.resolve(METADATA_FILE));
+        Path segmentsDir = getProjectPath(projectId, StorageFormat.SEGMENTED);
+        if (!Files.isDirectory(projectDir)) {
+            return;
+        }
+        boolean segmentLeftovers = Files.isDirectory(segmentsDir)
+            && SegmentedModelResource.hasUncommittedFiles(segmentsDir);
+        if (!hasTempFiles(projectDir) && !segmentLeftovers) {
+            return;
+        }
+        try (ProjectFileLock lock = ProjectFileLock.tryAcquire(projectDir)) {
+            if (lock == null) {
+                return;
+            }
+            if (Files.exists(metadataTemp)) {
+                if (metadataMatchesModel(projectId, metadataTemp)) {
+                    AtomicFiles.commit(projectDir.resolve(METADATA_FILE));
+                    // 补完的metadata可能属于中断的格式切换
+                    storageFormats.remove(projectId);
+                    log.warn("补完中断的提交: {}", projectId);
+                } else {
+                    Files.delete(metadataTemp);
+                }
+            }
+            try (var files = Files.list(projectDir)) {
+                for (Path temp : files.filter(FileModelRepository::isTempFile).collect(Collectors.toList())) {
+                    Files.deleteIfExists(temp);
+                    log.warn("删除未提交的临时文件: {}", temp);
+                }
+            }
+            // 持有文件锁时没有写入者处于暂存中，未被manifest引用的段文件都是中断遗留
+            if (Files.isDirectory(segmentsDir)) {
+                SegmentedModelResource.deleteUncommittedFiles(segmentsDir);
+            }
+            AtomicFiles.fsyncDirectory(projectDir);
+        } catch (IOException e) {
+            log.warn("恢复中断的提交失败: {}", projectId, e);
+        }
+    }
+    
+    private boolean metadataMatchesModel(String projectId, Path metadataFile) {
+        try {
+            Map<?, ?> metadata = objectMapper.readValue(metadataFile.toFile(), Map.class);
+            StorageFormat format = StorageFormat.fromValue(String.valueOf(metadata.get("storageFormat")));
+            Path marker = commitMarker(getProjectPath(projectId, format), format);
+            return Files.exists(marker) && AtomicFiles.sha256(marker).equals(metadata.get("modelSha256"));
+        } catch (IOException | IllegalArgumentException e) {
+            // 临时文件本身不完整
+            return false;
+        }
+    }
+    
+    private static boolean hasTempFiles(Path projectDir) {
+        try (var files = Files.list(projectDir)) {
+            return files.anyMatch(FileModelRepository::isTempFile);
         } catch (IOException e) {
-            log.warn("更新时间戳失败: {}", projectId, e);
+            return false;
         }
     }
     
+    private static boolean isTempFile(Path path) {
+        return path.getFileName().toString().endsWith(AtomicFiles.TEMP_SUFFIX);
+    }
+    
     /**
      * 列出所有项目
      */
     public List<String> listProjects() {
         try {
-            Path projectsPath = Paths.get(dataRoot, "projects");
+            Path projectsPath = getProjectsDirectory();
             if (!Files.exists(projectsPath)) {
                 return Collections.emptyList();
             }
@@ -354,17 +870,124 @@ public class FileModelRepository {
         }
     }
     
+    /**
+     * 项目最近更新时间
+     * 取metadata.json的updatedAt，缺失或无法解析时取模型文件修改时间；都没有时返回Instant.EPOCH
+     */
+    public Instant getLastUpdated(String projectId) {
+        Object updatedAt = readMetadata(projectId).get("updatedAt");
+        if (updatedAt != null) {
+            try {
+                return Instant.parse(updatedAt.toString());
+            } catch (DateTimeParseException e) {
+                log.debug("metadata中updatedAt无法解析: {}", projectId, e);
+            }
+        }
+        Path modelPath = getProjectPath(projectId);
+        try {
+            return Files.exists(modelPath) ? Files.getLastModifiedTime(modelPath).toInstant() : Instant.EPOCH;
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+    
+    /**
+     * 最近一次提交时记录的模型摘要（metadata.json的modelSha256），派生数据据此判断是否与磁盘上的模型一致
+     * @return SHA-256十六进制串，早于摘要记录的项目或metadata缺失时返回null
+     */
+    public String getModelChecksum(String projectId) {
+        Object checksum = readMetadata(projectId).get("modelSha256");
+        return checksum != null ? checksum.toString() : null;
+    }
+    
+    /**
+     * 按磁盘上已提交的模型文件计算摘要（算法与metadata的modelSha256相同，分段格式为manifest，索引格式为偏移索引）
+     * 不依赖metadata是否随模型一起提交；需要读取整个提交标记文件，调用方应在项目读锁内调用
+     * @return SHA-256十六进制串，模型文件不存在或读取失败时返回null
+     */
+    public String computeModelChecksum(String projectId) {
+        StorageFormat format = getStorageFormat(projectId);
+        Path marker = commitMarker(getProjectPath(projectId, format), format);
+        if (!Files.exists(marker)) {
+            return null;
+        }
+        try {
+            return AtomicFiles.sha256(marker);
+        } catch (IOException e) {
+            log.debug("计算模型摘要失败: {}", projectId, e);
+            return null;
+        }
+    }
+    
+    private Map<?, ?> readMetadata(String projectId) {
+        Path metadataPath = getProjectDirectory(projectId).resolve(METADATA_FILE);
+        if (Files.exists(metadataPath)) {
+            try {
+                return objectMapper.readValue(metadataPath.toFile(), Map.class);
+            } catch (IOException e) {
+                log.debug("读取metadata失败: {}", projectId, e);
+            }
+        }
+        return Collections.emptyMap();
+    }
+    
+    /**
+     * 项目模型在磁盘上的字节数（分段格式为全部段文件之和，索引格式含偏移索引）
+     */
+    public long getModelSizeOnDisk(String projectId) {
+        StorageFormat format = getStorageFormat(projectId);
+        Path modelPath = getProjectPath(projectId, format);
+        try {
+            if (Files.isDirectory(modelPath)) {
+                try (var files = Files.walk(modelPath)) {
+                    return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+                }
+            }
+            long size = Files.exists(modelPath) ? Files.size(modelPath) : 0L;
+            Path indexPath = IndexedModelFile.indexPathFor(modelPath);
+            if (format == StorageFormat.INDEXED && Files.exists(indexPath)) {
+                size += Files.size(indexPath);
+            }
+            return size;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+    
+    /**
+     * 获取项目模型版本号
+     * 每次保存、导入或清除缓存后递增，供验证结果等派生数据作为缓存键
+     */
+    public long getModelVersion(String projectId) {
+        AtomicLong version = modelVersions.get(projectId);
+        return version != null ? version.get() : 0L;
+    }
+    
+    /**
+     * 递增项目模型版本号
+     */
+    private void bumpModelVersion(String projectId) {
+        modelVersions.computeIfAbsent(projectId, k -> new AtomicLong()).incrementAndGet();
+    }
+    
     /**
      * 清除缓存
      */
     public void clearCache(String projectId) {
+        loadedResources.remove(projectId);
         resourceCache.remove(projectId);
+        storageFormats.remove(projectId);
+        // 磁盘上的模型可能已被外部修改，派生数据一并失效
+        bumpModelVersion(projectId);
     }
     
     /**
      * 清除所有缓存
      */
     public void clearAllCache() {
+        loadedResources.clear();
         resourceCache.clear();
+        storageFormats.clear();
+        modelVersions.values().forEach(AtomicLong::incrementAndGet);
     }
 }
\ No newline at end of file
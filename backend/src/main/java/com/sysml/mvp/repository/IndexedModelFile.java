@@ -0,0 +1,288 @@
+package com.sysml.mvp.repository;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * 按元素寻址的模型文件及其偏移索引
+ *
+ * 数据文件（model.ibin）：
+ * <pre>
+ * "SYMX" 版本号
+ * 记录*：elementId + BinaryModelCodec记录（一个根对象及其包含的对象）
+ * 类表
+ * 尾部（定长）：类表偏移(8) 记录数(8) 令牌(8) "SYMX"
+ * </pre>
+ * 索引文件（model.idx）：
+ * <pre>
+ * "SYMI" 版本号(4) 令牌(8) 条目数(4)
+ * 条目*（定长20字节，按哈希排序）：elementId哈希(8) 偏移(8) 长度(4)
+ * </pre>
+ *
+ * 设计说明：
+ * 1. 数据文件中记录的顺序即资源内容顺序，整体加载时顺序读取
+ * 2. 索引为定长条目，映射后可直接二分查找，打开时不需要解析；哈希冲突时比对记录中的elementId
+ * 3. 数据文件与索引各自写临时文件并fsync后原子替换，两者尾部/头部的令牌不一致时索引视为失效
+ */
+public final class IndexedModelFile {
+
+    static final byte[] DATA_MAGIC = {'S', 'Y', 'M', 'X'};
+    static final byte[] INDEX_MAGIC = {'S', 'Y', 'M', 'I'};
+    static final int VERSION = 1;
+    static final int FOOTER_SIZE = 8 + 8 + 8 + DATA_MAGIC.length;
+    static final int INDEX_HEADER_SIZE = INDEX_MAGIC.length + 4 + 8 + 4;
+    static final int INDEX_ENTRY_SIZE = 8 + 8 + 4;
+    static final String INDEX_FILE_NAME = "model.idx";
+
+    private IndexedModelFile() {
+    }
+
+    /**
+     * 数据文件对应的索引文件
+     */
+    public static Path indexPathFor(Path dataPath) {
+        return dataPath.resolveSibling(INDEX_FILE_NAME);
+    }
+
+    /**
+     * 写出数据文件和索引
+     * @param roots 资源根对象（按此顺序写出）
+     * @param dataPath 数据文件路径
+     */
+    public static void write(List<EObject> roots, Path dataPath) throws IOException {
+        stage(roots, dataPath);
+        commitStaged(dataPath);
+        AtomicFiles.fsyncDirectory(dataPath.getParent());
+    }
+
+    /**
+     * 将数据文件和索引写为临时文件并fsync，不替换已提交的文件
+     * @param roots 资源根对象（按此顺序写出）
+     * @param dataPath 数据文件路径
+     * @return 索引内容的SHA-256（十六进制）
+     */
+    public static String stage(List<EObject> roots, Path dataPath) throws IOException {
+        Path indexPath = indexPathFor(dataPath);
+        long token = new Random().nextLong();
+
+        long[] hashes = new long[roots.size()];
+        long[] offsets = new long[roots.size()];
+        int[] lengths = new int[roots.size()];
+        BinaryModelCodec.RecordWriter records = new BinaryModelCodec.RecordWriter(ElementIdFragments::fragmentOf);
+        AtomicFiles.writeTemp(dataPath, raw -> {
+            CountingOutputStream counter = new CountingOutputStream(raw);
+            DataOutputStream out = new DataOutputStream(counter);
+            out.write(DATA_MAGIC);
+            BinaryModelCodec.writeVarInt(out, VERSION);
+            // 计数流位于缓冲之上，偏移量不需要逐条刷新
+            for (int i = 0; i < roots.size(); i++) {
+                EObject root = roots.get(i);
+                String id = ElementIdFragments.elementIdOf(root);
+                offsets[i] = counter.count;
+                BinaryModelCodec.writeUtf(out, id != null ? id : "");
+                records.write(root, out);
+                long length = counter.count - offsets[i];
+                if (length > Integer.MAX_VALUE) {
+                    throw new IOException("Element record too large: " + id);
+                }
+                lengths[i] = (int) length;
+                hashes[i] = id != null ? hash(id) : 0;
+            }
+            long classTableOffset = counter.count;
+            records.writeClassTable(out);
+            out.writeLong(classTableOffset);
+            out.writeLong(roots.size());
+            out.writeLong(token);
+            out.write(DATA_MAGIC);
+            out.flush();
+        });
+
+        // 按哈希排序的定长条目；没有elementId的根对象不进入索引
+        Integer[] order = new Integer[roots.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> hashes[i]).thenComparingLong(i -> offsets[i]));
+        int indexed = (int) Arrays.stream(hashes).filter(h -> h != 0).count();
+        return AtomicFiles.writeTemp(indexPath, raw -> {
+            DataOutputStream out = new DataOutputStream(raw);
+            out.write(INDEX_MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(token);
+            out.writeInt(indexed);
+            for (int i : order) {
+                if (hashes[i] != 0) {
+                    out.writeLong(hashes[i]);
+                    out.writeLong(offsets[i]);
+                    out.writeInt(lengths[i]);
+                }
+            }
+            out.flush();
+        });
+    }
+
+    /**
+     * 提交暂存的数据文件和索引，索引重命名为提交点（不fsync目录，由调用方统一fsync）
+     */
+    public static void commitStaged(Path dataPath) throws IOException {
+        AtomicFiles.commit(dataPath);
+        AtomicFiles.commit(indexPathFor(dataPath));
+    }
+
+    /**
+     * 顺序读取全部根对象，并解析记录之间的引用
+     */
+    public static List<EObject> readAll(Path dataPath, EPackage.Registry packageRegistry) throws IOException {
+        ByteBuffer data = map(dataPath);
+        Footer footer = Footer.read(data);
+        BinaryModelCodec.RecordReader reader = classTable(data, footer, packageRegistry);
+
+        List<EObject> roots = new ArrayList<>((int) Math.min(footer.recordCount, Integer.MAX_VALUE));
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(
+            slice(data, headerSize(), footer.classTableOffset - headerSize())));
+        for (long i = 0; i < footer.recordCount; i++) {
+            BinaryModelCodec.readUtf(in);
+            roots.add(reader.read(in));
+        }
+        Map<String, EObject> rootsById = ElementIdFragments.indexRootsById(roots);
+        ElementIdFragments.resolveProxies(EcoreUtil.getAllContents(roots),
+            fragment -> ElementIdFragments.navigate(rootsById.get(ElementIdFragments.rootIdOf(fragment)), fragment));
+        return roots;
+    }
+
+    // ==================== 内部 ====================
+
+    static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + path + " (" + size + " bytes)");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    static BinaryModelCodec.RecordReader classTable(ByteBuffer data, Footer footer,
+                                                    EPackage.Registry packageRegistry) throws IOException {
+        long length = data.capacity() - FOOTER_SIZE - footer.classTableOffset;
+        return new BinaryModelCodec.RecordReader(new DataInputStream(new ByteBufferInputStream(
+            slice(data, footer.classTableOffset, length))), packageRegistry);
+    }
+
+    static ByteBuffer slice(ByteBuffer buffer, long offset, long length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > buffer.capacity()) {
+            throw new IOException("Corrupt model file: range " + offset + "+" + length);
+        }
+        return buffer.duplicate().position((int) offset).limit((int) (offset + length)).slice();
+    }
+
+    private static int headerSize() {
+        return DATA_MAGIC.length + 1;
+    }
+
+    /**
+     * FNV-1a 64位哈希，0保留给"无elementId"
+     */
+    static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash != 0 ? hash : 1;
+    }
+
+    /**
+     * 数据文件尾部
+     */
+    static final class Footer {
+        final long classTableOffset;
+        final long recordCount;
+        final long token;
+
+        private Footer(long classTableOffset, long recordCount, long token) {
+            this.classTableOffset = classTableOffset;
+            this.recordCount = recordCount;
+            this.token = token;
+        }
+
+        static Footer read(ByteBuffer data) throws IOException {
+            int size = data.capacity();
+            if (size < headerSize() + FOOTER_SIZE) {
+                throw new IOException("Not an indexed model file");
+            }
+            byte[] magic = new byte[DATA_MAGIC.length];
+            data.get(0, magic);
+            byte[] tail = new byte[DATA_MAGIC.length];
+            data.get(size - DATA_MAGIC.length, tail);
+            if (!Arrays.equals(magic, DATA_MAGIC) || !Arrays.equals(tail, DATA_MAGIC)) {
+                throw new IOException("Not an indexed model file");
+            }
+            if (data.get(DATA_MAGIC.length) != VERSION) {
+                throw new IOException("Unsupported indexed model version: " + data.get(DATA_MAGIC.length));
+            }
+            int footer = size - FOOTER_SIZE;
+            return new Footer(data.getLong(footer), data.getLong(footer + 8), data.getLong(footer + 16));
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * 只读ByteBuffer上的输入流（不复制映射内容）
+     */
+    static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
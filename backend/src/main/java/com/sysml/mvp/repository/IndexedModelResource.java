@@ -0,0 +1,80 @@
+package com.sysml.mvp.repository;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * 使用IndexedModelFile整体读写的EMF资源
+ * 同一文件可由MappedModelView按元素只读访问
+ */
+public class IndexedModelResource extends ResourceImpl implements StagedModelResource {
+
+    public IndexedModelResource(URI uri) {
+        super(uri);
+    }
+
+    private Path getPath() {
+        return Paths.get(getURI().toFileString());
+    }
+
+    @Override
+    public void load(Map<?, ?> options) throws IOException {
+        // 数据文件需要随机访问（尾部和类表），不经过URIConverter的顺序流
+        load(InputStream.nullInputStream(), options);
+    }
+
+    @Override
+    protected void doLoad(InputStream ignored, Map<?, ?> options) throws IOException {
+        EPackage.Registry registry = getResourceSet() != null
+            ? getResourceSet().getPackageRegistry() : EPackage.Registry.INSTANCE;
+        ((InternalEList<EObject>) getContents()).addAllUnique(IndexedModelFile.readAll(getPath(), registry));
+    }
+
+    @Override
+    public void save(Map<?, ?> options) throws IOException {
+        IndexedModelFile.write(getContents(), getPath());
+        setModified(false);
+    }
+
+    @Override
+    public String stage(Map<?, ?> options) throws IOException {
+        return IndexedModelFile.stage(getContents(), getPath());
+    }
+
+    @Override
+    public void commitStaged() throws IOException {
+        if (!Files.exists(AtomicFiles.tempPathFor(IndexedModelFile.indexPathFor(getPath())))) {
+            throw new IllegalStateException("No staged save: " + getURI());
+        }
+        IndexedModelFile.commitStaged(getPath());
+        setModified(false);
+    }
+
+    @Override
+    public String getURIFragment(EObject eObject) {
+        String fragment = EcoreUtil.getRootContainer(eObject).eResource() == this
+            ? ElementIdFragments.fragmentOf(eObject) : null;
+        return fragment != null ? fragment : super.getURIFragment(eObject);
+    }
+
+    @Override
+    public EObject getEObject(String uriFragment) {
+        if (ElementIdFragments.isIdFragment(uriFragment)) {
+            EObject root = ElementIdFragments.indexRootsById(getContents())
+                .get(ElementIdFragments.rootIdOf(uriFragment));
+            return ElementIdFragments.navigate(root, uriFragment);
+        }
+        return super.getEObject(uriFragment);
+    }
+}
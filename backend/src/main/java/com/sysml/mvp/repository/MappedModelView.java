@@ -0,0 +1,173 @@
+package com.sysml.mvp.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.InternalEObject;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存映射的只读模型视图
+ *
+ * 设计说明：
+ * 1. 打开时只映射数据文件和索引、解析尾部和类表，耗时与模型大小无关
+ * 2. 元素在首次访问时按索引偏移解码，物化结果以软引用缓存，内存紧张时可被回收，下次访问重新解码
+ * 3. 物化的元素不属于任何资源，指向其他元素的引用保持为"@elementId"代理，可通过resolve按需物化
+ * 4. 视图对应打开时的文件内容，文件被替换后由FileModelRepository按模型版本重新打开
+ */
+@Slf4j
+public final class MappedModelView {
+
+    private final ByteBuffer data;
+    private final ByteBuffer index;
+    private final int entryCount;
+    private final long recordCount;
+    private final BinaryModelCodec.RecordReader reader;
+    private final Map<String, ElementReference> materialized = new ConcurrentHashMap<>();
+    private final ReferenceQueue<EObject> collected = new ReferenceQueue<>();
+
+    private MappedModelView(ByteBuffer data, ByteBuffer index, int entryCount, long recordCount,
+                            BinaryModelCodec.RecordReader reader) {
+        this.data = data;
+        this.index = index;
+        this.entryCount = entryCount;
+        this.recordCount = recordCount;
+        this.reader = reader;
+    }
+
+    /**
+     * 映射数据文件及其索引
+     * @throws IOException 如果文件格式不正确或索引与数据文件不匹配
+     */
+    public static MappedModelView open(Path dataPath, EPackage.Registry packageRegistry) throws IOException {
+        ByteBuffer data = IndexedModelFile.map(dataPath);
+        IndexedModelFile.Footer footer = IndexedModelFile.Footer.read(data);
+        ByteBuffer index = IndexedModelFile.map(IndexedModelFile.indexPathFor(dataPath));
+
+        byte[] magic = new byte[IndexedModelFile.INDEX_MAGIC.length];
+        if (index.capacity() < IndexedModelFile.INDEX_HEADER_SIZE) {
+            throw new IOException("Corrupt model index: " + dataPath);
+        }
+        index.get(0, magic);
+        int version = index.getInt(magic.length);
+        long token = index.getLong(magic.length + 4);
+        int entryCount = index.getInt(magic.length + 12);
+        if (!Arrays.equals(magic, IndexedModelFile.INDEX_MAGIC) || version != IndexedModelFile.VERSION) {
+            throw new IOException("Corrupt model index: " + dataPath);
+        }
+        if (token != footer.token || index.capacity()
+                != IndexedModelFile.INDEX_HEADER_SIZE + (long) entryCount * IndexedModelFile.INDEX_ENTRY_SIZE) {
+            throw new IOException("Model index does not match data file: " + dataPath);
+        }
+        return new MappedModelView(data, index, entryCount, footer.recordCount,
+            IndexedModelFile.classTable(data, footer, packageRegistry));
+    }
+
+    /**
+     * 文件中的根元素数
+     */
+    public long size() {
+        return recordCount;
+    }
+
+    /**
+     * 当前仍被缓存的物化元素数
+     */
+    public int materializedCount() {
+        purgeCollected();
+        return (int) materialized.values().stream().filter(reference -> reference.get() != null).count();
+    }
+
+    /**
+     * 按elementId获取根元素，首次访问时解码
+     * @return 元素，不存在时返回null
+     */
+    public EObject get(String elementId) {
+        purgeCollected();
+        ElementReference cached = materialized.get(elementId);
+        EObject element = cached != null ? cached.get() : null;
+        if (element != null) {
+            return element;
+        }
+        try {
+            element = decode(elementId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode element " + elementId, e);
+        }
+        if (element != null) {
+            materialized.put(elementId, new ElementReference(elementId, element, collected));
+        }
+        return element;
+    }
+
+    /**
+     * 解析指向其他元素的代理；非代理或无法解析时原样返回
+     */
+    public EObject resolve(EObject object) {
+        if (object == null || !object.eIsProxy()) {
+            return object;
+        }
+        String fragment = ((InternalEObject) object).eProxyURI().fragment();
+        if (!ElementIdFragments.isIdFragment(fragment)) {
+            return object;
+        }
+        EObject resolved = ElementIdFragments.navigate(get(ElementIdFragments.rootIdOf(fragment)), fragment);
+        return resolved != null ? resolved : object;
+    }
+
+    private EObject decode(String elementId) throws IOException {
+        long hash = IndexedModelFile.hash(elementId);
+        // 找到第一个哈希不小于目标的条目，逐个比对哈希相同的记录
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compare(entryHash(mid), hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < entryCount && entryHash(i) == hash; i++) {
+            int entry = IndexedModelFile.INDEX_HEADER_SIZE + i * IndexedModelFile.INDEX_ENTRY_SIZE;
+            long offset = index.getLong(entry + 8);
+            int length = index.getInt(entry + 16);
+            DataInputStream in = new DataInputStream(new IndexedModelFile.ByteBufferInputStream(
+                IndexedModelFile.slice(data, offset, length)));
+            if (elementId.equals(BinaryModelCodec.readUtf(in))) {
+                return reader.read(in);
+            }
+        }
+        return null;
+    }
+
+    private long entryHash(int i) {
+        return index.getLong(IndexedModelFile.INDEX_HEADER_SIZE + i * IndexedModelFile.INDEX_ENTRY_SIZE);
+    }
+
+    private void purgeCollected() {
+        ElementReference reference;
+        while ((reference = (ElementReference) collected.poll()) != null) {
+            materialized.remove(reference.elementId, reference);
+        }
+    }
+
+    private static final class ElementReference extends SoftReference<EObject> {
+        private final String elementId;
+
+        ElementReference(String elementId, EObject element, ReferenceQueue<EObject> queue) {
+            super(element, queue);
+            this.elementId = elementId;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.sysml.mvp.repository;
+
+import java.io.*;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 模型文件的透明压缩
+ *
+ * 设计说明：
+ * 1. 写入时按配置以GZIP压缩（压缩级别1-9），文件名不变；读取时按GZIP魔数自动识别，
+ *    压缩与未压缩的文件可以混存，切换配置后旧文件照常读取、下次保存时按新配置写出
+ * 2. 只用于单文件格式（json、binary）：indexed格式按偏移随机读取，segmented格式各段单独提交，均不压缩
+ * 3. 流使用64KB缓冲，避免GZIP流默认512字节缓冲带来的大量小块读写
+ */
+public final class ModelCompression {
+
+    /**
+     * 不压缩
+     */
+    public static final int NONE = -1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+    private ModelCompression() {
+    }
+
+    /**
+     * 解析配置值
+     * @param compression none | gzip
+     * @param level 压缩级别1-9
+     * @return 压缩级别，不压缩时返回NONE
+     */
+    public static int resolveLevel(String compression, int level) {
+        if (compression == null || compression.isBlank() || "none".equalsIgnoreCase(compression)) {
+            return NONE;
+        }
+        if (!"gzip".equalsIgnoreCase(compression)) {
+            throw new IllegalArgumentException("Unsupported model compression: " + compression);
+        }
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 9: " + level);
+        }
+        return level;
+    }
+
+    /**
+     * 包装读取流：GZIP内容解压，其余原样返回
+     */
+    public static InputStream decoding(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == GZIP_MAGIC_FIRST && second == GZIP_MAGIC_SECOND) {
+            return new GZIPInputStream(buffered, BUFFER_SIZE);
+        }
+        return buffered;
+    }
+
+    /**
+     * 以指定级别压缩写出内容
+     * @param level 压缩级别，NONE表示原样写出
+     */
+    public static void write(OutputStream out, int level, AtomicFiles.ContentWriter writer) throws IOException {
+        if (level == NONE) {
+            writer.writeTo(out);
+            return;
+        }
+        LeveledGzipOutputStream gzip = new LeveledGzipOutputStream(out, level);
+        try {
+            writer.writeTo(gzip);
+            gzip.finish();
+        } finally {
+            gzip.release();
+        }
+    }
+
+    /**
+     * 可设置压缩级别的GZIP流，结束时只释放Deflater、不关闭底层流
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+
+        void release() {
+            def.end();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.sysml.mvp.repository;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 项目目录的进程间写锁
+ *
+ * 设计说明：
+ * 1. 以FileChannel.tryLock锁定项目目录下的.lock文件，防止共享数据目录的多个进程同时提交同一项目
+ * 2. 被其他进程占用时按app.file-lock.retry-count/retry-delay-ms重试，仍失败时抛出IOException
+ * 3. FileChannel锁属于整个JVM且不可重入，进程内先以ReentrantLock串行化；同一线程嵌套获取时只增加持有计数
+ */
+final class ProjectFileLock implements AutoCloseable {
+
+    static final String LOCK_FILE = ".lock";
+
+    private static final Map<Path, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private final ReentrantLock localLock;
+    private final FileChannel channel;
+    private final FileLock fileLock;
+
+    private ProjectFileLock(ReentrantLock localLock, FileChannel channel, FileLock fileLock) {
+        this.localLock = localLock;
+        this.channel = channel;
+        this.fileLock = fileLock;
+    }
+
+    /**
+     * 获取项目写锁，进程内等待，进程间按配置重试
+     * @param projectDir 项目目录（需已存在）
+     */
+    static ProjectFileLock acquire(Path projectDir, int retryCount, long retryDelayMs) throws IOException {
+        ReentrantLock local = localLock(projectDir);
+        local.lock();
+        return lockFile(projectDir, local, retryCount, retryDelayMs);
+    }
+
+    /**
+     * 不等待地尝试获取项目写锁（用于加载时的恢复流程）
+     * @return 锁，已被占用时返回null
+     */
+    static ProjectFileLock tryAcquire(Path projectDir) throws IOException {
+        ReentrantLock local = localLock(projectDir);
+        if (!local.tryLock()) {
+            return null;
+        }
+        try {
+            return lockFile(projectDir, local, 0, 0);
+        } catch (LockUnavailableException e) {
+            return null;
+        }
+    }
+
+    private static ReentrantLock localLock(Path projectDir) {
+        return LOCAL_LOCKS.computeIfAbsent(projectDir.toAbsolutePath().normalize(), k -> new ReentrantLock());
+    }
+
+    private static ProjectFileLock lockFile(Path projectDir, ReentrantLock local,
+                                            int retryCount, long retryDelayMs) throws IOException {
+        if (local.getHoldCount() > 1) {
+            return new ProjectFileLock(local, null, null);
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(projectDir.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            for (int attempt = 0; ; attempt++) {
+                FileLock lock;
+                try {
+                    lock = channel.tryLock();
+                } catch (OverlappingFileLockException e) {
+                    // 同一JVM中绕过本类直接持有的锁，按被占用处理
+                    lock = null;
+                }
+                if (lock != null) {
+                    return new ProjectFileLock(local, channel, lock);
+                }
+                if (attempt >= retryCount) {
+                    throw new LockUnavailableException(
+                        "Project is locked by another process: " + projectDir.getFileName());
+                }
+                Thread.sleep(retryDelayMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeQuietly(channel);
+            local.unlock();
+            throw new InterruptedIOException("Interrupted while waiting for project lock: " + projectDir.getFileName());
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            local.unlock();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (channel != null) {
+                // 关闭通道同时释放文件锁
+                channel.close();
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    boolean isNested() {
+        return fileLock == null;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // 已在失败路径上
+            }
+        }
+    }
+
+    /**
+     * 重试耗尽仍未获取到锁
+     */
+    static final class LockUnavailableException extends IOException {
+        LockUnavailableException(String message) {
+            super(message);
+        }
+    }
+}
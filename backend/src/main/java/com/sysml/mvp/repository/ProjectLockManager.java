@@ -0,0 +1,143 @@
+package com.sysml.mvp.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * 项目级读写锁管理
+ *
+ * 设计说明：
+ * 1. 每个项目一把StampedLock，不同项目之间互不阻塞
+ * 2. 读操作先以乐观戳执行，戳失效或执行中抛出异常（并发修改导致）时改为持有读锁重试；
+ *    项目尚未加载时直接持有读锁：首次读取要从磁盘加载模型，代价高且不应在戳失效后重复执行
+ * 3. 写操作在项目内串行执行
+ * 4. 通过Micrometer暴露竞争指标：
+ *    - sysml.model.lock.optimistic{project, result=success|retry}：乐观读结果
+ *    - sysml.model.lock.wait{project, mode=read|write}：获取悲观锁的等待时间
+ */
+@Slf4j
+@Component
+public class ProjectLockManager {
+
+    private final MeterRegistry meterRegistry;
+    private final FileModelRepository fileModelRepository;
+    private final Map<String, ProjectLock> locks = new ConcurrentHashMap<>();
+
+    public ProjectLockManager(MeterRegistry meterRegistry, FileModelRepository fileModelRepository) {
+        this.meterRegistry = meterRegistry;
+        this.fileModelRepository = fileModelRepository;
+    }
+
+    /**
+     * 执行只读操作
+     * 读操作不得修改模型，乐观执行期间可能看到不一致的中间状态，结果只在戳校验通过后返回
+     * @param projectId 项目ID
+     * @param action 只读操作
+     * @return 操作结果
+     */
+    public <T> T read(String projectId, Supplier<T> action) {
+        ProjectLock lock = lockFor(projectId);
+        if (!fileModelRepository.isLoaded(projectId)) {
+            return readLocked(lock, action);
+        }
+
+        StampedLock stampedLock = lock.stampedLock;
+        long stamp = stampedLock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                T result = action.get();
+                if (stampedLock.validate(stamp)) {
+                    lock.optimisticSuccess.increment();
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (stampedLock.validate(stamp)) {
+                    // 没有并发写入，异常与乐观读无关
+                    throw e;
+                }
+                log.debug("乐观读期间发生并发修改，改为读锁重试: {}", projectId);
+            }
+        }
+        lock.optimisticRetry.increment();
+        return readLocked(lock, action);
+    }
+
+    private <T> T readLocked(ProjectLock lock, Supplier<T> action) {
+        StampedLock stampedLock = lock.stampedLock;
+        long start = System.nanoTime();
+        long stamp = stampedLock.readLock();
+        lock.readWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        try {
+            return action.get();
+        } finally {
+            stampedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 执行写操作，同一项目的写操作串行
+     * @param projectId 项目ID
+     * @param action 写操作
+     * @return 操作结果
+     */
+    public <T> T write(String projectId, Supplier<T> action) {
+        ProjectLock lock = lockFor(projectId);
+        StampedLock stampedLock = lock.stampedLock;
+
+        long start = System.nanoTime();
+        long stamp = stampedLock.writeLock();
+        lock.writeWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        try {
+            return action.get();
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+
+    private ProjectLock lockFor(String projectId) {
+        ProjectLock lock = locks.get(projectId);
+        if (lock != null) {
+            return lock;
+        }
+        return locks.computeIfAbsent(projectId, id -> new ProjectLock(id, meterRegistry));
+    }
+
+    /**
+     * 单个项目的锁及其指标
+     */
+    private static final class ProjectLock {
+        private final StampedLock stampedLock = new StampedLock();
+        private final Counter optimisticSuccess;
+        private final Counter optimisticRetry;
+        private final Timer readWait;
+        private final Timer writeWait;
+
+        ProjectLock(String projectId, MeterRegistry meterRegistry) {
+            this.optimisticSuccess = Counter.builder("sysml.model.lock.optimistic")
+                .description("Optimistic model reads by outcome")
+                .tags("project", projectId, "result", "success")
+                .register(meterRegistry);
+            this.optimisticRetry = Counter.builder("sysml.model.lock.optimistic")
+                .description("Optimistic model reads by outcome")
+                .tags("project", projectId, "result", "retry")
+                .register(meterRegistry);
+            this.readWait = Timer.builder("sysml.model.lock.wait")
+                .description("Time spent waiting for the project model lock")
+                .tags("project", projectId, "mode", "read")
+                .register(meterRegistry);
+            this.writeWait = Timer.builder("sysml.model.lock.wait")
+                .description("Time spent waiting for the project model lock")
+                .tags("project", projectId, "mode", "write")
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.sysml.mvp.repository;
+
+import com.sysml.mvp.util.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * 项目级单写者队列
+ *
+ * 设计说明：
+ * 1. 每个项目一个写线程，按提交顺序（FIFO）排空命令队列，同一项目的修改只在该线程中执行
+ * 2. 每次最多取出maxBatchSize条命令交给applier一次处理（组提交），applier返回与命令一一对应的结果
+ * 3. 调用者的Future在所在批次处理完成（含持久化）后才完成；applier抛出异常时该批次全部以异常完成
+ * 4. 写线程空闲一段时间后退出，有新命令时按需重新启动
+ * 5. applier在写线程中执行，不得再向同一队列提交命令并等待其结果
+ * 6. virtualThreads=true且JVM支持时写线程为虚拟线程，保存时阻塞的文件I/O不占用平台线程
+ *
+ * @param <C> 命令类型
+ * @param <R> 结果类型
+ */
+@Slf4j
+public class ProjectWriteQueue<C, R> implements AutoCloseable {
+
+    private static final long IDLE_KEEP_ALIVE_SECONDS = 30;
+
+    private final String name;
+    private final int maxBatchSize;
+    private final BiFunction<String, List<C>, List<R>> applier;
+    private final boolean virtualThreads;
+    private final Map<String, Writer> writers = new ConcurrentHashMap<>();
+
+    /**
+     * @param name 写线程名前缀
+     * @param maxBatchSize 单次组提交的最大命令数
+     * @param applier 批量处理函数：(projectId, 命令列表) → 一一对应的结果列表
+     */
+    public ProjectWriteQueue(String name, int maxBatchSize, BiFunction<String, List<C>, List<R>> applier) {
+        this(name, maxBatchSize, applier, false);
+    }
+
+    /**
+     * @param name 写线程名前缀
+     * @param maxBatchSize 单次组提交的最大命令数
+     * @param applier 批量处理函数：(projectId, 命令列表) → 一一对应的结果列表
+     * @param virtualThreads 是否使用虚拟线程作为写线程（JVM不支持时忽略）
+     */
+    public ProjectWriteQueue(String name, int maxBatchSize, BiFunction<String, List<C>, List<R>> applier,
+                             boolean virtualThreads) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.applier = applier;
+        this.virtualThreads = virtualThreads && VirtualThreads.isSupported();
+    }
+
+    /**
+     * 提交命令
+     * @param projectId 项目ID
+     * @param command 命令
+     * @return 命令所在批次处理完成后完成的Future
+     */
+    public CompletableFuture<R> submit(String projectId, C command) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Writer writer = writers.computeIfAbsent(projectId, Writer::new);
+        writer.enqueue(new Pending<>(command, future));
+        return future;
+    }
+
+    /**
+     * @param projectId 项目ID
+     * @return 尚未取出的命令数
+     */
+    public int pendingCount(String projectId) {
+        Writer writer = writers.get(projectId);
+        return writer != null ? writer.pending.size() : 0;
+    }
+
+    /**
+     * 停止所有写线程，已取出的批次会执行完毕
+     */
+    @Override
+    public void close() {
+        writers.values().forEach(writer -> writer.executor.shutdown());
+    }
+
+    /**
+     * 单个项目的写线程及其命令队列
+     */
+    private final class Writer implements Runnable {
+        private final String projectId;
+        private final Queue<Pending<C, R>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final ThreadPoolExecutor executor;
+
+        Writer(String projectId) {
+            this.projectId = projectId;
+            String prefix = name + "-" + projectId + "-";
+            ThreadFactory threadFactory;
+            if (virtualThreads) {
+                threadFactory = VirtualThreads.factory(prefix, 1);
+            } else {
+                AtomicInteger sequence = new AtomicInteger();
+                threadFactory = runnable -> {
+                    Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+            }
+            this.executor = new ThreadPoolExecutor(1, 1, IDLE_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+
+        void enqueue(Pending<C, R> command) {
+            pending.add(command);
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    command.future.completeExceptionally(new IllegalStateException("Write queue is closed", e));
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                List<Pending<C, R>> batch = new ArrayList<>(Math.min(maxBatchSize, pending.size() + 1));
+                Pending<C, R> next;
+                while (batch.size() < maxBatchSize && (next = pending.poll()) != null) {
+                    batch.add(next);
+                }
+                if (batch.isEmpty()) {
+                    scheduled.set(false);
+                    // 释放标记后可能有新命令入队，且提交者看到标记仍为true而未调度
+                    if (pending.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                flush(batch);
+            }
+        }
+
+        private void flush(List<Pending<C, R>> batch) {
+            List<C> commands = new ArrayList<>(batch.size());
+            for (Pending<C, R> command : batch) {
+                commands.add(command.command);
+            }
+            try {
+                List<R> results = applier.apply(projectId, commands);
+                if (results == null || results.size() != batch.size()) {
+                    throw new IllegalStateException("Write queue applier returned "
+                        + (results == null ? "null" : results.size() + " results") + " for " + batch.size() + " commands");
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).future.complete(results.get(i));
+                }
+            } catch (Throwable e) {
+                log.warn("批量写入失败: project={}, commands={}", projectId, batch.size(), e);
+                for (Pending<C, R> command : batch) {
+                    command.future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private static final class Pending<C, R> {
+        private final C command;
+        private final CompletableFuture<R> future;
+
+        Pending(C command, CompletableFuture<R> future) {
+            this.command = command;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package com.sysml.mvp.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 分段存储的EMF资源
+ *
+ * 磁盘布局（URI指向项目下的model.segments目录）：
+ * <pre>
+ * manifest.json                 段数、代号、各段当前文件名
+ * segment-0007-g000012.bin      根对象数，各根对象的顺序号，BinaryModelCodec内容
+ * </pre>
+ *
+ * 设计说明：
+ * 1. 根对象按elementId哈希分到固定数量的段；加载后根对象留在读出它的段中，新根对象按哈希分配
+ * 2. 资源上挂EContentAdapter记录脏段：根对象增删和对象内任意特征变化都标记其所在段，
+ *    保存时只重写脏段，保存成本与变更规模成正比
+ * 3. 脏段写入带新代号的新文件并fsync，再以原子替换manifest的方式一次提交，最后删除旧文件；
+ *    提交前中断时旧manifest引用的旧文件保持完整；暂存（stage）与提交（commitStaged）可分开调用，
+ *    由仓库在两步之间写出metadata临时文件；中断遗留的未引用段文件由仓库持有项目文件锁时清理，
+ *    加载时不删除（可能是其他写入者已暂存、尚未提交的段）
+ * 4. 跨段引用写为片段"@elementId/相对路径"的代理，加载全部段后统一解析，不依赖根对象在资源中的位置
+ * 5. 各段并行解码，按顺序号合并恢复根对象原有顺序；中间插入或移动根对象时重新编号并重写全部段
+ */
+@Slf4j
+public class SegmentedModelResource extends ResourceImpl implements StagedModelResource {
+
+    static final String MANIFEST = "manifest.json";
+    static final int MANIFEST_VERSION = 1;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int defaultSegmentCount;
+    private final DirtySegmentTracker tracker = new DirtySegmentTracker();
+
+    private Manifest manifest;
+    // 根对象所在段和顺序号，仅在项目写锁下访问
+    private final Map<EObject, Integer> segmentOf = new IdentityHashMap<>();
+    private final Map<EObject, Long> orderOf = new IdentityHashMap<>();
+    private final BitSet dirty = new BitSet();
+    private boolean fullRewrite = true;
+    private long nextOrder;
+    private StagedSave staged;
+
+    public SegmentedModelResource(URI uri, int defaultSegmentCount) {
+        super(uri);
+        this.defaultSegmentCount = defaultSegmentCount;
+        eAdapters().add(tracker);
+    }
+
+    /**
+     * 段目录
+     */
+    public Path getDirectory() {
+        return Paths.get(getURI().toFileString());
+    }
+
+    /**
+     * 当前待写入的脏段数
+     */
+    public int getDirtySegmentCount() {
+        return fullRewrite ? segmentCount() : dirty.cardinality();
+    }
+
+    // ==================== 加载 ====================
+
+    @Override
+    public void load(Map<?, ?> options) throws IOException {
+        // 不经过URIConverter打开单个流，由doLoad直接读取段目录
+        load(InputStream.nullInputStream(), options);
+    }
+
+    @Override
+    protected void doLoad(InputStream ignored, Map<?, ?> options) throws IOException {
+        Path directory = getDirectory();
+        Path manifestPath = directory.resolve(MANIFEST);
+        if (!Files.exists(manifestPath)) {
+            throw new FileNotFoundException("Segment manifest not found: " + manifestPath);
+        }
+        Manifest loaded = MAPPER.readValue(manifestPath.toFile(), Manifest.class);
+        if (loaded.getFormatVersion() != MANIFEST_VERSION) {
+            throw new IOException("Unsupported segment manifest version: " + loaded.getFormatVersion());
+        }
+
+        EPackage.Registry registry = getResourceSet() != null
+            ? getResourceSet().getPackageRegistry() : EPackage.Registry.INSTANCE;
+        warmUp(registry);
+
+        List<Map.Entry<Integer, String>> files = new ArrayList<>(loaded.getSegments().entrySet());
+        List<Segment> segments;
+        try {
+            segments = files.parallelStream()
+                .map(entry -> readSegment(directory.resolve(entry.getValue()), entry.getKey(), registry))
+                .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // 按顺序号合并各段的根对象
+        List<RootEntry> roots = new ArrayList<>();
+        for (Segment segment : segments) {
+            for (int i = 0; i < segment.roots.size(); i++) {
+                roots.add(new RootEntry(segment.roots.get(i), segment.index, segment.orders[i]));
+            }
+        }
+        roots.sort(Comparator.comparingLong(entry -> entry.order));
+
+        tracker.suspend();
+        try {
+            List<EObject> contents = new ArrayList<>(roots.size());
+            for (RootEntry entry : roots) {
+                contents.add(entry.root);
+                segmentOf.put(entry.root, entry.segment);
+                orderOf.put(entry.root, entry.order);
+            }
+            ((InternalEList<EObject>) getContents()).addAllUnique(contents);
+            resolveSegmentProxies();
+        } finally {
+            tracker.resume();
+        }
+
+        // 未被manifest引用的段文件可能是其他写入者已暂存、尚未提交的内容，加载时不删除
+        manifest = loaded;
+        nextOrder = roots.isEmpty() ? 0 : roots.get(roots.size() - 1).order + 1;
+        dirty.clear();
+        fullRewrite = false;
+        log.debug("加载分段模型: {}个段, {}个根对象", segments.size(), roots.size());
+    }
+
+    private static Segment readSegment(Path file, int index, EPackage.Registry registry) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            DataInputStream data = new DataInputStream(in);
+            int count = BinaryModelCodec.readVarInt(data);
+            long[] orders = new long[count];
+            for (int i = 0; i < count; i++) {
+                orders[i] = BinaryModelCodec.readVarLong(data);
+            }
+            List<EObject> roots = BinaryModelCodec.read(data, registry);
+            if (roots.size() != count) {
+                throw new IOException("Segment " + file.getFileName() + " is corrupt");
+            }
+            return new Segment(index, roots, orders);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * EClass的特征列表等元数据是延迟计算的，并行解码前在单线程中先初始化
+     */
+    private static void warmUp(EPackage.Registry registry) {
+        for (Object value : new ArrayList<>(registry.values())) {
+            if (value instanceof EPackage ePackage) {
+                for (EClassifier classifier : ePackage.getEClassifiers()) {
+                    if (classifier instanceof EClass eClass) {
+                        eClass.getEAllStructuralFeatures();
+                        eClass.getEAllReferences();
+                        eClass.getFeatureCount();
+                        eClass.getEStructuralFeature("elementId");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 将跨段引用的代理替换为加载后的对象
+     */
+    private void resolveSegmentProxies() {
+        Map<String, EObject> rootsById = ElementIdFragments.indexRootsById(getContents());
+        ElementIdFragments.resolveProxies(getAllContents(),
+            fragment -> ElementIdFragments.navigate(rootsById.get(ElementIdFragments.rootIdOf(fragment)), fragment));
+    }
+
+    // ==================== 稳定片段 ====================
+
+    @Override
+    public String getURIFragment(EObject eObject) {
+        String fragment = EcoreUtil.getRootContainer(eObject).eResource() == this
+            ? ElementIdFragments.fragmentOf(eObject) : null;
+        return fragment != null ? fragment : super.getURIFragment(eObject);
+    }
+
+    @Override
+    public EObject getEObject(String uriFragment) {
+        if (ElementIdFragments.isIdFragment(uriFragment)) {
+            EObject root = ElementIdFragments.indexRootsById(getContents())
+                .get(ElementIdFragments.rootIdOf(uriFragment));
+            return ElementIdFragments.navigate(root, uriFragment);
+        }
+        return super.getEObject(uriFragment);
+    }
+
+    // ==================== 保存 ====================
+
+    @Override
+    public void save(Map<?, ?> options) throws IOException {
+        stage(options);
+        commitStaged();
+    }
+
+    @Override
+    public String stage(Map<?, ?> options) throws IOException {
+        Path directory = getDirectory();
+        Files.createDirectories(directory);
+        int segmentCount = segmentCount();
+        if (fullRewrite) {
+            renumber();
+        }
+
+        // 按段分组当前根对象（保持资源中的顺序）
+        List<List<EObject>> rootsBySegment = new ArrayList<>(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            rootsBySegment.add(new ArrayList<>());
+        }
+        for (EObject root : getContents()) {
+            rootsBySegment.get(assignSegment(root, segmentCount)).add(root);
+        }
+
+        // 未从磁盘加载的资源（如导入）整体覆盖已有的段文件
+        Manifest previous = manifest != null ? manifest : readManifestIfExists(directory);
+        Manifest next = new Manifest();
+        next.setSegmentCount(segmentCount);
+        next.setGeneration(previous != null ? previous.getGeneration() + 1 : 1);
+        List<Path> obsolete = new ArrayList<>();
+        int written = 0;
+        for (int segment = 0; segment < segmentCount; segment++) {
+            String current = previous != null && !fullRewrite ? previous.getSegments().get(segment) : null;
+            List<EObject> roots = rootsBySegment.get(segment);
+            boolean rewrite = fullRewrite || dirty.get(segment);
+            if (!rewrite) {
+                if (current != null) {
+                    next.getSegments().put(segment, current);
+                }
+                continue;
+            }
+            if (current != null) {
+                obsolete.add(directory.resolve(current));
+            }
+            if (roots.isEmpty()) {
+                continue;
+            }
+            String fileName = String.format("segment-%04d-g%06d.bin", segment, next.getGeneration());
+            writeSegment(directory.resolve(fileName), roots);
+            next.getSegments().put(segment, fileName);
+            written++;
+        }
+
+        if (fullRewrite && previous != null) {
+            previous.getSegments().values().forEach(file -> obsolete.add(directory.resolve(file)));
+        }
+
+        // 新manifest先写为临时文件，段文件已fsync
+        String checksum = AtomicFiles.writeTemp(directory.resolve(MANIFEST), out -> MAPPER.writeValue(out, next));
+        staged = new StagedSave(next, obsolete, written);
+        return checksum;
+    }
+
+    @Override
+    public void commitStaged() throws IOException {
+        if (staged == null) {
+            throw new IllegalStateException("No staged save: " + getURI());
+        }
+        // 原子替换manifest作为提交点（目录fsync同时持久化段文件的创建）
+        Path directory = getDirectory();
+        AtomicFiles.commit(directory.resolve(MANIFEST));
+        AtomicFiles.fsyncDirectory(directory);
+        for (Path file : staged.obsolete()) {
+            Files.deleteIfExists(file);
+        }
+
+        manifest = staged.manifest();
+        dirty.clear();
+        fullRewrite = false;
+        setModified(false);
+        log.debug("保存分段模型: 重写{}/{}个段", staged.written(), manifest.getSegmentCount());
+        staged = null;
+    }
+
+    /**
+     * 已暂存、待提交的保存
+     */
+    private record StagedSave(Manifest manifest, List<Path> obsolete, int written) {
+    }
+
+    private static Manifest readManifestIfExists(Path directory) throws IOException {
+        Path manifestPath = directory.resolve(MANIFEST);
+        return Files.exists(manifestPath) ? MAPPER.readValue(manifestPath.toFile(), Manifest.class) : null;
+    }
+
+    /**
+     * 段目录中是否有manifest未引用的段文件或遗留的manifest临时文件（只读检查，不需要持有锁）
+     */
+    static boolean hasUncommittedFiles(Path directory) {
+        try {
+            return !uncommittedFiles(directory).isEmpty();
+        } catch (IOException e) {
+            log.debug("检查未提交的段文件失败: {}", directory, e);
+            return false;
+        }
+    }
+
+    /**
+     * 删除提交前中断遗留的、manifest未引用的段文件和manifest临时文件
+     * 调用方必须持有项目文件锁：其他写入者暂存而未提交的段文件同样不被manifest引用
+     */
+    static void deleteUncommittedFiles(Path directory) throws IOException {
+        for (Path file : uncommittedFiles(directory)) {
+            Files.deleteIfExists(file);
+            log.info("删除未提交的段文件: {}", file);
+        }
+    }
+
+    private static List<Path> uncommittedFiles(Path directory) throws IOException {
+        Manifest current = readManifestIfExists(directory);
+        Set<String> referenced = current != null ? new HashSet<>(current.getSegments().values()) : Set.of();
+        Path manifestTemp = AtomicFiles.tempPathFor(directory.resolve(MANIFEST));
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return (name.startsWith("segment-") && !referenced.contains(name)) || file.equals(manifestTemp);
+            }).collect(Collectors.toList());
+        }
+    }
+
+    private void writeSegment(Path file, List<EObject> roots) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+            DataOutputStream data = new DataOutputStream(out);
+            BinaryModelCodec.writeVarInt(data, roots.size());
+            for (EObject root : roots) {
+                BinaryModelCodec.writeVarLong(data, orderOf.get(root));
+            }
+            data.flush();
+            BinaryModelCodec.write(roots, out);
+        }
+        AtomicFiles.fsync(file);
+    }
+
+    private int segmentCount() {
+        return manifest != null ? manifest.getSegmentCount() : defaultSegmentCount;
+    }
+
+    private int assignSegment(EObject root, int segmentCount) {
+        Integer segment = segmentOf.get(root);
+        if (segment == null) {
+            String id = ElementIdFragments.elementIdOf(root);
+            segment = Math.floorMod(id != null ? id.hashCode() : orderOf.get(root).hashCode(), segmentCount);
+            segmentOf.put(root, segment);
+        }
+        return segment;
+    }
+
+    /**
+     * 按资源中的当前顺序重新编号全部根对象
+     */
+    private void renumber() {
+        orderOf.clear();
+        long order = 0;
+        for (EObject root : getContents()) {
+            orderOf.put(root, order++);
+        }
+        nextOrder = order;
+    }
+
+    // ==================== 脏段跟踪 ====================
+
+    private void rootsAdded(List<EObject> roots, int position) {
+        if (fullRewrite) {
+            return;
+        }
+        if (position + roots.size() != getContents().size()) {
+            // 中间插入会打乱顺序号，全部重写
+            fullRewrite = true;
+            return;
+        }
+        for (EObject root : roots) {
+            orderOf.put(root, nextOrder++);
+            dirty.set(assignSegment(root, segmentCount()));
+        }
+    }
+
+    private void rootRemoved(EObject root) {
+        Integer segment = segmentOf.remove(root);
+        orderOf.remove(root);
+        if (segment != null) {
+            dirty.set(segment);
+        }
+    }
+
+    private void objectChanged(EObject object) {
+        if (fullRewrite) {
+            return;
+        }
+        EObject root = EcoreUtil.getRootContainer(object);
+        if (root.eResource() != this) {
+            return;
+        }
+        Integer segment = segmentOf.get(root);
+        if (segment != null) {
+            dirty.set(segment);
+        } else {
+            fullRewrite = true;
+        }
+    }
+
+    /**
+     * 监听资源内容和全部对象的变化
+     */
+    private final class DirtySegmentTracker extends EContentAdapter {
+        private boolean suspended;
+
+        void suspend() {
+            suspended = true;
+        }
+
+        void resume() {
+            suspended = false;
+        }
+
+        @Override
+        public void notifyChanged(Notification notification) {
+            super.notifyChanged(notification);
+            if (suspended || notification.isTouch() || notification.getEventType() == Notification.RESOLVE
+                    || notification.getEventType() == Notification.REMOVING_ADAPTER) {
+                return;
+            }
+            Object notifier = notification.getNotifier();
+            if (notifier == SegmentedModelResource.this) {
+                if (notification.getFeatureID(null) != RESOURCE__CONTENTS) {
+                    return;
+                }
+                resourceContentsChanged(notification);
+            } else if (notifier instanceof EObject object) {
+                objectChanged(object);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resourceContentsChanged(Notification notification) {
+            switch (notification.getEventType()) {
+                case Notification.ADD:
+                    rootsAdded(List.of((EObject) notification.getNewValue()), notification.getPosition());
+                    break;
+                case Notification.ADD_MANY:
+                    rootsAdded((List<EObject>) notification.getNewValue(), notification.getPosition());
+                    break;
+                case Notification.REMOVE:
+                    rootRemoved((EObject) notification.getOldValue());
+                    break;
+                case Notification.REMOVE_MANY:
+                    ((List<EObject>) notification.getOldValue()).forEach(SegmentedModelResource.this::rootRemoved);
+                    break;
+                case Notification.MOVE:
+                case Notification.SET:
+                    fullRewrite = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        protected boolean resolve() {
+            return false;
+        }
+    }
+
+    // ==================== 数据结构 ====================
+
+    /**
+     * manifest.json内容
+     */
+    @Data
+    public static class Manifest {
+        private int formatVersion = MANIFEST_VERSION;
+        private int segmentCount;
+        private long generation;
+        private SortedMap<Integer, String> segments = new TreeMap<>();
+    }
+
+    private record Segment(int index, List<EObject> roots, long[] orders) {
+    }
+
+    private record RootEntry(EObject root, int segment, long order) {
+    }
+
+    /**
+     * 删除段目录（格式切换时使用）
+     */
+    static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
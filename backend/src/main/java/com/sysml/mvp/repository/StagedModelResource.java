@@ -0,0 +1,28 @@
+package com.sysml.mvp.repository;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 分两步保存的模型资源（分段、索引格式）
+ *
+ * 设计说明：
+ * 1. stage写出全部数据并fsync，提交标记（manifest/偏移索引）只写为临时文件，磁盘上已提交的模型不变
+ * 2. commitStaged以原子重命名提交标记，之后才对外可见；FileModelRepository在两步之间写出metadata临时文件，
+ *    保证提交标记重命名时metadata临时文件已经落盘，中断后可按摘要补完提交
+ * 3. 两步之间资源不得修改（调用方持有项目写锁和文件锁）；stage失败或未提交时，下次保存重新暂存
+ */
+public interface StagedModelResource {
+
+    /**
+     * 写出数据和提交标记的临时文件
+     * @return 提交标记内容的SHA-256（十六进制）
+     */
+    String stage(Map<?, ?> options) throws IOException;
+
+    /**
+     * 提交最近一次暂存的内容
+     * @throws IllegalStateException 如果没有暂存的内容
+     */
+    void commitStaged() throws IOException;
+}
@@ -0,0 +1,44 @@
+package com.sysml.mvp.repository;
+
+import java.util.Locale;
+
+/**
+ * 项目模型的磁盘存储格式
+ *
+ * 设计说明：
+ * 1. JSON为sirius-emfjson格式，可读、可直接用于导入导出
+ * 2. BINARY为BinaryModelCodec紧凑格式，体积更小、加载更快，仅用于项目内部存储
+ * 3. SEGMENTED按elementId哈希分段存储为目录，保存时只重写变更涉及的段，适合大模型的频繁小修改
+ * 4. INDEXED为逐元素记录加偏移索引（model.idx），项目未加载时可内存映射后按元素读取
+ */
+public enum StorageFormat {
+    JSON("model.json"),
+    BINARY("model.bin"),
+    SEGMENTED("model.segments"),
+    INDEXED("model.ibin");
+
+    private final String fileName;
+
+    StorageFormat(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * 项目目录下的模型文件名（SEGMENTED为目录名）
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * 解析配置值（大小写不敏感）
+     * @throws IllegalArgumentException 如果不是已知格式
+     */
+    public static StorageFormat fromValue(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown storage format: " + value);
+        }
+    }
+}
@@ -0,0 +1,550 @@
+package com.sysml.mvp.repository;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.impl.DynamicEObjectImpl;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * 基于Jackson流式API的EMF JSON模型读取器
+ *
+ * 读取sirius-emfjson写出的格式：
+ * <pre>
+ * {"json": {...}, "ns": {"sysml": nsURI}, "content": [
+ *   {"eClass": "sysml:PartDefinition", "data": {"declaredName": "Engine", "ownedX": [{...}], "ref": {"$ref": "..."}}}
+ * ]}
+ * </pre>
+ *
+ * 设计说明：
+ * 1. 按token直接创建动态EObject并赋值，不构建JSON树；"data"先于"eClass"出现时才缓冲该对象的token
+ * 2. "前缀:类名"到EClass、类名下特征名到EStructuralFeature均查表缓存，每个类只建一次表
+ * 3. 短字符串值（≤32字符，如状态、枚举、类型名）从解析器字符缓冲区直接在池中查找，重复值不再分配新String；
+ *    按特征统计命中率，取值几乎不重复的特征不再入池
+ * 4. 非包含引用先记录，全部根对象加入资源后统一解析：资源内片段交给目标资源的getEObject（与其写出时的片段格式一致），
+ *    其他资源的URI创建代理；解析结果按片段缓存
+ * 5. 多值特征用addAllUnique批量写入（内容来自合法的已保存模型，不重复检查唯一性）
+ */
+public final class StreamingJsonModelReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Resource resource;
+    private final EPackage.Registry packageRegistry;
+    private final Map<String, String> namespaces = new HashMap<>();
+    private final Map<String, EClass> classes = new HashMap<>();
+    private final Map<EClass, Map<String, FeatureSlot>> featureTables = new IdentityHashMap<>();
+    private final StringPool strings = new StringPool();
+    private final Map<EStructuralFeature, FeatureSlot> slots = new IdentityHashMap<>();
+    private final List<PendingReference> pendingReferences = new ArrayList<>();
+    private final Map<String, EObject> objectsById = new HashMap<>();
+
+    /**
+     * @param resource 目标资源，读出的根对象加入其内容；EPackage从其ResourceSet的包注册表查找
+     */
+    public StreamingJsonModelReader(Resource resource) {
+        this.resource = resource;
+        this.packageRegistry = resource.getResourceSet() != null
+            ? resource.getResourceSet().getPackageRegistry() : EPackage.Registry.INSTANCE;
+    }
+
+    /**
+     * 读取模型并解析引用
+     * @throws IOException 不是EMF JSON格式或引用了未注册的类型
+     */
+    public void read(InputStream in) throws IOException {
+        List<EObject> roots = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("ns".equals(field)) {
+                    readNamespaces(parser);
+                } else if ("content".equals(field)) {
+                    expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        roots.add(readObject(parser));
+                    }
+                    expect(parser, parser.currentToken(), JsonToken.END_ARRAY);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        resource.getContents().addAll(roots);
+        resolveReferences();
+    }
+
+    // ==================== 对象 ====================
+
+    private void readNamespaces(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String prefix = parser.currentName();
+            parser.nextToken();
+            namespaces.put(prefix, parser.getText());
+        }
+    }
+
+    /**
+     * 读取一个对象，解析器位于其START_OBJECT
+     */
+    private EObject readObject(JsonParser parser) throws IOException {
+        EObject object = null;
+        TokenBuffer deferredData = null;
+        String id = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("eClass".equals(field)) {
+                object = create(resolveClass(strings.intern(parser)));
+                if (deferredData != null) {
+                    try (JsonParser buffered = deferredData.asParser()) {
+                        buffered.nextToken();
+                        readData(buffered, object);
+                    }
+                }
+            } else if ("data".equals(field)) {
+                if (object != null) {
+                    readData(parser, object);
+                } else {
+                    deferredData = new TokenBuffer(parser);
+                    deferredData.copyCurrentStructure(parser);
+                }
+            } else if ("id".equals(field)) {
+                id = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (object == null) {
+            throw new JsonParseException(parser, "Object without eClass");
+        }
+        if (id != null) {
+            objectsById.put(id, object);
+        }
+        return object;
+    }
+
+    /**
+     * 读取"data"中的特征值，解析器位于其START_OBJECT
+     */
+    private void readData(JsonParser parser, EObject object) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        Map<String, FeatureSlot> features = featureTable(object.eClass());
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            FeatureSlot slot = features.get(parser.currentName());
+            JsonToken token = parser.nextToken();
+            EStructuralFeature feature = slot != null ? slot.feature : null;
+            if (feature == null || token == JsonToken.VALUE_NULL) {
+                // 元模型已删除的特征或空值
+                parser.skipChildren();
+            } else if (feature instanceof EAttribute) {
+                readAttribute(parser, token, object, slot);
+            } else if (((EReference) feature).isContainment()) {
+                readContainment(parser, token, object, (EReference) feature);
+            } else {
+                readReference(parser, token, object, (EReference) feature);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readAttribute(JsonParser parser, JsonToken token, EObject object, FeatureSlot slot)
+            throws IOException {
+        EAttribute attribute = (EAttribute) slot.feature;
+        if (!attribute.isMany()) {
+            Object value = readValue(parser, token, slot);
+            if (value != null) {
+                object.eSet(attribute, value);
+            }
+            return;
+        }
+        expect(parser, token, JsonToken.START_ARRAY);
+        List<Object> values = new ArrayList<>();
+        for (JsonToken item = parser.nextToken(); item != JsonToken.END_ARRAY; item = parser.nextToken()) {
+            Object value = readValue(parser, item, slot);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        ((InternalEList<Object>) object.eGet(attribute)).addAllUnique(values);
+    }
+
+    private Object readValue(JsonParser parser, JsonToken token, FeatureSlot slot) throws IOException {
+        EDataType type = ((EAttribute) slot.feature).getEAttributeType();
+        Class<?> instanceClass = type.getInstanceClass();
+        switch (token) {
+            case VALUE_STRING:
+                String text = slot.pooled ? slot.intern(strings, parser) : parser.getText();
+                return instanceClass == String.class ? text : EcoreUtil.createFromString(type, text);
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return readNumber(parser, type, instanceClass);
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                if (instanceClass == boolean.class || instanceClass == Boolean.class) {
+                    return token == JsonToken.VALUE_TRUE;
+                }
+                return EcoreUtil.createFromString(type, parser.getText());
+            default:
+                parser.skipChildren();
+                return null;
+        }
+    }
+
+    private static Object readNumber(JsonParser parser, EDataType type, Class<?> instanceClass) throws IOException {
+        if (instanceClass == int.class || instanceClass == Integer.class) {
+            return parser.getIntValue();
+        } else if (instanceClass == long.class || instanceClass == Long.class) {
+            return parser.getLongValue();
+        } else if (instanceClass == double.class || instanceClass == Double.class) {
+            return parser.getDoubleValue();
+        } else if (instanceClass == float.class || instanceClass == Float.class) {
+            return parser.getFloatValue();
+        } else if (instanceClass == short.class || instanceClass == Short.class) {
+            return parser.getShortValue();
+        } else if (instanceClass == byte.class || instanceClass == Byte.class) {
+            return parser.getByteValue();
+        } else if (instanceClass == BigInteger.class) {
+            return parser.getBigIntegerValue();
+        } else if (instanceClass == BigDecimal.class) {
+            return parser.getDecimalValue();
+        }
+        return EcoreUtil.createFromString(type, parser.getText());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readContainment(JsonParser parser, JsonToken token, EObject object, EReference reference)
+            throws IOException {
+        if (!reference.isMany()) {
+            expect(parser, token, JsonToken.START_OBJECT);
+            object.eSet(reference, readObject(parser));
+            return;
+        }
+        expect(parser, token, JsonToken.START_ARRAY);
+        List<EObject> children = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            children.add(readObject(parser));
+        }
+        expect(parser, parser.currentToken(), JsonToken.END_ARRAY);
+        ((InternalEList<EObject>) object.eGet(reference)).addAllUnique(children);
+    }
+
+    private void readReference(JsonParser parser, JsonToken token, EObject object, EReference reference)
+            throws IOException {
+        if (!reference.isMany()) {
+            Ref target = readRef(parser, token);
+            if (target != null) {
+                pendingReferences.add(new PendingReference(object, reference, List.of(target)));
+            }
+            return;
+        }
+        expect(parser, token, JsonToken.START_ARRAY);
+        List<Ref> targets = new ArrayList<>();
+        for (JsonToken item = parser.nextToken(); item != JsonToken.END_ARRAY; item = parser.nextToken()) {
+            Ref target = readRef(parser, item);
+            if (target != null) {
+                targets.add(target);
+            }
+        }
+        if (!targets.isEmpty()) {
+            pendingReferences.add(new PendingReference(object, reference, targets));
+        }
+    }
+
+    /**
+     * 引用值：{"eClass": ..., "$ref": uri}、"uri"或"前缀:类名 uri"
+     */
+    private Ref readRef(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText();
+            int space = text.indexOf(' ');
+            return space < 0 ? new Ref(text, null)
+                : new Ref(text.substring(space + 1), resolveClass(text.substring(0, space)));
+        }
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String uri = null;
+        EClass type = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("$ref".equals(field) || "href".equals(field)) {
+                uri = parser.getText();
+            } else if ("eClass".equals(field)) {
+                type = resolveClass(strings.intern(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return uri != null ? new Ref(uri, type) : null;
+    }
+
+    // ==================== 查找表 ====================
+
+    private EClass resolveClass(String qualifiedName) throws IOException {
+        EClass cached = classes.get(qualifiedName);
+        if (cached != null) {
+            return cached;
+        }
+        EPackage ePackage;
+        String name;
+        int uriSeparator = qualifiedName.indexOf("#//");
+        if (uriSeparator >= 0) {
+            ePackage = packageRegistry.getEPackage(qualifiedName.substring(0, uriSeparator));
+            name = qualifiedName.substring(uriSeparator + 3);
+        } else {
+            int colon = qualifiedName.indexOf(':');
+            String prefix = colon >= 0 ? qualifiedName.substring(0, colon) : "";
+            name = qualifiedName.substring(colon + 1);
+            String nsURI = namespaces.get(prefix);
+            ePackage = nsURI != null ? packageRegistry.getEPackage(nsURI) : findPackageByPrefix(prefix);
+        }
+        EClassifier classifier = ePackage != null ? ePackage.getEClassifier(name) : null;
+        if (!(classifier instanceof EClass)) {
+            throw new IOException("Unknown EClass: " + qualifiedName);
+        }
+        classes.put(qualifiedName, (EClass) classifier);
+        return (EClass) classifier;
+    }
+
+    /**
+     * "ns"缺失或位于内容之后时按nsPrefix查找
+     */
+    private EPackage findPackageByPrefix(String prefix) {
+        for (String nsURI : new ArrayList<>(packageRegistry.keySet())) {
+            EPackage ePackage = packageRegistry.getEPackage(nsURI);
+            if (ePackage != null && prefix.equals(ePackage.getNsPrefix())) {
+                return ePackage;
+            }
+        }
+        return null;
+    }
+
+    private Map<String, FeatureSlot> featureTable(EClass eClass) {
+        Map<String, FeatureSlot> table = featureTables.get(eClass);
+        if (table == null) {
+            table = new HashMap<>();
+            for (EStructuralFeature feature : eClass.getEAllStructuralFeatures()) {
+                if (!feature.isTransient() && !feature.isDerived() && feature.isChangeable()
+                        && !(feature instanceof EReference && ((EReference) feature).isContainer())) {
+                    table.put(feature.getName(), slots.computeIfAbsent(feature, FeatureSlot::new));
+                }
+            }
+            featureTables.put(eClass, table);
+        }
+        return table;
+    }
+
+    private static EObject create(EClass eClass) {
+        return eClass.isAbstract() || eClass.isInterface() ? new DynamicEObjectImpl(eClass) : EcoreUtil.create(eClass);
+    }
+
+    // ==================== 引用解析 ====================
+
+    @SuppressWarnings("unchecked")
+    private void resolveReferences() {
+        URI base = resource.getURI();
+        Map<String, EObject> resolved = new HashMap<>();
+        for (PendingReference pending : pendingReferences) {
+            EReference reference = pending.reference;
+            if (!reference.isMany()) {
+                pending.owner.eSet(reference, resolve(pending.targets.get(0), reference, base, resolved));
+                continue;
+            }
+            List<EObject> values = new ArrayList<>(pending.targets.size());
+            for (Ref target : pending.targets) {
+                values.add(resolve(target, reference, base, resolved));
+            }
+            List<EObject> list = (List<EObject>) pending.owner.eGet(reference, false);
+            if (reference.getEOpposite() != null || !list.isEmpty()) {
+                // 双向引用的另一端可能已加入部分元素
+                for (EObject value : values) {
+                    if (!list.contains(value)) {
+                        list.add(value);
+                    }
+                }
+            } else {
+                ((InternalEList<EObject>) list).addAllUnique(values);
+            }
+        }
+        pendingReferences.clear();
+    }
+
+    private EObject resolve(Ref target, EReference reference, URI base, Map<String, EObject> resolved) {
+        String fragment;
+        int hash = target.uri.indexOf('#');
+        if (hash < 0) {
+            fragment = target.uri;
+        } else if (hash == 0) {
+            fragment = target.uri.substring(1);
+        } else {
+            URI uri = URI.createURI(target.uri);
+            if (base != null && uri.isRelative()) {
+                uri = uri.resolve(base);
+            }
+            if (base == null || !uri.trimFragment().equals(base.trimFragment())) {
+                return proxy(target, reference, uri);
+            }
+            fragment = uri.fragment();
+        }
+        EObject local = resolved.get(fragment);
+        if (local == null) {
+            local = objectsById.get(fragment);
+            if (local == null) {
+                local = resource.getEObject(fragment);
+            }
+            if (local == null) {
+                URI proxyUri = base != null ? base.appendFragment(fragment) : URI.createURI("#" + fragment);
+                return proxy(target, reference, proxyUri);
+            }
+            resolved.put(fragment, local);
+        }
+        return local;
+    }
+
+    private static EObject proxy(Ref target, EReference reference, URI uri) {
+        EClass type = target.type != null ? target.type : reference.getEReferenceType();
+        InternalEObject proxy = (InternalEObject) create(type);
+        proxy.eSetProxyURI(uri);
+        return proxy;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+
+    /**
+     * 特征及其字符串池命中统计：取值几乎不重复的特征（如ID、名称）停止入池，避免池被唯一值填满
+     */
+    private static final class FeatureSlot {
+        static final int SAMPLE = 256;
+
+        final EStructuralFeature feature;
+        boolean pooled = true;
+        private int lookups;
+        private int hits;
+
+        FeatureSlot(EStructuralFeature feature) {
+            this.feature = feature;
+        }
+
+        String intern(StringPool pool, JsonParser parser) throws IOException {
+            String value = pool.intern(parser);
+            if (pool.lastHit) {
+                hits++;
+            }
+            if (++lookups == SAMPLE) {
+                pooled = hits * 4 >= SAMPLE;
+            }
+            return value;
+        }
+    }
+
+    private record Ref(String uri, EClass type) {
+    }
+
+    private record PendingReference(EObject owner, EReference reference, List<Ref> targets) {
+    }
+
+    /**
+     * 短字符串池：按解析器字符缓冲区查找，命中时不分配新String
+     */
+    static final class StringPool {
+        static final int MAX_LENGTH = 32;
+        static final int MAX_ENTRIES = 1 << 16;
+
+        private String[] table = new String[1024];
+        private int size;
+        // 最近一次intern是否命中池中已有的字符串
+        boolean lastHit;
+
+        String intern(JsonParser parser) throws IOException {
+            lastHit = false;
+            int length = parser.getTextLength();
+            if (length > MAX_LENGTH) {
+                return parser.getText();
+            }
+            char[] chars = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + chars[offset + i];
+            }
+            int mask = table.length - 1;
+            int index = spread(hash) & mask;
+            for (String candidate = table[index]; candidate != null; candidate = table[index]) {
+                if (candidate.hashCode() == hash && matches(candidate, chars, offset, length)) {
+                    lastHit = true;
+                    return candidate;
+                }
+                index = (index + 1) & mask;
+            }
+            String value = new String(chars, offset, length);
+            if (size < MAX_ENTRIES) {
+                table[index] = value;
+                if (++size * 2 > table.length) {
+                    rehash();
+                }
+            }
+            return value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private static boolean matches(String candidate, char[] chars, int offset, int length) {
+            if (candidate.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (candidate.charAt(i) != chars[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 相邻字符串（如"part-1"、"part-2"）的hashCode连续，乘法散列避免线性探测聚集
+         */
+        private static int spread(int hash) {
+            int mixed = hash * 0x9E3779B9;
+            return mixed ^ (mixed >>> 16);
+        }
+
+        private void rehash() {
+            String[] old = table;
+            table = new String[old.length * 2];
+            int mask = table.length - 1;
+            for (String value : old) {
+                if (value != null) {
+                    int index = spread(value.hashCode()) & mask;
+                    while (table[index] != null) {
+                        index = (index + 1) & mask;
+                    }
+                    table[index] = value;
+                }
+            }
+        }
+    }
+}
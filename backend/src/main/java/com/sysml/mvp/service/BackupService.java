@@ -0,0 +1,94 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.BackupSnapshotDTO;
+import com.sysml.mvp.repository.BackupRepository;
+import com.sysml.mvp.repository.FileModelRepository;
+import com.sysml.mvp.repository.ProjectLockManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 项目备份服务
+ *
+ * 设计说明：
+ * 1. 备份直接读取磁盘上已提交的项目文件，不占用项目读写锁，不阻塞编辑
+ * 2. 恢复持有项目写锁替换文件，完成后清除项目缓存（模型版本随之递增，快照和验证结果随之失效），
+ *    默认项目同时丢弃反向引用索引和reqId索引，下次使用时从恢复后的模型重建；
+ *    元素版本登记重置，恢复前签发的ETag不再匹配
+ */
+@Slf4j
+@Service
+public class BackupService {
+
+    private static final String DEFAULT_PROJECT_ID = "default";
+
+    private final BackupRepository backupRepository;
+    private final FileModelRepository fileModelRepository;
+    private final ProjectLockManager projectLockManager;
+    private final ReferenceIndex referenceIndex;
+    private final ReqIdIndex reqIdIndex;
+    private final ElementVersionRegistry elementVersionRegistry;
+
+    public BackupService(BackupRepository backupRepository,
+                         FileModelRepository fileModelRepository,
+                         ProjectLockManager projectLockManager,
+                         ReferenceIndex referenceIndex,
+                         ReqIdIndex reqIdIndex,
+                         ElementVersionRegistry elementVersionRegistry) {
+        this.backupRepository = backupRepository;
+        this.fileModelRepository = fileModelRepository;
+        this.projectLockManager = projectLockManager;
+        this.referenceIndex = referenceIndex;
+        this.reqIdIndex = reqIdIndex;
+        this.elementVersionRegistry = elementVersionRegistry;
+    }
+
+    /**
+     * 创建快照，只写入与已有快照不同的块
+     */
+    public BackupSnapshotDTO backup(String projectId) throws IOException {
+        return backupRepository.backup(projectId);
+    }
+
+    public List<BackupSnapshotDTO> listSnapshots(String projectId) throws IOException {
+        return backupRepository.listSnapshots(projectId);
+    }
+
+    /**
+     * 恢复到指定时间点及之前最近的快照
+     * @return 所用快照，没有符合条件的快照时返回null
+     */
+    public BackupSnapshotDTO restore(String projectId, Instant pointInTime) throws IOException {
+        try {
+            return projectLockManager.write(projectId, () -> {
+                BackupSnapshotDTO restored;
+                try {
+                    restored = backupRepository.restore(projectId, pointInTime);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (restored != null) {
+                    fileModelRepository.clearCache(projectId);
+                    // 恢复前签发的ETag不能匹配恢复后的元素
+                    elementVersionRegistry.reset();
+                    if (DEFAULT_PROJECT_ID.equals(projectId)) {
+                        referenceIndex.invalidate();
+                        reqIdIndex.invalidate();
+                    }
+                }
+                return restored;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public BackupRepository.GarbageCollection collectGarbage() throws IOException {
+        return backupRepository.collectGarbage();
+    }
+}
@@ -0,0 +1,214 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.BatchOperationDTO;
+import com.sysml.mvp.dto.BatchOperationResultDTO;
+import com.sysml.mvp.dto.BatchResultDTO;
+import com.sysml.mvp.service.UniversalElementService.BatchModelView;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 批量变更领域服务
+ *
+ * 需求实现：
+ * - REQ-C1-1: reqId唯一性验证 - 批次内创建/改名的reqId同样原子预留
+ * - REQ-C2-3: 约束对象必填 - 批次内创建的RequirementUsage必须有subject
+ * - REQ-C2-4: 删除前检查被引用保护 - 引用者未在同一批次中删除时拒绝删除
+ *
+ * 设计说明：
+ * 1. 需求领域规则作为UniversalElementService.applyBatch的领域检查，在同一次项目写锁内先于结构校验执行，
+ *    检查读取的引用、类型、reqId与随后应用时的模型一致，检查与应用之间不会插入单个写操作
+ * 2. 领域检查或执行任一失败，整批不生效，已预留的reqId全部释放
+ * 3. 批次提交后确认新reqId，释放被改名或删除的需求定义的旧reqId
+ */
+@Service
+public class BatchService {
+
+    private final UniversalElementService universalElementService;
+    private final ReqIdIndex reqIdIndex;
+
+    public BatchService(UniversalElementService universalElementService, ReqIdIndex reqIdIndex) {
+        this.universalElementService = universalElementService;
+        this.reqIdIndex = reqIdIndex;
+    }
+
+    /**
+     * 执行批量变更
+     * @param operations 按顺序执行的操作
+     * @return 批次结果，committed=false时没有任何操作生效
+     */
+    public BatchResultDTO execute(List<BatchOperationDTO> operations) {
+        List<Reservation> reservations = new ArrayList<>();
+        List<String[]> releases = new ArrayList<>();
+
+        // 写锁外预先加载reqId索引，缩短写锁持有时间
+        reqIdIndex.ensureLoaded();
+        // 批次内的创建和删除同样校验引用完整性
+        for (BatchOperationDTO operation : operations) {
+            if (operation != null) {
+                operation.setCheckReferences(true);
+            }
+        }
+
+        BatchResultDTO result;
+        try {
+            result = universalElementService.applyBatch(operations,
+                model -> checkDomainRules(operations, model, reservations, releases));
+        } catch (RuntimeException e) {
+            releaseAll(reservations);
+            throw e;
+        }
+        if (!result.isCommitted()) {
+            releaseAll(reservations);
+            return result;
+        }
+
+        for (Reservation reservation : reservations) {
+            reqIdIndex.confirm(reservation.reqId, reservation.token, reservation.elementId);
+        }
+        for (String[] release : releases) {
+            reqIdIndex.release(release[0], release[1]);
+        }
+        return result;
+    }
+
+    /**
+     * 内部方法：按顺序检查需求领域规则，模拟reqId的变化
+     * 在项目写锁内执行，只通过model读取模型
+     * @return 未通过的操作下标 → 结果
+     */
+    private Map<Integer, BatchOperationResultDTO> checkDomainRules(List<BatchOperationDTO> operations,
+                                                                   BatchModelView model,
+                                                                   List<Reservation> reservations,
+                                                                   List<String[]> releases) {
+        Map<Integer, BatchOperationResultDTO> rejected = new LinkedHashMap<>();
+        Set<String> deletedInBatch = new HashSet<>();
+        for (BatchOperationDTO operation : operations) {
+            if (operation != null && BatchOperationDTO.OP_DELETE.equals(operation.getOp())
+                    && operation.getElementId() != null) {
+                deletedInBatch.add(operation.getElementId());
+            }
+        }
+
+        Map<String, String> eClassById = new HashMap<>();
+        Map<String, Object> reqIdById = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationDTO operation = operations.get(i);
+            if (operation == null || operation.getOp() == null || operation.getElementId() == null) {
+                continue;
+            }
+            String elementId = operation.getElementId();
+            Map<String, Object> attributes = operation.getAttributes() != null
+                ? operation.getAttributes() : Collections.emptyMap();
+
+            switch (operation.getOp()) {
+                case BatchOperationDTO.OP_CREATE:
+                    eClassById.put(elementId, operation.getEClass());
+                    if ("RequirementDefinition".equals(operation.getEClass())) {
+                        // 【REQ-C1-1】reqId必填且唯一
+                        Object reqId = attributes.get("reqId");
+                        if (reqId == null) {
+                            rejected.put(i, rejection(i, operation, 400, "reqId is required for RequirementDefinition"));
+                        } else if (!reserve(reqId.toString(), elementId, model, reservations)) {
+                            rejected.put(i, rejection(i, operation, 409, "reqId already exists: " + reqId));
+                        } else {
+                            reqIdById.put(elementId, reqId);
+                        }
+                    } else if ("RequirementUsage".equals(operation.getEClass()) && attributes.get("subject") == null) {
+                        // 【REQ-C2-3】约束对象必填
+                        rejected.put(i, rejection(i, operation, 400, "subject is required for RequirementUsage"));
+                    }
+                    break;
+                case BatchOperationDTO.OP_PATCH:
+                    Object newReqId = attributes.get("reqId");
+                    if (newReqId == null || !isRequirementDefinition(elementId, model, eClassById)) {
+                        break;
+                    }
+                    Object oldReqId = currentReqId(elementId, model, reqIdById);
+                    if (oldReqId != null && newReqId.toString().equals(oldReqId.toString())) {
+                        break;
+                    }
+                    if (!reserve(newReqId.toString(), elementId, model, reservations)) {
+                        rejected.put(i, rejection(i, operation, 409, "reqId already exists: " + newReqId));
+                        break;
+                    }
+                    if (oldReqId != null) {
+                        releases.add(new String[]{oldReqId.toString(), elementId});
+                    }
+                    reqIdById.put(elementId, newReqId);
+                    break;
+                case BatchOperationDTO.OP_DELETE:
+                    if (!isRequirementDefinition(elementId, model, eClassById)) {
+                        break;
+                    }
+                    // 【REQ-C2-4】同一批次中一并删除的引用者不阻止删除
+                    Set<String> referrers = new HashSet<>(model.findReferrers(elementId, "of"));
+                    referrers.removeAll(deletedInBatch);
+                    if (!referrers.isEmpty()) {
+                        rejected.put(i, rejection(i, operation, 409, String.format(
+                            "Cannot delete requirement %s: referenced by %d usages", elementId, referrers.size())));
+                        break;
+                    }
+                    Object deletedReqId = currentReqId(elementId, model, reqIdById);
+                    if (deletedReqId != null) {
+                        releases.add(new String[]{deletedReqId.toString(), elementId});
+                    }
+                    reqIdById.put(elementId, null);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return rejected;
+    }
+
+    private boolean isRequirementDefinition(String elementId, BatchModelView model, Map<String, String> eClassById) {
+        if (eClassById.containsKey(elementId)) {
+            return "RequirementDefinition".equals(eClassById.get(elementId));
+        }
+        return "RequirementDefinition".equals(model.getEClass(elementId));
+    }
+
+    private Object currentReqId(String elementId, BatchModelView model, Map<String, Object> reqIdById) {
+        if (reqIdById.containsKey(elementId)) {
+            return reqIdById.get(elementId);
+        }
+        return model.getAttribute(elementId, "reqId");
+    }
+
+    private boolean reserve(String reqId, String elementId, BatchModelView model, List<Reservation> reservations) {
+        // 索引在等待写锁期间被invalidate时从锁内的模型重新加载，不经过快照
+        String token = reqIdIndex.reserve(reqId, () -> model.queryElements("RequirementDefinition"));
+        if (token == null) {
+            return false;
+        }
+        reservations.add(new Reservation(reqId, token, elementId));
+        return true;
+    }
+
+    private void releaseAll(List<Reservation> reservations) {
+        for (Reservation reservation : reservations) {
+            reqIdIndex.release(reservation.reqId, reservation.token);
+        }
+    }
+
+    private static BatchOperationResultDTO rejection(int index, BatchOperationDTO operation, int status, String error) {
+        return new BatchOperationResultDTO(index, operation.getOp(), operation.getElementId(), status, null, error);
+    }
+
+    /**
+     * 批次内的reqId预留
+     */
+    private static final class Reservation {
+        private final String reqId;
+        private final String token;
+        private final String elementId;
+
+        Reservation(String reqId, String token, String elementId) {
+            this.reqId = reqId;
+            this.token = token;
+            this.elementId = elementId;
+        }
+    }
+}
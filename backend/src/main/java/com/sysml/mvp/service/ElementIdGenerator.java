@@ -0,0 +1,16 @@
+package com.sysml.mvp.service;
+
+/**
+ * 元素ID生成器
+ *
+ * 默认实现为TimeOrderedIdGenerator；需要其他ID方案时声明一个@Primary的实现即可替换
+ */
+public interface ElementIdGenerator {
+
+    /**
+     * 生成新的元素ID
+     * @param prefix ID前缀（如req-def、trace或小写的eClass名）
+     * @return 形如 {prefix}-{id} 的唯一ID
+     */
+    String nextId(String prefix);
+}
@@ -0,0 +1,98 @@
+package com.sysml.mvp.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 元素版本登记
+ *
+ * 设计说明：
+ * 1. 为每个元素维护单调递增的版本号，未登记的元素版本为1
+ * 2. 更新和删除都会递增版本，删除后以相同ID重建的元素不会复用旧版本号
+ * 3. ETag包含纪元，重启后旧ETag不会误匹配
+ * 4. 版本的读取与校验由调用方在项目写锁内完成
+ * 5. 模型被整体替换（恢复备份、外部修改）时reset：更换纪元使之前签发的ETag全部无法匹配；
+ *    重置后的版本号从已签发的最大版本之后开始，已解析出版本号、尚在处理中的请求也不会误匹配
+ */
+@Component
+public class ElementVersionRegistry {
+
+    /**
+     * If-Match无法识别或来自其他进程纪元时返回的版本，不会与任何元素匹配
+     */
+    public static final long UNMATCHABLE = -1L;
+
+    private static final long INITIAL_VERSION = 1L;
+
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final String processEpoch = Long.toString(System.currentTimeMillis(), 36);
+    private long resets;
+    private long highestVersion = INITIAL_VERSION;
+    private volatile String epoch = processEpoch;
+    private volatile long baseVersion = INITIAL_VERSION;
+
+    /**
+     * @param elementId 元素ID
+     * @return 元素当前版本
+     */
+    public long current(String elementId) {
+        return versions.getOrDefault(elementId, baseVersion);
+    }
+
+    /**
+     * 递增元素版本
+     * @param elementId 元素ID
+     * @return 新版本
+     */
+    public synchronized long increment(String elementId) {
+        long version = versions.merge(elementId, baseVersion + 1, (current, one) -> current + 1);
+        highestVersion = Math.max(highestVersion, version);
+        return version;
+    }
+
+    /**
+     * 丢弃所有元素版本并更换纪元，之前签发的ETag不再匹配
+     * 版本不区分项目，任一项目的模型被整体替换时调用
+     */
+    public synchronized void reset() {
+        versions.clear();
+        baseVersion = ++highestVersion;
+        epoch = processEpoch + "." + ++resets;
+    }
+
+    /**
+     * 将版本号格式化为ETag
+     */
+    public String toETag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * 解析If-Match请求头
+     * @param ifMatch 请求头值，可为null
+     * @return 期望的版本；未提供或为"*"时返回null（不校验）；无法匹配时返回UNMATCHABLE
+     */
+    public Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if ("*".equals(tag)) {
+            return null;
+        }
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        String prefix = "\"" + epoch + "-";
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"")) {
+            return UNMATCHABLE;
+        }
+        try {
+            return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return UNMATCHABLE;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.sysml.mvp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sysml.mvp.config.WarmupProperties;
+import com.sysml.mvp.repository.AtomicFiles;
+import com.sysml.mvp.repository.FileModelRepository;
+import com.sysml.mvp.repository.ProjectLockManager;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 索引检查点服务
+ *
+ * 设计说明：
+ * 1. 反向引用索引和reqId索引以indexes.checkpoint保存在项目目录，标记生成时的模型摘要（metadata.json的modelSha256）
+ * 2. 应用就绪时（先于启动预热）读取检查点，摘要与磁盘上已提交的模型文件一致则直接恢复，不再遍历全部元素；
+ *    缺失、损坏或过期时在后台线程重建索引并写入新检查点
+ * 3. 检查点由与磁盘模型版本一致的快照生成，摘要在项目读锁内读取，写入的内容总是对应一个已提交的模型
+ * 4. 关闭时若模型自上次检查点后有变化，重新写入；进程异常退出时检查点只会过期，不会出错
+ */
+@Slf4j
+@Service
+public class IndexCheckpointService {
+
+    static final String CHECKPOINT_FILE = "indexes.checkpoint";
+    static final int FORMAT_VERSION = 1;
+    private static final String PROJECT_ID = "default";
+
+    private final FileModelRepository fileModelRepository;
+    private final UniversalElementService universalElementService;
+    private final ReferenceIndex referenceIndex;
+    private final ReqIdIndex reqIdIndex;
+    private final ProjectLockManager projectLockManager;
+    private final ObjectMapper objectMapper;
+    private final WarmupProperties properties;
+
+    /**
+     * 最近一次恢复或写入的检查点对应的模型摘要
+     */
+    private volatile String checkpointedSha256;
+
+    public IndexCheckpointService(FileModelRepository fileModelRepository,
+                                  UniversalElementService universalElementService,
+                                  ReferenceIndex referenceIndex,
+                                  ReqIdIndex reqIdIndex,
+                                  ProjectLockManager projectLockManager,
+                                  ObjectMapper objectMapper,
+                                  WarmupProperties properties) {
+        this.fileModelRepository = fileModelRepository;
+        this.universalElementService = universalElementService;
+        this.referenceIndex = referenceIndex;
+        this.reqIdIndex = reqIdIndex;
+        this.projectLockManager = projectLockManager;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * 应用就绪时恢复检查点，无法恢复时在后台重建
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isIndexCheckpoint() || restore()) {
+            return;
+        }
+        Thread thread = new Thread(this::rebuild, "index-checkpoint");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 关闭前写入检查点（模型未变化或索引未构建时跳过）
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!properties.isIndexCheckpoint() || !referenceIndex.isLoaded()) {
+            return;
+        }
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            log.warn("关闭时写入索引检查点失败", e);
+        }
+    }
+
+    /**
+     * 从检查点恢复索引
+     * 检查点的摘要与磁盘上已提交模型文件的实际摘要比较（不信任metadata，中断的提交可能使其落后于模型）；
+     * 读锁内只读取摘要和模型版本（乐观读可能执行两次），恢复在锁外进行，
+     * 恢复后模型版本已变化说明期间有写入未反映到恢复的索引中，丢弃恢复结果
+     * @return 检查点存在且与磁盘上的模型一致时返回true
+     */
+    public boolean restore() {
+        Path file = checkpointPath();
+        if (!Files.exists(file)) {
+            return false;
+        }
+        Checkpoint checkpoint;
+        try {
+            checkpoint = objectMapper.readValue(file.toFile(), Checkpoint.class);
+        } catch (IOException e) {
+            log.warn("读取索引检查点失败: {}", file, e);
+            return false;
+        }
+        DiskState disk = projectLockManager.read(PROJECT_ID, () -> new DiskState(
+            fileModelRepository.computeModelChecksum(PROJECT_ID), fileModelRepository.getModelVersion(PROJECT_ID)));
+        if (checkpoint.getFormatVersion() != FORMAT_VERSION || disk.sha256() == null
+                || !disk.sha256().equals(checkpoint.getModelSha256())) {
+            log.info("索引检查点已过期: {}", file);
+            return false;
+        }
+
+        boolean references = referenceIndex.restore(checkpoint.getReferences());
+        boolean reqIds = reqIdIndex.restore(checkpoint.getReqIds());
+        long version = projectLockManager.read(PROJECT_ID, () -> fileModelRepository.getModelVersion(PROJECT_ID));
+        if (version != disk.modelVersion()) {
+            if (references) {
+                referenceIndex.invalidate();
+            }
+            if (reqIds) {
+                reqIdIndex.invalidate();
+            }
+            log.info("恢复索引检查点期间模型已变化，改为重建: {}", file);
+            return false;
+        }
+        checkpointedSha256 = disk.sha256();
+        log.info("从检查点恢复索引: {}个被引用元素, {}个reqId",
+            checkpoint.getReferences().size(), checkpoint.getReqIds().size());
+        return true;
+    }
+
+    /**
+     * 把与磁盘模型一致的索引写入检查点
+     * @return 是否写入；模型自上次检查点后未变化、没有摘要或快照已落后于模型时返回false
+     */
+    public synchronized boolean checkpoint() {
+        ModelSnapshot snapshot = universalElementService.snapshot();
+        String sha256 = projectLockManager.read(PROJECT_ID, () ->
+            snapshot.getVersion() == fileModelRepository.getModelVersion(PROJECT_ID)
+                ? fileModelRepository.getModelChecksum(PROJECT_ID) : null);
+        if (sha256 == null || sha256.equals(checkpointedSha256)) {
+            return false;
+        }
+
+        ReferenceIndex references = new ReferenceIndex();
+        references.ensureLoaded(snapshot::getElements);
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.setFormatVersion(FORMAT_VERSION);
+        checkpoint.setModelSha256(sha256);
+        checkpoint.setReferences(references.export());
+        checkpoint.setReqIds(ReqIdIndex.ownersOf(snapshot.getElements()));
+        try {
+            AtomicFiles.write(checkpointPath(), out -> objectMapper.writeValue(out, checkpoint));
+        } catch (IOException e) {
+            log.warn("写入索引检查点失败", e);
+            return false;
+        }
+        checkpointedSha256 = sha256;
+        return true;
+    }
+
+    /**
+     * 后台重建：构建快照和索引后写入检查点
+     */
+    void rebuild() {
+        long start = System.nanoTime();
+        try {
+            universalElementService.warmUp();
+            reqIdIndex.ensureLoaded();
+            checkpoint();
+            log.info("索引重建并写入检查点, 耗时{}ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("后台重建索引失败", e);
+        }
+    }
+
+    private Path checkpointPath() {
+        return fileModelRepository.getProjectDirectory(PROJECT_ID).resolve(CHECKPOINT_FILE);
+    }
+
+    /**
+     * 读锁内观察到的磁盘模型摘要和模型版本
+     */
+    private record DiskState(String sha256, long modelVersion) {
+    }
+
+    /**
+     * 检查点文件内容
+     */
+    @Data
+    static class Checkpoint {
+        private int formatVersion;
+        private String modelSha256;
+        private Map<String, Map<String, Set<String>>> references = Map.of();
+        private Map<String, String> reqIds = Map.of();
+    }
+}
@@ -0,0 +1,147 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.ElementDTO;
+
+import java.util.*;
+
+/**
+ * 不可变模型快照
+ *
+ * 设计说明：
+ * 1. 某一模型版本下全部元素的DTO视图，按模型内容顺序排列
+ * 2. 写操作通过withAdded/withReplaced/withRemoved（批量写入用withChanges）派生新快照，未改动的元素DTO在版本间共享
+ * 3. 快照中的DTO视为只读，调用方不得修改
+ */
+public final class ModelSnapshot {
+
+    private final String projectId;
+    private final long version;
+    private final List<ElementDTO> elements;
+    private final Map<String, Integer> positions;
+
+    private ModelSnapshot(String projectId, long version, List<ElementDTO> elements, Map<String, Integer> positions) {
+        this.projectId = projectId;
+        this.version = version;
+        this.elements = elements;
+        this.positions = positions;
+    }
+
+    /**
+     * 从完整元素列表构建快照
+     */
+    public static ModelSnapshot of(String projectId, long version, List<ElementDTO> elements) {
+        List<ElementDTO> copy = Collections.unmodifiableList(new ArrayList<>(elements));
+        return new ModelSnapshot(projectId, version, copy, indexPositions(copy));
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return 全部元素（只读）
+     */
+    public List<ElementDTO> getElements() {
+        return elements;
+    }
+
+    /**
+     * @param elementId 元素ID
+     * @return 元素DTO，不存在返回null
+     */
+    public ElementDTO getElement(String elementId) {
+        Integer position = positions.get(elementId);
+        return position != null ? elements.get(position) : null;
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * 派生追加了一个元素的新快照
+     */
+    public ModelSnapshot withAdded(ElementDTO element, long newVersion) {
+        List<ElementDTO> next = new ArrayList<>(elements.size() + 1);
+        next.addAll(elements);
+        next.add(element);
+        Map<String, Integer> nextPositions = new HashMap<>(positions);
+        if (element.getElementId() != null) {
+            nextPositions.putIfAbsent(element.getElementId(), next.size() - 1);
+        }
+        return new ModelSnapshot(projectId, newVersion, Collections.unmodifiableList(next), nextPositions);
+    }
+
+    /**
+     * 派生替换了一个元素的新快照，位置索引在版本间共享
+     */
+    public ModelSnapshot withReplaced(ElementDTO element, long newVersion) {
+        Integer position = positions.get(element.getElementId());
+        if (position == null) {
+            return withAdded(element, newVersion);
+        }
+        List<ElementDTO> next = new ArrayList<>(elements);
+        next.set(position, element);
+        return new ModelSnapshot(projectId, newVersion, Collections.unmodifiableList(next), positions);
+    }
+
+    /**
+     * 派生删除了一个元素的新快照
+     */
+    public ModelSnapshot withRemoved(String elementId, long newVersion) {
+        Integer position = positions.get(elementId);
+        if (position == null) {
+            return new ModelSnapshot(projectId, newVersion, elements, positions);
+        }
+        List<ElementDTO> next = new ArrayList<>(elements);
+        next.remove((int) position);
+        List<ElementDTO> frozen = Collections.unmodifiableList(next);
+        return new ModelSnapshot(projectId, newVersion, frozen, indexPositions(frozen));
+    }
+
+    /**
+     * 一次派生包含多处变更的新快照（批量写入）
+     * @param removed 删除的元素ID，同一ID出现在upserts中表示删除后重新创建，追加到末尾
+     * @param upserts 新增或替换的元素，按创建顺序追加未出现在快照中的元素
+     * @param newVersion 新版本号
+     */
+    public ModelSnapshot withChanges(Set<String> removed, Map<String, ElementDTO> upserts, long newVersion) {
+        List<ElementDTO> next = new ArrayList<>(elements.size() + upserts.size());
+        Set<String> placed = new HashSet<>();
+        for (ElementDTO element : elements) {
+            String elementId = element.getElementId();
+            if (elementId != null && removed.contains(elementId)) {
+                continue;
+            }
+            ElementDTO replacement = elementId != null ? upserts.get(elementId) : null;
+            if (replacement != null) {
+                next.add(replacement);
+                placed.add(elementId);
+            } else {
+                next.add(element);
+            }
+        }
+        for (Map.Entry<String, ElementDTO> entry : upserts.entrySet()) {
+            if (!placed.contains(entry.getKey())) {
+                next.add(entry.getValue());
+            }
+        }
+        List<ElementDTO> frozen = Collections.unmodifiableList(next);
+        return new ModelSnapshot(projectId, newVersion, frozen, indexPositions(frozen));
+    }
+
+    private static Map<String, Integer> indexPositions(List<ElementDTO> elements) {
+        Map<String, Integer> positions = new HashMap<>(elements.size() * 2);
+        for (int i = 0; i < elements.size(); i++) {
+            String elementId = elements.get(i).getElementId();
+            if (elementId != null) {
+                positions.putIfAbsent(elementId, i);
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,99 @@
+package com.sysml.mvp.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模型快照存储（MVCC）
+ *
+ * 设计说明：
+ * 1. 每个项目保存最新发布的不可变快照，读操作直接读取快照，不持有模型锁
+ * 2. 写操作在项目写锁内派生并发布新快照，只保留版本更高的快照
+ * 3. 请求可以固定（pin）一个快照，请求内的所有读操作看到同一版本；
+ *    同一线程内的写操作发布后，固定的快照随之前移，保证读到自己的写入；
+ *    在其他线程（如单写者队列的写线程）发布时，由等待写入完成的调用线程自行前移
+ * 4. 请求也可以只声明延迟固定，首次读取快照时才固定，不读取模型的请求不构建快照
+ */
+@Component
+public class ModelSnapshotStore {
+
+    private final Map<String, ModelSnapshot> latest = new ConcurrentHashMap<>();
+    private final ThreadLocal<ModelSnapshot> pinned = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> pinOnFirstRead = new ThreadLocal<>();
+
+    /**
+     * @return 最新发布的快照，尚未构建时返回null
+     */
+    public ModelSnapshot latest(String projectId) {
+        return latest.get(projectId);
+    }
+
+    /**
+     * @return 当前线程固定的该项目快照，没有时返回null
+     */
+    public ModelSnapshot pinned(String projectId) {
+        ModelSnapshot snapshot = pinned.get();
+        return snapshot != null && snapshot.getProjectId().equals(projectId) ? snapshot : null;
+    }
+
+    /**
+     * 发布新快照，版本不高于已发布快照时忽略
+     * @return 发布后该项目的最新快照
+     */
+    public ModelSnapshot publish(ModelSnapshot snapshot) {
+        ModelSnapshot current = latest.merge(snapshot.getProjectId(), snapshot,
+            (existing, candidate) -> candidate.getVersion() > existing.getVersion() ? candidate : existing);
+        if (pinned(snapshot.getProjectId()) != null) {
+            pinned.set(current);
+        }
+        return current;
+    }
+
+    /**
+     * 丢弃项目快照，下次读取时重新构建
+     */
+    public void invalidate(String projectId) {
+        latest.remove(projectId);
+        if (pinned(projectId) != null) {
+            pinned.remove();
+        }
+    }
+
+    /**
+     * 为当前线程固定快照
+     */
+    public void pin(ModelSnapshot snapshot) {
+        pinned.set(snapshot);
+    }
+
+    /**
+     * 声明当前线程在首次读取快照时固定该快照
+     */
+    public void pinOnFirstRead() {
+        pinOnFirstRead.set(Boolean.TRUE);
+    }
+
+    /**
+     * @return 当前线程是否声明了延迟固定
+     */
+    public boolean isPinOnFirstRead() {
+        return pinOnFirstRead.get() != null;
+    }
+
+    /**
+     * 解除当前线程固定的快照
+     */
+    public void unpin() {
+        pinned.remove();
+    }
+
+    /**
+     * 解除当前线程固定的快照并取消延迟固定（请求结束时调用）
+     */
+    public void release() {
+        pinned.remove();
+        pinOnFirstRead.remove();
+    }
+}
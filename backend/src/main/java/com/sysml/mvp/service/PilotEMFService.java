@@ -11,7 +11,6 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * Pilot元模型动态EMF服务
@@ -26,6 +25,7 @@ import java.util.UUID;
 public class PilotEMFService {
     
     private final EMFModelRegistry modelRegistry;
+    private final ElementIdGenerator elementIdGenerator;
     
     /**
      * REQ-B2-1: 创建RequirementDefinition
@@ -45,7 +45,7 @@ public class PilotEMFService {
         EObject reqDef = sysmlPackage.getEFactoryInstance().create(reqDefClass);
         
         // 生成唯一ID
-        String id = "req-def-" + UUID.randomUUID().toString();
+        String id = elementIdGenerator.nextId("req-def");
         setAttributeIfExists(reqDef, "elementId", id);
         
         // 映射API字段到Pilot字段
@@ -88,7 +88,7 @@ public class PilotEMFService {
         EObject reqUsage = sysmlPackage.getEFactoryInstance().create(reqUsageClass);
         
         // 生成唯一ID
-        String id = "req-usage-" + UUID.randomUUID().toString();
+        String id = elementIdGenerator.nextId("req-usage");
         setAttributeIfExists(reqUsage, "elementId", id);
         
         // 设置基本属性
@@ -136,7 +136,7 @@ public class PilotEMFService {
         EObject dependency = sysmlPackage.getEFactoryInstance().create(dependencyClass);
         
         // 生成唯一ID
-        String id = "trace-" + UUID.randomUUID().toString();
+        String id = elementIdGenerator.nextId("trace");
         setAttributeIfExists(dependency, "elementId", id);
         
         // 设置source和target引用
@@ -375,7 +375,7 @@ public class PilotEMFService {
         
         // 生成唯一ID（如果没有提供）
         if (!attributes.containsKey("elementId")) {
-            String id = eClassName.toLowerCase() + "-" + UUID.randomUUID().toString();
+            String id = elementIdGenerator.nextId(eClassName.toLowerCase());
             setAttributeIfExists(element, "elementId", id);
         }
         
@@ -0,0 +1,197 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.repository.FileModelRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * 项目文件监听
+ *
+ * 设计说明：
+ * 1. 用WatchService监听项目根目录和各项目目录（含分段格式的段目录），不在请求路径上轮询修改时间
+ * 2. 同一项目的事件合并：最后一个事件之后安静debounce-ms再处理，一次提交或一次同步产生的多个事件只处理一次
+ * 3. 处理时由FileModelRepository比较提交标记文件的指纹，本进程自己的提交不会触发；
+ *    判定为外部修改时只清除该项目的缓存（模型版本随之递增，快照和验证结果随之失效），
+ *    默认项目同时丢弃反向引用索引和reqId索引，下次使用时从新模型重建；元素版本登记重置，之前签发的ETag不再匹配
+ * 4. 临时文件和锁文件的事件忽略；事件溢出时所有已监听项目都按变更处理
+ */
+@Slf4j
+@Component
+public class ProjectFileWatcher {
+
+    private static final String DEFAULT_PROJECT_ID = "default";
+
+    @Value("${app.data.watch.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.data.watch.debounce-ms:500}")
+    private long debounceMs = 500;
+
+    private final FileModelRepository fileModelRepository;
+    private final ReferenceIndex referenceIndex;
+    private final ReqIdIndex reqIdIndex;
+    private final ElementVersionRegistry elementVersionRegistry;
+
+    /**
+     * 项目目录及其子目录的监听键 → 项目ID
+     */
+    private final Map<WatchKey, String> projectKeys = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private WatchKey rootKey;
+    private Thread thread;
+
+    public ProjectFileWatcher(FileModelRepository fileModelRepository,
+                              ReferenceIndex referenceIndex,
+                              ReqIdIndex reqIdIndex,
+                              ElementVersionRegistry elementVersionRegistry) {
+        this.fileModelRepository = fileModelRepository;
+        this.referenceIndex = referenceIndex;
+        this.reqIdIndex = reqIdIndex;
+        this.elementVersionRegistry = elementVersionRegistry;
+    }
+
+    // 允许测试时缩短合并窗口
+    void setDebounceMs(long debounceMs) {
+        this.debounceMs = debounceMs;
+    }
+
+    /**
+     * 注册现有项目并启动监听线程
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path projectsDir = fileModelRepository.getProjectsDirectory();
+        Files.createDirectories(projectsDir);
+        watchService = projectsDir.getFileSystem().newWatchService();
+        rootKey = projectsDir.register(watchService, ENTRY_CREATE);
+        try (Stream<Path> projects = Files.list(projectsDir)) {
+            projects.filter(Files::isDirectory).forEach(dir -> register(dir, dir.getFileName().toString()));
+        }
+        thread = new Thread(this::run, "project-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("监听项目文件: {}", projectsDir);
+    }
+
+    /**
+     * 停止监听
+     */
+    @PreDestroy
+    public void stop() {
+        if (watchService == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("关闭文件监听失败", e);
+        }
+    }
+
+    private void run() {
+        long debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMs);
+        Map<String, Long> due = new HashMap<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                WatchKey key;
+                if (due.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    long wait = due.values().stream().mapToLong(Long::longValue).min().getAsLong() - System.nanoTime();
+                    key = watchService.poll(Math.max(0, wait), TimeUnit.NANOSECONDS);
+                }
+                if (key != null) {
+                    collect(key, due, System.nanoTime() + debounceNanos);
+                }
+                long now = System.nanoTime();
+                for (Iterator<Map.Entry<String, Long>> it = due.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<String, Long> entry = it.next();
+                    if (entry.getValue() - now <= 0) {
+                        it.remove();
+                        onProjectChanged(entry.getKey());
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("处理项目文件变更失败", e);
+            }
+        }
+    }
+
+    /**
+     * 取出监听键上的事件，登记新目录并推迟相关项目的处理时间
+     */
+    private void collect(WatchKey key, Map<String, Long> due, long deadline) {
+        Path dir = (Path) key.watchable();
+        String projectId = projectKeys.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                projectKeys.values().forEach(id -> due.put(id, deadline));
+                continue;
+            }
+            Path child = dir.resolve((Path) event.context());
+            if (key == rootKey) {
+                if (Files.isDirectory(child)) {
+                    register(child, child.getFileName().toString());
+                }
+                continue;
+            }
+            if (projectId == null || FileModelRepository.isTransientFile(child)) {
+                continue;
+            }
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+                register(child, projectId);
+            }
+            due.put(projectId, deadline);
+        }
+        if (!key.reset()) {
+            projectKeys.remove(key);
+        }
+    }
+
+    /**
+     * 监听项目目录及其子目录
+     */
+    private void register(Path dir, String projectId) {
+        try (Stream<Path> dirs = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                projectKeys.put(path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), projectId);
+            }
+        } catch (IOException e) {
+            log.warn("监听项目目录失败: {}", dir, e);
+        }
+    }
+
+    /**
+     * 项目文件变更合并后的处理
+     */
+    void onProjectChanged(String projectId) {
+        if (!fileModelRepository.invalidateIfModifiedExternally(projectId)) {
+            return;
+        }
+        elementVersionRegistry.reset();
+        if (DEFAULT_PROJECT_ID.equals(projectId)) {
+            referenceIndex.invalidate();
+            reqIdIndex.invalidate();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Map;
  * - REQ-B3-1: 导出JSON项目文件
  * - REQ-B3-2: 导入JSON项目文件  
  * - REQ-B3-3: 导入导出一致性保证
+ * - 项目存储格式切换（json/binary/segmented/indexed）
  */
 public interface ProjectService {
     
@@ -28,4 +29,13 @@ public interface ProjectService {
      * @throws IllegalArgumentException 如果JSON格式错误或缺少必填字段
      */
     Map<String, Object> importProject(String projectId, String jsonContent);
-}
\ No newline at end of file
+    
+    /**
+     * 切换项目的磁盘存储格式，模型内容不变
+     * @param projectId 项目ID
+     * @param format 目标格式（json/binary/segmented/indexed，大小写不敏感）
+     * @return 切换结果：projectId、previousFormat、storageFormat
+     * @throws IllegalArgumentException 如果格式未知
+     */
+    Map<String, Object> convertStorageFormat(String projectId, String format);
+}
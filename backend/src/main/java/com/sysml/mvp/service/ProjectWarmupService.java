@@ -0,0 +1,190 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.config.WarmupProperties;
+import com.sysml.mvp.repository.FileModelRepository;
+import com.sysml.mvp.repository.StorageFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 启动预热服务
+ *
+ * 设计说明：
+ * 1. 应用就绪后在后台线程中执行，不阻塞启动；预热完成前WarmupHealthIndicator报告OUT_OF_SERVICE
+ * 2. 按metadata.json的updatedAt从新到旧排序，依次纳入预热计划，直到达到max-projects；
+ *    估算占用（磁盘大小×expansion-factor）超出剩余内存预算的项目跳过，继续考虑后面较小的项目
+ * 3. 计划内的项目在固定大小的线程池中并行加载；indexed格式同时建立内存映射视图，
+ *    默认项目额外构建快照、反向引用索引和reqId索引
+ * 4. 单个项目失败只计数并记录日志，不影响其他项目，也不阻止就绪
+ */
+@Slf4j
+@Service
+public class ProjectWarmupService {
+
+    static final String DEFAULT_PROJECT_ID = "default";
+
+    /**
+     * 预热阶段
+     */
+    public enum State {
+        PENDING, RUNNING, COMPLETED, DISABLED
+    }
+
+    /**
+     * 预热进度
+     * @param planned 计划预热的项目数
+     * @param skipped 超出项目数上限或内存预算而跳过的项目数
+     * @param estimatedBytes 计划内项目的估算内存占用
+     */
+    public record Progress(State state, int planned, int completed, int failed, int skipped,
+                           long estimatedBytes, long budgetBytes) {
+    }
+
+    private final FileModelRepository fileModelRepository;
+    private final UniversalElementService universalElementService;
+    private final ReqIdIndex reqIdIndex;
+    private final WarmupProperties properties;
+
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile State state = State.PENDING;
+    private volatile int planned;
+    private volatile int skipped;
+    private volatile long estimatedBytes;
+
+    public ProjectWarmupService(FileModelRepository fileModelRepository,
+                                UniversalElementService universalElementService,
+                                ReqIdIndex reqIdIndex,
+                                WarmupProperties properties) {
+        this.fileModelRepository = fileModelRepository;
+        this.universalElementService = universalElementService;
+        this.reqIdIndex = reqIdIndex;
+        this.properties = properties;
+    }
+
+    /**
+     * 应用就绪后在后台开始预热
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            state = State.DISABLED;
+            log.info("启动预热已关闭");
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "project-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 执行预热（阻塞直到计划内的项目全部完成）
+     */
+    public void warmUp() {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        List<Candidate> plan = plan();
+        if (!plan.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(properties.resolveParallelism(), plan.size()), runnable -> {
+                    Thread thread = new Thread(runnable, "project-warmup-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            try {
+                List<Future<?>> futures = new ArrayList<>(plan.size());
+                for (Candidate candidate : plan) {
+                    futures.add(executor.submit(() -> warmUpProject(candidate)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("启动预热被中断");
+            } catch (ExecutionException e) {
+                log.warn("启动预热任务异常", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        state = State.COMPLETED;
+        log.info("启动预热完成: {}个项目, 失败{}个, 跳过{}个, 估算占用{}MB, 耗时{}ms",
+            completed.get(), failed.get(), skipped, estimatedBytes / (1024 * 1024),
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return 当前预热进度
+     */
+    public Progress getProgress() {
+        return new Progress(state, planned, completed.get(), failed.get(), skipped,
+            estimatedBytes, properties.resolveMemoryBudgetBytes());
+    }
+
+    /**
+     * 按最近更新时间排序，在项目数上限和内存预算内选出预热的项目
+     */
+    List<Candidate> plan() {
+        List<Candidate> ranked = new ArrayList<>();
+        for (String projectId : fileModelRepository.listProjects()) {
+            ranked.add(new Candidate(projectId, fileModelRepository.getLastUpdated(projectId),
+                fileModelRepository.getModelSizeOnDisk(projectId)));
+        }
+        ranked.sort(Comparator.comparing(Candidate::lastUpdated).reversed());
+
+        long budget = properties.resolveMemoryBudgetBytes();
+        long used = 0;
+        int skippedCount = 0;
+        List<Candidate> selected = new ArrayList<>();
+        for (Candidate candidate : ranked) {
+            long estimate = (long) (candidate.sizeOnDisk() * properties.getExpansionFactor());
+            if (selected.size() >= properties.getMaxProjects() || used + estimate > budget) {
+                skippedCount++;
+                log.debug("跳过预热: {} (估算{}KB)", candidate.projectId(), estimate / 1024);
+                continue;
+            }
+            used += estimate;
+            selected.add(candidate);
+        }
+        planned = selected.size();
+        skipped = skippedCount;
+        estimatedBytes = used;
+        return selected;
+    }
+
+    private void warmUpProject(Candidate candidate) {
+        String projectId = candidate.projectId();
+        long start = System.nanoTime();
+        try {
+            fileModelRepository.loadProject(projectId);
+            if (fileModelRepository.getStorageFormat(projectId) == StorageFormat.INDEXED) {
+                fileModelRepository.getMappedView(projectId);
+            }
+            if (DEFAULT_PROJECT_ID.equals(projectId)) {
+                universalElementService.warmUp();
+                reqIdIndex.ensureLoaded();
+            }
+            completed.incrementAndGet();
+            log.debug("预热项目: {}, 耗时{}ms", projectId, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("预热项目失败: {}", projectId, e);
+        }
+    }
+
+    record Candidate(String projectId, Instant lastUpdated, long sizeOnDisk) {
+    }
+}
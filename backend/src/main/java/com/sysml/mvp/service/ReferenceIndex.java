@@ -0,0 +1,200 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.ElementDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 反向引用索引
+ *
+ * 需求实现：
+ * - REQ-C2-4: 删除前检查被引用保护 - 按被引用元素直接查找引用者
+ * - REQ-C3-1/REQ-C3-2: 追溯关系两端的反向查找
+ *
+ * 设计说明：
+ * 1. 维护 被引用elementId → 特征名 → 引用者elementId集合，覆盖of、subject、fromId、toId
+ * 2. 首次使用时从全部元素构建，之后由UniversalElementService在创建/更新/删除时增量维护
+ * 3. 写操作串行（与首次构建互斥），读操作无锁，查询耗时与引用者数量成正比
+ * 4. 增删均为幂等的集合操作，构建与增量维护交叠时结果仍然正确
+ * 5. 可从IndexCheckpointService的检查点恢复，替代首次构建
+ */
+@Component
+public class ReferenceIndex {
+
+    /**
+     * 建立索引的引用特征
+     */
+    public static final List<String> REFERENCE_FEATURES = List.of("of", "subject", "fromId", "toId");
+
+    private final Map<String, Map<String, Set<String>>> referrersByTarget = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * 确保索引已构建
+     * @param allElements 首次构建时读取全部元素
+     */
+    public void ensureLoaded(Supplier<List<ElementDTO>> allElements) {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            for (ElementDTO element : allElements.get()) {
+                addReferences(element);
+            }
+            loaded = true;
+        }
+    }
+
+    /**
+     * 从检查点恢复，索引已构建时忽略
+     * @param entries 被引用elementId → 特征名 → 引用者elementId集合
+     * @return 是否采用了检查点内容
+     */
+    public synchronized boolean restore(Map<String, Map<String, Set<String>>> entries) {
+        if (loaded) {
+            return false;
+        }
+        entries.forEach((targetId, byFeature) -> byFeature.forEach((feature, referrers) ->
+            referrersByTarget
+                .computeIfAbsent(targetId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(feature, k -> ConcurrentHashMap.newKeySet())
+                .addAll(referrers)));
+        loaded = true;
+        return true;
+    }
+    
+    /**
+     * 导出索引内容（写检查点用）
+     * @return 被引用elementId → 特征名 → 引用者elementId集合（副本）
+     */
+    public synchronized Map<String, Map<String, Set<String>>> export() {
+        Map<String, Map<String, Set<String>>> copy = new HashMap<>(referrersByTarget.size() * 2);
+        referrersByTarget.forEach((targetId, byFeature) -> {
+            Map<String, Set<String>> features = new HashMap<>();
+            byFeature.forEach((feature, referrers) -> features.put(feature, new HashSet<>(referrers)));
+            copy.put(targetId, features);
+        });
+        return copy;
+    }
+    
+    /**
+     * 是否已经构建
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 元素创建后登记其引用，索引未构建时忽略（构建时会读到该元素）
+     */
+    public synchronized void add(ElementDTO element) {
+        if (loaded) {
+            addReferences(element);
+        }
+    }
+
+    /**
+     * 元素删除后移除其引用
+     */
+    public synchronized void remove(ElementDTO element) {
+        if (loaded) {
+            removeReferences(element);
+        }
+    }
+
+    /**
+     * 元素更新后按新旧快照调整引用
+     */
+    public synchronized void update(ElementDTO before, ElementDTO after) {
+        if (loaded) {
+            removeReferences(before);
+            addReferences(after);
+        }
+    }
+
+    /**
+     * 丢弃索引，下次使用时重新构建
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+        referrersByTarget.clear();
+    }
+
+    /**
+     * 【REQ-C2-4】查询引用某元素的全部元素
+     * @param targetId 被引用元素ID
+     * @return 特征名 → 引用者elementId集合（只读快照）
+     */
+    public Map<String, Set<String>> getReferrers(String targetId) {
+        Map<String, Set<String>> byFeature = referrersByTarget.get(targetId);
+        if (byFeature == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Set<String>> snapshot = new LinkedHashMap<>();
+        byFeature.forEach((feature, referrers) -> {
+            if (!referrers.isEmpty()) {
+                snapshot.put(feature, Collections.unmodifiableSet(new LinkedHashSet<>(referrers)));
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * 【REQ-C2-4】查询通过指定特征引用某元素的元素
+     * @param targetId 被引用元素ID
+     * @param feature 特征名
+     * @return 引用者elementId集合（只读快照）
+     */
+    public Set<String> getReferrers(String targetId, String feature) {
+        Map<String, Set<String>> byFeature = referrersByTarget.get(targetId);
+        Set<String> referrers = byFeature != null ? byFeature.get(feature) : null;
+        return referrers != null ? Set.copyOf(referrers) : Collections.emptySet();
+    }
+
+    private void addReferences(ElementDTO element) {
+        if (element == null || element.getElementId() == null) {
+            return;
+        }
+        for (String feature : REFERENCE_FEATURES) {
+            Object target = element.getProperty(feature);
+            if (target instanceof String) {
+                referrersByTarget
+                    .computeIfAbsent((String) target, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(feature, k -> ConcurrentHashMap.newKeySet())
+                    .add(element.getElementId());
+            }
+        }
+    }
+
+    private void removeReferences(ElementDTO element) {
+        if (element == null || element.getElementId() == null) {
+            return;
+        }
+        for (String feature : REFERENCE_FEATURES) {
+            Object target = element.getProperty(feature);
+            if (!(target instanceof String)) {
+                continue;
+            }
+            Map<String, Set<String>> byFeature = referrersByTarget.get(target);
+            if (byFeature == null) {
+                continue;
+            }
+            Set<String> referrers = byFeature.get(feature);
+            if (referrers != null) {
+                referrers.remove(element.getElementId());
+                if (referrers.isEmpty()) {
+                    byFeature.remove(feature);
+                }
+            }
+            if (byFeature.isEmpty()) {
+                referrersByTarget.remove(target);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.ElementDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * reqId唯一性索引
+ *
+ * 需求实现：
+ * - REQ-C1-1: reqId唯一性验证 - 常数时间检查，并发创建时只有一个成功（其余409）
+ *
+ * 设计说明：
+ * 1. 维护reqId→elementId映射，首次使用时从模型中的RequirementDefinition加载
+ * 2. 创建前先用putIfAbsent占位（预留令牌），创建成功后确认为elementId，失败则释放
+ * 3. 删除或修改reqId时释放旧映射，只释放属于该元素的映射
+ * 4. 绕过领域服务批量写入模型（如项目导入）后需调用invalidate重新加载；
+ *    未确认的预留令牌跨invalidate保留，重新加载时以putIfAbsent合并，避免进行中的创建丢失占位
+ * 5. 可从IndexCheckpointService的检查点恢复；检查点由模型快照生成，不含尚未确认的预留
+ * 6. 加载时读取模型不持有索引的监视器（读取可能等待项目锁），加载期间发生invalidate时重新加载；
+ *    已持有项目写锁的调用方（如批量操作的领域检查）传入锁内的元素来源，不经过快照
+ */
+@Component
+public class ReqIdIndex {
+
+    /**
+     * 预留令牌前缀，以\u0000开头不会与任何elementId冲突
+     */
+    private static final String RESERVATION_PREFIX = "\u0000reserved-";
+
+    private final UniversalElementService universalElementService;
+    private final Map<String, String> owners = new ConcurrentHashMap<>();
+    private final AtomicLong reservationSequence = new AtomicLong();
+    private volatile boolean loaded;
+    private long generation;
+
+    public ReqIdIndex(UniversalElementService universalElementService) {
+        this.universalElementService = universalElementService;
+    }
+
+    /**
+     * 【REQ-C1-1】检查reqId是否可用
+     * @param reqId 需求ID
+     * @return true如果没有元素占用该reqId（包括正在创建中的预留）
+     */
+    public boolean isAvailable(String reqId) {
+        ensureLoaded();
+        return !owners.containsKey(reqId);
+    }
+
+    /**
+     * 【REQ-C1-1】原子地预留reqId
+     * @param reqId 需求ID
+     * @return 预留令牌，reqId已被占用时返回null
+     */
+    public String reserve(String reqId) {
+        ensureLoaded();
+        return reserveLoaded(reqId);
+    }
+    
+    /**
+     * 原子地预留reqId，索引未加载时从给定的元素来源加载
+     * @param reqId 需求ID
+     * @param elements 模型中的RequirementDefinition（已持有项目写锁时使用）
+     * @return 预留令牌，reqId已被占用时返回null
+     */
+    public String reserve(String reqId, Supplier<? extends Collection<ElementDTO>> elements) {
+        ensureLoaded(elements);
+        return reserveLoaded(reqId);
+    }
+    
+    private String reserveLoaded(String reqId) {
+        String token = RESERVATION_PREFIX + reservationSequence.incrementAndGet();
+        return owners.putIfAbsent(reqId, token) == null ? token : null;
+    }
+
+    /**
+     * 将预留确认为实际元素
+     * @param reqId 需求ID
+     * @param token reserve返回的令牌
+     * @param elementId 创建成功的元素ID
+     */
+    public void confirm(String reqId, String token, String elementId) {
+        owners.replace(reqId, token, elementId);
+    }
+
+    /**
+     * 释放reqId，仅当当前占用者为owner时生效
+     * @param reqId 需求ID
+     * @param owner 预留令牌或elementId
+     */
+    public void release(String reqId, String owner) {
+        if (reqId != null && owner != null) {
+            owners.remove(reqId, owner);
+        }
+    }
+
+    /**
+     * 丢弃已确认的映射，下次使用时从模型重新加载
+     * 进行中的预留令牌保留，其confirm/release在重新加载后仍然生效
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+        generation++;
+        owners.values().removeIf(owner -> !isReservation(owner));
+    }
+
+    /**
+     * 确保索引已从模型加载（启动预热时提前调用）
+     */
+    public void ensureLoaded() {
+        ensureLoaded(() -> universalElementService.queryElements("RequirementDefinition"));
+    }
+    
+    /**
+     * 确保索引已加载，未加载时从给定的元素来源加载
+     * @param elements 模型中的RequirementDefinition
+     */
+    public void ensureLoaded(Supplier<? extends Collection<ElementDTO>> elements) {
+        while (!loaded) {
+            long observed;
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+                observed = generation;
+            }
+            Map<String, String> reloaded = ownersOf(elements.get());
+            synchronized (this) {
+                if (!loaded && generation == observed) {
+                    merge(reloaded);
+                    loaded = true;
+                }
+            }
+        }
+    }
+    
+    /**
+     * 从检查点恢复，索引已加载时忽略
+     * @param entries reqId → elementId
+     * @return 是否采用了检查点内容
+     */
+    public synchronized boolean restore(Map<String, String> entries) {
+        if (loaded) {
+            return false;
+        }
+        merge(entries);
+        loaded = true;
+        return true;
+    }
+    
+    /**
+     * 合并模型中的映射，不覆盖invalidate后保留的预留令牌
+     */
+    private void merge(Map<String, String> entries) {
+        entries.forEach(owners::putIfAbsent);
+    }
+    
+    private static boolean isReservation(String owner) {
+        return owner.startsWith(RESERVATION_PREFIX);
+    }
+    
+    /**
+     * 按模型内容计算reqId → elementId，同一reqId以先出现的元素为准
+     * @param elements 模型元素，只统计RequirementDefinition
+     */
+    public static Map<String, String> ownersOf(Collection<ElementDTO> elements) {
+        Map<String, String> result = new HashMap<>();
+        for (ElementDTO element : elements) {
+            Object reqId = element.getProperty("reqId");
+            if ("RequirementDefinition".equals(element.getEClass()) && reqId != null && element.getElementId() != null) {
+                result.putIfAbsent(reqId.toString(), element.getElementId());
+            }
+        }
+        return result;
+    }
+}
@@ -5,7 +5,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * 需求领域服务
@@ -23,23 +23,24 @@ import java.util.stream.Collectors;
  * 2. 所有CRUD操作委托给UniversalElementService执行
  * 3. 实现reqId唯一性、约束对象必填、删除保护等业务规则
  * 4. 不直接操作EMF，保持领域服务的纯业务性
+ * 5. reqId唯一性通过ReqIdIndex原子预留保证，创建/改名/删除时同步维护索引
  */
 @Service
 public class RequirementService {
     
     private final UniversalElementService universalElementService;
-    private final ValidationService validationService;
+    private final ReqIdIndex reqIdIndex;
     
     public RequirementService(
             UniversalElementService universalElementService,
-            ValidationService validationService) {
+            ReqIdIndex reqIdIndex) {
         this.universalElementService = universalElementService;
-        this.validationService = validationService;
+        this.reqIdIndex = reqIdIndex;
     }
     
     /**
      * 【REQ-C1-1】创建RequirementDefinition
-     * 验证reqId唯一性，然后委托给UniversalElementService
+     * 原子预留reqId，然后委托给UniversalElementService，创建失败时释放预留
      * @param reqData 需求数据，必须包含reqId
      * @return 创建的需求DTO
      * @throws IllegalArgumentException 如果reqId重复或缺失
@@ -52,25 +53,85 @@ public class RequirementService {
         
         String reqId = reqData.get("reqId").toString();
         
-        // 【REQ-C1-1】验证reqId唯一性
-        if (!validationService.validateReqIdUniqueness(reqId)) {
+        // 【REQ-C1-1】预留reqId，并发创建时只有一个请求能成功
+        String token = reqIdIndex.reserve(reqId);
+        if (token == null) {
             throw new IllegalArgumentException("reqId already exists: " + reqId);
         }
         
         // 委托给UniversalElementService创建
-        return universalElementService.createElement("RequirementDefinition", reqData);
+        ElementDTO created;
+        try {
+            created = universalElementService.createElement("RequirementDefinition", reqData);
+        } catch (RuntimeException e) {
+            reqIdIndex.release(reqId, token);
+            throw e;
+        }
+        if (created == null || created.getElementId() == null) {
+            reqIdIndex.release(reqId, token);
+            return created;
+        }
+        reqIdIndex.confirm(reqId, token, created.getElementId());
+        return created;
     }
     
     /**
      * 【REQ-C1-3】更新RequirementDefinition
-     * 支持部分更新（PATCH语义）
+     * 支持部分更新（PATCH语义），修改reqId时先预留新reqId
      * @param elementId 需求ID
      * @param updates 要更新的属性
      * @return 更新后的需求DTO
+     * @throws IllegalStateException 如果新reqId已被其他需求占用
      */
     public ElementDTO updateRequirement(String elementId, Map<String, Object> updates) {
-        // 委托给UniversalElementService更新
-        return universalElementService.patchElement(elementId, updates);
+        return updateRequirement(elementId, updates, null);
+    }
+    
+    /**
+     * 【REQ-C1-3】带版本校验的更新（If-Match）
+     * @param elementId 需求ID
+     * @param updates 要更新的属性
+     * @param expectedVersion 期望的元素版本，null表示不校验
+     * @return 更新后的需求DTO
+     * @throws IllegalStateException 如果新reqId已被其他需求占用
+     * @throws com.sysml.mvp.exception.VersionConflictException 如果版本不一致
+     */
+    public ElementDTO updateRequirement(String elementId, Map<String, Object> updates, Long expectedVersion) {
+        Object newReqIdValue = updates.get("reqId");
+        if (newReqIdValue == null) {
+            // 委托给UniversalElementService更新
+            return universalElementService.patchElement(elementId, updates, expectedVersion);
+        }
+        
+        String newReqId = newReqIdValue.toString();
+        ElementDTO existing = universalElementService.findElementById(elementId);
+        Object oldReqId = existing != null ? existing.getProperty("reqId") : null;
+        if (oldReqId != null && newReqId.equals(oldReqId.toString())) {
+            return universalElementService.patchElement(elementId, updates, expectedVersion);
+        }
+        
+        // 【REQ-C1-1】改名：预留新reqId，成功后释放旧reqId
+        String token = reqIdIndex.reserve(newReqId);
+        if (token == null) {
+            throw new IllegalStateException("reqId already exists: " + newReqId);
+        }
+        
+        ElementDTO updated;
+        try {
+            updated = universalElementService.patchElement(elementId, updates, expectedVersion);
+        } catch (RuntimeException e) {
+            reqIdIndex.release(newReqId, token);
+            throw e;
+        }
+        if (updated == null) {
+            reqIdIndex.release(newReqId, token);
+            return null;
+        }
+        reqIdIndex.confirm(newReqId, token, elementId);
+        if (oldReqId != null) {
+            reqIdIndex.release(oldReqId.toString(), elementId);
+        }
+        return updated;
     }
     
     /**
@@ -79,6 +140,7 @@ public class RequirementService {
      * @param usageData 需求使用数据，必须包含subject
      * @return 创建的需求使用DTO
      * @throws IllegalArgumentException 如果缺少subject
+     * @throws IllegalStateException 如果of引用的需求定义不存在
      */
     public ElementDTO createRequirementUsage(Map<String, Object> usageData) {
         // 【REQ-C2-3】验证约束对象必填
@@ -86,23 +148,32 @@ public class RequirementService {
             throw new IllegalArgumentException("subject is required for RequirementUsage");
         }
         
-        // 委托给UniversalElementService创建
-        return universalElementService.createElement("RequirementUsage", usageData);
+        // 委托给UniversalElementService创建，of引用的需求定义须在写入时存在
+        return universalElementService.createElement("RequirementUsage", usageData, true);
     }
     
     /**
      * 【REQ-C2-4】删除RequirementDefinition
-     * 检查是否被RequirementUsage引用，如有引用则阻止删除
+     * 检查是否被RequirementUsage引用，如有引用则阻止删除；写锁内同样拒绝仍被追溯关系引用的需求
      * @param elementId 需求ID
      * @return 是否删除成功
      * @throws IllegalStateException 如果被引用
      */
     public boolean deleteRequirement(String elementId) {
-        // 【REQ-C2-4】检查被引用保护
-        List<ElementDTO> usages = universalElementService.queryElements("RequirementUsage");
-        List<ElementDTO> referencingUsages = usages.stream()
-            .filter(usage -> elementId.equals(usage.getProperty("of")))
-            .collect(Collectors.toList());
+        return deleteRequirement(elementId, null);
+    }
+    
+    /**
+     * 【REQ-C2-4】带版本校验的删除（If-Match）
+     * @param elementId 需求ID
+     * @param expectedVersion 期望的元素版本，null表示不校验
+     * @return 是否删除成功
+     * @throws IllegalStateException 如果被引用
+     * @throws com.sysml.mvp.exception.VersionConflictException 如果版本不一致
+     */
+    public boolean deleteRequirement(String elementId, Long expectedVersion) {
+        // 【REQ-C2-4】检查被引用保护（反向引用索引，只访问引用者）
+        Set<String> referencingUsages = universalElementService.findReferrers(elementId, "of");
         
         if (!referencingUsages.isEmpty()) {
             throw new IllegalStateException(
@@ -110,8 +181,23 @@ public class RequirementService {
                     elementId, referencingUsages.size()));
         }
         
-        // 委托给UniversalElementService删除
-        return universalElementService.deleteElement(elementId);
+        // 删除成功后释放reqId
+        ElementDTO existing = universalElementService.findElementById(elementId);
+        // 写锁内再次检查引用（含追溯关系两端），与并发创建的引用者互斥
+        boolean deleted = universalElementService.deleteElement(elementId, expectedVersion, true);
+        if (deleted && existing != null && existing.getProperty("reqId") != null) {
+            reqIdIndex.release(existing.getProperty("reqId").toString(), elementId);
+        }
+        return deleted;
+    }
+    
+    /**
+     * 【REQ-C2-4】查询引用某需求的元素（where-used）
+     * @param elementId 需求ID
+     * @return 特征名 → 引用者elementId集合
+     */
+    public Map<String, Set<String>> getReferences(String elementId) {
+        return universalElementService.findReferrers(elementId);
     }
     
     /**
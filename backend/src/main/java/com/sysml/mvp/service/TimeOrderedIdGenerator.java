@@ -0,0 +1,67 @@
+package com.sysml.mvp.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 时间有序的元素ID生成器（UUIDv7布局）
+ *
+ * 设计说明：
+ * 1. 高48位为Unix毫秒时间戳，字符串按字典序即按创建时间排序，新元素追加到有序ID索引末尾
+ * 2. rand_a的12位作为线程内同一毫秒的计数器，同一线程生成的ID严格递增；
+ *    计数器溢出或时钟回拨时沿用上次时间戳并继续递增（RFC 9562 6.2 方法1）
+ * 3. 其余62位取自ThreadLocalRandom，每个线程独立的状态，不经过共享的SecureRandom，无锁无竞争
+ * 4. 不同线程同一毫秒内生成的ID之间只保证唯一，不保证先后顺序
+ */
+@Component
+public class TimeOrderedIdGenerator implements ElementIdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final int COUNTER_MAX = (1 << COUNTER_BITS) - 1;
+
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    @Override
+    public String nextId(String prefix) {
+        return prefix + "-" + nextUuid();
+    }
+
+    /**
+     * 生成UUIDv7
+     */
+    public UUID nextUuid() {
+        State s = state.get();
+        long now = System.currentTimeMillis();
+        if (now > s.timestamp) {
+            s.timestamp = now;
+            // 随机起点，降低不同线程同一毫秒内计数器相同的概率，并保留增长空间
+            s.counter = ThreadLocalRandom.current().nextInt(COUNTER_MAX / 2);
+        } else if (++s.counter > COUNTER_MAX) {
+            s.timestamp++;
+            s.counter = 0;
+        }
+
+        long msb = (s.timestamp << 16) | (0x7L << 12) | s.counter;
+        long lsb = (ThreadLocalRandom.current().nextLong() >>> 2) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * 从本生成器产生的ID中取出创建时间戳
+     * @param uuid UUIDv7
+     * @return Unix毫秒时间戳
+     */
+    public static long timestampOf(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    /**
+     * 线程内的生成状态
+     */
+    private static final class State {
+        private long timestamp = -1;
+        private int counter;
+    }
+}
@@ -56,6 +56,7 @@ public class TraceService {
      * @param traceData 追溯关系数据，必须包含source、target、type
      * @return 创建的追溯关系DTO
      * @throws IllegalArgumentException 如果字段缺失、重复或语义无效
+     * @throws IllegalStateException 如果写入时两端元素已不存在
      */
     public ElementDTO createTrace(Map<String, Object> traceData) {
         // 【REQ-C3-1】映射API字段到内部字段
@@ -96,8 +97,8 @@ public class TraceService {
         // 转换API层字段到EMF层字段
         Map<String, Object> emfData = convertToEmfData(internalData);
         
-        // 委托给UniversalElementService创建
-        return universalElementService.createElement(eClass, emfData);
+        // 委托给UniversalElementService创建，两端元素须在写入时存在
+        return universalElementService.createElement(eClass, emfData, true);
     }
     
     /**
@@ -1,8 +1,19 @@
 package com.sysml.mvp.service;
 
+import com.sysml.mvp.config.ExecutionProperties;
+import com.sysml.mvp.config.LimitsProperties;
+import com.sysml.mvp.dto.BatchOperationDTO;
+import com.sysml.mvp.dto.BatchOperationResultDTO;
+import com.sysml.mvp.dto.BatchResultDTO;
 import com.sysml.mvp.dto.ElementDTO;
+import com.sysml.mvp.exception.VersionConflictException;
 import com.sysml.mvp.model.EMFModelRegistry;
 import com.sysml.mvp.repository.FileModelRepository;
+import com.sysml.mvp.repository.MappedModelView;
+import com.sysml.mvp.repository.ProjectLockManager;
+import com.sysml.mvp.repository.ProjectWriteQueue;
+import com.sysml.mvp.util.SingleFlight;
+import jakarta.annotation.PreDestroy;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
@@ -10,6 +21,8 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -26,21 +39,68 @@ import java.util.stream.Collectors;
  * 2. 领域服务（RequirementService等）委托给此服务执行通用操作
  * 3. 所有EMF操作最终委托给PilotEMFService
  * 4. 支持182个SysML EClass类型的通用CRUD
+ * 5. 创建/更新/删除时增量维护ReferenceIndex，引用查询不再遍历全部元素
+ * 6. 单个元素的写操作提交到项目写队列，由单一写线程组提交（逐条校验，通过校验的同一元素连续PATCH合并写入，
+ *    通过的命令一次持久化），
+ *    写线程与批量操作、快照重建之间经ProjectLockManager互斥
+ * 7. 读操作读取不可变的ModelSnapshot（MVCC），不阻塞写操作；写操作提交后派生并发布新快照
+ * 8. 每个元素带版本号，更新/删除可携带期望版本做乐观并发校验
+ * 9. 批量操作在一次写锁内整体校验（含调用方提供的领域规则检查）、应用并只持久化一次，失败时整批回滚
+ * 10. 领域服务的创建/删除可要求在写锁内校验of/fromId/toId的引用完整性，避免并发写入产生悬挂引用；
+ *     项目导入等批量写入不做此校验，悬挂引用由静态验证报告
  */
 @Service
 public class UniversalElementService {
     
+    /**
+     * 写队列单次组提交的最大命令数
+     */
+    private static final int MAX_WRITE_BATCH_SIZE = 256;
+    
+    /**
+     * 引用完整性校验覆盖的引用特征：需求使用的定义、追溯关系的两端
+     */
+    private static final List<String> INTEGRITY_FEATURES = List.of("of", "fromId", "toId");
+    
     private final PilotEMFService pilotEMFService;
     private final FileModelRepository fileModelRepository;
     private final EMFModelRegistry emfModelRegistry;
+    private final ReferenceIndex referenceIndex;
+    private final ProjectLockManager projectLockManager;
+    private final ModelSnapshotStore modelSnapshotStore;
+    private final ElementVersionRegistry elementVersionRegistry;
+    private final LimitsProperties limits;
+    private final ProjectWriteQueue<BatchOperationDTO, BatchOperationResultDTO> writeQueue;
+    private final SingleFlight<String, ModelSnapshot> snapshotRebuilds = new SingleFlight<>();
     
     public UniversalElementService(
             PilotEMFService pilotEMFService,
             FileModelRepository fileModelRepository,
-            EMFModelRegistry emfModelRegistry) {
+            EMFModelRegistry emfModelRegistry,
+            ReferenceIndex referenceIndex,
+            ProjectLockManager projectLockManager,
+            ModelSnapshotStore modelSnapshotStore,
+            ElementVersionRegistry elementVersionRegistry,
+            LimitsProperties limits,
+            ExecutionProperties executionProperties) {
         this.pilotEMFService = pilotEMFService;
         this.fileModelRepository = fileModelRepository;
         this.emfModelRegistry = emfModelRegistry;
+        this.referenceIndex = referenceIndex;
+        this.projectLockManager = projectLockManager;
+        this.modelSnapshotStore = modelSnapshotStore;
+        this.elementVersionRegistry = elementVersionRegistry;
+        this.limits = limits;
+        this.writeQueue = new ProjectWriteQueue<>("model-writer", MAX_WRITE_BATCH_SIZE, this::applyGroup,
+            executionProperties.resolveVirtualThreads());
+    }
+    
+    /**
+     * 停止写线程
+     */
+    @PreDestroy
+    public void shutdown() {
+        writeQueue.close();
     }
     
     /**
@@ -51,28 +111,36 @@ public class UniversalElementService {
      * @throws IllegalArgumentException 如果缺少elementId
      */
     public ElementDTO createElement(String eClassName, Map<String, Object> attributes) {
+        return createElement(eClassName, attributes, false);
+    }
+    
+    /**
+     * 【REQ-B2-1】创建元素，可要求引用完整性
+     * @param eClassName SysML类型名称
+     * @param attributes 元素属性Map
+     * @param checkReferences true时of/fromId/toId引用的元素必须在写入时存在（写锁内校验）
+     * @return 创建的元素DTO
+     * @throws IllegalArgumentException 如果缺少elementId
+     * @throws IllegalStateException 如果elementId重复、节点数达到上限或被引用元素不存在
+     */
+    public ElementDTO createElement(String eClassName, Map<String, Object> attributes, boolean checkReferences) {
         // 【REQ-B2-1】验证必填字段
         if (!attributes.containsKey("elementId")) {
             throw new IllegalArgumentException("elementId is required");
         }
         
-        // 使用PilotEMFService创建元素（它内部会处理EClass查找）
-        EObject eObject = pilotEMFService.createElement(eClassName, attributes);
-        
-        // 添加到Resource（假设默认项目ID为"default"）
-        String projectId = "default";
-        Resource resource = fileModelRepository.loadProject(projectId);
-        if (resource != null) {
-            resource.getContents().add(eObject);
-        } else {
-            throw new IllegalStateException("Project not found: " + projectId);
+        // 提交到项目写队列（假设默认项目ID为"default"），与其他写操作一起组提交
+        BatchOperationDTO operation = new BatchOperationDTO(BatchOperationDTO.OP_CREATE,
+            attributes.get("elementId").toString(), eClassName, attributes, null);
+        operation.setCheckReferences(checkReferences);
+        BatchOperationResultDTO result = submitWrite(operation);
+        if (result.getStatus() == 409) {
+            throw new IllegalStateException(result.getError());
         }
-        
-        // 保存
-        fileModelRepository.saveProject(projectId, resource);
-        
-        // 转换为DTO返回
-        return toDTO(eObject);
+        if (!result.isSuccess()) {
+            throw new IllegalArgumentException(result.getError());
+        }
+        return result.getElement();
     }
     
     /**
@@ -81,16 +149,8 @@ public class UniversalElementService {
      * @return 元素列表
      */
     public List<ElementDTO> queryElements(String type) {
-        String projectId = "default";
-        Resource resource = fileModelRepository.loadProject(projectId);
-        if (resource == null) {
-            return new ArrayList<>();
-        }
-        List<EObject> contents = resource.getContents();
-        
-        return contents.stream()
-            .filter(obj -> type == null || obj.eClass().getName().equals(type))
-            .map(this::toDTO)
+        return snapshot().getElements().stream()
+            .filter(dto -> type == null || type.equals(dto.getEClass()))
             .collect(Collectors.toList());
     }
     
@@ -103,6 +163,117 @@ public class UniversalElementService {
         return queryElements(null);
     }
     
+    /**
+     * 【REQ-E1-3】获取当前模型版本号
+     * 模型每次持久化后递增，用于验证结果缓存的失效判断。
+     * 当前线程固定了（或声明延迟固定）快照时返回快照版本，与本次请求读到的数据一致
+     * @return 模型版本号
+     */
+    public long getModelVersion() {
+        String projectId = "default";
+        ModelSnapshot pinned = modelSnapshotStore.pinned(projectId);
+        if (pinned != null) {
+            return pinned.getVersion();
+        }
+        if (modelSnapshotStore.isPinOnFirstRead()) {
+            return snapshot().getVersion();
+        }
+        return fileModelRepository.getModelVersion(projectId);
+    }
+    
+    /**
+     * 获取已加载模型的当前版本号，不固定也不构建快照
+     * @return 模型版本号，项目尚未加载时为0
+     */
+    public long getLoadedModelVersion() {
+        return fileModelRepository.getModelVersion("default");
+    }
+    
+    /**
+     * 获取模型快照
+     * 优先返回当前线程固定的快照；最新快照与模型版本一致时直接返回，否则在读锁下重建（并发重建合并为一次）。
+     * 当前线程声明了延迟固定时，把本次返回的快照固定下来
+     * @return 不可变模型快照
+     */
+    public ModelSnapshot snapshot() {
+        String projectId = "default";
+        ModelSnapshot pinned = modelSnapshotStore.pinned(projectId);
+        if (pinned != null) {
+            return pinned;
+        }
+        ModelSnapshot current = currentSnapshot(projectId);
+        if (modelSnapshotStore.isPinOnFirstRead()) {
+            modelSnapshotStore.pin(current);
+        }
+        return current;
+    }
+    
+    /**
+     * 内部方法：返回与模型版本一致的最新快照，必要时重建
+     */
+    private ModelSnapshot currentSnapshot(String projectId) {
+        ModelSnapshot latest = modelSnapshotStore.latest(projectId);
+        if (latest != null && latest.getVersion() == fileModelRepository.getModelVersion(projectId)) {
+            return latest;
+        }
+        // 并发读者只重建一次，共享同一份快照
+        return snapshotRebuilds.execute(projectId, () -> {
+            ModelSnapshot rebuilt = projectLockManager.read(projectId, () -> {
+                long version = fileModelRepository.getModelVersion(projectId);
+                Resource resource = fileModelRepository.loadProject(projectId);
+                List<ElementDTO> elements = new ArrayList<>();
+                if (resource != null) {
+                    for (EObject eObject : resource.getContents()) {
+                        elements.add(toDTO(eObject));
+                    }
+                }
+                return ModelSnapshot.of(projectId, version, elements);
+            });
+            modelSnapshotStore.publish(rebuilt);
+            return rebuilt;
+        });
+    }
+    
+    /**
+     * 预热派生数据：构建最新快照和反向引用索引，首个请求不再承担构建成本
+     */
+    public void warmUp() {
+        snapshot();
+        referenceIndex.ensureLoaded(this::getAllElements);
+    }
+    
+    /**
+     * 为当前线程（请求）固定快照，之后的读操作都基于该版本
+     * @return 固定的快照
+     */
+    public ModelSnapshot pinSnapshot() {
+        ModelSnapshot snapshot = snapshot();
+        modelSnapshotStore.pin(snapshot);
+        return snapshot;
+    }
+    
+    /**
+     * 声明当前线程（请求）在首次读取快照时固定快照
+     * 只做点查询或不读取模型的请求不会因此加载整个项目
+     */
+    public void pinSnapshotOnFirstRead() {
+        modelSnapshotStore.pinOnFirstRead();
+    }
+    
+    /**
+     * @return 当前线程固定的快照，没有时返回null
+     */
+    public ModelSnapshot pinnedSnapshot() {
+        return modelSnapshotStore.pinned("default");
+    }
+    
+    /**
+     * 解除当前线程固定的快照，并取消延迟固定
+     */
+    public void unpinSnapshot() {
+        modelSnapshotStore.release();
+    }
+    
     /**
      * 【REQ-B2-4】PATCH更新元素部分属性
      * @param elementId 元素ID
@@ -110,22 +281,26 @@ public class UniversalElementService {
      * @return 更新后的元素DTO
      */
     public ElementDTO patchElement(String elementId, Map<String, Object> updates) {
-        EObject eObject = findEObjectById(elementId);
-        if (eObject == null) {
+        return patchElement(elementId, updates, null);
+    }
+    
+    /**
+     * 【REQ-B2-4】带版本校验的PATCH更新
+     * 版本校验与更新在写线程中一并完成，不一致时不做任何修改
+     * @param elementId 元素ID
+     * @param updates 要更新的属性Map
+     * @param expectedVersion 期望的元素版本，null表示不校验
+     * @return 更新后的元素DTO，元素不存在返回null
+     * @throws VersionConflictException 如果元素当前版本与期望版本不一致
+     */
+    public ElementDTO patchElement(String elementId, Map<String, Object> updates, Long expectedVersion) {
+        BatchOperationResultDTO result = submitWrite(new BatchOperationDTO(BatchOperationDTO.OP_PATCH,
+            elementId, null, updates, expectedVersion));
+        if (result.getStatus() == 404) {
             return null;
         }
-        
-        // 只更新指定的属性
-        for (Map.Entry<String, Object> entry : updates.entrySet()) {
-            pilotEMFService.setAttributeIfExists(eObject, entry.getKey(), entry.getValue());
-        }
-        
-        // 保存
-        String projectId = "default";
-        Resource resource = fileModelRepository.loadProject(projectId);
-        fileModelRepository.saveProject(projectId, resource);
-        
-        return toDTO(eObject);
+        throwIfRejected(elementId, result);
+        return result.getElement();
     }
     
     /**
@@ -134,19 +309,325 @@ public class UniversalElementService {
      * @return 是否删除成功
      */
     public boolean deleteElement(String elementId) {
-        EObject eObject = findEObjectById(elementId);
-        if (eObject == null) {
+        return deleteElement(elementId, null);
+    }
+    
+    /**
+     * 【REQ-B5-3】带版本校验的删除
+     * @param elementId 元素ID
+     * @param expectedVersion 期望的元素版本，null表示不校验
+     * @return 是否删除成功
+     * @throws VersionConflictException 如果元素当前版本与期望版本不一致
+     */
+    public boolean deleteElement(String elementId, Long expectedVersion) {
+        return deleteElement(elementId, expectedVersion, false);
+    }
+    
+    /**
+     * 【REQ-C2-4】带引用保护的删除
+     * @param elementId 元素ID
+     * @param expectedVersion 期望的元素版本，null表示不校验
+     * @param checkReferences true时元素仍被of/fromId/toId引用则拒绝删除（写锁内校验）
+     * @return 是否删除成功
+     * @throws VersionConflictException 如果元素当前版本与期望版本不一致
+     * @throws IllegalStateException 如果元素仍被引用
+     */
+    public boolean deleteElement(String elementId, Long expectedVersion, boolean checkReferences) {
+        BatchOperationDTO operation = new BatchOperationDTO(BatchOperationDTO.OP_DELETE,
+            elementId, null, null, expectedVersion);
+        operation.setCheckReferences(checkReferences);
+        BatchOperationResultDTO result = submitWrite(operation);
+        if (result.getStatus() == 404) {
             return false;
         }
-        
+        throwIfRejected(elementId, result);
+        return true;
+    }
+    
+    /**
+     * 原子执行一批创建/更新/删除操作
+     * 在同一次项目写锁内完成：先整体校验（不修改模型），任一操作不通过则整批不执行；
+     * 校验通过后按顺序应用并只持久化一次，应用或保存失败时丢弃内存模型，下次访问从磁盘重新加载
+     * @param operations 按顺序执行的操作
+     * @return 批次结果，results与operations一一对应
+     */
+    public BatchResultDTO applyBatch(List<BatchOperationDTO> operations) {
+        return applyBatch(operations, null);
+    }
+    
+    /**
+     * 原子执行一批操作，并在同一次写锁内先做领域规则检查
+     * 领域检查看到的模型与随后应用时一致，检查与应用之间不会插入其他写操作
+     * @param operations 按顺序执行的操作
+     * @param rules 领域规则检查，null表示不检查
+     * @return 批次结果，results与operations一一对应
+     */
+    public BatchResultDTO applyBatch(List<BatchOperationDTO> operations, BatchRules rules) {
         String projectId = "default";
+        if (rules != null) {
+            // 写锁内不能重建快照，提前构建反向引用索引，锁内由写操作增量维护
+            referenceIndex.ensureLoaded(this::getAllElements);
+        }
+        return projectLockManager.write(projectId, () -> applyOperations(projectId, operations, true, rules));
+    }
+    
+    /**
+     * 批量操作的领域规则检查，在项目写锁内、结构校验之前执行
+     */
+    @FunctionalInterface
+    public interface BatchRules {
+        /**
+         * @param model 批次执行前的模型
+         * @return 未通过的操作下标 → 结果，全部通过时为空
+         */
+        Map<Integer, BatchOperationResultDTO> check(BatchModelView model);
+    }
+    
+    /**
+     * 写锁内的只读模型视图，不经过快照也不获取读锁
+     */
+    public interface BatchModelView {
+        /**
+         * @return 元素类型名，元素不存在时返回null
+         */
+        String getEClass(String elementId);
+        
+        /**
+         * @return 元素属性值，元素或属性不存在时返回null
+         */
+        Object getAttribute(String elementId, String name);
+        
+        /**
+         * @return 通过指定特征引用该元素的元素ID
+         */
+        Set<String> findReferrers(String elementId, String feature);
+        
+        /**
+         * @return 指定类型的全部元素
+         */
+        List<ElementDTO> queryElements(String type);
+    }
+    
+    /**
+     * 写队列的批量处理函数（在写线程中执行）
+     * 每条命令按队列顺序基于前面命令执行后的状态单独校验，只应用通过校验的命令，各命令独立成败；
+     * 通过校验的同一元素连续、不带版本校验的PATCH合并为一次属性写入（后写覆盖先写），
+     * 成功的命令一次持久化、一次派生快照，每个调用者仍各自得到一个结果
+     * 包级可见以便测试
+     * @param projectId 项目ID
+     * @param commands 写队列中取出的命令
+     * @return 与命令一一对应的结果
+     */
+    List<BatchOperationResultDTO> applyGroup(String projectId, List<BatchOperationDTO> commands) {
+        return projectLockManager.write(projectId, () -> applyOperations(projectId, commands, false, null)).getResults();
+    }
+    
+    /**
+     * 内部方法：校验并应用一组操作，成功的操作一次持久化
+     * 调用方需持有项目写锁
+     * @param atomic true时任一操作校验失败则全部不执行；false时只跳过失败的操作
+     * @param rules 结构校验之前执行的领域规则检查，未通过时整批不执行；null表示不检查
+     */
+    private BatchResultDTO applyOperations(String projectId, List<BatchOperationDTO> operations, boolean atomic,
+                                           BatchRules rules) {
+        long baseVersion = fileModelRepository.getModelVersion(projectId);
+        if (operations.isEmpty()) {
+            return new BatchResultDTO(true, baseVersion, new ArrayList<>());
+        }
         Resource resource = fileModelRepository.loadProject(projectId);
-        if (resource != null) {
-            resource.getContents().remove(eObject);
+        if (resource == null) {
+            throw new IllegalStateException("Project not found: " + projectId);
+        }
+        Map<String, EObject> objectsById = new HashMap<>();
+        for (EObject obj : resource.getContents()) {
+            Object id = pilotEMFService.getAttributeValue(obj, "elementId");
+            if (id != null) {
+                objectsById.putIfAbsent(id.toString(), obj);
+            }
+        }
+        Set<String> preexisting = new HashSet<>(objectsById.keySet());
+        
+        if (rules != null) {
+            Map<Integer, BatchOperationResultDTO> rejected = rules.check(new LockedModelView(resource, objectsById));
+            if (!rejected.isEmpty()) {
+                List<BatchOperationResultDTO> results = new ArrayList<>(operations.size());
+                for (int i = 0; i < operations.size(); i++) {
+                    BatchOperationResultDTO result = rejected.get(i);
+                    if (result == null) {
+                        BatchOperationDTO operation = operations.get(i);
+                        result = new BatchOperationResultDTO(i,
+                            operation != null ? operation.getOp() : null,
+                            operation != null ? operation.getElementId() : null,
+                            BatchOperationResultDTO.STATUS_FAILED_DEPENDENCY, null, "Not applied: batch rejected");
+                    }
+                    results.add(result);
+                }
+                return new BatchResultDTO(false, baseVersion, results);
+            }
+        }
+        
+        // 第一遍：校验全部操作并预先构造要创建的对象
+        List<BatchOperationResultDTO> results = new ArrayList<>(operations.size());
+        EObject[] created = new EObject[operations.size()];
+        Set<String> live = new HashSet<>(preexisting);
+        Map<String, Long> versions = new HashMap<>();
+        ReferenceGuard guard = new ReferenceGuard(resource, atomic ? deletedIds(operations) : Collections.emptySet());
+        boolean valid = true;
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationResultDTO result = validateBatchOperation(i, operations.get(i), live, versions, created, guard);
+            if (result.isSuccess()) {
+                guard.record(operations.get(i));
+            }
+            valid &= result.isSuccess();
+            results.add(result);
+        }
+        if (!valid && atomic) {
+            for (BatchOperationResultDTO result : results) {
+                if (result.isSuccess()) {
+                    result.setStatus(BatchOperationResultDTO.STATUS_FAILED_DEPENDENCY);
+                    result.setError("Not applied: batch rejected");
+                }
+            }
+            return new BatchResultDTO(false, baseVersion, results);
+        }
+        
+        if (!valid && results.stream().noneMatch(BatchOperationResultDTO::isSuccess)) {
+            return new BatchResultDTO(false, baseVersion, results);
+        }
+        
+        // 第二遍：依次应用通过校验的操作，一次持久化
+        Map<Integer, Map<String, Object>> patchDeltas = coalescePatches(operations, results);
+        Map<String, ElementDTO> before = new HashMap<>();
+        Set<String> removed = new HashSet<>();
+        Set<String> touched = new LinkedHashSet<>();
+        List<String> modified = new ArrayList<>();
+        try {
+            for (int i = 0; i < operations.size(); i++) {
+                if (!results.get(i).isSuccess()) {
+                    continue;
+                }
+                BatchOperationDTO operation = operations.get(i);
+                String elementId = operation.getElementId();
+                if (BatchOperationDTO.OP_CREATE.equals(operation.getOp())) {
+                    resource.getContents().add(created[i]);
+                    objectsById.put(elementId, created[i]);
+                } else {
+                    EObject target = objectsById.get(elementId);
+                    if (referenceIndex.isLoaded() && preexisting.contains(elementId) && !touched.contains(elementId)) {
+                        before.put(elementId, toDTO(target));
+                    }
+                    if (BatchOperationDTO.OP_PATCH.equals(operation.getOp())) {
+                        // 已合并进前面PATCH的命令不再单独写入
+                        Map<String, Object> delta = patchDeltas.get(i);
+                        if (delta != null) {
+                            for (Map.Entry<String, Object> entry : delta.entrySet()) {
+                                pilotEMFService.setAttributeIfExists(target, entry.getKey(), entry.getValue());
+                            }
+                        }
+                    } else {
+                        resource.getContents().remove(target);
+                        objectsById.remove(elementId);
+                        if (preexisting.contains(elementId)) {
+                            removed.add(elementId);
+                        }
+                    }
+                    modified.add(elementId);
+                }
+                touched.add(elementId);
+            }
             fileModelRepository.saveProject(projectId, resource);
-            return true;
+        } catch (RuntimeException e) {
+            fileModelRepository.clearCache(projectId);
+            modelSnapshotStore.invalidate(projectId);
+            throw e;
+        }
+        modified.forEach(elementVersionRegistry::increment);
+        
+        // 新创建的元素按创建顺序追加，其余按原位置替换
+        Map<String, ElementDTO> upserts = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            String elementId = operations.get(i).getElementId();
+            if (created[i] != null && objectsById.get(elementId) == created[i]) {
+                upserts.put(elementId, toDTO(created[i]));
+            }
+        }
+        for (String elementId : touched) {
+            EObject current = objectsById.get(elementId);
+            if (current != null && !upserts.containsKey(elementId)) {
+                upserts.put(elementId, toDTO(current));
+            }
+        }
+        if (referenceIndex.isLoaded()) {
+            for (String elementId : touched) {
+                referenceIndex.update(before.get(elementId), upserts.get(elementId));
+            }
         }
-        return false;
+        for (BatchOperationResultDTO result : results) {
+            if (result.isSuccess() && !BatchOperationDTO.OP_DELETE.equals(result.getOp())) {
+                result.setElement(upserts.get(result.getElementId()));
+            }
+        }
+        publishSnapshot(projectId, baseVersion, (snapshot, version) -> snapshot.withChanges(removed, upserts, version));
+        return new BatchResultDTO(true, fileModelRepository.getModelVersion(projectId), results);
+    }
+    
+    /**
+     * 内部方法：合并通过校验的同一元素连续PATCH
+     * 不带版本校验的PATCH并入该元素当前合并区间的首条PATCH，后写覆盖先写；
+     * 同一元素的其他操作（带版本的PATCH、删除、创建）结束合并区间，保持先后顺序。
+     * 校验已逐条完成，合并只影响属性写入次数，不影响各命令的结果
+     * @return 操作下标 → 要写入的属性；并入前面PATCH的下标映射为null
+     */
+    private Map<Integer, Map<String, Object>> coalescePatches(List<BatchOperationDTO> operations,
+                                                              List<BatchOperationResultDTO> results) {
+        Map<Integer, Map<String, Object>> deltas = new HashMap<>();
+        Map<String, Integer> openPatches = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            if (!results.get(i).isSuccess()) {
+                continue;
+            }
+            BatchOperationDTO operation = operations.get(i);
+            String elementId = operation.getElementId();
+            if (!BatchOperationDTO.OP_PATCH.equals(operation.getOp())) {
+                openPatches.remove(elementId);
+                continue;
+            }
+            Integer open = operation.getExpectedVersion() == null ? openPatches.get(elementId) : null;
+            if (open != null) {
+                deltas.get(open).putAll(operation.getAttributes());
+                deltas.put(i, null);
+                continue;
+            }
+            deltas.put(i, new LinkedHashMap<>(operation.getAttributes()));
+            if (operation.getExpectedVersion() == null) {
+                openPatches.put(elementId, i);
+            } else {
+                openPatches.remove(elementId);
+            }
+        }
+        return deltas;
+    }
+    
+    /**
+     * 【REQ-C2-4】查询引用某元素的全部元素（where-used）
+     * 基于ReferenceIndex，耗时与引用者数量成正比
+     * @param elementId 被引用元素ID
+     * @return 特征名（of/subject/fromId/toId）→ 引用者elementId集合
+     */
+    public Map<String, Set<String>> findReferrers(String elementId) {
+        referenceIndex.ensureLoaded(this::getAllElements);
+        return referenceIndex.getReferrers(elementId);
+    }
+    
+    /**
+     * 【REQ-C2-4】查询通过指定特征引用某元素的元素
+     * @param elementId 被引用元素ID
+     * @param feature 引用特征名
+     * @return 引用者elementId集合
+     */
+    public Set<String> findReferrers(String elementId, String feature) {
+        referenceIndex.ensureLoaded(this::getAllElements);
+        return referenceIndex.getReferrers(elementId, feature);
     }
     
     /**
@@ -155,8 +636,17 @@ public class UniversalElementService {
      * @return 元素DTO，如果不存在返回null
      */
     public ElementDTO findElementById(String elementId) {
-        EObject eObject = findEObjectById(elementId);
-        return eObject != null ? toDTO(eObject) : null;
+        String projectId = "default";
+        // 项目尚未整体加载时，点查询走内存映射视图，只物化被访问的元素；
+        // 请求级快照是延迟固定的，点查询不会触发固定，因此经HTTP访问时同样生效
+        if (modelSnapshotStore.pinned(projectId) == null && modelSnapshotStore.latest(projectId) == null
+                && !fileModelRepository.isLoaded(projectId)) {
+            MappedModelView view = fileModelRepository.getMappedView(projectId);
+            if (view != null) {
+                return toDTO(view.get(elementId));
+            }
+        }
+        return snapshot().getElement(elementId);
     }
     
     /**
@@ -179,6 +669,7 @@ public class UniversalElementService {
         Object elementId = pilotEMFService.getAttributeValue(eObject, "elementId");
         if (elementId != null) {
             dto.setElementId(elementId.toString());
+            dto.setVersion(elementVersionRegistry.current(elementId.toString()));
         }
         
         // 获取所有属性并设置到properties
@@ -194,23 +685,298 @@ public class UniversalElementService {
     }
     
     /**
-     * 内部方法：根据ID查找EMF对象
+     * 内部方法：校验批次中的单个操作
+     * 基于先前操作执行后的元素集合和版本模拟校验，不修改模型；创建操作在此预先构造EMF对象
+     * @return 操作结果，通过时为对应的成功状态码
+     */
+    private BatchOperationResultDTO validateBatchOperation(int index, BatchOperationDTO operation,
+                                                           Set<String> live, Map<String, Long> versions,
+                                                           EObject[] created, ReferenceGuard guard) {
+        BatchOperationResultDTO result = new BatchOperationResultDTO();
+        result.setIndex(index);
+        if (operation == null || operation.getOp() == null) {
+            return rejectOperation(result, 400, "op is required");
+        }
+        String elementId = operation.getElementId();
+        result.setOp(operation.getOp());
+        result.setElementId(elementId);
+        if (elementId == null || elementId.isEmpty()) {
+            return rejectOperation(result, 400, "elementId is required");
+        }
+        if (operation.getAttributes() == null) {
+            operation.setAttributes(new HashMap<>());
+        }
+        Object declaredId = operation.getAttributes().get("elementId");
+        if (declaredId != null && !elementId.equals(declaredId.toString())) {
+            return rejectOperation(result, 400, "elementId cannot be changed: " + elementId);
+        }
+        
+        switch (operation.getOp()) {
+            case BatchOperationDTO.OP_CREATE:
+                if (operation.getEClass() == null) {
+                    return rejectOperation(result, 400, "eClass is required");
+                }
+                if (live.contains(elementId)) {
+                    return rejectOperation(result, 409, "Element already exists: " + elementId);
+                }
+                if (live.size() >= limits.getMaxNodes()) {
+                    return rejectOperation(result, 409, "Model node limit reached: " + limits.getMaxNodes());
+                }
+                if (operation.isCheckReferences()) {
+                    String missing = guard.findMissingTarget(operation.getAttributes(), live);
+                    if (missing != null) {
+                        return rejectOperation(result, 409, "Referenced element not found: " + missing);
+                    }
+                }
+                Map<String, Object> attributes = new HashMap<>(operation.getAttributes());
+                attributes.put("elementId", elementId);
+                try {
+                    created[index] = pilotEMFService.createElement(operation.getEClass(), attributes);
+                } catch (RuntimeException e) {
+                    // 属性值无法转换等错误只拒绝本条操作，不影响同组的其他命令
+                    return rejectOperation(result, 400, e.getMessage());
+                }
+                live.add(elementId);
+                result.setStatus(201);
+                return result;
+            case BatchOperationDTO.OP_PATCH:
+            case BatchOperationDTO.OP_DELETE:
+                if (!live.contains(elementId)) {
+                    return rejectOperation(result, 404, "Element not found: " + elementId);
+                }
+                long currentVersion = versions.computeIfAbsent(elementId, elementVersionRegistry::current);
+                Long expectedVersion = operation.getExpectedVersion();
+                if (expectedVersion != null && expectedVersion != currentVersion) {
+                    return rejectOperation(result, 412,
+                        new VersionConflictException(elementId, currentVersion).getMessage());
+                }
+                if (operation.isCheckReferences() && BatchOperationDTO.OP_DELETE.equals(operation.getOp())) {
+                    Set<String> referrers = guard.findLiveReferrers(elementId, live);
+                    if (!referrers.isEmpty()) {
+                        return rejectOperation(result, 409, String.format(
+                            "Cannot delete element %s: referenced by %d elements", elementId, referrers.size()));
+                    }
+                }
+                versions.put(elementId, currentVersion + 1);
+                if (BatchOperationDTO.OP_DELETE.equals(operation.getOp())) {
+                    live.remove(elementId);
+                    result.setStatus(204);
+                } else {
+                    result.setStatus(200);
+                }
+                return result;
+            default:
+                return rejectOperation(result, 400, "Unsupported op: " + operation.getOp());
+        }
+    }
+    
+    private static BatchOperationResultDTO rejectOperation(BatchOperationResultDTO result, int status, String error) {
+        result.setStatus(status);
+        result.setError(error);
+        return result;
+    }
+    
+    /**
+     * 内部方法：提交写命令并等待所在批次持久化完成
+     * 新快照由写线程发布，不会移动调用线程固定的快照；完成后在调用线程把固定的快照前移到包含本次写入的版本，
+     * 保证同一请求内读到自己的写入，X-Model-Version也随之更新
      */
-    private EObject findEObjectById(String elementId) {
+    private BatchOperationResultDTO submitWrite(BatchOperationDTO operation) {
         String projectId = "default";
-        Resource resource = fileModelRepository.loadProject(projectId);
-        if (resource == null) {
+        BatchOperationResultDTO result;
+        try {
+            result = writeQueue.submit(projectId, operation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        if (modelSnapshotStore.pinned(projectId) != null) {
+            modelSnapshotStore.unpin();
+            modelSnapshotStore.pin(snapshot());
+        }
+        return result;
+    }
+    
+    /**
+     * 内部方法：将被拒绝的更新/删除结果转换为异常
+     */
+    private void throwIfRejected(String elementId, BatchOperationResultDTO result) {
+        if (result.isSuccess()) {
+            return;
+        }
+        if (result.getStatus() == 412) {
+            throw new VersionConflictException(elementId, elementVersionRegistry.current(elementId));
+        }
+        if (result.getStatus() == 409) {
+            throw new IllegalStateException(result.getError());
+        }
+        throw new IllegalArgumentException(result.getError());
+    }
+    
+    /**
+     * 内部方法：写操作提交后基于上一快照派生并发布新快照
+     * 上一快照不是写操作开始时的版本（如外部导入、缓存清除）时丢弃快照，由下次读取重建
+     * 调用方需持有项目写锁
+     */
+    private void publishSnapshot(String projectId, long baseVersion,
+                                 BiFunction<ModelSnapshot, Long, ModelSnapshot> change) {
+        long newVersion = fileModelRepository.getModelVersion(projectId);
+        ModelSnapshot base = modelSnapshotStore.latest(projectId);
+        if (base != null && base.getVersion() == baseVersion && newVersion > baseVersion) {
+            modelSnapshotStore.publish(change.apply(base, newVersion));
+        } else {
+            modelSnapshotStore.invalidate(projectId);
+        }
+    }
+    
+    /**
+     * 内部方法：批次中所有删除操作的目标
+     * 原子批次整体生效，同批删除的引用者不阻止删除
+     */
+    private static Set<String> deletedIds(List<BatchOperationDTO> operations) {
+        Set<String> deleted = new HashSet<>();
+        for (BatchOperationDTO operation : operations) {
+            if (operation != null && BatchOperationDTO.OP_DELETE.equals(operation.getOp())
+                    && operation.getElementId() != null) {
+                deleted.add(operation.getElementId());
+            }
+        }
+        return deleted;
+    }
+    
+    /**
+     * 校验期间的引用完整性检查（of/fromId/toId）
+     * 已提交的引用来自反向引用索引（写锁内维护），索引未构建时遍历一次资源；
+     * 同组中先前通过校验的创建/更新新增的引用单独记录
+     */
+    private final class ReferenceGuard {
+        private final Resource resource;
+        private final Set<String> deletedInBatch;
+        private final Map<String, Set<String>> pending = new HashMap<>();
+        private Map<String, Set<String>> scanned;
+        
+        ReferenceGuard(Resource resource, Set<String> deletedInBatch) {
+            this.resource = resource;
+            this.deletedInBatch = deletedInBatch;
+        }
+        
+        /**
+         * @return 第一个不存在的被引用元素ID，全部存在时返回null
+         */
+        String findMissingTarget(Map<String, Object> attributes, Set<String> live) {
+            for (String feature : INTEGRITY_FEATURES) {
+                Object target = attributes.get(feature);
+                if (target instanceof String && !live.contains(target)) {
+                    return (String) target;
+                }
+            }
             return null;
         }
-        List<EObject> contents = resource.getContents();
         
-        for (EObject obj : contents) {
-            Object id = pilotEMFService.getAttributeValue(obj, "elementId");
-            if (elementId.equals(id)) {
-                return obj;
+        /**
+         * @return 仍然存在、且不在同一原子批次中删除的引用者
+         */
+        Set<String> findLiveReferrers(String elementId, Set<String> live) {
+            Set<String> referrers = new HashSet<>(pending.getOrDefault(elementId, Collections.emptySet()));
+            if (referenceIndex.isLoaded()) {
+                for (String feature : INTEGRITY_FEATURES) {
+                    referrers.addAll(referenceIndex.getReferrers(elementId, feature));
+                }
+            } else {
+                referrers.addAll(scanReferrers().getOrDefault(elementId, Collections.emptySet()));
+            }
+            referrers.removeIf(referrer -> referrer.equals(elementId) || !live.contains(referrer)
+                || deletedInBatch.contains(referrer));
+            return referrers;
+        }
+        
+        /**
+         * 记录通过校验的创建/更新新增的引用
+         */
+        void record(BatchOperationDTO operation) {
+            if (BatchOperationDTO.OP_DELETE.equals(operation.getOp())) {
+                return;
+            }
+            for (String feature : INTEGRITY_FEATURES) {
+                Object target = operation.getAttributes().get(feature);
+                if (target instanceof String) {
+                    pending.computeIfAbsent((String) target, k -> new HashSet<>()).add(operation.getElementId());
+                }
+            }
+        }
+        
+        private Map<String, Set<String>> scanReferrers() {
+            if (scanned == null) {
+                scanned = new HashMap<>();
+                for (EObject obj : resource.getContents()) {
+                    Object referrerId = pilotEMFService.getAttributeValue(obj, "elementId");
+                    if (referrerId == null) {
+                        continue;
+                    }
+                    for (String feature : INTEGRITY_FEATURES) {
+                        Object target = pilotEMFService.getAttributeValue(obj, feature);
+                        if (target instanceof String) {
+                            scanned.computeIfAbsent((String) target, k -> new HashSet<>()).add(referrerId.toString());
+                        }
+                    }
+                }
+            }
+            return scanned;
+        }
+    }
+    
+    /**
+     * 基于写锁内已加载资源的模型视图
+     * 反向引用索引已构建时直接查询（由写操作在写锁内维护），否则遍历资源
+     */
+    private final class LockedModelView implements BatchModelView {
+        private final Resource resource;
+        private final Map<String, EObject> objectsById;
+        
+        LockedModelView(Resource resource, Map<String, EObject> objectsById) {
+            this.resource = resource;
+            this.objectsById = objectsById;
+        }
+        
+        @Override
+        public String getEClass(String elementId) {
+            EObject target = objectsById.get(elementId);
+            return target != null ? target.eClass().getName() : null;
+        }
+        
+        @Override
+        public Object getAttribute(String elementId, String name) {
+            EObject target = objectsById.get(elementId);
+            return target != null ? pilotEMFService.getAttributeValue(target, name) : null;
+        }
+        
+        @Override
+        public Set<String> findReferrers(String elementId, String feature) {
+            if (referenceIndex.isLoaded()) {
+                return referenceIndex.getReferrers(elementId, feature);
+            }
+            Set<String> referrers = new HashSet<>();
+            for (EObject obj : resource.getContents()) {
+                Object referrerId = pilotEMFService.getAttributeValue(obj, "elementId");
+                if (referrerId != null && elementId.equals(pilotEMFService.getAttributeValue(obj, feature))) {
+                    referrers.add(referrerId.toString());
+                }
+            }
+            return referrers;
+        }
+        
+        @Override
+        public List<ElementDTO> queryElements(String type) {
+            List<ElementDTO> elements = new ArrayList<>();
+            for (EObject obj : resource.getContents()) {
+                if (type == null || type.equals(obj.eClass().getName())) {
+                    elements.add(toDTO(obj));
+                }
             }
+            return elements;
         }
-        return null;
     }
     
     /**
@@ -0,0 +1,93 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.ValidationResultDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 验证结果缓存
+ * 
+ * 需求实现：
+ * - REQ-E1-3: 静态验证结果按(项目, 模型版本, 规则集)缓存，并提供ETag
+ * 
+ * 设计说明：
+ * 1. 每个项目只保留最新一条结果，模型版本变化后旧结果自然失效
+ * 2. 命中路径只有一次Map查找和字段比较，不分配新对象
+ * 3. ETag在写入时预先计算，包含进程纪元，避免重启后与旧ETag碰撞
+ */
+@Component
+public class ValidationResultCache {
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    
+    /**
+     * 查找缓存结果
+     * @param projectId 项目ID
+     * @param modelVersion 模型版本号
+     * @param ruleSet 规则集版本
+     * @return 缓存条目，未命中返回null
+     */
+    public Entry get(String projectId, long modelVersion, String ruleSet) {
+        Entry entry = entries.get(projectId);
+        if (entry != null && entry.modelVersion == modelVersion && entry.ruleSet.equals(ruleSet)) {
+            return entry;
+        }
+        return null;
+    }
+    
+    /**
+     * 写入缓存结果
+     * 并发写入时保留模型版本较新的结果
+     * @return 新建的缓存条目
+     */
+    public Entry put(String projectId, long modelVersion, String ruleSet, ValidationResultDTO result) {
+        String eTag = String.format("\"%s-%s-%d-%s\"", projectId, epoch, modelVersion, ruleSet);
+        Entry entry = new Entry(modelVersion, ruleSet, eTag, result);
+        entries.merge(projectId, entry,
+            (existing, candidate) -> candidate.modelVersion >= existing.modelVersion ? candidate : existing);
+        return entry;
+    }
+    
+    /**
+     * 移除项目的缓存结果
+     */
+    public void evict(String projectId) {
+        entries.remove(projectId);
+    }
+    
+    /**
+     * 缓存条目
+     */
+    public static final class Entry {
+        private final long modelVersion;
+        private final String ruleSet;
+        private final String eTag;
+        private final ValidationResultDTO result;
+        
+        public Entry(long modelVersion, String ruleSet, String eTag, ValidationResultDTO result) {
+            this.modelVersion = modelVersion;
+            this.ruleSet = ruleSet;
+            this.eTag = eTag;
+            this.result = result;
+        }
+        
+        public long getModelVersion() {
+            return modelVersion;
+        }
+        
+        public String getRuleSet() {
+            return ruleSet;
+        }
+        
+        public String getETag() {
+            return eTag;
+        }
+        
+        public ValidationResultDTO getResult() {
+            return result;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.sysml.mvp.service;
 
 import com.sysml.mvp.dto.ElementDTO;
+import com.sysml.mvp.dto.TraceDTO;
 import com.sysml.mvp.dto.ValidationResultDTO;
 import com.sysml.mvp.dto.ValidationViolationDTO;
+import com.sysml.mvp.model.TraceSemanticsMatrix;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -20,17 +22,27 @@ import java.util.stream.Collectors;
  * - REQ-C1-1: reqId唯一性验证
  * - REQ-C3-3: 追溯关系去重检测
  * - REQ-C3-4: 追溯关系语义约束验证
+ * - REQ-C3-3/REQ-C3-4: 追溯候选批量验证 - 一次遍历模型，按索引逐条判定
  * 
  * 设计说明：
  * 1. 实现3条核心验证规则的静态检查
  * 2. 提供reqId唯一性和追溯关系验证支持
  * 3. 返回标准化的ValidationResultDTO格式
  * 4. 支持性能要求：≤500元素<2s处理时间
+ * 5. 语义约束由TraceSemanticsMatrix判定（启动时编译，包含子类型）
  */
 @Service
 public class ValidationService {
     
+    /**
+     * 【REQ-E1-2】当前规则集版本
+     * 规则集变化时需同步修改，验证结果缓存以此区分
+     */
+    public static final String RULE_SET_VERSION = "1.0";
+    
     private final UniversalElementService universalElementService;
+    private final TraceSemanticsMatrix traceSemanticsMatrix;
+    private final ReqIdIndex reqIdIndex;
     
     /**
      * 追溯类型到EClass的映射
@@ -43,20 +55,22 @@ public class ValidationService {
         TYPE_TO_ECLASS_MAPPING.put("trace", "Trace");
     }
     
-    public ValidationService(UniversalElementService universalElementService) {
+    public ValidationService(UniversalElementService universalElementService,
+                             TraceSemanticsMatrix traceSemanticsMatrix,
+                             ReqIdIndex reqIdIndex) {
         this.universalElementService = universalElementService;
+        this.traceSemanticsMatrix = traceSemanticsMatrix;
+        this.reqIdIndex = reqIdIndex;
     }
     
     /**
      * 【REQ-C1-1】验证reqId唯一性
+     * 查询ReqIdIndex，常数时间完成
      * @param reqId 需求ID
      * @return true如果reqId唯一，false如果重复
      */
     public boolean validateReqIdUniqueness(String reqId) {
-        List<ElementDTO> requirements = universalElementService.queryElements("RequirementDefinition");
-        
-        return requirements.stream()
-            .noneMatch(req -> reqId.equals(req.getProperty("reqId")));
+        return reqIdIndex.isAvailable(reqId);
     }
     
     /**
@@ -95,16 +109,7 @@ public class ValidationService {
             return false;
         }
         
-        String sourceType = sourceElement.getEClass();
-        String targetType = targetElement.getEClass();
-        
-        return switch (type) {
-            case "satisfy" -> isValidSatisfySemantics(sourceType, targetType);
-            case "derive" -> isValidDeriveSemantics(sourceType, targetType);
-            case "refine" -> isValidRefineSemantics(sourceType, targetType);
-            case "trace" -> true; // 通用追溯关系无特殊约束
-            default -> false;
-        };
+        return isValidSemantics(type, sourceElement.getEClass(), targetElement.getEClass());
     }
     
     /**
@@ -127,13 +132,90 @@ public class ValidationService {
         
         boolean isValid = validateTraceSemantics(source, target, type);
         
-        if (isValid) {
-            return String.format("Valid %s relationship: %s can %s %s", 
-                type, sourceType, type, targetType);
-        } else {
-            return String.format("Invalid %s relationship: %s cannot %s %s", 
-                type, sourceType, type, targetType);
+        return buildSemanticMessage(type, sourceType, targetType, isValid);
+    }
+    
+    /**
+     * 【REQ-C3-3/REQ-C3-4】批量验证追溯候选
+     * 只遍历一次模型：建立elementId→EClass索引和(source, target, EClass)去重集合，
+     * 然后逐条判定，避免每条候选都执行一次全量查询和线性查找。
+     * 批内重复的候选同样标记为重复。
+     * @param candidates 追溯候选列表（仅使用source、target、type）
+     * @return 与候选顺序一致的验证结果
+     */
+    public List<Map<String, Object>> validateTraceCandidates(List<TraceDTO> candidates) {
+        Map<String, String> eClassById = new HashMap<>();
+        Set<String> existingTraceKeys = new HashSet<>();
+        Collection<String> traceEClasses = TYPE_TO_ECLASS_MAPPING.values();
+        
+        for (ElementDTO element : universalElementService.getAllElements()) {
+            if (element.getElementId() != null) {
+                eClassById.put(element.getElementId(), element.getEClass());
+            }
+            if (traceEClasses.contains(element.getEClass())) {
+                Object fromId = element.getProperty("fromId");
+                Object toId = element.getProperty("toId");
+                if (fromId != null && toId != null) {
+                    existingTraceKeys.add(traceKey(element.getEClass(), fromId.toString(), toId.toString()));
+                }
+            }
         }
+        
+        List<Map<String, Object>> results = new ArrayList<>(candidates.size());
+        Set<String> batchTraceKeys = new HashSet<>();
+        
+        for (int i = 0; i < candidates.size(); i++) {
+            TraceDTO candidate = candidates.get(i);
+            String source = candidate.getSource();
+            String target = candidate.getTarget();
+            String type = candidate.getType();
+            
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", i);
+            result.put("source", source);
+            result.put("target", target);
+            result.put("type", type);
+            
+            String eClass = type != null ? TYPE_TO_ECLASS_MAPPING.get(type) : null;
+            if (source == null || target == null || eClass == null) {
+                result.put("isDuplicate", false);
+                result.put("isSemanticValid", false);
+                result.put("validationMessage", eClass == null
+                    ? "Unsupported trace type: " + type
+                    : "source and target are required");
+                result.put("isValid", false);
+                results.add(result);
+                continue;
+            }
+            
+            // 【REQ-C3-3】去重：先查已有关系，再查本批次之前的候选
+            String key = traceKey(eClass, source, target);
+            boolean duplicateInModel = existingTraceKeys.contains(key);
+            boolean duplicateInBatch = !batchTraceKeys.add(key);
+            boolean isDuplicate = duplicateInModel || duplicateInBatch;
+            
+            // 【REQ-C3-4】语义约束：端点从索引中解析
+            String sourceType = eClassById.get(source);
+            String targetType = eClassById.get(target);
+            boolean isSemanticValid;
+            String validationMessage;
+            if (sourceType == null || targetType == null) {
+                isSemanticValid = false;
+                validationMessage = String.format("Invalid %s relationship: element not found", type);
+            } else {
+                isSemanticValid = isValidSemantics(type, sourceType, targetType);
+                validationMessage = buildSemanticMessage(type, sourceType, targetType, isSemanticValid);
+            }
+            
+            result.put("isDuplicate", isDuplicate);
+            result.put("duplicateInBatch", duplicateInBatch && !duplicateInModel);
+            result.put("isSemanticValid", isSemanticValid);
+            result.put("validationMessage", validationMessage);
+            result.put("isValid", !isDuplicate && isSemanticValid);
+            results.add(result);
+        }
+        
+        return results;
     }
     
     /**
@@ -159,7 +241,7 @@ public class ValidationService {
         result.setValidatedAt(Instant.now().toString());
         result.setElementCount(elements.size());
         result.setProcessingTimeMs(endTime - startTime);
-        result.setVersion("1.0");
+        result.setVersion(RULE_SET_VERSION);
         
         return result;
     }
@@ -285,39 +367,31 @@ public class ValidationService {
     }
     
     /**
-     * 验证Satisfy语义约束
-     * Satisfy: source∈{PartUsage,ActionUsage}, target∈{RequirementUsage,RequirementDefinition}
+     * 【REQ-C3-4】按追溯类型检查语义约束
+     * 规则见TraceSemanticsProperties，子类型继承父类型的许可
      */
-    private boolean isValidSatisfySemantics(String sourceType, String targetType) {
-        boolean validSource = "PartUsage".equals(sourceType) || 
-                             "ActionUsage".equals(sourceType);
-        
-        boolean validTarget = "RequirementUsage".equals(targetType) || 
-                             "RequirementDefinition".equals(targetType);
-        
-        return validSource && validTarget;
+    private boolean isValidSemantics(String type, String sourceType, String targetType) {
+        return traceSemanticsMatrix.isAllowed(type, sourceType, targetType);
     }
     
     /**
-     * 验证DeriveRequirement语义约束
-     * DeriveRequirement: source/target∈{RequirementDefinition,RequirementUsage}
+     * 构造语义验证消息
      */
-    private boolean isValidDeriveSemantics(String sourceType, String targetType) {
-        boolean validSource = "RequirementDefinition".equals(sourceType) || 
-                             "RequirementUsage".equals(sourceType);
-        
-        boolean validTarget = "RequirementDefinition".equals(targetType) || 
-                             "RequirementUsage".equals(targetType);
-        
-        return validSource && validTarget;
+    private String buildSemanticMessage(String type, String sourceType, String targetType, boolean isValid) {
+        if (isValid) {
+            return String.format("Valid %s relationship: %s can %s %s", 
+                type, sourceType, type, targetType);
+        } else {
+            return String.format("Invalid %s relationship: %s cannot %s %s", 
+                type, sourceType, type, targetType);
+        }
     }
     
     /**
-     * 验证Refine语义约束
-     * Refine: source/target∈{RequirementDefinition,RequirementUsage}
+     * 追溯关系去重键
      */
-    private boolean isValidRefineSemantics(String sourceType, String targetType) {
-        return isValidDeriveSemantics(sourceType, targetType); // 与Derive相同的约束
+    private static String traceKey(String eClass, String fromId, String toId) {
+        return eClass + '\u0000' + fromId + '\u0000' + toId;
     }
     
     /**
@@ -3,12 +3,18 @@ package com.sysml.mvp.service.impl;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sysml.mvp.config.LimitsProperties;
 import com.sysml.mvp.dto.ElementDTO;
+import com.sysml.mvp.repository.FileModelRepository;
+import com.sysml.mvp.repository.ProjectLockManager;
+import com.sysml.mvp.repository.StorageFormat;
 import com.sysml.mvp.service.ProjectService;
+import com.sysml.mvp.service.ReqIdIndex;
 import com.sysml.mvp.service.UniversalElementService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -18,6 +24,7 @@ import java.util.*;
  * - REQ-B3-1: 导出JSON - 规范文件名和格式
  * - REQ-B3-2: 导入JSON - 验证格式并创建元素
  * - REQ-B3-3: 一致性保证 - ID稳定性和引用完整性
+ * - 存储格式切换 - 持有项目写锁转换模型文件，与编辑和保存互斥
  */
 @Slf4j
 @Service
@@ -25,10 +32,20 @@ public class ProjectServiceImpl implements ProjectService {
     
     private final UniversalElementService universalElementService;
     private final ObjectMapper objectMapper;
+    private final ReqIdIndex reqIdIndex;
+    private final LimitsProperties limits;
+    private final FileModelRepository fileModelRepository;
+    private final ProjectLockManager projectLockManager;
     
-    public ProjectServiceImpl(UniversalElementService universalElementService, ObjectMapper objectMapper) {
+    public ProjectServiceImpl(UniversalElementService universalElementService, ObjectMapper objectMapper,
+                              ReqIdIndex reqIdIndex, LimitsProperties limits,
+                              FileModelRepository fileModelRepository, ProjectLockManager projectLockManager) {
         this.universalElementService = universalElementService;
         this.objectMapper = objectMapper;
+        this.reqIdIndex = reqIdIndex;
+        this.limits = limits;
+        this.fileModelRepository = fileModelRepository;
+        this.projectLockManager = projectLockManager;
     }
     
     /**
@@ -111,6 +128,13 @@ public class ProjectServiceImpl implements ProjectService {
         try {
             log.info("导入项目: {}", projectId);
             
+            // 文件大小上限（app.limits.max-file-size）
+            long size = jsonContent.getBytes(StandardCharsets.UTF_8).length;
+            if (size > limits.getMaxFileSize()) {
+                throw new IllegalArgumentException(String.format(
+                    "Import file too large: %d bytes exceeds limit of %d bytes", size, limits.getMaxFileSize()));
+            }
+            
             // 解析JSON
             JsonNode rootNode = objectMapper.readTree(jsonContent);
             
@@ -123,6 +147,14 @@ public class ProjectServiceImpl implements ProjectService {
                 throw new IllegalArgumentException("content must be an array");
             }
             
+            // 节点数上限（app.limits.max-nodes），整体拒绝而不是导入到一半
+            int existing = universalElementService.getAllElements().size();
+            if (existing + contentNode.size() > limits.getMaxNodes()) {
+                throw new IllegalArgumentException(String.format(
+                    "Import would exceed node limit: %d existing + %d incoming > %d",
+                    existing, contentNode.size(), limits.getMaxNodes()));
+            }
+            
             int elementsImported = 0;
             List<String> createdElementIds = new ArrayList<>();
             
@@ -139,6 +171,9 @@ public class ProjectServiceImpl implements ProjectService {
                 }
             }
             
+            // 导入绕过了reqId预留，重建reqId索引
+            reqIdIndex.invalidate();
+            
             // 构建返回结果
             Map<String, Object> result = new HashMap<>();
             result.put("projectId", projectId);
@@ -160,6 +195,26 @@ public class ProjectServiceImpl implements ProjectService {
         }
     }
     
+    /**
+     * 切换存储格式
+     * 写锁内完成转换，转换后仓库清除项目缓存（模型版本递增，快照随之失效）；
+     * 模型内容不变，反向引用索引和reqId索引无需重建
+     */
+    @Override
+    public Map<String, Object> convertStorageFormat(String projectId, String format) {
+        StorageFormat target = StorageFormat.fromValue(format);
+        return projectLockManager.write(projectId, () -> {
+            StorageFormat previous = fileModelRepository.getStorageFormat(projectId);
+            fileModelRepository.setStorageFormat(projectId, target);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("projectId", projectId);
+            result.put("previousFormat", previous.name().toLowerCase(Locale.ROOT));
+            result.put("storageFormat", target.name().toLowerCase(Locale.ROOT));
+            return result;
+        });
+    }
+    
     /**
      * 验证JSON结构的必填字段
      */
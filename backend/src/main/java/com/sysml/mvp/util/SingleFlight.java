@@ -0,0 +1,69 @@
+package com.sysml.mvp.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 单飞（single-flight）请求合并
+ *
+ * 设计说明：
+ * 1. 同一key同时只有一次计算在执行，期间到达的调用等待并共享其结果（包括异常）
+ * 2. 计算在第一个调用者的线程中执行，完成后立即移除，之后的调用重新计算（不做缓存）
+ * 3. 计算函数不得以相同key重入，否则会等待自身而死锁
+ *
+ * @param <K> key类型
+ * @param <V> 结果类型
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行或加入同一key正在进行的计算
+     * @param key 合并键
+     * @param loader 计算函数
+     * @return 计算结果
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return 正在进行的计算数量
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
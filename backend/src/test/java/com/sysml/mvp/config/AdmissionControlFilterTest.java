@@ -0,0 +1,157 @@
+package com.sysml.mvp.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdmissionControlFilter 测试用例
+ *
+ * 验证请求分类、舱壁满额时的503 + Retry-After，以及舱壁之间互不影响
+ */
+@DisplayName("AdmissionControlFilter测试")
+public class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        LimitsProperties limits = new LimitsProperties();
+        limits.setMaxConcurrentUsers(1);
+        limits.getAdmission().setRetryAfterSeconds(3);
+        limits.getAdmission().getRead().setMaxWaitMs(50);
+        limits.getAdmission().getWrite().setMaxWaitMs(2000);
+        filter = new AdmissionControlFilter(limits, meterRegistry);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("按路径和方法分类请求")
+    public void testClassify() {
+        assertEquals(AdmissionControlFilter.Category.IMPORT_EXPORT,
+            AdmissionControlFilter.classify("POST", "/api/v1/projects/p1/import"));
+        assertEquals(AdmissionControlFilter.Category.IMPORT_EXPORT,
+            AdmissionControlFilter.classify("GET", "/api/v1/projects/p1/export"));
+        assertEquals(AdmissionControlFilter.Category.IMPORT_EXPORT,
+            AdmissionControlFilter.classify("PUT", "/api/v1/projects/p1/storage-format"));
+        assertEquals(AdmissionControlFilter.Category.IMPORT_EXPORT,
+            AdmissionControlFilter.classify("POST", "/api/v1/projects/p1/backups"));
+        assertEquals(AdmissionControlFilter.Category.IMPORT_EXPORT,
+            AdmissionControlFilter.classify("GET", "/api/v1/projects/p1/backups"));
+        assertEquals(AdmissionControlFilter.Category.IMPORT_EXPORT,
+            AdmissionControlFilter.classify("POST", "/api/v1/projects/p1/backups/restore"));
+        assertEquals(AdmissionControlFilter.Category.IMPORT_EXPORT,
+            AdmissionControlFilter.classify("POST", "/api/v1/backups/gc"));
+        assertEquals(AdmissionControlFilter.Category.VALIDATION,
+            AdmissionControlFilter.classify("POST", "/api/v1/validation/static"));
+        assertEquals(AdmissionControlFilter.Category.READ,
+            AdmissionControlFilter.classify("GET", "/api/v1/elements"));
+        assertEquals(AdmissionControlFilter.Category.WRITE,
+            AdmissionControlFilter.classify("PATCH", "/api/v1/elements/e1"));
+        assertNull(AdmissionControlFilter.classify("OPTIONS", "/api/v1/elements"));
+        assertNull(AdmissionControlFilter.classify("GET", "/actuator/health"));
+    }
+
+    @Test
+    @DisplayName("舱壁满额且等待超时时返回503和Retry-After")
+    public void testFilter_RejectsWhenBulkheadSaturated() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = executor.submit(
+            () -> run("POST", "/api/v1/projects/p1/import", blockingChain(entered, release)));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = run("POST", "/api/v1/projects/p1/import",
+            (req, res) -> fail("should not be admitted"));
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("3", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"bulkhead\":\"import-export\""));
+        assertEquals(1.0, meterRegistry.get("sysml.admission.rejected")
+            .tag("bulkhead", "import-export").counter().count());
+
+        // 许可已释放，后续请求可以进入
+        assertEquals(200, run("POST", "/api/v1/projects/p1/import", (req, res) -> { }).getStatus());
+    }
+
+    @Test
+    @DisplayName("导入导出占满时读写请求不受影响")
+    public void testFilter_BulkheadsAreIsolated() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = executor.submit(
+            () -> run("GET", "/api/v1/projects/p1/export", blockingChain(entered, release)));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        try {
+            assertEquals(200, run("GET", "/api/v1/elements", (req, res) -> { }).getStatus());
+            assertEquals(200, run("POST", "/api/v1/elements", (req, res) -> { }).getStatus());
+        } finally {
+            release.countDown();
+            blocker.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("排队的请求在等待时间内获得许可")
+    public void testFilter_QueuedRequestAdmittedWithinDeadline() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = executor.submit(
+            () -> run("PUT", "/api/v1/elements/e1", blockingChain(entered, release)));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        Future<MockHttpServletResponse> queued = executor.submit(
+            () -> run("PUT", "/api/v1/elements/e2", (req, res) -> { }));
+        Thread.sleep(20);
+        release.countDown();
+
+        assertEquals(200, queued.get(5, TimeUnit.SECONDS).getStatus());
+        blocker.get(5, TimeUnit.SECONDS);
+    }
+
+    private MockHttpServletResponse run(String method, String uri, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static FilterChain blockingChain(CountDownLatch entered, CountDownLatch release) {
+        return (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+}
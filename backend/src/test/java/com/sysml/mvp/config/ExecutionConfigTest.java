@@ -0,0 +1,107 @@
+package com.sysml.mvp.config;
+
+import com.sysml.mvp.util.VirtualThreads;
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExecutionConfig 测试用例
+ *
+ * 验证执行模式选择、平台线程池先扩容再排队，以及连接器参数的应用
+ */
+@DisplayName("ExecutionConfig测试")
+public class ExecutionConfigTest {
+
+    @Test
+    @DisplayName("platform模式始终使用平台线程池")
+    public void testPlatformMode_UsesBoundedPool() {
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setMode(ExecutionProperties.Mode.PLATFORM);
+        assertFalse(properties.resolveVirtualThreads());
+
+        ExecutorService executor = ExecutionConfig.newRequestExecutor(properties);
+        try {
+            ThreadPoolExecutor pool = assertInstanceOf(ThreadPoolExecutor.class, executor);
+            assertEquals(properties.getPlatform().getMaxThreads(), pool.getMaximumPoolSize());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("auto模式按JVM能力选择虚拟线程")
+    public void testAutoMode_FollowsJvmSupport() {
+        ExecutionProperties properties = new ExecutionProperties();
+        assertEquals(VirtualThreads.isSupported(), properties.resolveVirtualThreads());
+
+        properties.setMode(ExecutionProperties.Mode.VIRTUAL);
+        ExecutorService executor = ExecutionConfig.newRequestExecutor(properties);
+        try {
+            // 不支持时回退到平台线程池而不是启动失败
+            assertEquals(!VirtualThreads.isSupported(), executor instanceof ThreadPoolExecutor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("平台线程池在线程数达到上限前不排队")
+    public void testPlatformPool_GrowsBeforeQueueing() throws Exception {
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setMode(ExecutionProperties.Mode.PLATFORM);
+        properties.getPlatform().setMinSpareThreads(1);
+        properties.getPlatform().setMaxThreads(4);
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) ExecutionConfig.newRequestExecutor(properties);
+        CountDownLatch running = new CountDownLatch(4);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 4; i++) {
+                pool.execute(() -> {
+                    running.countDown();
+                    awaitQuietly(release);
+                });
+            }
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            assertEquals(4, pool.getPoolSize());
+            assertTrue(pool.getQueue().isEmpty());
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("连接器使用配置的执行器和连接数限制")
+    public void testCustomize_AppliesExecutorAndLimits() {
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setMaxConnections(1234);
+        properties.setAcceptCount(321);
+        Http11NioProtocol protocol = new Http11NioProtocol();
+        ExecutorService executor = ExecutionConfig.newRequestExecutor(properties);
+        try {
+            ExecutionConfig.customize(protocol, executor, properties);
+
+            assertSame(executor, protocol.getExecutor());
+            assertEquals(1234, protocol.getMaxConnections());
+            assertEquals(321, protocol.getAcceptCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.sysml.mvp.config;
+
+import com.sysml.mvp.util.VirtualThreads;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 请求执行模式基准测试
+ *
+ * 在嵌入式Tomcat上按ExecutionConfig配置连接器，1000个并发连接各自顺序发送请求；
+ * 处理函数读取模型文件并阻塞IO_LATENCY_MS毫秒，模拟FileModelRepository的磁盘I/O。
+ * 默认不运行：mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DisplayName("请求执行模式基准测试")
+public class ExecutionModeBenchmarkTest {
+
+    private static final int CONNECTIONS = 1000;
+    private static final int REQUESTS_PER_CONNECTION = 20;
+    private static final long IO_LATENCY_MS = 10;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("平台线程池模式：1000并发连接吞吐量")
+    public void benchmarkPlatformThreads() throws Exception {
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setMode(ExecutionProperties.Mode.PLATFORM);
+        run("platform", properties);
+    }
+
+    @Test
+    @DisplayName("虚拟线程模式：1000并发连接吞吐量")
+    public void benchmarkVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported(), "virtual threads require Java 21+");
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setMode(ExecutionProperties.Mode.VIRTUAL);
+        run("virtual", properties);
+    }
+
+    private void run(String mode, ExecutionProperties properties) throws Exception {
+        Path modelFile = tempDir.resolve("model.json");
+        Files.writeString(modelFile, "{\"content\":[" + "{\"eClass\":\"PartUsage\"},".repeat(200) + "{}]}");
+
+        ExecutorService executor = ExecutionConfig.newRequestExecutor(properties);
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(tempDir.toString());
+        Connector connector = new Connector(Http11NioProtocol.class.getName());
+        connector.setPort(0);
+        ExecutionConfig.customize(connector.getProtocolHandler(), executor, properties);
+        tomcat.getService().addConnector(connector);
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", tempDir.toString());
+        Tomcat.addServlet(context, "model", new ModelFileServlet(modelFile));
+        context.addServletMappingDecoded("/model", "model");
+        tomcat.start();
+
+        try {
+            URI uri = URI.create("http://localhost:" + connector.getLocalPort() + "/model");
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+            // 预热：建立连接并触发JIT
+            drive(client, uri, CONNECTIONS, 2);
+
+            long start = System.nanoTime();
+            long[] latencies = drive(client, uri, CONNECTIONS, REQUESTS_PER_CONNECTION);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            int total = latencies.length;
+            System.out.printf("[benchmark] mode=%s connections=%d requests=%d elapsed=%.2fs "
+                    + "throughput=%.0f req/s p50=%.1fms p99=%.1fms%n",
+                mode, CONNECTIONS, total, seconds, total / seconds,
+                latencies[total / 2] / 1e6, latencies[(int) (total * 0.99)] / 1e6);
+            assertEquals(CONNECTIONS * REQUESTS_PER_CONNECTION, total);
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 每个连接顺序发送requests个请求，所有连接并发
+     * @return 全部请求的延迟（纳秒）
+     */
+    private long[] drive(HttpClient client, URI uri, int connections, int requests) {
+        long[] latencies = new long[connections * requests];
+        AtomicInteger next = new AtomicInteger();
+        List<CompletableFuture<Void>> streams = new ArrayList<>(connections);
+        for (int c = 0; c < connections; c++) {
+            CompletableFuture<Void> stream = CompletableFuture.completedFuture(null);
+            for (int r = 0; r < requests; r++) {
+                stream = stream.thenCompose(ignored -> {
+                    long sent = System.nanoTime();
+                    return client.sendAsync(HttpRequest.newBuilder(uri).GET().build(),
+                            HttpResponse.BodyHandlers.discarding())
+                        .thenAccept(response -> {
+                            assertEquals(200, response.statusCode());
+                            latencies[next.getAndIncrement()] = System.nanoTime() - sent;
+                        });
+                });
+            }
+            streams.add(stream);
+        }
+        CompletableFuture.allOf(streams.toArray(new CompletableFuture[0])).join();
+        return Arrays.copyOf(latencies, next.get());
+    }
+
+    /**
+     * 模拟模型读取：读文件并阻塞固定时间
+     */
+    private static final class ModelFileServlet extends HttpServlet {
+        private final Path modelFile;
+
+        ModelFileServlet(Path modelFile) {
+            this.modelFile = modelFile;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            byte[] content = Files.readAllBytes(modelFile);
+            try {
+                Thread.sleep(IO_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setContentType("application/json");
+            response.getOutputStream().write(content);
+        }
+    }
+}
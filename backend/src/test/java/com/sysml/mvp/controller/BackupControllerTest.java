@@ -0,0 +1,73 @@
+package com.sysml.mvp.controller;
+
+import com.sysml.mvp.dto.BackupSnapshotDTO;
+import com.sysml.mvp.service.BackupService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * BackupController 测试用例
+ *
+ * 验证快照的创建、列出和按时间点恢复接口
+ */
+@WebMvcTest(BackupController.class)
+@DisplayName("BackupController测试")
+public class BackupControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BackupService backupService;
+
+    private static final BackupSnapshotDTO SNAPSHOT =
+        new BackupSnapshotDTO("20240101T000000.000Z", "p1", "2024-01-01T00:00:00Z", 2, 4096, 3, 1, 512);
+
+    @Test
+    @DisplayName("创建快照返回201，列出快照返回200")
+    public void testCreateAndList() throws Exception {
+        when(backupService.backup("p1")).thenReturn(SNAPSHOT);
+        when(backupService.listSnapshots("p1")).thenReturn(List.of(SNAPSHOT));
+
+        mockMvc.perform(post("/api/v1/projects/p1/backups"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.snapshotId").value("20240101T000000.000Z"))
+            .andExpect(jsonPath("$.newChunks").value(1));
+
+        mockMvc.perform(get("/api/v1/projects/p1/backups"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].chunkCount").value(3));
+    }
+
+    @Test
+    @DisplayName("按时间点恢复，无可用快照返回404，时间格式错误返回400")
+    public void testRestore() throws Exception {
+        Instant at = Instant.parse("2024-01-02T00:00:00Z");
+        when(backupService.restore("p1", at)).thenReturn(SNAPSHOT);
+
+        mockMvc.perform(post("/api/v1/projects/p1/backups/restore").param("at", "2024-01-02T00:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.snapshotId").value("20240101T000000.000Z"));
+
+        when(backupService.restore(eq("p2"), any())).thenReturn(null);
+        mockMvc.perform(post("/api/v1/projects/p2/backups/restore"))
+            .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/v1/projects/p1/backups/restore").param("at", "yesterday"))
+            .andExpect(status().isBadRequest());
+        verify(backupService, times(2)).restore(any(), any());
+    }
+}
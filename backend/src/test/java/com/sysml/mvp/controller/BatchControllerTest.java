@@ -0,0 +1,104 @@
+package com.sysml.mvp.controller;
+
+import com.sysml.mvp.dto.BatchOperationDTO;
+import com.sysml.mvp.dto.BatchOperationResultDTO;
+import com.sysml.mvp.dto.BatchResultDTO;
+import com.sysml.mvp.dto.ElementDTO;
+import com.sysml.mvp.service.BatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * BatchController 测试用例
+ * 
+ * 需求对齐：
+ * - REQ-B2-1/REQ-B2-4/REQ-B5-3: 批量变更 - POST /api/v1/batch
+ */
+@WebMvcTest(BatchController.class)
+@DisplayName("BatchController测试")
+public class BatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private BatchService batchService;
+
+    /**
+     * 提交成功的批次返回200和逐条结果
+     */
+    @Test
+    @DisplayName("批次提交返回200")
+    public void testExecuteBatch_ShouldReturn200WhenCommitted() throws Exception {
+        // Given: 一个创建与一个删除
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("declaredName", "新需求");
+        List<BatchOperationDTO> operations = Arrays.asList(
+            new BatchOperationDTO("create", "req-def-002", "RequirementDefinition", attributes, null),
+            new BatchOperationDTO("delete", "req-def-001", null, new HashMap<>(), 3L)
+        );
+        ElementDTO created = new ElementDTO();
+        created.setElementId("req-def-002");
+        created.setVersion(1L);
+        BatchResultDTO result = new BatchResultDTO(true, 7L, Arrays.asList(
+            new BatchOperationResultDTO(0, "create", "req-def-002", 201, created, null),
+            new BatchOperationResultDTO(1, "delete", "req-def-001", 204, null, null)
+        ));
+        when(batchService.execute(any())).thenReturn(result);
+
+        // Then: 200和逐条结果
+        mockMvc.perform(post("/api/v1/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(operations)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(true))
+                .andExpect(jsonPath("$.modelVersion").value(7))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].element.elementId").value("req-def-002"))
+                .andExpect(jsonPath("$.results[1].status").value(204));
+
+        verify(batchService).execute(argThat(ops -> ops.size() == 2
+            && "req-def-001".equals(ops.get(1).getElementId())
+            && Long.valueOf(3L).equals(ops.get(1).getExpectedVersion())));
+    }
+
+    /**
+     * 被拒绝的批次返回首个失败操作的状态码
+     */
+    @Test
+    @DisplayName("批次被拒绝返回首个失败状态码")
+    public void testExecuteBatch_ShouldReturnFirstFailureStatus() throws Exception {
+        // Given: 第二个操作版本冲突
+        BatchResultDTO result = new BatchResultDTO(false, 7L, Arrays.asList(
+            new BatchOperationResultDTO(0, "patch", "req-def-001", 424, null, "Not applied: batch rejected"),
+            new BatchOperationResultDTO(1, "delete", "req-def-002", 412, null, "Element req-def-002 has been modified")
+        ));
+        when(batchService.execute(any())).thenReturn(result);
+
+        // Then: 412
+        mockMvc.perform(post("/api/v1/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"op\":\"patch\",\"elementId\":\"req-def-001\"},{\"op\":\"delete\",\"elementId\":\"req-def-002\",\"expectedVersion\":1}]"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.committed").value(false))
+                .andExpect(jsonPath("$.results[1].error").value("Element req-def-002 has been modified"));
+    }
+}
@@ -28,6 +28,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * - REQ-B3-1: 导出JSON项目文件
  * - REQ-B3-2: 导入JSON项目文件
  * - REQ-B3-3: 导入导出一致性验证
+ * - 存储格式切换
  */
 @WebMvcTest(ProjectController.class)
 @DisplayName("ProjectController测试 - REQ-B3-1,B3-2")
@@ -224,6 +225,28 @@ public class ProjectControllerTest {
         verify(projectService).exportProject(projectId);
     }
     
+    @Test
+    @DisplayName("切换存储格式 - 成功与未知格式")
+    void testConvertStorageFormat() throws Exception {
+        // Given
+        Map<String, Object> result = new HashMap<>();
+        result.put("projectId", "default");
+        result.put("previousFormat", "json");
+        result.put("storageFormat", "binary");
+        when(projectService.convertStorageFormat("default", "binary")).thenReturn(result);
+        when(projectService.convertStorageFormat("default", "xml"))
+                .thenThrow(new IllegalArgumentException("Unknown storage format: xml"));
+        
+        // When & Then
+        mockMvc.perform(put("/api/v1/projects/{pid}/storage-format", "default").param("format", "binary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.previousFormat").value("json"))
+                .andExpect(jsonPath("$.storageFormat").value("binary"));
+        mockMvc.perform(put("/api/v1/projects/{pid}/storage-format", "default").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown storage format: xml"));
+    }
+    
     // 辅助方法
     private Map<String, Object> createMockExportData() {
         Map<String, Object> exportData = new HashMap<>();
@@ -2,9 +2,12 @@ package com.sysml.mvp.controller;
 
 import com.sysml.mvp.dto.ElementDTO;
 import com.sysml.mvp.dto.RequirementDTO;
+import com.sysml.mvp.exception.VersionConflictException;
+import com.sysml.mvp.service.ElementVersionRegistry;
 import com.sysml.mvp.service.RequirementService;
 import com.sysml.mvp.mapper.ElementMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +20,8 @@ import java.util.List;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -50,6 +55,15 @@ public class RequirementControllerTest {
     @MockBean
     private ElementMapper elementMapper;
 
+    @MockBean
+    private ElementVersionRegistry elementVersionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // 未携带If-Match时不做版本校验
+        when(elementVersionRegistry.parseIfMatch(isNull())).thenReturn(null);
+    }
+
     /**
      * 验收标准：REQ-C1-1
      * POST /api/v1/requirements 应创建需求定义
@@ -266,7 +280,7 @@ public class RequirementControllerTest {
 
         // When: 更新需求定义
         when(elementMapper.toElementData(updateDto)).thenReturn(createElementData(updateDto));
-        when(requirementService.updateRequirement(eq(requirementId), any())).thenReturn(updatedElement);
+        when(requirementService.updateRequirement(eq(requirementId), any(), isNull())).thenReturn(updatedElement);
         when(elementMapper.toRequirementDTO(updatedElement)).thenReturn(responseDto);
 
         // Then: 应返回200 OK和更新后的需求定义
@@ -281,10 +295,91 @@ public class RequirementControllerTest {
                 .andExpect(jsonPath("$.status").value("active"))
                 .andExpect(jsonPath("$.updatedAt").exists());
 
-        verify(requirementService).updateRequirement(eq(requirementId), any());
+        verify(requirementService).updateRequirement(eq(requirementId), any(), isNull());
         verify(elementMapper).toRequirementDTO(updatedElement);
     }
 
+    /**
+     * 验收标准：REQ-C1-1
+     * 修改reqId为已存在的值时应返回409 Conflict
+     */
+    @Test
+    @DisplayName("REQ-C1-1: 修改reqId重复返回409冲突")
+    public void testUpdateRequirement_ShouldReturn409WhenReqIdExists() throws Exception {
+        // Given: 新reqId已被其他需求占用
+        String requirementId = "req-def-001";
+        RequirementDTO updateDto = new RequirementDTO();
+        updateDto.setReqId("EBS-L1-002");
+
+        when(elementMapper.toElementData(updateDto)).thenReturn(createElementData(updateDto));
+        when(requirementService.updateRequirement(eq(requirementId), any(), isNull()))
+                .thenThrow(new IllegalStateException("reqId already exists: EBS-L1-002"));
+
+        // Then: 应返回409 Conflict
+        mockMvc.perform(put("/api/v1/requirements/{id}", requirementId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Conflict"))
+                .andExpect(jsonPath("$.message").value("reqId already exists: EBS-L1-002"));
+    }
+
+    /**
+     * 验收标准：REQ-C1-3
+     * PUT携带过期的If-Match时应返回412 Precondition Failed
+     */
+    @Test
+    @DisplayName("REQ-C1-3: If-Match版本不一致返回412")
+    public void testUpdateRequirement_ShouldReturn412WhenIfMatchStale() throws Exception {
+        // Given: 客户端持有版本1，服务端已是版本2
+        String requirementId = "req-def-001";
+        RequirementDTO updateDto = new RequirementDTO();
+        updateDto.setDocumentation("并发修改");
+
+        when(elementMapper.toElementData(updateDto)).thenReturn(createElementData(updateDto));
+        when(elementVersionRegistry.parseIfMatch("\"e-1\"")).thenReturn(1L);
+        when(requirementService.updateRequirement(eq(requirementId), any(), eq(1L)))
+                .thenThrow(new VersionConflictException(requirementId, 2L));
+
+        // Then: 应返回412
+        mockMvc.perform(put("/api/v1/requirements/{id}", requirementId)
+                .header("If-Match", "\"e-1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.elementId").value(requirementId))
+                .andExpect(jsonPath("$.currentVersion").value(2));
+
+        verify(requirementService).updateRequirement(eq(requirementId), any(), eq(1L));
+    }
+
+    /**
+     * 验收标准：REQ-C1-2
+     * GET /api/v1/requirements/{id} 应以ETag返回元素版本
+     */
+    @Test
+    @DisplayName("REQ-C1-2: GET返回ETag")
+    public void testGetRequirementById_ShouldReturnETag() throws Exception {
+        // Given: 版本为3的需求
+        ElementDTO element = new ElementDTO();
+        element.setElementId("req-def-001");
+        element.setEClass("RequirementDefinition");
+        element.setVersion(3L);
+        RequirementDTO responseDto = new RequirementDTO();
+        responseDto.setElementId("req-def-001");
+        responseDto.setVersion(3L);
+
+        when(requirementService.getRequirementById("req-def-001")).thenReturn(element);
+        when(elementMapper.toRequirementDTO(element)).thenReturn(responseDto);
+        when(elementVersionRegistry.toETag(3L)).thenReturn("\"e-3\"");
+
+        // Then: ETag与响应体中的版本一致
+        mockMvc.perform(get("/api/v1/requirements/{id}", "req-def-001"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
     /**
      * 验收标准：REQ-C1-3
      * DELETE /api/v1/requirements/{id} 应删除需求定义
@@ -296,13 +391,13 @@ public class RequirementControllerTest {
         String requirementId = "req-def-001";
 
         // When: 删除需求定义
-        when(requirementService.deleteRequirement(requirementId)).thenReturn(true);
+        when(requirementService.deleteRequirement(requirementId, null)).thenReturn(true);
 
         // Then: 应返回204 No Content
         mockMvc.perform(delete("/api/v1/requirements/{id}", requirementId))
                 .andExpect(status().isNoContent());
 
-        verify(requirementService).deleteRequirement(requirementId);
+        verify(requirementService).deleteRequirement(requirementId, null);
     }
 
     /**
@@ -316,7 +411,7 @@ public class RequirementControllerTest {
         String requirementId = "req-def-001";
 
         // When: 需求被引用，抛出IllegalStateException
-        when(requirementService.deleteRequirement(requirementId))
+        when(requirementService.deleteRequirement(requirementId, null))
                 .thenThrow(new IllegalStateException("Cannot delete requirement req-def-001: referenced by 2 usages"));
 
         // Then: 应返回409 Conflict
@@ -326,7 +421,7 @@ public class RequirementControllerTest {
                 .andExpect(jsonPath("$.error").value("Conflict"))
                 .andExpect(jsonPath("$.message").value("Cannot delete requirement req-def-001: referenced by 2 usages"));
 
-        verify(requirementService).deleteRequirement(requirementId);
+        verify(requirementService).deleteRequirement(requirementId, null);
     }
 
     /**
@@ -404,6 +499,34 @@ public class RequirementControllerTest {
         verify(elementMapper).toRequirementDTO(createdElement);
     }
 
+    /**
+     * elementId重复或节点数达到上限（写队列返回409）时应返回409 Conflict，而不是500
+     */
+    @Test
+    @DisplayName("创建需求定义/使用时elementId重复或节点数达到上限返回409")
+    public void testCreate_ShouldReturn409WhenElementConflicts() throws Exception {
+        RequirementDTO requestDto = new RequirementDTO();
+        requestDto.setReqId("EBS-L1-002");
+        requestDto.setDeclaredName("冲突需求");
+        when(elementMapper.toElementData(any(RequirementDTO.class))).thenReturn(createElementData(requestDto));
+        when(requirementService.createRequirement(any()))
+            .thenThrow(new IllegalStateException("Element already exists: req-def-002"));
+        when(requirementService.createRequirementUsage(any()))
+            .thenThrow(new IllegalStateException("Model node limit reached: 500"));
+
+        mockMvc.perform(post("/api/v1/requirements")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Element already exists: req-def-002"));
+
+        mockMvc.perform(post("/api/v1/requirements/usages")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Model node limit reached: 500"));
+    }
+
     /**
      * 验收标准：REQ-C2-2
      * GET /api/v1/requirements/usages 应返回所有需求使用
@@ -439,6 +562,28 @@ public class RequirementControllerTest {
         verify(elementMapper).toRequirementDTO(usage1);
     }
 
+    /**
+     * 验收标准：REQ-C2-4
+     * GET /api/v1/requirements/{id}/references 应返回引用该需求的元素
+     */
+    @Test
+    @DisplayName("REQ-C2-4: GET查询需求的引用者")
+    public void testGetRequirementReferences_ShouldReturnReferrersByFeature() throws Exception {
+        // Given: 需求被两个使用通过of引用
+        Map<String, Set<String>> references = new HashMap<>();
+        references.put("of", new LinkedHashSet<>(List.of("req-usage-001", "req-usage-002")));
+        when(requirementService.getReferences("req-def-001")).thenReturn(references);
+
+        // Then: 应返回200 OK和按特征分组的引用者
+        mockMvc.perform(get("/api/v1/requirements/{id}/references", "req-def-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.elementId").value("req-def-001"))
+                .andExpect(jsonPath("$.references.of.length()").value(2))
+                .andExpect(jsonPath("$.total").value(2));
+
+        verify(requirementService).getReferences("req-def-001");
+    }
+
     /**
      * 辅助方法：创建元素数据Map
      */
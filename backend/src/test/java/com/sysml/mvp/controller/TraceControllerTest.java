@@ -131,6 +131,25 @@ public class TraceControllerTest {
                 .andExpect(jsonPath("$.message").exists());
     }
     
+    @Test
+    @DisplayName("【REQ-C3-1】创建追溯关系 - 节点数达到上限返回409")
+    void testCreateTrace_NodeLimitConflict() throws Exception {
+        when(validationService.validateTraceDuplication("req-001", "req-002", "derive"))
+            .thenReturn(true);
+        when(validationService.validateTraceSemantics("req-001", "req-002", "derive"))
+            .thenReturn(true);
+        when(elementMapper.toElementData(any(TraceDTO.class)))
+            .thenReturn(sampleElementData);
+        when(traceService.createTrace(sampleElementData))
+            .thenThrow(new IllegalStateException("Model node limit reached: 500"));
+        
+        mockMvc.perform(post("/api/v1/traces")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleTraceDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Conflict"));
+    }
+    
     @Test
     @DisplayName("【REQ-C3-4】创建追溯关系 - 语义约束违反")
     void testCreateTrace_SemanticViolation() throws Exception {
@@ -243,4 +262,32 @@ public class TraceControllerTest {
                 .andExpect(jsonPath("$.error").value("Not Found"))
                 .andExpect(jsonPath("$.message").value("Trace not found: trace-999"));
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("【REQ-C3-3/REQ-C3-4】批量验证追溯候选")
+    void testValidateTraceCandidates_Batch() throws Exception {
+        Map<String, Object> validResult = new HashMap<>();
+        validResult.put("index", 0);
+        validResult.put("isValid", true);
+        
+        Map<String, Object> duplicateResult = new HashMap<>();
+        duplicateResult.put("index", 1);
+        duplicateResult.put("isDuplicate", true);
+        duplicateResult.put("isValid", false);
+        
+        when(validationService.validateTraceCandidates(anyList()))
+                .thenReturn(Arrays.asList(validResult, duplicateResult));
+        
+        String body = "[{\"source\":\"req-001\",\"target\":\"req-002\",\"type\":\"derive\"},"
+                + "{\"source\":\"req-001\",\"target\":\"req-002\",\"type\":\"derive\"}]";
+        
+        mockMvc.perform(post("/api/v1/traces/validate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.validCount").value(1))
+                .andExpect(jsonPath("$.invalidCount").value(1))
+                .andExpect(jsonPath("$.results[1].isDuplicate").value(true));
+    }
+}
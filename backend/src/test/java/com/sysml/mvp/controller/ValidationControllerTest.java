@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sysml.mvp.dto.ElementDTO;
 import com.sysml.mvp.dto.ValidationResultDTO;
 import com.sysml.mvp.dto.ValidationViolationDTO;
+import com.sysml.mvp.service.ValidationResultCache;
 import com.sysml.mvp.service.ValidationService;
 import com.sysml.mvp.service.UniversalElementService;
 import org.junit.jupiter.api.DisplayName;
@@ -21,6 +22,8 @@ import java.util.Map;
 import java.util.HashMap;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -58,6 +61,9 @@ public class ValidationControllerTest {
     @MockBean
     private UniversalElementService universalElementService;
     
+    @MockBean
+    private ValidationResultCache validationResultCache;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -71,6 +77,11 @@ public class ValidationControllerTest {
         setupSampleViolations();
         setupSampleValidationResult();
         setupSampleElements();
+        
+        // 缓存写入返回真实条目，便于控制器生成ETag
+        when(validationResultCache.put(anyString(), anyLong(), anyString(), any(ValidationResultDTO.class)))
+            .thenAnswer(invocation -> new ValidationResultCache.Entry(
+                invocation.getArgument(1), invocation.getArgument(2), "\"default-test-0-1.0\"", invocation.getArgument(3)));
     }
     
     private void setupSampleViolations() {
@@ -153,6 +164,40 @@ public class ValidationControllerTest {
                 .andExpect(jsonPath("$.processingTimeMs").value(800));
     }
     
+    @Test
+    @DisplayName("【REQ-E1-3】静态验证 - 模型未变化时返回缓存结果")
+    void testValidateStatic_CacheHit() throws Exception {
+        ValidationResultCache.Entry cached = new ValidationResultCache.Entry(
+            7L, ValidationService.RULE_SET_VERSION, "\"default-test-7-1.0\"", sampleValidationResult);
+        when(universalElementService.getModelVersion()).thenReturn(7L);
+        when(validationResultCache.get("default", 7L, ValidationService.RULE_SET_VERSION)).thenReturn(cached);
+        
+        mockMvc.perform(post("/api/v1/validation/static")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"default-test-7-1.0\""))
+                .andExpect(jsonPath("$.violations.length()").value(2));
+        
+        verify(validationService, never()).validateStatic(anyList());
+    }
+    
+    @Test
+    @DisplayName("【REQ-E1-3】静态验证 - If-None-Match匹配时返回304")
+    void testValidateStatic_NotModified() throws Exception {
+        ValidationResultCache.Entry cached = new ValidationResultCache.Entry(
+            7L, ValidationService.RULE_SET_VERSION, "\"default-test-7-1.0\"", sampleValidationResult);
+        when(universalElementService.getModelVersion()).thenReturn(7L);
+        when(validationResultCache.get("default", 7L, ValidationService.RULE_SET_VERSION)).thenReturn(cached);
+        
+        mockMvc.perform(post("/api/v1/validation/static")
+                .header("If-None-Match", "\"default-test-7-1.0\"")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"default-test-7-1.0\""));
+        
+        verify(validationService, never()).validateStatic(anyList());
+    }
+    
     @Test
     @DisplayName("【REQ-C1-1】reqId唯一性验证 - reqId可用")
     void testValidateReqIdUniqueness_Available() throws Exception {
@@ -0,0 +1,101 @@
+package com.sysml.mvp.model;
+
+import com.sysml.mvp.config.TraceSemanticsProperties;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TraceSemanticsMatrix 测试用例
+ * 
+ * 需求对齐：
+ * - REQ-C3-4: 追溯语义约束 - 规则编译为包含父类型闭包的位矩阵
+ */
+@DisplayName("TraceSemanticsMatrix测试 - REQ-C3-4")
+public class TraceSemanticsMatrixTest {
+    
+    private EPackage sysmlPackage;
+    
+    @BeforeEach
+    void setUp() {
+        // 构造一个最小的元模型：Element ← Usage ← PartUsage ← SpecialPartUsage，
+        // Element ← RequirementDefinition
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        sysmlPackage = factory.createEPackage();
+        sysmlPackage.setName("sysml");
+        
+        EClass element = createEClass(factory, "Element");
+        EClass usage = createEClass(factory, "Usage", element);
+        EClass partUsage = createEClass(factory, "PartUsage", usage);
+        createEClass(factory, "SpecialPartUsage", partUsage);
+        createEClass(factory, "ActionUsage", usage);
+        createEClass(factory, "RequirementDefinition", element);
+        createEClass(factory, "RequirementUsage", usage);
+    }
+    
+    @Test
+    @DisplayName("REQ-C3-4: 默认规则与原有语义一致")
+    public void testDefaultRules_ShouldMatchMvpSemantics() {
+        TraceSemanticsMatrix matrix = new TraceSemanticsMatrix(sysmlPackage, new TraceSemanticsProperties().getRules());
+        
+        assertTrue(matrix.isAllowed("satisfy", "PartUsage", "RequirementDefinition"));
+        assertTrue(matrix.isAllowed("satisfy", "ActionUsage", "RequirementUsage"));
+        assertFalse(matrix.isAllowed("satisfy", "RequirementDefinition", "RequirementDefinition"));
+        assertTrue(matrix.isAllowed("derive", "RequirementDefinition", "RequirementUsage"));
+        assertFalse(matrix.isAllowed("refine", "PartUsage", "RequirementUsage"));
+        assertTrue(matrix.isAllowed("trace", "PartUsage", "Unknown"));
+        assertFalse(matrix.isAllowed("unknown", "PartUsage", "RequirementDefinition"));
+    }
+    
+    @Test
+    @DisplayName("REQ-C3-4: 子类型继承父类型的许可")
+    public void testIsAllowed_ShouldIncludeSubtypes() {
+        TraceSemanticsMatrix matrix = new TraceSemanticsMatrix(sysmlPackage, new TraceSemanticsProperties().getRules());
+        
+        assertTrue(matrix.isAllowed("satisfy", "SpecialPartUsage", "RequirementDefinition"));
+    }
+    
+    @Test
+    @DisplayName("REQ-C3-4: 自定义规则表按基类型展开")
+    public void testCustomRules_ShouldExpandSupertypeClosure() {
+        Map<String, TraceSemanticsProperties.Rule> rules = new LinkedHashMap<>();
+        rules.put("allocate", new TraceSemanticsProperties.Rule(List.of("Usage"), List.of("Element")));
+        
+        TraceSemanticsMatrix matrix = new TraceSemanticsMatrix(sysmlPackage, rules);
+        
+        assertTrue(matrix.supportsType("allocate"));
+        assertFalse(matrix.supportsType("satisfy"));
+        assertTrue(matrix.isAllowed("allocate", "SpecialPartUsage", "RequirementDefinition"));
+        assertTrue(matrix.isAllowed("allocate", "ActionUsage", "Usage"));
+        assertFalse(matrix.isAllowed("allocate", "RequirementDefinition", "PartUsage"));
+        assertFalse(matrix.isAllowed("allocate", "NotInMetamodel", "PartUsage"));
+    }
+    
+    @Test
+    @DisplayName("REQ-C3-4: 无元模型时按名称精确匹配")
+    public void testWithoutMetamodel_ShouldMatchByName() {
+        TraceSemanticsMatrix matrix = new TraceSemanticsMatrix(null, new TraceSemanticsProperties().getRules());
+        
+        assertTrue(matrix.isAllowed("satisfy", "PartUsage", "RequirementUsage"));
+        assertFalse(matrix.isAllowed("satisfy", "SpecialPartUsage", "RequirementUsage"));
+    }
+    
+    private EClass createEClass(EcoreFactory factory, String name, EClass... superTypes) {
+        EClass eClass = factory.createEClass();
+        eClass.setName(name);
+        for (EClass superType : superTypes) {
+            eClass.getESuperTypes().add(superType);
+        }
+        sysmlPackage.getEClassifiers().add(eClass);
+        return eClass;
+    }
+}
@@ -0,0 +1,71 @@
+package com.sysml.mvp.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AtomicFiles 测试用例
+ *
+ * 验证写入后替换目标文件、摘要与内容一致、写入失败时目标文件保持原样且不遗留临时文件
+ */
+@DisplayName("AtomicFiles测试")
+public class AtomicFilesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("写入替换目标文件，返回内容摘要，不遗留临时文件")
+    public void testWrite_ReplacesTarget() throws IOException {
+        Path target = tempDir.resolve("model.json");
+        Files.writeString(target, "old");
+
+        String checksum = AtomicFiles.write(target, out -> {
+            out.write("new content".getBytes(StandardCharsets.UTF_8));
+            // 回调中关闭流不影响fsync
+            out.close();
+        });
+
+        assertEquals("new content", Files.readString(target));
+        assertEquals(AtomicFiles.sha256(target), checksum);
+        assertFalse(Files.exists(AtomicFiles.tempPathFor(target)));
+    }
+
+    @Test
+    @DisplayName("写入失败时目标文件保持旧内容，临时文件被删除")
+    public void testWrite_FailureKeepsOldContent() throws IOException {
+        Path target = tempDir.resolve("model.json");
+        Files.writeString(target, "old");
+
+        assertThrows(IOException.class, () -> AtomicFiles.write(target, out -> {
+            out.write("partial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("disk full");
+        }));
+
+        assertEquals("old", Files.readString(target));
+        assertFalse(Files.exists(AtomicFiles.tempPathFor(target)));
+    }
+
+    @Test
+    @DisplayName("只写临时文件时目标文件不变，提交后才替换")
+    public void testWriteTemp_CommitSeparately() throws IOException {
+        Path target = tempDir.resolve("metadata.json");
+        Files.writeString(target, "old");
+
+        AtomicFiles.writeTemp(target, out -> out.write("new".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("old", Files.readString(target));
+        assertTrue(Files.exists(AtomicFiles.tempPathFor(target)));
+
+        AtomicFiles.commit(target);
+        assertEquals("new", Files.readString(target));
+        assertFalse(Files.exists(AtomicFiles.tempPathFor(target)));
+    }
+}
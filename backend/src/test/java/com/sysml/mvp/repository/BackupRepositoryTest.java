@@ -0,0 +1,217 @@
+package com.sysml.mvp.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sysml.mvp.dto.BackupSnapshotDTO;
+import com.sysml.mvp.model.EMFModelRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * BackupRepository 测试用例
+ *
+ * 验证快照恢复后文件内容一致、小改动只写入变化的块、按时间点选择快照、同一毫秒快照的顺序、垃圾回收和块损坏检测
+ */
+@DisplayName("BackupRepository测试")
+public class BackupRepositoryTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path dataRoot;
+
+    private Path projectDir;
+    private BackupRepository backupRepository;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        FileModelRepository fileModelRepository = new FileModelRepository(mock(EMFModelRegistry.class));
+        fileModelRepository.setDataRoot(dataRoot.toString());
+        fileModelRepository.init();
+        projectDir = fileModelRepository.getProjectDirectory("p1");
+        Files.createDirectories(projectDir);
+
+        backupRepository = new BackupRepository(fileModelRepository);
+        backupRepository.setBackupRoot(dataRoot.resolve("backups").toString());
+    }
+
+    @Test
+    @DisplayName("恢复快照后文件内容一致，快照之后新增的文件被删除")
+    public void testRestore_RoundTrip() throws IOException {
+        String model = generateModel(2_000, 1);
+        write("model.json", model);
+        write("metadata.json", "{\"storageFormat\":\"JSON\"}");
+        write("model.segments/manifest.json", "{\"segments\":[]}");
+        BackupSnapshotDTO snapshot = backupRepository.backup("p1");
+        assertEquals(3, snapshot.getFileCount());
+
+        write("model.json", "{}");
+        write("model.bin", "binary");
+        Files.delete(projectDir.resolve("model.segments/manifest.json"));
+
+        BackupSnapshotDTO restored = backupRepository.restore("p1", Instant.now());
+
+        assertEquals(snapshot.getSnapshotId(), restored.getSnapshotId());
+        assertEquals(model, read("model.json"));
+        assertEquals("{\"segments\":[]}", read("model.segments/manifest.json"));
+        assertFalse(Files.exists(projectDir.resolve("model.bin")));
+        try (Stream<Path> files = Files.walk(projectDir)) {
+            assertTrue(files.noneMatch(path -> path.toString().endsWith(AtomicFiles.TEMP_SUFFIX)));
+        }
+    }
+
+    @Test
+    @DisplayName("大模型中间的小改动只写入附近的块")
+    public void testBackup_WritesOnlyChangedChunks() throws IOException {
+        String model = generateModel(40_000, 2);
+        write("model.json", model);
+        BackupSnapshotDTO first = backupRepository.backup("p1");
+        assertEquals(first.getChunkCount(), first.getNewChunks());
+        assertTrue(first.getChunkCount() > 10);
+
+        int middle = model.length() / 2;
+        write("model.json", model.substring(0, middle) + "\"inserted\":true," + model.substring(middle));
+        BackupSnapshotDTO second = backupRepository.backup("p1");
+
+        assertTrue(second.getNewChunks() <= 2, "new chunks: " + second.getNewChunks());
+        assertTrue(second.getStoredBytes() < first.getStoredBytes() / 5);
+
+        BackupSnapshotDTO unchanged = backupRepository.backup("p1");
+        assertEquals(0, unchanged.getNewChunks());
+        assertEquals(3, backupRepository.listSnapshots("p1").size());
+    }
+
+    @Test
+    @DisplayName("按时间点恢复到该时间及之前最近的快照，早于所有快照时返回null")
+    public void testRestore_PointInTime() throws Exception {
+        write("model.json", "version-1");
+        BackupSnapshotDTO first = backupRepository.backup("p1");
+        Thread.sleep(5);
+        write("model.json", "version-2");
+        backupRepository.backup("p1");
+
+        assertNotNull(backupRepository.restore("p1", Instant.parse(first.getCreatedAt())));
+        assertEquals("version-1", read("model.json"));
+
+        assertNotNull(backupRepository.restore("p1", Instant.now()));
+        assertEquals("version-2", read("model.json"));
+
+        assertNull(backupRepository.restore("p1", Instant.parse(first.getCreatedAt()).minusSeconds(1)));
+        assertEquals("version-2", read("model.json"));
+    }
+
+    @Test
+    @DisplayName("垃圾回收删除超出保留数量的快照和不再引用的块，保留的快照仍可恢复")
+    public void testCollectGarbage_RemovesUnreferencedChunks() throws Exception {
+        write("model.json", generateModel(2_000, 3));
+        backupRepository.backup("p1");
+        Thread.sleep(5);
+        String latest = generateModel(2_000, 4);
+        write("model.json", latest);
+        backupRepository.backup("p1");
+
+        backupRepository.setRetainSnapshots(1);
+        BackupRepository.GarbageCollection result = backupRepository.collectGarbage();
+
+        assertEquals(1, result.deletedSnapshots());
+        assertTrue(result.deletedChunks() > 0);
+        List<BackupSnapshotDTO> snapshots = backupRepository.listSnapshots("p1");
+        assertEquals(1, snapshots.size());
+        assertEquals(result.liveChunks(), snapshots.get(0).getChunkCount());
+
+        write("model.json", "{}");
+        backupRepository.restore("p1", Instant.now());
+        assertEquals(latest, read("model.json"));
+    }
+
+    @Test
+    @DisplayName("同一毫秒创建的快照按创建顺序排列，恢复和垃圾回收以后创建的为最新")
+    public void testSnapshotOrder_SameMillisecond() throws Exception {
+        write("model.json", "version-1");
+        BackupSnapshotDTO first = backupRepository.backup("p1");
+        Path manifestDir = dataRoot.resolve("backups/manifests/p1");
+        Instant createdAt = Instant.parse(first.getCreatedAt());
+        String secondId = BackupRepository.nextSnapshotId(manifestDir, createdAt);
+        assertEquals(first.getSnapshotId() + ".0002", secondId);
+
+        // 第二个快照改写为与第一个同一毫秒创建
+        Thread.sleep(5);
+        write("model.json", "version-2");
+        BackupSnapshotDTO second = backupRepository.backup("p1");
+        Path secondManifest = manifestDir.resolve(second.getSnapshotId() + ".json");
+        Map<String, Object> manifest = MAPPER.readValue(secondManifest.toFile(), new TypeReference<>() {});
+        manifest.put("snapshotId", secondId);
+        manifest.put("createdAt", first.getCreatedAt());
+        MAPPER.writeValue(manifestDir.resolve(secondId + ".json").toFile(), manifest);
+        Files.delete(secondManifest);
+        assertEquals(first.getSnapshotId() + ".0003", BackupRepository.nextSnapshotId(manifestDir, createdAt));
+
+        List<BackupSnapshotDTO> snapshots = backupRepository.listSnapshots("p1");
+        assertEquals(List.of(first.getSnapshotId(), secondId),
+            snapshots.stream().map(BackupSnapshotDTO::getSnapshotId).toList());
+        write("model.json", "{}");
+        backupRepository.restore("p1", createdAt);
+        assertEquals("version-2", read("model.json"));
+
+        backupRepository.setRetainSnapshots(1);
+        backupRepository.collectGarbage();
+        assertEquals(secondId, backupRepository.listSnapshots("p1").get(0).getSnapshotId());
+    }
+
+    @Test
+    @DisplayName("块损坏时恢复失败，项目文件保持不变")
+    public void testRestore_DetectsCorruptChunk() throws IOException {
+        write("model.json", "original");
+        backupRepository.backup("p1");
+        try (Stream<Path> chunks = Files.walk(dataRoot.resolve("backups").resolve("chunks"))) {
+            for (Path chunk : chunks.filter(Files::isRegularFile).toList()) {
+                Files.write(chunk, "tampered".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        write("model.json", "current");
+
+        assertThrows(IOException.class, () -> backupRepository.restore("p1", Instant.now()));
+        assertEquals("current", read("model.json"));
+        assertThrows(IllegalArgumentException.class, () -> backupRepository.backup("../p1"));
+    }
+
+    private void write(String relativePath, String content) throws IOException {
+        Path path = projectDir.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+    }
+
+    private String read(String relativePath) throws IOException {
+        return Files.readString(projectDir.resolve(relativePath));
+    }
+
+    /**
+     * 接近真实模型的JSON文本，内容随种子变化
+     */
+    private static String generateModel(int elements, long seed) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder("{\"content\":[");
+        for (int i = 0; i < elements; i++) {
+            json.append("{\"eClass\":\"sysml:RequirementDefinition\",\"elementId\":\"req-def-").append(i)
+                .append("\",\"declaredName\":\"Requirement ").append(random.nextInt(1_000_000))
+                .append("\",\"documentation\":\"The system shall respond within ").append(random.nextInt(10_000))
+                .append(" ms\"},");
+        }
+        return json.append("{}]}").toString();
+    }
+}
@@ -0,0 +1,253 @@
+package com.sysml.mvp.repository;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BinaryModelCodec 测试用例
+ *
+ * 验证各类属性值、包含关系、非包含引用和资源外代理的往返一致性，
+ * 以及元模型删除特征后旧文件仍可加载
+ */
+@DisplayName("BinaryModelCodec测试")
+public class BinaryModelCodecTest {
+
+    private static final String NS_URI = "https://www.omg.org/spec/SysML/codec-test";
+
+    private EPackage metamodel;
+    private EClass container;
+    private EClass element;
+
+    @BeforeEach
+    public void setUp() {
+        metamodel = createMetamodel(true);
+        container = (EClass) metamodel.getEClassifier("Package");
+        element = (EClass) metamodel.getEClassifier("Element");
+    }
+
+    @Test
+    @DisplayName("属性值、包含关系和引用往返后保持一致")
+    public void testRoundTrip_PreservesContent() throws IOException {
+        EObject pkg = EcoreUtil.create(container);
+        set(pkg, "name", "Vehicle");
+        EObject engine = createElement("E-1", "Engine");
+        set(engine, "mass", 180);
+        set(engine, "serial", -42L);
+        set(engine, "efficiency", 0.37d);
+        set(engine, "active", true);
+        set(engine, "createdAt", new Date(1_700_000_000_000L));
+        set(engine, "status", ((EEnum) metamodel.getEClassifier("Status")).getEEnumLiteral("APPROVED"));
+        set(engine, "transientNote", "not persisted");
+        list(engine, "tags").addAll(List.of("power", "critical", "power"));
+        EObject wheel = createElement("E-2", "Wheel");
+        EObject hub = createElement("E-3", "Hub");
+        set(wheel, "detail", hub);
+        list(pkg, "members").addAll(List.of(engine, wheel));
+        // 引用指向后写出的对象以及嵌套对象
+        list(engine, "related").addAll(List.of(hub, wheel));
+        set(wheel, "owner", engine);
+        EObject secondRoot = createElement("E-4", "Standalone");
+        set(secondRoot, "owner", hub);
+
+        List<EObject> loaded = roundTrip(List.of(pkg, secondRoot), registry(metamodel));
+
+        assertEquals(2, loaded.size());
+        EObject loadedEngine = (EObject) list(loaded.get(0), "members").get(0);
+        assertNull(get(loadedEngine, "transientNote"));
+        engine.eUnset(element.getEStructuralFeature("transientNote"));
+        assertTrue(EcoreUtil.equals(List.of(pkg, secondRoot), loaded));
+        assertEquals(180, get(loadedEngine, "mass"));
+        assertEquals(-42L, get(loadedEngine, "serial"));
+        assertEquals(List.of("power", "critical", "power"), list(loadedEngine, "tags"));
+        EObject loadedHub = (EObject) get(list(loaded.get(0), "members").get(1), "detail");
+        assertSame(loadedHub, list(loadedEngine, "related").get(0));
+        assertSame(loadedHub, get(loaded.get(1), "owner"));
+    }
+
+    @Test
+    @DisplayName("资源外引用加载为代理对象")
+    public void testExternalReference_LoadedAsProxy() throws IOException {
+        EObject external = createElement("X-1", "External");
+        new BinaryModelResource(URI.createURI("file:/tmp/other.bin")).getContents().add(external);
+        EObject local = createElement("E-1", "Local");
+        set(local, "owner", external);
+
+        EObject loaded = roundTrip(List.of(local), registry(metamodel)).get(0);
+
+        EObject proxy = (EObject) get(loaded, "owner");
+        assertTrue(proxy.eIsProxy());
+        assertEquals(EcoreUtil.getURI(external), ((InternalEObject) proxy).eProxyURI());
+    }
+
+    @Test
+    @DisplayName("元模型删除特征后跳过其值，其余内容正常加载")
+    public void testRemovedFeature_SkippedOnLoad() throws IOException {
+        EObject engine = createElement("E-1", "Engine");
+        set(engine, "mass", 180);
+        list(engine, "tags").add("power");
+        EObject other = createElement("E-2", "Other");
+        list(engine, "related").add(other);
+
+        EPackage evolved = createMetamodel(false);
+        List<EObject> loaded = roundTrip(List.of(engine, other), registry(evolved));
+
+        EObject loadedEngine = loaded.get(0);
+        EClass evolvedElement = (EClass) evolved.getEClassifier("Element");
+        assertSame(evolvedElement, loadedEngine.eClass());
+        assertNull(evolvedElement.getEStructuralFeature("tags"));
+        assertEquals("E-1", loadedEngine.eGet(evolvedElement.getEStructuralFeature("elementId")));
+        assertEquals(180, loadedEngine.eGet(evolvedElement.getEStructuralFeature("mass")));
+        assertSame(loaded.get(1), ((List<?>) loadedEngine.eGet(evolvedElement.getEStructuralFeature("related"))).get(0));
+    }
+
+    @Test
+    @DisplayName("非二进制模型文件加载失败")
+    public void testRead_RejectsForeignContent() {
+        byte[] json = "{\"content\":[]}".getBytes();
+        assertThrows(IOException.class,
+            () -> BinaryModelCodec.read(new ByteArrayInputStream(json), registry(metamodel)));
+    }
+
+    @Test
+    @DisplayName("变长整数覆盖边界值")
+    public void testVarLong_RoundTrip() throws IOException {
+        long[] values = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (long value : values) {
+            BinaryModelCodec.writeVarLong(out, value);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (long value : values) {
+            assertEquals(value, BinaryModelCodec.readVarLong(in));
+        }
+        assertEquals(1, sizeOf(127));
+        assertEquals(2, sizeOf(128));
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private List<EObject> roundTrip(List<EObject> roots, EPackage.Registry registry) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryModelCodec.write(roots, out);
+        return BinaryModelCodec.read(new ByteArrayInputStream(out.toByteArray()), registry);
+    }
+
+    private static int sizeOf(long value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryModelCodec.writeVarLong(new DataOutputStream(bytes), value);
+        return bytes.size();
+    }
+
+    private EObject createElement(String id, String name) {
+        EObject object = EcoreUtil.create(element);
+        set(object, "elementId", id);
+        set(object, "declaredName", name);
+        return object;
+    }
+
+    private static void set(EObject object, String feature, Object value) {
+        object.eSet(object.eClass().getEStructuralFeature(feature), value);
+    }
+
+    private static Object get(Object object, String feature) {
+        EObject eObject = (EObject) object;
+        return eObject.eGet(eObject.eClass().getEStructuralFeature(feature));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(EObject object, String feature) {
+        return (List<Object>) object.eGet(object.eClass().getEStructuralFeature(feature));
+    }
+
+    private static EPackage.Registry registry(EPackage ePackage) {
+        EPackage.Registry registry = new EPackageRegistryImpl();
+        registry.put(ePackage.getNsURI(), ePackage);
+        return registry;
+    }
+
+    /**
+     * @param withTags 为false时模拟元模型演进：Element删除了tags特征
+     */
+    private static EPackage createMetamodel(boolean withTags) {
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        EcorePackage ecore = EcorePackage.eINSTANCE;
+        EPackage ePackage = factory.createEPackage();
+        ePackage.setName("codec");
+        ePackage.setNsPrefix("codec");
+        ePackage.setNsURI(NS_URI);
+
+        EEnum status = factory.createEEnum();
+        status.setName("Status");
+        for (String literal : List.of("DRAFT", "APPROVED")) {
+            EEnumLiteral enumLiteral = factory.createEEnumLiteral();
+            enumLiteral.setName(literal);
+            enumLiteral.setLiteral(literal);
+            enumLiteral.setValue(status.getELiterals().size());
+            status.getELiterals().add(enumLiteral);
+        }
+        ePackage.getEClassifiers().add(status);
+
+        EClass element = factory.createEClass();
+        element.setName("Element");
+        ePackage.getEClassifiers().add(element);
+        addAttribute(element, "elementId", ecore.getEString(), false);
+        addAttribute(element, "declaredName", ecore.getEString(), false);
+        addAttribute(element, "mass", ecore.getEInt(), false);
+        addAttribute(element, "serial", ecore.getELong(), false);
+        addAttribute(element, "efficiency", ecore.getEDouble(), false);
+        addAttribute(element, "active", ecore.getEBoolean(), false);
+        addAttribute(element, "createdAt", ecore.getEDate(), false);
+        addAttribute(element, "status", status, false);
+        if (withTags) {
+            addAttribute(element, "tags", ecore.getEString(), true);
+        }
+        addAttribute(element, "transientNote", ecore.getEString(), false).setTransient(true);
+        addReference(element, "detail", element, true, false);
+        addReference(element, "related", element, false, true);
+        addReference(element, "owner", element, false, false);
+
+        EClass pkg = factory.createEClass();
+        pkg.setName("Package");
+        ePackage.getEClassifiers().add(pkg);
+        addAttribute(pkg, "name", ecore.getEString(), false);
+        addReference(pkg, "members", element, true, true);
+        return ePackage;
+    }
+
+    private static EAttribute addAttribute(EClass eClass, String name, EDataType type, boolean many) {
+        EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName(name);
+        attribute.setEType(type);
+        attribute.setUpperBound(many ? -1 : 1);
+        if (many) {
+            attribute.setUnique(false);
+        }
+        eClass.getEStructuralFeatures().add(attribute);
+        return attribute;
+    }
+
+    private static void addReference(EClass eClass, String name, EClass type, boolean containment, boolean many) {
+        EReference reference = EcoreFactory.eINSTANCE.createEReference();
+        reference.setName(name);
+        reference.setEType(type);
+        reference.setContainment(containment);
+        reference.setUpperBound(many ? -1 : 1);
+        eClass.getEStructuralFeatures().add(reference);
+    }
+}
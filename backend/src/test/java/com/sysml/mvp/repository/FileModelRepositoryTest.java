@@ -0,0 +1,386 @@
+package com.sysml.mvp.repository;
+
+import com.sysml.mvp.exception.ExternalModificationException;
+import com.sysml.mvp.model.EMFModelRegistry;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * FileModelRepository 存储格式测试用例
+ *
+ * 验证新项目按配置格式落盘、已有项目按磁盘文件识别格式、格式切换（含分段格式）、JSON导入导出，
+ * 中断提交的恢复，以及压缩文件的自动识别
+ */
+@DisplayName("FileModelRepository存储格式测试")
+public class FileModelRepositoryTest {
+
+    private static final String NS_URI = "https://www.omg.org/spec/SysML/repository-test";
+
+    @TempDir
+    Path dataRoot;
+
+    private EClass part;
+    private EMFModelRegistry modelRegistry;
+    private FileModelRepository repository;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        EPackage metamodel = createMetamodel();
+        part = (EClass) metamodel.getEClassifier("PartDefinition");
+        modelRegistry = mock(EMFModelRegistry.class);
+        when(modelRegistry.getSysMLPackage()).thenReturn(metamodel);
+
+        repository = newRepository();
+    }
+
+    @Test
+    @DisplayName("新项目使用配置的二进制格式，重新加载内容一致")
+    public void testNewProject_UsesConfiguredFormat() {
+        repository.setDefaultStorageFormat(StorageFormat.BINARY);
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().addAll(List.of(createPart("part-1", "Engine"), createPart("part-2", "Wheel")));
+        repository.saveProject("p1", resource);
+
+        assertTrue(Files.exists(projectFile("p1", StorageFormat.BINARY)));
+        assertFalse(Files.exists(projectFile("p1", StorageFormat.JSON)));
+        assertEquals(StorageFormat.BINARY, repository.getStorageFormat("p1"));
+
+        List<EObject> expected = new ArrayList<>(EcoreUtil.copyAll(resource.getContents()));
+        repository.clearCache("p1");
+        Resource reloaded = repository.loadProject("p1");
+        assertInstanceOf(BinaryModelResource.class, reloaded);
+        assertTrue(EcoreUtil.equals(expected, reloaded.getContents()));
+    }
+
+    @Test
+    @DisplayName("已有JSON项目不受默认格式影响，切换后删除旧文件")
+    public void testSetStorageFormat_ConvertsExistingProject() throws Exception {
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().add(createPart("part-1", "Engine"));
+        repository.saveProject("p1", resource);
+        assertTrue(Files.exists(projectFile("p1", StorageFormat.JSON)));
+
+        repository.setDefaultStorageFormat(StorageFormat.BINARY);
+        assertEquals(StorageFormat.JSON, repository.getStorageFormat("p1"));
+
+        long versionBefore = repository.getModelVersion("p1");
+        repository.setStorageFormat("p1", StorageFormat.BINARY);
+
+        assertFalse(Files.exists(projectFile("p1", StorageFormat.JSON)));
+        assertTrue(Files.exists(projectFile("p1", StorageFormat.BINARY)));
+        assertTrue(repository.getModelVersion("p1") > versionBefore);
+        assertTrue(Files.readString(dataRoot.resolve("projects/p1/metadata.json")).contains("\"binary\""));
+        Resource reloaded = repository.loadProject("p1");
+        assertNotSame(resource, reloaded);
+        assertTrue(EcoreUtil.equals(resource.getContents(), reloaded.getContents()));
+    }
+
+    @Test
+    @DisplayName("二进制项目导出为JSON，导入后沿用目标项目格式")
+    public void testExportImport_StaysJson() throws Exception {
+        repository.setDefaultStorageFormat(StorageFormat.BINARY);
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().add(createPart("part-1", "Engine"));
+        repository.saveProject("p1", resource);
+
+        Path exported = dataRoot.resolve("export.json");
+        repository.exportProject("p1", exported);
+        assertNotEquals('S', (char) Files.readAllBytes(exported)[0]);
+
+        repository.importProject("p2", exported);
+        assertTrue(Files.exists(projectFile("p2", StorageFormat.BINARY)));
+        repository.clearCache("p2");
+        assertTrue(EcoreUtil.equals(resource.getContents(), repository.loadProject("p2").getContents()));
+    }
+
+    @Test
+    @DisplayName("切换为分段格式后按段目录加载，切回JSON时删除段目录")
+    public void testSetStorageFormat_Segmented() {
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().addAll(List.of(createPart("part-1", "Engine"), createPart("part-2", "Wheel")));
+        repository.saveProject("p1", resource);
+
+        repository.setStorageFormat("p1", StorageFormat.SEGMENTED);
+        assertTrue(Files.isDirectory(projectFile("p1", StorageFormat.SEGMENTED)));
+        Resource segmented = repository.loadProject("p1");
+        assertInstanceOf(SegmentedModelResource.class, segmented);
+        assertTrue(EcoreUtil.equals(resource.getContents(), segmented.getContents()));
+
+        segmented.getContents().get(0).eSet(part.getEStructuralFeature("declaredName"), "Motor");
+        repository.saveProject("p1", segmented);
+        repository.setStorageFormat("p1", StorageFormat.JSON);
+        assertFalse(Files.exists(projectFile("p1", StorageFormat.SEGMENTED)));
+        assertEquals("Motor",
+            repository.loadProject("p1").getContents().get(0).eGet(part.getEStructuralFeature("declaredName")));
+    }
+
+    @Test
+    @DisplayName("存储格式以metadata为准并按项目缓存，清除缓存后重新读取")
+    public void testGetStorageFormat_ReadsMetadataOnce() throws Exception {
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().add(createPart("part-1", "Engine"));
+        repository.saveProject("p1", resource);
+        repository.setStorageFormat("p1", StorageFormat.BINARY);
+        assertEquals(StorageFormat.BINARY, repository.getStorageFormat("p1"));
+
+        // 修改时间更新的遗留文件不影响识别
+        Path stale = projectFile("p1", StorageFormat.JSON);
+        Files.writeString(stale, "{}");
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(
+            Files.getLastModifiedTime(projectFile("p1", StorageFormat.BINARY)).toMillis() + 1000));
+        FileModelRepository other = newRepository();
+        assertEquals(StorageFormat.BINARY, other.getStorageFormat("p1"));
+
+        // 缓存期间不再读取metadata；清除缓存后metadata缺失时按模型文件识别
+        Files.delete(dataRoot.resolve("projects/p1/metadata.json"));
+        assertEquals(StorageFormat.BINARY, other.getStorageFormat("p1"));
+        other.clearCache("p1");
+        assertEquals(StorageFormat.JSON, other.getStorageFormat("p1"));
+    }
+
+    @Test
+    @DisplayName("indexed格式项目提供内存映射视图，保存后重新映射")
+    public void testGetMappedView_IndexedProject() {
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().add(createPart("part-1", "Engine"));
+        repository.saveProject("p1", resource);
+        assertNull(repository.getMappedView("p1"));
+
+        repository.setStorageFormat("p1", StorageFormat.INDEXED);
+        assertFalse(repository.isLoaded("p1"));
+        MappedModelView view = repository.getMappedView("p1");
+        assertNotNull(view);
+        assertSame(view, repository.getMappedView("p1"));
+        assertEquals("Engine", view.get("part-1").eGet(part.getEStructuralFeature("declaredName")));
+
+        Resource indexed = repository.loadProject("p1");
+        assertInstanceOf(IndexedModelResource.class, indexed);
+        indexed.getContents().add(createPart("part-2", "Wheel"));
+        repository.saveProject("p1", indexed);
+        MappedModelView remapped = repository.getMappedView("p1");
+        assertNotSame(view, remapped);
+        assertNotNull(remapped.get("part-2"));
+    }
+
+    @Test
+    @DisplayName("metadata记录模型摘要，加载时删除中断遗留的未提交临时文件")
+    public void testLoad_DiscardsUncommittedTempFiles() throws Exception {
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().add(createPart("part-1", "Engine"));
+        repository.saveProject("p1", resource);
+        Path modelFile = projectFile("p1", StorageFormat.JSON);
+        Path metadataFile = dataRoot.resolve("projects/p1/metadata.json");
+        String metadata = Files.readString(metadataFile);
+        assertTrue(metadata.contains(AtomicFiles.sha256(modelFile)));
+
+        // 模型重命名之前中断：两个临时文件都未提交
+        Files.writeString(AtomicFiles.tempPathFor(modelFile), "{\"truncated");
+        Files.writeString(AtomicFiles.tempPathFor(metadataFile), "{\"modelSha256\":\"other\",\"storageFormat\":\"json\"}");
+        repository.clearCache("p1");
+
+        Resource reloaded = repository.loadProject("p1");
+        assertEquals("Engine", reloaded.getContents().get(0).eGet(part.getEStructuralFeature("declaredName")));
+        assertFalse(Files.exists(AtomicFiles.tempPathFor(modelFile)));
+        assertFalse(Files.exists(AtomicFiles.tempPathFor(metadataFile)));
+        assertEquals(metadata, Files.readString(metadataFile));
+    }
+
+    @Test
+    @DisplayName("模型已提交而metadata未重命名时，加载时补完提交")
+    public void testLoad_CompletesInterruptedMetadataCommit() throws Exception {
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().add(createPart("part-1", "Engine"));
+        repository.saveProject("p1", resource);
+        Path metadataFile = dataRoot.resolve("projects/p1/metadata.json");
+        String committed = Files.readString(metadataFile);
+
+        // 模拟模型重命名之后、metadata重命名之前中断
+        Files.move(metadataFile, AtomicFiles.tempPathFor(metadataFile));
+        Files.writeString(metadataFile, "{\"projectId\":\"p1\",\"modelSha256\":\"stale\"}");
+        repository.clearCache("p1");
+
+        repository.loadProject("p1");
+        assertEquals(committed, Files.readString(metadataFile));
+        assertFalse(Files.exists(AtomicFiles.tempPathFor(metadataFile)));
+    }
+
+    @Test
+    @DisplayName("分段格式在metadata临时文件落盘后才提交manifest，暂存未提交时仍加载已提交的模型")
+    public void testSave_SegmentedCommitsManifestAfterMetadataTemp() throws Exception {
+        repository.setDefaultStorageFormat(StorageFormat.SEGMENTED);
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().add(createPart("part-1", "Engine"));
+        repository.saveProject("p1", resource);
+        Path manifest = projectFile("p1", StorageFormat.SEGMENTED).resolve(SegmentedModelResource.MANIFEST);
+        Path metadataFile = dataRoot.resolve("projects/p1/metadata.json");
+        String metadata = Files.readString(metadataFile);
+        assertTrue(metadata.contains(AtomicFiles.sha256(manifest)));
+
+        // 暂存之后、metadata临时文件写出之前中断：manifest和metadata都保持已提交的版本
+        resource.getContents().get(0).eSet(part.getEStructuralFeature("declaredName"), "Motor");
+        String staged = ((StagedModelResource) resource).stage(Map.of());
+        assertNotEquals(AtomicFiles.sha256(manifest), staged);
+        repository.clearCache("p1");
+
+        Resource reloaded = repository.loadProject("p1");
+        assertEquals("Engine", reloaded.getContents().get(0).eGet(part.getEStructuralFeature("declaredName")));
+        assertEquals(metadata, Files.readString(metadataFile));
+        assertTrue(metadata.contains(AtomicFiles.sha256(manifest)));
+    }
+
+    @Test
+    @DisplayName("磁盘上的模型被其他实例提交后，基于旧模型的保存以冲突失败且不覆盖")
+    public void testSave_RejectsWhenModifiedExternally() throws Exception {
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().add(createPart("part-1", "Engine"));
+        repository.saveProject("p1", resource);
+
+        FileModelRepository other = newRepository();
+        Resource external = other.loadProject("p1");
+        external.getContents().add(createPart("part-2", "Wheel"));
+        other.saveProject("p1", external);
+
+        resource.getContents().add(createPart("part-3", "Brake"));
+        assertThrows(ExternalModificationException.class, () -> repository.saveProject("p1", resource));
+        assertFalse(repository.isLoaded("p1"));
+
+        // 重新加载后基于新模型保存
+        Resource reloaded = repository.loadProject("p1");
+        assertEquals(2, reloaded.getContents().size());
+        reloaded.getContents().add(createPart("part-3", "Brake"));
+        repository.saveProject("p1", reloaded);
+        assertEquals(3, newRepository().loadProject("p1").getContents().size());
+    }
+
+    @Test
+    @DisplayName("写入者暂存分段期间其他实例加载，不删除暂存的段文件，提交后模型完整")
+    public void testLoad_KeepsSegmentsStagedByConcurrentWriter() throws Exception {
+        repository.setDefaultStorageFormat(StorageFormat.SEGMENTED);
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().add(createPart("part-1", "Engine"));
+        repository.saveProject("p1", resource);
+
+        // 写入者持有项目文件锁暂存新段
+        Path projectDir = dataRoot.resolve("projects/p1");
+        try (ProjectFileLock lock = ProjectFileLock.acquire(projectDir, 0, 0)) {
+            resource.getContents().get(0).eSet(part.getEStructuralFeature("declaredName"), "Motor");
+            ((StagedModelResource) resource).stage(Map.of());
+
+            // 另一个实例在暂存与提交之间冷加载（文件锁由其他线程持有）
+            FileModelRepository other = newRepository();
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Resource loaded = executor.submit(() -> other.loadProject("p1")).get();
+                assertEquals("Engine", loaded.getContents().get(0).eGet(part.getEStructuralFeature("declaredName")));
+            } finally {
+                executor.shutdownNow();
+            }
+
+            ((StagedModelResource) resource).commitStaged();
+        }
+
+        Resource reloaded = newRepository().loadProject("p1");
+        assertEquals("Motor", reloaded.getContents().get(0).eGet(part.getEStructuralFeature("declaredName")));
+    }
+
+    @Test
+    @DisplayName("模型文件无法读取时加载失败，不以空资源覆盖磁盘上的模型")
+    public void testLoad_FailsInsteadOfReturningEmptyResource() throws Exception {
+        repository.setDefaultStorageFormat(StorageFormat.BINARY);
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().add(createPart("part-1", "Engine"));
+        repository.saveProject("p1", resource);
+        Path modelFile = projectFile("p1", StorageFormat.BINARY);
+        Files.write(modelFile, new byte[] {1, 2, 3, 4});
+        byte[] corrupt = Files.readAllBytes(modelFile);
+        repository.clearCache("p1");
+
+        assertThrows(UncheckedIOException.class, () -> repository.loadProject("p1"));
+        assertFalse(repository.isLoaded("p1"));
+        assertArrayEquals(corrupt, Files.readAllBytes(modelFile));
+    }
+
+    @Test
+    @DisplayName("开启GZIP压缩后保存为压缩文件，关闭后旧文件照常读取、下次保存不再压缩")
+    public void testCompression_DetectedOnRead() throws Exception {
+        repository.setCompression("gzip", 6);
+        Resource resource = repository.loadProject("p1");
+        resource.getContents().addAll(List.of(createPart("part-1", "Engine"), createPart("part-2", "Wheel")));
+        repository.saveProject("p1", resource);
+        Path modelFile = projectFile("p1", StorageFormat.JSON);
+        assertTrue(isGzip(modelFile));
+
+        List<EObject> expected = new ArrayList<>(EcoreUtil.copyAll(resource.getContents()));
+        repository.setCompression("none", 6);
+        repository.clearCache("p1");
+        Resource reloaded = repository.loadProject("p1");
+        assertTrue(EcoreUtil.equals(expected, reloaded.getContents()));
+
+        repository.saveProject("p1", reloaded);
+        assertFalse(isGzip(modelFile));
+        assertTrue(Files.readString(dataRoot.resolve("projects/p1/metadata.json")).contains(AtomicFiles.sha256(modelFile)));
+    }
+
+    /**
+     * 共享同一数据目录的仓库实例（模拟另一个进程）
+     */
+    private FileModelRepository newRepository() throws Exception {
+        FileModelRepository instance = new FileModelRepository(modelRegistry);
+        instance.setDataRoot(dataRoot.toString());
+        instance.init();
+        return instance;
+    }
+
+    private Path projectFile(String projectId, StorageFormat format) {
+        return dataRoot.resolve("projects").resolve(projectId).resolve(format.getFileName());
+    }
+
+    private static boolean isGzip(Path file) throws Exception {
+        byte[] bytes = Files.readAllBytes(file);
+        return bytes.length > 2 && (bytes[0] & 0xff) == 0x1f && (bytes[1] & 0xff) == 0x8b;
+    }
+
+    private EObject createPart(String id, String name) {
+        EObject object = EcoreUtil.create(part);
+        object.eSet(part.getEStructuralFeature("elementId"), id);
+        object.eSet(part.getEStructuralFeature("declaredName"), name);
+        return object;
+    }
+
+    private static EPackage createMetamodel() {
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        EPackage sysml = factory.createEPackage();
+        sysml.setName("sysml");
+        sysml.setNsPrefix("sysml");
+        sysml.setNsURI(NS_URI);
+        EClass partDefinition = factory.createEClass();
+        partDefinition.setName("PartDefinition");
+        for (String name : List.of("elementId", "declaredName")) {
+            EAttribute attribute = factory.createEAttribute();
+            attribute.setName(name);
+            attribute.setEType(EcorePackage.Literals.ESTRING);
+            partDefinition.getEStructuralFeatures().add(attribute);
+        }
+        sysml.getEClassifiers().add(partDefinition);
+        return sysml;
+    }
+}
@@ -0,0 +1,261 @@
+package com.sysml.mvp.repository;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.sirius.emfjson.resource.JsonResource;
+import org.eclipse.sirius.emfjson.resource.JsonResourceFactoryImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON模型读取基准测试
+ *
+ * 生成sirius-emfjson格式的模型文件（约5MB/50MB），分别用流式读取器、sirius-emfjson和Jackson树解析读取，
+ * 输出耗时和当前线程分配的字节数；Jackson树解析只构建JSON树、不创建EObject，是树式读取的成本下限。
+ * 默认不运行：mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DisplayName("JSON模型读取基准测试")
+public class JsonModelReaderBenchmarkTest {
+
+    private static final String NS_URI = "https://www.omg.org/spec/SysML/json-benchmark";
+    private static final int[] SIZES = {20_000, 200_000};
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("流式读取与树式读取的耗时和分配量")
+    public void benchmarkJsonReaders() throws Exception {
+        EPackage metamodel = createMetamodel();
+        for (int size : SIZES) {
+            Path file = tempDir.resolve("model-" + size + ".json");
+            writeModel(file, size);
+
+            Measurement streaming = measure(() -> {
+                Resource resource = newResource(metamodel, file);
+                try (InputStream in = Files.newInputStream(file)) {
+                    new StreamingJsonModelReader(resource).read(in);
+                }
+                return resource.getContents().size();
+            });
+            Measurement tree = measure(() -> new ObjectMapper().readTree(file.toFile()).get("content").size());
+            Measurement emfjson;
+            try {
+                emfjson = measure(() -> {
+                    Resource resource = newResource(metamodel, file);
+                    resource.load(Map.of(JsonResource.OPTION_FORCE_DEFAULT_REFERENCE_SERIALIZATION, Boolean.TRUE));
+                    return resource.getContents().size();
+                });
+            } catch (Exception e) {
+                emfjson = null;
+            }
+
+            System.out.printf("[benchmark] reader=STREAMING elements=%d size=%.1fMB load=%.1fms alloc=%.1fMB%n",
+                size, Files.size(file) / 1048576.0, streaming.nanos / 1e6, streaming.bytes / 1048576.0);
+            System.out.printf("[benchmark] reader=JACKSON_TREE elements=%d load=%.1fms alloc=%.1fMB (%.1fx/%.1fx)%n",
+                size, tree.nanos / 1e6, tree.bytes / 1048576.0,
+                (double) tree.nanos / streaming.nanos, (double) tree.bytes / streaming.bytes);
+            if (emfjson != null) {
+                System.out.printf("[benchmark] reader=EMFJSON elements=%d load=%.1fms alloc=%.1fMB (%.1fx/%.1fx)%n",
+                    size, emfjson.nanos / 1e6, emfjson.bytes / 1048576.0,
+                    (double) emfjson.nanos / streaming.nanos, (double) emfjson.bytes / streaming.bytes);
+                assertEquals(size, emfjson.count);
+            } else {
+                System.out.printf("[benchmark] reader=EMFJSON elements=%d unavailable%n", size);
+            }
+            assertEquals(size, streaming.count);
+            assertEquals(size, tree.count);
+        }
+    }
+
+    private interface Load {
+        int run() throws Exception;
+    }
+
+    private record Measurement(long nanos, long bytes, int count) {
+    }
+
+    /**
+     * 取多轮中的最小耗时和最小分配量（首轮包含预热）
+     */
+    private static Measurement measure(Load load) throws Exception {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long nanos = Long.MAX_VALUE;
+        long bytes = Long.MAX_VALUE;
+        int count = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            System.gc();
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            count = load.run();
+            nanos = Math.min(nanos, System.nanoTime() - start);
+            bytes = Math.min(bytes, threads.getThreadAllocatedBytes(thread) - allocated);
+        }
+        return new Measurement(nanos, bytes, count);
+    }
+
+    private static Resource newResource(EPackage metamodel, Path file) {
+        ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.getPackageRegistry().put(NS_URI, metamodel);
+        URI uri = URI.createFileURI(file.toAbsolutePath().toString());
+        Resource resource = new JsonResourceFactoryImpl().createResource(uri);
+        resourceSet.getResources().add(resource);
+        return resource;
+    }
+
+    /**
+     * 需求定义（含嵌套文档注释）、需求使用（引用其定义）和追溯依赖（引用两端）按1:1:1混合
+     */
+    private static void writeModel(Path file, int size) throws IOException {
+        try (JsonGenerator json = new JsonFactory().createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeObjectFieldStart("json");
+            json.writeStringField("version", "1.0");
+            json.writeStringField("encoding", "utf-8");
+            json.writeEndObject();
+            json.writeObjectFieldStart("ns");
+            json.writeStringField("sysml", NS_URI);
+            json.writeEndObject();
+            json.writeArrayFieldStart("content");
+            for (int i = 0; i < size; i++) {
+                json.writeStartObject();
+                switch (i % 3) {
+                    case 0:
+                        json.writeStringField("eClass", "sysml:RequirementDefinition");
+                        json.writeObjectFieldStart("data");
+                        writeElement(json, "requirementdefinition-" + i, "RequirementDefinition " + i);
+                        json.writeStringField("reqId", "REQ-" + i);
+                        json.writeArrayFieldStart("documentation");
+                        json.writeStartObject();
+                        json.writeStringField("eClass", "sysml:Comment");
+                        json.writeObjectFieldStart("data");
+                        json.writeStringField("body", "The system shall satisfy requirement number " + i
+                            + " under nominal operating conditions.");
+                        json.writeStringField("locale", "en_US");
+                        json.writeEndObject();
+                        json.writeEndObject();
+                        json.writeEndArray();
+                        break;
+                    case 1:
+                        json.writeStringField("eClass", "sysml:RequirementUsage");
+                        json.writeObjectFieldStart("data");
+                        writeElement(json, "requirementusage-" + i, "RequirementUsage " + i);
+                        json.writeStringField("status", i % 2 == 0 ? "approved" : "draft");
+                        json.writeNumberField("priority", i % 5);
+                        writeRef(json, "requirementDefinition", i - 1);
+                        break;
+                    default:
+                        json.writeStringField("eClass", "sysml:Dependency");
+                        json.writeObjectFieldStart("data");
+                        writeElement(json, "dependency-" + i, "Dependency " + i);
+                        json.writeBooleanField("isImplied", false);
+                        json.writeArrayFieldStart("client");
+                        writeRefValue(json, i - 1);
+                        json.writeEndArray();
+                        json.writeArrayFieldStart("supplier");
+                        writeRefValue(json, i - 2);
+                        json.writeEndArray();
+                        break;
+                }
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeElement(JsonGenerator json, String id, String name) throws IOException {
+        json.writeStringField("elementId", id);
+        json.writeStringField("declaredName", name);
+    }
+
+    private static void writeRef(JsonGenerator json, String feature, int target) throws IOException {
+        json.writeFieldName(feature);
+        writeRefValue(json, target);
+    }
+
+    private static void writeRefValue(JsonGenerator json, int target) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("eClass", "sysml:Element");
+        json.writeStringField("$ref", "/" + target);
+        json.writeEndObject();
+    }
+
+    private static EPackage createMetamodel() {
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        EcorePackage ecore = EcorePackage.eINSTANCE;
+        EPackage sysml = factory.createEPackage();
+        sysml.setName("sysml");
+        sysml.setNsPrefix("sysml");
+        sysml.setNsURI(NS_URI);
+
+        EClass comment = createEClass(sysml, "Comment", null);
+        addAttribute(comment, "body", ecore.getEString());
+        addAttribute(comment, "locale", ecore.getEString());
+        EClass element = createEClass(sysml, "Element", null);
+        addAttribute(element, "elementId", ecore.getEString());
+        addAttribute(element, "declaredName", ecore.getEString());
+        addReference(element, "documentation", comment, true, true);
+
+        EClass definition = createEClass(sysml, "RequirementDefinition", element);
+        addAttribute(definition, "reqId", ecore.getEString());
+        EClass usage = createEClass(sysml, "RequirementUsage", element);
+        addAttribute(usage, "status", ecore.getEString());
+        addAttribute(usage, "priority", ecore.getEInt());
+        addReference(usage, "requirementDefinition", definition, false, false);
+        EClass dependency = createEClass(sysml, "Dependency", element);
+        addAttribute(dependency, "isImplied", ecore.getEBoolean());
+        addReference(dependency, "client", element, false, true);
+        addReference(dependency, "supplier", element, false, true);
+        return sysml;
+    }
+
+    private static EClass createEClass(EPackage ePackage, String name, EClass superType) {
+        EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName(name);
+        if (superType != null) {
+            eClass.getESuperTypes().add(superType);
+        }
+        ePackage.getEClassifiers().add(eClass);
+        return eClass;
+    }
+
+    private static void addAttribute(EClass eClass, String name, EDataType type) {
+        EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName(name);
+        attribute.setEType(type);
+        eClass.getEStructuralFeatures().add(attribute);
+    }
+
+    private static void addReference(EClass eClass, String name, EClass type, boolean containment, boolean many) {
+        EReference reference = EcoreFactory.eINSTANCE.createEReference();
+        reference.setName(name);
+        reference.setEType(type);
+        reference.setContainment(containment);
+        reference.setUpperBound(many ? -1 : 1);
+        eClass.getEStructuralFeatures().add(reference);
+    }
+}
@@ -0,0 +1,162 @@
+package com.sysml.mvp.repository;
+
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MappedModelView 测试用例
+ *
+ * 验证按elementId按需物化、跨元素引用解析、整体读取的一致性以及索引失效检测
+ */
+@DisplayName("MappedModelView测试")
+public class MappedModelViewTest {
+
+    private static final String NS_URI = "https://www.omg.org/spec/SysML/mapped-test";
+
+    @TempDir
+    Path tempDir;
+
+    private EPackage metamodel;
+    private EPackage.Registry registry;
+    private EClass part;
+    private Path dataPath;
+    private List<EObject> model;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        metamodel = createMetamodel();
+        registry = new EPackageRegistryImpl();
+        registry.put(NS_URI, metamodel);
+        part = (EClass) metamodel.getEClassifier("PartDefinition");
+        dataPath = tempDir.resolve(StorageFormat.INDEXED.getFileName());
+
+        model = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            model.add(createPart("part-" + i, "Part " + i));
+        }
+        EObject port = EcoreUtil.create((EClass) metamodel.getEClassifier("Port"));
+        port.eSet(port.eClass().getEStructuralFeature("name"), "p1");
+        list(model.get(7), "ports").add(port);
+        list(model.get(1), "connectedTo").addAll(List.of(model.get(999), port, model.get(1)));
+        IndexedModelFile.write(model, dataPath);
+    }
+
+    @Test
+    @DisplayName("只物化被访问的元素，重复访问命中缓存")
+    public void testGet_MaterializesOnDemand() throws IOException {
+        MappedModelView view = MappedModelView.open(dataPath, registry);
+
+        assertEquals(1_000, view.size());
+        assertEquals(0, view.materializedCount());
+        EObject loaded = view.get("part-500");
+
+        assertTrue(EcoreUtil.equals(model.get(500), loaded));
+        assertNull(loaded.eResource());
+        assertSame(loaded, view.get("part-500"));
+        assertEquals(1, view.materializedCount());
+        assertNull(view.get("missing"));
+    }
+
+    @Test
+    @DisplayName("跨元素引用为代理，按需解析；记录内引用直接指向对象")
+    public void testResolve_CrossElementReferences() throws IOException {
+        MappedModelView view = MappedModelView.open(dataPath, registry);
+
+        EObject source = view.get("part-1");
+        List<EObject> connected = list(source, "connectedTo");
+        assertTrue(connected.get(0).eIsProxy());
+        assertSame(view.get("part-999"), view.resolve(connected.get(0)));
+        EObject port = view.resolve(connected.get(1));
+        assertFalse(port.eIsProxy());
+        assertEquals("p1", port.eGet(port.eClass().getEStructuralFeature("name")));
+        assertSame(source, connected.get(2));
+    }
+
+    @Test
+    @DisplayName("整体读取恢复全部元素、顺序和引用")
+    public void testReadAll_RoundTrip() throws IOException {
+        List<EObject> loaded = IndexedModelFile.readAll(dataPath, registry);
+
+        assertTrue(EcoreUtil.equals(model, loaded));
+        List<EObject> connected = list(loaded.get(1), "connectedTo");
+        assertSame(loaded.get(999), connected.get(0));
+        assertSame(list(loaded.get(7), "ports").get(0), connected.get(1));
+    }
+
+    @Test
+    @DisplayName("索引与数据文件不匹配时拒绝打开")
+    public void testOpen_RejectsStaleIndex() throws IOException {
+        Path staleIndex = tempDir.resolve("stale.idx");
+        Files.copy(IndexedModelFile.indexPathFor(dataPath), staleIndex);
+        IndexedModelFile.write(model.subList(0, 10), dataPath);
+        Files.move(staleIndex, IndexedModelFile.indexPathFor(dataPath), StandardCopyOption.REPLACE_EXISTING);
+
+        assertThrows(IOException.class, () -> MappedModelView.open(dataPath, registry));
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private EObject createPart(String id, String name) {
+        EObject object = EcoreUtil.create(part);
+        object.eSet(part.getEStructuralFeature("elementId"), id);
+        object.eSet(part.getEStructuralFeature("declaredName"), name);
+        return object;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<EObject> list(EObject object, String feature) {
+        return (List<EObject>) object.eGet(object.eClass().getEStructuralFeature(feature), false);
+    }
+
+    private static EPackage createMetamodel() {
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        EPackage sysml = factory.createEPackage();
+        sysml.setName("sysml");
+        sysml.setNsPrefix("sysml");
+        sysml.setNsURI(NS_URI);
+
+        EClass port = factory.createEClass();
+        port.setName("Port");
+        addAttribute(port, "name");
+        sysml.getEClassifiers().add(port);
+
+        EClass partDefinition = factory.createEClass();
+        partDefinition.setName("PartDefinition");
+        addAttribute(partDefinition, "elementId");
+        addAttribute(partDefinition, "declaredName");
+        EReference ports = factory.createEReference();
+        ports.setName("ports");
+        ports.setEType(port);
+        ports.setContainment(true);
+        ports.setUpperBound(-1);
+        partDefinition.getEStructuralFeatures().add(ports);
+        EReference connectedTo = factory.createEReference();
+        connectedTo.setName("connectedTo");
+        connectedTo.setEType(EcorePackage.Literals.EOBJECT);
+        connectedTo.setUpperBound(-1);
+        partDefinition.getEStructuralFeatures().add(connectedTo);
+        sysml.getEClassifiers().add(partDefinition);
+        return sysml;
+    }
+
+    private static void addAttribute(EClass eClass, String name) {
+        EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName(name);
+        attribute.setEType(EcorePackage.Literals.ESTRING);
+        eClass.getEStructuralFeatures().add(attribute);
+    }
+}
@@ -0,0 +1,192 @@
+package com.sysml.mvp.repository;
+
+import com.sysml.mvp.model.EMFModelRegistry;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 模型压缩基准测试
+ *
+ * 对1k/10k/100k个元素的json、binary模型，分别不压缩和以GZIP级别1/6/9通过FileModelRepository保存、冷加载，
+ * 输出保存耗时（含fsync）、加载耗时、文件大小；另在内存中单独测量压缩、解压的CPU耗时，
+ * 并给出盈亏平衡吞吐量：存储或备份链路慢于该吞吐量时，少写的字节节省的时间多于压缩花费的CPU时间。
+ * 默认不运行：mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DisplayName("模型压缩基准测试")
+public class ModelCompressionBenchmarkTest {
+
+    private static final String NS_URI = "https://www.omg.org/spec/SysML/compression-benchmark";
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int[] LEVELS = {ModelCompression.NONE, 1, 6, 9};
+    private static final StorageFormat[] FORMATS = {StorageFormat.JSON, StorageFormat.BINARY};
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path dataRoot;
+
+    @Test
+    @DisplayName("不同压缩级别的保存/加载耗时、文件大小和CPU开销")
+    public void benchmarkCompression() throws Exception {
+        EPackage metamodel = createMetamodel();
+        EMFModelRegistry modelRegistry = mock(EMFModelRegistry.class);
+        when(modelRegistry.getSysMLPackage()).thenReturn(metamodel);
+        FileModelRepository repository = new FileModelRepository(modelRegistry);
+        repository.setDataRoot(dataRoot.toString());
+        repository.init();
+
+        for (int size : SIZES) {
+            List<EObject> model = createModel(metamodel, size);
+            for (StorageFormat format : FORMATS) {
+                repository.setDefaultStorageFormat(format);
+                byte[] raw = null;
+                for (int level : LEVELS) {
+                    String label = level == ModelCompression.NONE ? "none" : "gzip-" + level;
+                    String projectId = format.name().toLowerCase() + "-" + label + "-" + size;
+                    repository.setCompression(level == ModelCompression.NONE ? "none" : "gzip",
+                        level == ModelCompression.NONE ? 6 : level);
+                    Resource resource = repository.loadProject(projectId);
+                    resource.getContents().addAll(EcoreUtil.copyAll(model));
+
+                    long saveNanos = Long.MAX_VALUE;
+                    long loadNanos = Long.MAX_VALUE;
+                    int loaded = 0;
+                    for (int round = 0; round < ROUNDS; round++) {
+                        long start = System.nanoTime();
+                        repository.saveProject(projectId, resource);
+                        saveNanos = Math.min(saveNanos, System.nanoTime() - start);
+
+                        repository.clearCache(projectId);
+                        start = System.nanoTime();
+                        loaded = repository.loadProject(projectId).getContents().size();
+                        loadNanos = Math.min(loadNanos, System.nanoTime() - start);
+                    }
+                    assertEquals(size, loaded);
+                    Path file = dataRoot.resolve("projects").resolve(projectId).resolve(format.getFileName());
+                    long bytes = Files.size(file);
+
+                    if (level == ModelCompression.NONE) {
+                        raw = Files.readAllBytes(file);
+                        System.out.printf("[benchmark] format=%s elements=%d compression=none save=%.1fms "
+                            + "load=%.1fms size=%.1fKB%n", format, size, saveNanos / 1e6, loadNanos / 1e6, bytes / 1024.0);
+                        continue;
+                    }
+                    long[] cpu = measureCpu(raw, level);
+                    double savedMb = (raw.length - bytes) / 1048576.0;
+                    System.out.printf("[benchmark] format=%s elements=%d compression=%s save=%.1fms load=%.1fms "
+                            + "size=%.1fKB ratio=%.1fx compressCpu=%.1fms decompressCpu=%.1fms breakEven=%.0fMB/s%n",
+                        format, size, label, saveNanos / 1e6, loadNanos / 1e6, bytes / 1024.0,
+                        (double) raw.length / bytes, cpu[0] / 1e6, cpu[1] / 1e6, savedMb / (cpu[0] / 1e9));
+                }
+            }
+        }
+    }
+
+    /**
+     * 内存中压缩、解压的最小耗时（不含磁盘I/O）
+     * @return {压缩纳秒, 解压纳秒}
+     */
+    private static long[] measureCpu(byte[] raw, int level) throws Exception {
+        long compressNanos = Long.MAX_VALUE;
+        long decompressNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+            long start = System.nanoTime();
+            ModelCompression.write(out, level, stream -> stream.write(raw));
+            compressNanos = Math.min(compressNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            try (InputStream in = ModelCompression.decoding(new ByteArrayInputStream(out.toByteArray()))) {
+                assertEquals(raw.length, in.readAllBytes().length);
+            }
+            decompressNanos = Math.min(decompressNanos, System.nanoTime() - start);
+        }
+        return new long[] {compressNanos, decompressNanos};
+    }
+
+    /**
+     * 需求定义、需求使用和追溯依赖按1:1:1混合，字符串长度接近真实模型
+     */
+    private static List<EObject> createModel(EPackage metamodel, int size) {
+        EClass requirement = (EClass) metamodel.getEClassifier("RequirementDefinition");
+        EClass usage = (EClass) metamodel.getEClassifier("RequirementUsage");
+        EClass dependency = (EClass) metamodel.getEClassifier("Dependency");
+        List<EObject> model = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            EObject object;
+            switch (i % 3) {
+                case 0:
+                    object = EcoreUtil.create(requirement);
+                    set(object, "reqId", "REQ-" + i);
+                    set(object, "documentation", "The system shall satisfy requirement number " + i
+                        + " under nominal operating conditions.");
+                    break;
+                case 1:
+                    object = EcoreUtil.create(usage);
+                    set(object, "of", "req-def-" + (i - 1));
+                    set(object, "status", i % 2 == 0 ? "approved" : "draft");
+                    break;
+                default:
+                    object = EcoreUtil.create(dependency);
+                    set(object, "fromId", "req-usage-" + (i - 1));
+                    set(object, "toId", "req-def-" + (i - 2));
+                    break;
+            }
+            set(object, "elementId", object.eClass().getName().toLowerCase() + "-" + i);
+            set(object, "declaredName", object.eClass().getName() + " " + i);
+            model.add(object);
+        }
+        return model;
+    }
+
+    private static void set(EObject object, String feature, Object value) {
+        object.eSet(object.eClass().getEStructuralFeature(feature), value);
+    }
+
+    private static EPackage createMetamodel() {
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        EPackage sysml = factory.createEPackage();
+        sysml.setName("sysml");
+        sysml.setNsPrefix("sysml");
+        sysml.setNsURI(NS_URI);
+
+        EClass element = createEClass(sysml, "Element", null, "elementId", "declaredName");
+        createEClass(sysml, "RequirementDefinition", element, "reqId", "documentation");
+        createEClass(sysml, "RequirementUsage", element, "of", "status");
+        createEClass(sysml, "Dependency", element, "fromId", "toId");
+        return sysml;
+    }
+
+    private static EClass createEClass(EPackage ePackage, String name, EClass superType, String... attributes) {
+        EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName(name);
+        if (superType != null) {
+            eClass.getESuperTypes().add(superType);
+        }
+        for (String attributeName : attributes) {
+            EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+            attribute.setName(attributeName);
+            attribute.setEType(EcorePackage.Literals.ESTRING);
+            eClass.getEStructuralFeatures().add(attribute);
+        }
+        ePackage.getEClassifiers().add(eClass);
+        return eClass;
+    }
+}
@@ -0,0 +1,59 @@
+package com.sysml.mvp.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ModelCompression 测试用例
+ *
+ * 验证压缩写出后按魔数自动解压、未压缩内容原样读取、配置值校验
+ */
+@DisplayName("ModelCompression测试")
+public class ModelCompressionTest {
+
+    private static final String CONTENT = "{\"content\":[" + "{\"eClass\":\"sysml:PartUsage\"},".repeat(1000) + "{}]}";
+
+    @Test
+    @DisplayName("GZIP压缩的内容读取时自动解压，体积明显减小")
+    public void testWrite_CompressedRoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ModelCompression.write(out, 6, stream -> stream.write(CONTENT.getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(out.size() < CONTENT.length() / 10);
+        assertEquals(CONTENT, read(out.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("未压缩的内容原样读取")
+    public void testDecoding_PassesThroughPlainContent() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ModelCompression.write(out, ModelCompression.NONE, stream -> stream.write(CONTENT.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(CONTENT, out.toString(StandardCharsets.UTF_8));
+        assertEquals(CONTENT, read(out.toByteArray()));
+        assertEquals("", read(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("不支持的算法和超出范围的级别报错")
+    public void testResolveLevel_Validates() {
+        assertEquals(ModelCompression.NONE, ModelCompression.resolveLevel("none", 6));
+        assertEquals(9, ModelCompression.resolveLevel("GZIP", 9));
+        assertThrows(IllegalArgumentException.class, () -> ModelCompression.resolveLevel("zstd", 6));
+        assertThrows(IllegalArgumentException.class, () -> ModelCompression.resolveLevel("gzip", 0));
+    }
+
+    private static String read(byte[] bytes) throws IOException {
+        try (InputStream in = ModelCompression.decoding(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
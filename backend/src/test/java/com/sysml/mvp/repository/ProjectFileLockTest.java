@@ -0,0 +1,85 @@
+package com.sysml.mvp.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProjectFileLock 测试用例
+ *
+ * 以测试中直接持有的FileChannel锁模拟其他进程，验证按配置重试、重试耗尽失败和嵌套获取
+ */
+@DisplayName("ProjectFileLock测试")
+public class ProjectFileLockTest {
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    @DisplayName("其他进程持有锁时重试耗尽后失败，释放后可获取")
+    public void testAcquire_FailsAfterRetries() throws IOException {
+        try (FileChannel channel = openLockFile(); FileLock held = channel.lock()) {
+            long start = System.nanoTime();
+            assertThrows(ProjectFileLock.LockUnavailableException.class,
+                () -> ProjectFileLock.acquire(projectDir, 2, 20));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 40);
+            assertNull(ProjectFileLock.tryAcquire(projectDir));
+        }
+
+        try (ProjectFileLock lock = ProjectFileLock.acquire(projectDir, 0, 0)) {
+            assertFalse(lock.isNested());
+        }
+    }
+
+    @Test
+    @DisplayName("重试期间锁被释放则获取成功")
+    public void testAcquire_SucceedsWhenReleasedDuringRetry() throws Exception {
+        FileChannel channel = openLockFile();
+        FileLock held = channel.lock();
+        CompletableFuture<Void> release = CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(50);
+                channel.close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        try (ProjectFileLock lock = ProjectFileLock.acquire(projectDir, 20, 20)) {
+            assertFalse(held.isValid());
+        }
+        release.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("同一线程嵌套获取不重复加文件锁，其他线程需等待外层释放")
+    public void testAcquire_NestedInSameThread() throws Exception {
+        try (ProjectFileLock outer = ProjectFileLock.acquire(projectDir, 0, 0)) {
+            try (ProjectFileLock inner = ProjectFileLock.acquire(projectDir, 0, 0)) {
+                assertTrue(inner.isNested());
+            }
+            assertNull(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return ProjectFileLock.tryAcquire(projectDir);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private FileChannel openLockFile() throws IOException {
+        return FileChannel.open(projectDir.resolve(ProjectFileLock.LOCK_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+}
@@ -0,0 +1,167 @@
+package com.sysml.mvp.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * ProjectLockManager 测试用例
+ * 
+ * 验证项目级读写锁：乐观读、失效回退、未加载项目直接加读锁、写串行、项目隔离和竞争指标
+ */
+@DisplayName("ProjectLockManager测试")
+public class ProjectLockManagerTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private FileModelRepository fileModelRepository;
+    private ProjectLockManager lockManager;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fileModelRepository = mock(FileModelRepository.class);
+        when(fileModelRepository.isLoaded(anyString())).thenReturn(true);
+        lockManager = new ProjectLockManager(meterRegistry, fileModelRepository);
+    }
+    
+    @Test
+    @DisplayName("无并发写入时乐观读直接返回")
+    public void testRead_OptimisticSuccess() {
+        String result = lockManager.read("p1", () -> "value");
+        
+        assertEquals("value", result);
+        assertEquals(1.0, optimisticCount("p1", "success"));
+        assertEquals(0.0, optimisticCount("p1", "retry"));
+    }
+    
+    @Test
+    @DisplayName("乐观读期间发生写入时改为读锁重试")
+    public void testRead_RetriesWhenWriteInterleaves() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger attempts = new AtomicInteger();
+        
+        String result = lockManager.read("p1", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                // 第一次执行期间在另一线程完成一次写入，使乐观戳失效
+                try {
+                    executor.submit(() -> lockManager.write("p1", () -> "written")).get(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                throw new IndexOutOfBoundsException("concurrent modification");
+            }
+            return "consistent";
+        });
+        executor.shutdown();
+        
+        assertEquals("consistent", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, optimisticCount("p1", "retry"));
+    }
+    
+    @Test
+    @DisplayName("无并发写入时读操作的异常直接抛出")
+    public void testRead_PropagatesExceptionWithoutConcurrentWrite() {
+        AtomicInteger attempts = new AtomicInteger();
+        
+        assertThrows(IllegalArgumentException.class, () -> lockManager.read("p1", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("bad input");
+        }));
+        assertEquals(1, attempts.get());
+    }
+    
+    @Test
+    @DisplayName("项目尚未加载时不做乐观尝试，直接持有读锁执行一次")
+    public void testRead_ColdProjectTakesReadLock() {
+        when(fileModelRepository.isLoaded("p1")).thenReturn(false);
+        AtomicInteger attempts = new AtomicInteger();
+        
+        String result = lockManager.read("p1", () -> {
+            attempts.incrementAndGet();
+            return "value";
+        });
+        
+        assertEquals("value", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, optimisticCount("p1", "success"));
+        assertEquals(0.0, optimisticCount("p1", "retry"));
+        assertEquals(1L,
+            meterRegistry.get("sysml.model.lock.wait").tags("project", "p1", "mode", "read").timer().count());
+    }
+    
+    @Test
+    @DisplayName("同一项目的写操作串行执行")
+    public void testWrite_SerializedPerProject() throws Exception {
+        int threads = 8;
+        int iterations = 500;
+        int[] counter = new int[1];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    lockManager.write("p1", () -> counter[0]++);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        assertEquals(threads * iterations, counter[0]);
+        assertEquals(threads * iterations,
+            meterRegistry.get("sysml.model.lock.wait").tags("project", "p1", "mode", "write").timer().count());
+    }
+    
+    @Test
+    @DisplayName("不同项目互不阻塞")
+    public void testProjects_AreIndependent() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        Future<?> writer = executor.submit(() -> lockManager.write("p1", () -> {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        
+        // p1写锁被持有期间，p2的读写都能完成
+        assertEquals("read", lockManager.read("p2", () -> "read"));
+        assertEquals("written", lockManager.write("p2", () -> "written"));
+        
+        release.countDown();
+        writer.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+    
+    private double optimisticCount(String projectId, String result) {
+        return meterRegistry.get("sysml.model.lock.optimistic")
+            .tags("project", projectId, "result", result)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,139 @@
+package com.sysml.mvp.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProjectWriteQueue 测试用例
+ *
+ * 验证单写者队列：FIFO顺序、组提交、批次上限、失败传播和项目隔离
+ */
+@DisplayName("ProjectWriteQueue测试")
+public class ProjectWriteQueueTest {
+
+    private ProjectWriteQueue<Integer, String> queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    @Test
+    @DisplayName("写线程阻塞期间到达的命令在下一批次一起提交")
+    public void testSubmit_GroupsPendingCommands() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        queue = new ProjectWriteQueue<>("test-writer", 100, (projectId, commands) -> {
+            batches.add(new ArrayList<>(commands));
+            if (batches.size() == 1) {
+                firstBatchStarted.countDown();
+                await(releaseFirstBatch);
+            }
+            return commands.stream().map(c -> projectId + ":" + c).collect(Collectors.toList());
+        });
+
+        CompletableFuture<String> first = queue.submit("p1", 0);
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<String>> rest = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            rest.add(queue.submit("p1", i));
+        }
+        assertEquals(5, queue.pendingCount("p1"));
+        releaseFirstBatch.countDown();
+
+        assertEquals("p1:0", first.get(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 5; i++) {
+            assertEquals("p1:" + i, rest.get(i - 1).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(List.of(0), List.of(1, 2, 3, 4, 5)), batches);
+    }
+
+    @Test
+    @DisplayName("单批次不超过maxBatchSize")
+    public void testSubmit_RespectsMaxBatchSize() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        queue = new ProjectWriteQueue<>("test-writer", 2, (projectId, commands) -> {
+            batchSizes.add(commands.size());
+            if (batchSizes.size() == 1) {
+                firstBatchStarted.countDown();
+                await(releaseFirstBatch);
+            }
+            return commands.stream().map(String::valueOf).collect(Collectors.toList());
+        });
+
+        queue.submit("p1", 0);
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> last = null;
+        for (int i = 1; i <= 5; i++) {
+            last = queue.submit("p1", i);
+        }
+        releaseFirstBatch.countDown();
+
+        assertEquals("5", last.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 2, 1), batchSizes);
+    }
+
+    @Test
+    @DisplayName("批次处理失败时该批次全部以异常完成，后续批次不受影响")
+    public void testSubmit_PropagatesFailureToBatch() throws Exception {
+        queue = new ProjectWriteQueue<>("test-writer", 10, (projectId, commands) -> {
+            if (commands.contains(-1)) {
+                throw new IllegalStateException("save failed");
+            }
+            return commands.stream().map(String::valueOf).collect(Collectors.toList());
+        });
+
+        CompletionException failure = assertThrows(CompletionException.class,
+            () -> queue.submit("p1", -1).join());
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals("7", queue.submit("p1", 7).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("不同项目由各自的写线程处理")
+    public void testSubmit_ProjectsAreIndependent() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        queue = new ProjectWriteQueue<>("test-writer", 10, (projectId, commands) -> {
+            if ("blocked".equals(projectId)) {
+                await(release);
+            }
+            return commands.stream().map(c -> Thread.currentThread().getName()).collect(Collectors.toList());
+        });
+
+        CompletableFuture<String> blocked = queue.submit("blocked", 1);
+        String otherThread = queue.submit("other", 1).get(5, TimeUnit.SECONDS);
+        assertFalse(blocked.isDone());
+        release.countDown();
+
+        assertTrue(otherThread.startsWith("test-writer-other-"));
+        assertTrue(blocked.get(5, TimeUnit.SECONDS).startsWith("test-writer-blocked-"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
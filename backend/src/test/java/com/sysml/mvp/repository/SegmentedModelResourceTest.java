@@ -0,0 +1,224 @@
+package com.sysml.mvp.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SegmentedModelResource 测试用例
+ *
+ * 验证只重写脏段、跨段引用和根对象顺序的往返一致性，以及未提交段文件的清理
+ */
+@DisplayName("SegmentedModelResource测试")
+public class SegmentedModelResourceTest {
+
+    private static final String NS_URI = "https://www.omg.org/spec/SysML/segment-test";
+    private static final int SEGMENTS = 8;
+
+    @TempDir
+    Path tempDir;
+
+    private EPackage metamodel;
+    private EClass part;
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() {
+        metamodel = createMetamodel();
+        part = (EClass) metamodel.getEClassifier("PartDefinition");
+        directory = tempDir.resolve("model.segments");
+    }
+
+    @Test
+    @DisplayName("修改单个元素只重写其所在段")
+    public void testSave_RewritesOnlyDirtySegment() throws Exception {
+        SegmentedModelResource resource = newResource();
+        for (int i = 0; i < 100; i++) {
+            resource.getContents().add(createPart("part-" + i, "Part " + i));
+        }
+        assertEquals(SEGMENTS, resource.getDirtySegmentCount());
+        resource.save(null);
+        assertEquals(0, resource.getDirtySegmentCount());
+        Map<Integer, String> before = readManifest().getSegments();
+        assertEquals(SEGMENTS, before.size());
+
+        SegmentedModelResource reloaded = load();
+        EObject target = reloaded.getContents().get(42);
+        target.eSet(part.getEStructuralFeature("declaredName"), "Renamed");
+        assertEquals(1, reloaded.getDirtySegmentCount());
+        reloaded.save(null);
+
+        Map<Integer, String> after = readManifest().getSegments();
+        long changed = before.keySet().stream().filter(s -> !before.get(s).equals(after.get(s))).count();
+        assertEquals(1, changed);
+        // 旧代号的段文件已删除
+        assertEquals(SEGMENTS, segmentFiles().size());
+        assertEquals("Renamed", load().getContents().get(42).eGet(part.getEStructuralFeature("declaredName")));
+    }
+
+    @Test
+    @DisplayName("跨段引用、嵌套对象和根对象顺序往返后保持一致")
+    public void testRoundTrip_PreservesReferencesAndOrder() throws Exception {
+        SegmentedModelResource resource = newResource();
+        List<EObject> parts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            EObject created = createPart("part-" + i, "Part " + i);
+            parts.add(created);
+            resource.getContents().add(created);
+        }
+        EObject port = EcoreUtil.create((EClass) metamodel.getEClassifier("Port"));
+        port.eSet(port.eClass().getEStructuralFeature("name"), "p1");
+        list(parts.get(3), "ports").add(port);
+        list(parts.get(0), "connectedTo").addAll(List.of(parts.get(49), port));
+        parts.get(10).eSet(part.getEStructuralFeature("supplier"), parts.get(20));
+        resource.save(null);
+
+        SegmentedModelResource reloaded = load();
+
+        assertTrue(EcoreUtil.equals(resource.getContents(), reloaded.getContents()));
+        List<EObject> loadedParts = reloaded.getContents();
+        assertSame(loadedParts.get(49), list(loadedParts.get(0), "connectedTo").get(0));
+        assertSame(list(loadedParts.get(3), "ports").get(0), list(loadedParts.get(0), "connectedTo").get(1));
+        EObject supplier = (EObject) loadedParts.get(10).eGet(part.getEStructuralFeature("supplier"), false);
+        assertFalse(supplier.eIsProxy());
+        assertSame(loadedParts.get(20), supplier);
+    }
+
+    @Test
+    @DisplayName("追加和删除根对象只影响对应的段")
+    public void testAddRemove_MarksOwningSegments() throws Exception {
+        SegmentedModelResource resource = newResource();
+        for (int i = 0; i < 20; i++) {
+            resource.getContents().add(createPart("part-" + i, "Part " + i));
+        }
+        resource.save(null);
+
+        SegmentedModelResource reloaded = load();
+        reloaded.getContents().add(createPart("part-new", "New"));
+        reloaded.getContents().remove(5);
+        assertTrue(reloaded.getDirtySegmentCount() <= 2);
+        reloaded.save(null);
+
+        List<String> ids = load().getContents().stream()
+            .map(o -> (String) o.eGet(part.getEStructuralFeature("elementId")))
+            .collect(Collectors.toList());
+        assertEquals(20, ids.size());
+        assertFalse(ids.contains("part-5"));
+        assertEquals("part-new", ids.get(ids.size() - 1));
+        assertEquals("part-6", ids.get(5));
+    }
+
+    @Test
+    @DisplayName("加载时保留manifest未引用的段文件，由持锁的恢复流程清理")
+    public void testDeleteUncommittedFiles() throws Exception {
+        SegmentedModelResource resource = newResource();
+        resource.getContents().add(createPart("part-1", "Engine"));
+        resource.save(null);
+        Path orphan = directory.resolve("segment-0000-g999999.bin");
+        Files.write(orphan, new byte[]{1, 2, 3});
+
+        SegmentedModelResource reloaded = load();
+        assertEquals(1, reloaded.getContents().size());
+        assertTrue(Files.exists(orphan));
+        assertTrue(SegmentedModelResource.hasUncommittedFiles(directory));
+
+        SegmentedModelResource.deleteUncommittedFiles(directory);
+        assertFalse(Files.exists(orphan));
+        assertFalse(SegmentedModelResource.hasUncommittedFiles(directory));
+        assertEquals(1, load().getContents().size());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private SegmentedModelResource newResource() {
+        ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.getPackageRegistry().put(NS_URI, metamodel);
+        SegmentedModelResource resource = new SegmentedModelResource(
+            URI.createFileURI(directory.toAbsolutePath().toString()), SEGMENTS);
+        resourceSet.getResources().add(resource);
+        return resource;
+    }
+
+    private SegmentedModelResource load() throws Exception {
+        SegmentedModelResource resource = newResource();
+        resource.load(null);
+        return resource;
+    }
+
+    private SegmentedModelResource.Manifest readManifest() throws Exception {
+        return new ObjectMapper().readValue(directory.resolve(SegmentedModelResource.MANIFEST).toFile(),
+            SegmentedModelResource.Manifest.class);
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().startsWith("segment-")).collect(Collectors.toList());
+        }
+    }
+
+    private EObject createPart(String id, String name) {
+        EObject object = EcoreUtil.create(part);
+        object.eSet(part.getEStructuralFeature("elementId"), id);
+        object.eSet(part.getEStructuralFeature("declaredName"), name);
+        return object;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<EObject> list(EObject object, String feature) {
+        return (List<EObject>) object.eGet(object.eClass().getEStructuralFeature(feature));
+    }
+
+    private static EPackage createMetamodel() {
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        EPackage sysml = factory.createEPackage();
+        sysml.setName("sysml");
+        sysml.setNsPrefix("sysml");
+        sysml.setNsURI(NS_URI);
+
+        EClass port = factory.createEClass();
+        port.setName("Port");
+        addAttribute(port, "name");
+        sysml.getEClassifiers().add(port);
+
+        EClass partDefinition = factory.createEClass();
+        partDefinition.setName("PartDefinition");
+        addAttribute(partDefinition, "elementId");
+        addAttribute(partDefinition, "declaredName");
+        addReference(partDefinition, "ports", port, true, true);
+        addReference(partDefinition, "connectedTo", EcorePackage.Literals.EOBJECT, false, true);
+        addReference(partDefinition, "supplier", partDefinition, false, false);
+        sysml.getEClassifiers().add(partDefinition);
+        return sysml;
+    }
+
+    private static void addAttribute(EClass eClass, String name) {
+        EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName(name);
+        attribute.setEType(EcorePackage.Literals.ESTRING);
+        eClass.getEStructuralFeatures().add(attribute);
+    }
+
+    private static void addReference(EClass eClass, String name, EClass type, boolean containment, boolean many) {
+        EReference reference = EcoreFactory.eINSTANCE.createEReference();
+        reference.setName(name);
+        reference.setEType(type);
+        reference.setContainment(containment);
+        reference.setUpperBound(many ? -1 : 1);
+        eClass.getEStructuralFeatures().add(reference);
+    }
+}
@@ -0,0 +1,172 @@
+package com.sysml.mvp.repository;
+
+import com.sysml.mvp.model.EMFModelRegistry;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 存储格式基准测试
+ *
+ * 通过FileModelRepository分别以各存储格式保存、冷加载1k/10k/100k个元素的模型，
+ * 输出保存耗时、加载耗时和文件大小；indexed格式另外输出内存映射打开和单元素读取耗时。
+ * 默认不运行：mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DisplayName("存储格式基准测试")
+public class StorageFormatBenchmarkTest {
+
+    private static final String NS_URI = "https://www.omg.org/spec/SysML/benchmark";
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path dataRoot;
+
+    @Test
+    @DisplayName("JSON与二进制格式的保存/加载耗时和文件大小")
+    public void benchmarkStorageFormats() throws Exception {
+        EPackage metamodel = createMetamodel();
+        EMFModelRegistry modelRegistry = mock(EMFModelRegistry.class);
+        when(modelRegistry.getSysMLPackage()).thenReturn(metamodel);
+        FileModelRepository repository = new FileModelRepository(modelRegistry);
+        repository.setDataRoot(dataRoot.toString());
+        repository.init();
+
+        for (int size : SIZES) {
+            List<EObject> model = createModel(metamodel, size);
+            for (StorageFormat format : StorageFormat.values()) {
+                String projectId = format.name().toLowerCase() + "-" + size;
+                repository.setDefaultStorageFormat(format);
+                Resource resource = repository.loadProject(projectId);
+                resource.getContents().addAll(EcoreUtil.copyAll(model));
+
+                long saveNanos = Long.MAX_VALUE;
+                long loadNanos = Long.MAX_VALUE;
+                int loaded = 0;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    repository.saveProject(projectId, resource);
+                    saveNanos = Math.min(saveNanos, System.nanoTime() - start);
+
+                    repository.clearCache(projectId);
+                    start = System.nanoTime();
+                    loaded = repository.loadProject(projectId).getContents().size();
+                    loadNanos = Math.min(loadNanos, System.nanoTime() - start);
+                }
+                long bytes = sizeOf(dataRoot.resolve("projects").resolve(projectId).resolve(format.getFileName()));
+
+                System.out.printf("[benchmark] format=%s elements=%d save=%.1fms load=%.1fms size=%.1fKB%n",
+                    format, size, saveNanos / 1e6, loadNanos / 1e6, bytes / 1024.0);
+                assertEquals(size, loaded);
+
+                if (format == StorageFormat.INDEXED) {
+                    repository.clearCache(projectId);
+                    long start = System.nanoTime();
+                    MappedModelView view = repository.getMappedView(projectId);
+                    long openNanos = System.nanoTime() - start;
+                    start = System.nanoTime();
+                    assertNotNull(view.get("requirementdefinition-" + (size / 2 / 3 * 3)));
+                    long getNanos = System.nanoTime() - start;
+                    System.out.printf("[benchmark] format=MAPPED elements=%d open=%.2fms get=%.2fms%n",
+                        size, openNanos / 1e6, getNanos / 1e6);
+                }
+            }
+        }
+    }
+
+    /**
+     * 需求定义、需求使用和追溯依赖按1:1:1混合，字符串长度接近真实模型
+     */
+    private static List<EObject> createModel(EPackage metamodel, int size) {
+        EClass requirement = (EClass) metamodel.getEClassifier("RequirementDefinition");
+        EClass usage = (EClass) metamodel.getEClassifier("RequirementUsage");
+        EClass dependency = (EClass) metamodel.getEClassifier("Dependency");
+        List<EObject> model = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            EObject object;
+            switch (i % 3) {
+                case 0:
+                    object = EcoreUtil.create(requirement);
+                    set(object, "reqId", "REQ-" + i);
+                    set(object, "documentation", "The system shall satisfy requirement number " + i
+                        + " under nominal operating conditions.");
+                    break;
+                case 1:
+                    object = EcoreUtil.create(usage);
+                    set(object, "of", "req-def-" + (i - 1));
+                    set(object, "status", i % 2 == 0 ? "approved" : "draft");
+                    break;
+                default:
+                    object = EcoreUtil.create(dependency);
+                    set(object, "fromId", "req-usage-" + (i - 1));
+                    set(object, "toId", "req-def-" + (i - 2));
+                    break;
+            }
+            set(object, "elementId", object.eClass().getName().toLowerCase() + "-" + i);
+            set(object, "declaredName", object.eClass().getName() + " " + i);
+            model.add(object);
+        }
+        return model;
+    }
+
+    private static long sizeOf(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return Files.size(path) + (Files.exists(IndexedModelFile.indexPathFor(path))
+                && path.getFileName().toString().equals(StorageFormat.INDEXED.getFileName())
+                ? Files.size(IndexedModelFile.indexPathFor(path)) : 0);
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private static void set(EObject object, String feature, Object value) {
+        object.eSet(object.eClass().getEStructuralFeature(feature), value);
+    }
+
+    private static EPackage createMetamodel() {
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        EPackage sysml = factory.createEPackage();
+        sysml.setName("sysml");
+        sysml.setNsPrefix("sysml");
+        sysml.setNsURI(NS_URI);
+
+        EClass element = createEClass(sysml, "Element", null, "elementId", "declaredName");
+        createEClass(sysml, "RequirementDefinition", element, "reqId", "documentation");
+        createEClass(sysml, "RequirementUsage", element, "of", "status");
+        createEClass(sysml, "Dependency", element, "fromId", "toId");
+        return sysml;
+    }
+
+    private static EClass createEClass(EPackage ePackage, String name, EClass superType, String... attributes) {
+        EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName(name);
+        if (superType != null) {
+            eClass.getESuperTypes().add(superType);
+        }
+        for (String attributeName : attributes) {
+            EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+            attribute.setName(attributeName);
+            attribute.setEType(EcorePackage.Literals.ESTRING);
+            eClass.getEStructuralFeatures().add(attribute);
+        }
+        ePackage.getEClassifiers().add(eClass);
+        return eClass;
+    }
+}
@@ -0,0 +1,196 @@
+package com.sysml.mvp.repository;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StreamingJsonModelReader 测试用例
+ *
+ * 验证各类属性值、嵌套包含、各种写法的引用、资源外代理的读取结果，
+ * 以及未知特征跳过、未知类型和非JSON内容报错（供调用方回退到emfjson）
+ */
+@DisplayName("StreamingJsonModelReader测试")
+public class StreamingJsonModelReaderTest {
+
+    private static final String NS_URI = "https://www.omg.org/spec/SysML/streaming-test";
+
+    private EPackage metamodel;
+    private EClass element;
+
+    @BeforeEach
+    public void setUp() {
+        metamodel = createMetamodel();
+        element = (EClass) metamodel.getEClassifier("Element");
+    }
+
+    @Test
+    @DisplayName("属性值、嵌套包含和引用读取后与预期模型一致")
+    public void testRead_BuildsModel() throws IOException {
+        String json = "{\"json\":{\"version\":\"1.0\",\"encoding\":\"utf-8\"},"
+            + "\"ns\":{\"st\":\"" + NS_URI + "\"},"
+            + "\"content\":["
+            + "{\"eClass\":\"st:Element\",\"data\":{"
+            + "\"elementId\":\"E-1\",\"declaredName\":\"Engine\",\"mass\":180,\"serial\":\"-42\","
+            + "\"efficiency\":0.37,\"active\":true,\"status\":\"APPROVED\","
+            + "\"createdAt\":\"" + EcoreUtil.convertToString(EcorePackage.Literals.EDATE, new Date(1_700_000_000_000L))
+            + "\",\"tags\":[\"power\",\"critical\",\"power\"],"
+            + "\"detail\":{\"eClass\":\"st:Element\",\"data\":{\"elementId\":\"E-3\",\"declaredName\":\"Hub\"}},"
+            + "\"related\":[{\"eClass\":\"st:Element\",\"$ref\":\"/1\"},\"/0/@detail\"],"
+            + "\"removedFeature\":{\"nested\":[1,2,3]}}},"
+            // data先于eClass出现
+            + "{\"data\":{\"elementId\":\"E-2\",\"declaredName\":\"Wheel\",\"owner\":\"st:Element /0\"},"
+            + "\"eClass\":\"st:Element\"}"
+            + "]}";
+
+        Resource resource = read(json);
+
+        EObject engine = createElement("E-1", "Engine");
+        set(engine, "mass", 180);
+        set(engine, "serial", -42L);
+        set(engine, "efficiency", 0.37d);
+        set(engine, "active", true);
+        set(engine, "status", ((EEnum) metamodel.getEClassifier("Status")).getEEnumLiteral("APPROVED"));
+        set(engine, "createdAt", new Date(1_700_000_000_000L));
+        list(engine, "tags").addAll(List.of("power", "critical", "power"));
+        EObject hub = createElement("E-3", "Hub");
+        set(engine, "detail", hub);
+        EObject wheel = createElement("E-2", "Wheel");
+        list(engine, "related").addAll(List.of(wheel, hub));
+        set(wheel, "owner", engine);
+
+        assertTrue(EcoreUtil.equals(List.of(engine, wheel), resource.getContents()));
+        EObject loadedEngine = resource.getContents().get(0);
+        assertSame(resource.getContents().get(1), list(loadedEngine, "related").get(0));
+        assertSame(get(loadedEngine, "detail"), list(loadedEngine, "related").get(1));
+        assertSame(loadedEngine, get(resource.getContents().get(1), "owner"));
+    }
+
+    @Test
+    @DisplayName("其他资源的引用读取为代理，重复的短字符串共享同一实例")
+    public void testRead_ExternalProxyAndPooledStrings() throws IOException {
+        String json = "{\"ns\":{\"st\":\"" + NS_URI + "\"},\"content\":["
+            + "{\"eClass\":\"st:Element\",\"data\":{\"declaredName\":\"shared\","
+            + "\"owner\":{\"eClass\":\"st:Element\",\"$ref\":\"other.json#/3\"}}},"
+            + "{\"eClass\":\"st:Element\",\"data\":{\"declaredName\":\"shared\"}}]}";
+
+        Resource resource = read(json);
+
+        EObject proxy = (EObject) resource.getContents().get(0).eGet(element.getEStructuralFeature("owner"), false);
+        assertTrue(proxy.eIsProxy());
+        assertEquals(URI.createURI("file:/projects/p1/other.json#/3"), ((InternalEObject) proxy).eProxyURI());
+        assertSame(get(resource.getContents().get(0), "declaredName"),
+            get(resource.getContents().get(1), "declaredName"));
+    }
+
+    @Test
+    @DisplayName("未注册的类型和非JSON内容报错")
+    public void testRead_RejectsUnknownContent() {
+        assertThrows(IOException.class, () -> read(
+            "{\"ns\":{\"st\":\"" + NS_URI + "\"},\"content\":[{\"eClass\":\"st:Missing\",\"data\":{}}]}"));
+        assertThrows(IOException.class, () -> read("<?xml version=\"1.0\"?><xmi:XMI/>"));
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private Resource read(String json) throws IOException {
+        ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.getPackageRegistry().put(NS_URI, metamodel);
+        Resource resource = new ResourceImpl(URI.createURI("file:/projects/p1/model.json"));
+        resourceSet.getResources().add(resource);
+        new StreamingJsonModelReader(resource).read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        return resource;
+    }
+
+    private EObject createElement(String id, String name) {
+        EObject object = EcoreUtil.create(element);
+        set(object, "elementId", id);
+        set(object, "declaredName", name);
+        return object;
+    }
+
+    private static void set(EObject object, String feature, Object value) {
+        object.eSet(object.eClass().getEStructuralFeature(feature), value);
+    }
+
+    private static Object get(EObject object, String feature) {
+        return object.eGet(object.eClass().getEStructuralFeature(feature));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(EObject object, String feature) {
+        return (List<Object>) object.eGet(object.eClass().getEStructuralFeature(feature));
+    }
+
+    private static EPackage createMetamodel() {
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        EcorePackage ecore = EcorePackage.eINSTANCE;
+        EPackage ePackage = factory.createEPackage();
+        ePackage.setName("streaming");
+        ePackage.setNsPrefix("st");
+        ePackage.setNsURI(NS_URI);
+
+        EEnum status = factory.createEEnum();
+        status.setName("Status");
+        for (String literal : List.of("DRAFT", "APPROVED")) {
+            EEnumLiteral enumLiteral = factory.createEEnumLiteral();
+            enumLiteral.setName(literal);
+            enumLiteral.setLiteral(literal);
+            enumLiteral.setValue(status.getELiterals().size());
+            status.getELiterals().add(enumLiteral);
+        }
+        ePackage.getEClassifiers().add(status);
+
+        EClass element = factory.createEClass();
+        element.setName("Element");
+        ePackage.getEClassifiers().add(element);
+        addAttribute(element, "elementId", ecore.getEString(), false);
+        addAttribute(element, "declaredName", ecore.getEString(), false);
+        addAttribute(element, "mass", ecore.getEInt(), false);
+        addAttribute(element, "serial", ecore.getELong(), false);
+        addAttribute(element, "efficiency", ecore.getEDouble(), false);
+        addAttribute(element, "active", ecore.getEBoolean(), false);
+        addAttribute(element, "createdAt", ecore.getEDate(), false);
+        addAttribute(element, "status", status, false);
+        addAttribute(element, "tags", ecore.getEString(), true);
+        addReference(element, "detail", element, true, false);
+        addReference(element, "related", element, false, true);
+        addReference(element, "owner", element, false, false);
+        return ePackage;
+    }
+
+    private static void addAttribute(EClass eClass, String name, EDataType type, boolean many) {
+        EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName(name);
+        attribute.setEType(type);
+        attribute.setUpperBound(many ? -1 : 1);
+        if (many) {
+            attribute.setUnique(false);
+        }
+        eClass.getEStructuralFeatures().add(attribute);
+    }
+
+    private static void addReference(EClass eClass, String name, EClass type, boolean containment, boolean many) {
+        EReference reference = EcoreFactory.eINSTANCE.createEReference();
+        reference.setName(name);
+        reference.setEType(type);
+        reference.setContainment(containment);
+        reference.setUpperBound(many ? -1 : 1);
+        eClass.getEStructuralFeatures().add(reference);
+    }
+}
@@ -0,0 +1,167 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.BatchOperationDTO;
+import com.sysml.mvp.dto.BatchOperationResultDTO;
+import com.sysml.mvp.dto.BatchResultDTO;
+import com.sysml.mvp.service.UniversalElementService.BatchModelView;
+import com.sysml.mvp.service.UniversalElementService.BatchRules;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * BatchService 测试用例
+ * 
+ * 需求对齐：
+ * - REQ-C1-1: reqId唯一性验证 - 批次内的reqId同样唯一
+ * - REQ-C2-3: 约束对象必填 - RequirementUsage必须有subject
+ * - REQ-C2-4: 删除前检查被引用保护
+ */
+@DisplayName("BatchService测试")
+public class BatchServiceTest {
+    
+    @Mock
+    private UniversalElementService universalElementService;
+    
+    @Mock
+    private BatchModelView model;
+    
+    private ReqIdIndex reqIdIndex;
+    
+    private BatchService batchService;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(universalElementService.queryElements("RequirementDefinition")).thenReturn(Collections.emptyList());
+        reqIdIndex = new ReqIdIndex(universalElementService);
+        batchService = new BatchService(universalElementService, reqIdIndex);
+        stubApplyBatch();
+    }
+    
+    /**
+     * 验收标准：REQ-C1-1
+     * 同一批次中重复的reqId应整批拒绝，预留全部释放
+     */
+    @Test
+    @DisplayName("REQ-C1-1: 批次内reqId重复整批拒绝")
+    public void testExecute_ShouldRejectDuplicateReqIdInBatch() {
+        // Given: 两个创建操作使用相同reqId
+        List<BatchOperationDTO> operations = Arrays.asList(
+            create("req-def-001", "RequirementDefinition", "REQ-001"),
+            create("req-def-002", "RequirementDefinition", "REQ-001")
+        );
+        
+        // When: 执行批次
+        BatchResultDTO result = batchService.execute(operations);
+        
+        // Then: 未执行，第二个操作409，第一个424，reqId已释放
+        assertFalse(result.isCommitted());
+        assertEquals(BatchOperationResultDTO.STATUS_FAILED_DEPENDENCY, result.getResults().get(0).getStatus());
+        assertEquals(409, result.getResults().get(1).getStatus());
+        assertTrue(reqIdIndex.isAvailable("REQ-001"));
+    }
+    
+    /**
+     * 验收标准：REQ-C1-1
+     * 批次提交后reqId归属于新建元素
+     */
+    @Test
+    @DisplayName("REQ-C1-1: 批次提交后确认reqId")
+    public void testExecute_ShouldConfirmReqIdAfterCommit() {
+        // Given: 创建需求定义与引用它的需求使用
+        BatchOperationDTO usage = create("req-usage-001", "RequirementUsage", null);
+        usage.getAttributes().put("subject", "part-001");
+        List<BatchOperationDTO> operations = Arrays.asList(
+            create("req-def-001", "RequirementDefinition", "REQ-001"), usage);
+        
+        // When: 执行批次
+        BatchResultDTO result = batchService.execute(operations);
+        
+        // Then: 提交成功，reqId被占用
+        assertTrue(result.isCommitted());
+        assertFalse(reqIdIndex.isAvailable("REQ-001"));
+        assertNull(reqIdIndex.reserve("REQ-001"));
+    }
+    
+    /**
+     * 验收标准：REQ-C2-4
+     * 被引用的需求定义只有在引用者同批删除时才能删除
+     * 引用与类型从写锁内的模型视图读取，不在写锁外预先查询
+     */
+    @Test
+    @DisplayName("REQ-C2-4: 引用者同批删除时允许删除需求定义")
+    public void testExecute_ShouldAllowDeleteWhenReferrersDeletedInBatch() {
+        // Given: 写锁内的模型中req-def-001被req-usage-001引用
+        when(model.getEClass("req-def-001")).thenReturn("RequirementDefinition");
+        when(model.getAttribute("req-def-001", "reqId")).thenReturn("REQ-001");
+        when(model.findReferrers("req-def-001", "of")).thenReturn(Set.of("req-usage-001"));
+        
+        // When: 只删除需求定义
+        BatchResultDTO rejected = batchService.execute(List.of(delete("req-def-001")));
+        
+        // Then: 409拒绝
+        assertFalse(rejected.isCommitted());
+        assertEquals(409, rejected.getResults().get(0).getStatus());
+        
+        // When: 同时删除引用者
+        BatchResultDTO committed = batchService.execute(
+            Arrays.asList(delete("req-usage-001"), delete("req-def-001")));
+        
+        // Then: 提交，领域检查没有绕过写锁查询模型
+        assertTrue(committed.isCommitted());
+        verify(universalElementService, never()).findReferrers(anyString(), anyString());
+        verify(universalElementService, never()).findElementById(anyString());
+    }
+    
+    /**
+     * 验收标准：REQ-C2-3
+     * 创建RequirementUsage缺少subject时拒绝
+     */
+    @Test
+    @DisplayName("REQ-C2-3: 批次内需求使用缺少subject")
+    public void testExecute_ShouldRejectUsageWithoutSubject() {
+        BatchResultDTO result = batchService.execute(List.of(create("req-usage-001", "RequirementUsage", null)));
+        
+        assertFalse(result.isCommitted());
+        assertEquals(400, result.getResults().get(0).getStatus());
+    }
+    
+    /**
+     * 模拟UniversalElementService.applyBatch：在锁内视图上执行领域检查，未通过时整批拒绝
+     */
+    private void stubApplyBatch() {
+        when(universalElementService.applyBatch(anyList(), any(BatchRules.class))).thenAnswer(invocation -> {
+            List<BatchOperationDTO> operations = invocation.getArgument(0);
+            BatchRules rules = invocation.getArgument(1);
+            Map<Integer, BatchOperationResultDTO> rejected = rules.check(model);
+            List<BatchOperationResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < operations.size(); i++) {
+                BatchOperationDTO operation = operations.get(i);
+                int status = rejected.isEmpty() ? 200 : BatchOperationResultDTO.STATUS_FAILED_DEPENDENCY;
+                results.add(rejected.getOrDefault(i, new BatchOperationResultDTO(i, operation.getOp(),
+                    operation.getElementId(), status, null, null)));
+            }
+            return new BatchResultDTO(rejected.isEmpty(), 1L, results);
+        });
+    }
+    
+    private BatchOperationDTO create(String elementId, String eClass, String reqId) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (reqId != null) {
+            attributes.put("reqId", reqId);
+        }
+        return new BatchOperationDTO(BatchOperationDTO.OP_CREATE, elementId, eClass, attributes, null);
+    }
+    
+    private BatchOperationDTO delete(String elementId) {
+        return new BatchOperationDTO(BatchOperationDTO.OP_DELETE, elementId, null, new HashMap<>(), null);
+    }
+}
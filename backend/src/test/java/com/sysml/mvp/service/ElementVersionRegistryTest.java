@@ -0,0 +1,71 @@
+package com.sysml.mvp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ElementVersionRegistry 测试用例
+ * 
+ * 验证元素版本递增、ETag/If-Match的往返解析和重置后旧ETag失效
+ */
+@DisplayName("ElementVersionRegistry测试")
+public class ElementVersionRegistryTest {
+    
+    private ElementVersionRegistry registry;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new ElementVersionRegistry();
+    }
+    
+    @Test
+    @DisplayName("未登记元素版本为1，每次递增加1")
+    public void testIncrement() {
+        assertEquals(1L, registry.current("req-def-001"));
+        assertEquals(2L, registry.increment("req-def-001"));
+        assertEquals(3L, registry.increment("req-def-001"));
+        assertEquals(3L, registry.current("req-def-001"));
+        assertEquals(1L, registry.current("req-def-002"));
+    }
+    
+    @Test
+    @DisplayName("ETag可被If-Match解析回版本")
+    public void testETagRoundTrip() {
+        String eTag = registry.toETag(5L);
+        
+        assertEquals(5L, registry.parseIfMatch(eTag));
+        assertEquals(5L, registry.parseIfMatch("W/" + eTag));
+    }
+    
+    @Test
+    @DisplayName("缺省或*不校验，无法识别的ETag永不匹配")
+    public void testParseIfMatch_SpecialValues() {
+        assertNull(registry.parseIfMatch(null));
+        assertNull(registry.parseIfMatch("*"));
+        assertEquals(ElementVersionRegistry.UNMATCHABLE, registry.parseIfMatch("\"other-epoch-5\""));
+        assertEquals(ElementVersionRegistry.UNMATCHABLE, registry.parseIfMatch("garbage"));
+        assertEquals(ElementVersionRegistry.UNMATCHABLE, new ElementVersionRegistry().parseIfMatch("\"x-1\""));
+    }
+    
+    @Test
+    @DisplayName("重置后之前签发的ETag和已解析的版本号都不再匹配")
+    public void testReset_InvalidatesIssuedVersions() {
+        registry.increment("req-def-001");
+        String eTag = registry.toETag(registry.current("req-def-001"));
+        long parsed = registry.parseIfMatch(eTag);
+        String untouched = registry.toETag(registry.current("req-def-002"));
+        
+        registry.reset();
+        
+        assertEquals(ElementVersionRegistry.UNMATCHABLE, registry.parseIfMatch(eTag));
+        assertEquals(ElementVersionRegistry.UNMATCHABLE, registry.parseIfMatch(untouched));
+        assertTrue(registry.current("req-def-001") > parsed);
+        assertTrue(registry.current("req-def-002") > parsed);
+        String renewed = registry.toETag(registry.current("req-def-001"));
+        assertEquals(registry.current("req-def-001"), registry.parseIfMatch(renewed));
+        assertEquals(registry.current("req-def-001") + 1, registry.increment("req-def-001"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.sysml.mvp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sysml.mvp.config.WarmupProperties;
+import com.sysml.mvp.dto.ElementDTO;
+import com.sysml.mvp.repository.FileModelRepository;
+import com.sysml.mvp.repository.ProjectLockManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * IndexCheckpointService 测试用例
+ *
+ * 验证检查点的写入与恢复、摘要与模型文件不一致或恢复期间模型变化时拒绝恢复、模型未变化或快照落后时跳过写入
+ */
+@DisplayName("IndexCheckpointService测试")
+public class IndexCheckpointServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private FileModelRepository fileModelRepository;
+
+    @Mock
+    private UniversalElementService universalElementService;
+
+    private ReferenceIndex referenceIndex;
+    private ReqIdIndex reqIdIndex;
+    private IndexCheckpointService checkpointService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(fileModelRepository.getProjectDirectory("default")).thenReturn(tempDir);
+        when(fileModelRepository.getModelVersion("default")).thenReturn(1L);
+        when(fileModelRepository.getModelChecksum("default")).thenReturn("sha-1");
+        when(fileModelRepository.computeModelChecksum("default")).thenReturn("sha-1");
+        when(universalElementService.snapshot()).thenReturn(ModelSnapshot.of("default", 1L, List.of(
+            element("req-def-001", "RequirementDefinition", "reqId", "EBS-L1-001"),
+            element("req-usage-001", "RequirementUsage", "of", "req-def-001"),
+            element("satisfy-001", "Satisfy", "toId", "req-def-001"))));
+        checkpointService = newService();
+    }
+
+    @Test
+    @DisplayName("写入检查点后，新实例不遍历模型即可恢复索引")
+    public void testCheckpointAndRestore() {
+        assertTrue(checkpointService.checkpoint());
+        assertTrue(Files.exists(tempDir.resolve(IndexCheckpointService.CHECKPOINT_FILE)));
+
+        IndexCheckpointService restarted = newService();
+        assertTrue(restarted.restore());
+
+        assertTrue(referenceIndex.isLoaded());
+        assertEquals(Set.of("req-usage-001"), referenceIndex.getReferrers("req-def-001", "of"));
+        assertEquals(Set.of("satisfy-001"), referenceIndex.getReferrers("req-def-001", "toId"));
+        assertFalse(reqIdIndex.isAvailable("EBS-L1-001"));
+        assertTrue(reqIdIndex.isAvailable("EBS-L1-002"));
+        verify(universalElementService, never()).queryElements(any());
+        verify(universalElementService, never()).getAllElements();
+    }
+
+    @Test
+    @DisplayName("模型摘要变化后检查点过期，不恢复")
+    public void testRestore_RejectsStaleCheckpoint() {
+        assertTrue(checkpointService.checkpoint());
+        when(fileModelRepository.getModelChecksum("default")).thenReturn("sha-2");
+        when(fileModelRepository.computeModelChecksum("default")).thenReturn("sha-2");
+
+        IndexCheckpointService restarted = newService();
+
+        assertFalse(restarted.restore());
+        assertFalse(referenceIndex.isLoaded());
+    }
+
+    @Test
+    @DisplayName("按磁盘上模型文件的实际摘要判断，metadata未随模型提交时不恢复")
+    public void testRestore_ComparesWithModelFileNotMetadata() {
+        assertTrue(checkpointService.checkpoint());
+        // metadata仍是旧摘要，而模型文件已被中断的提交替换
+        when(fileModelRepository.computeModelChecksum("default")).thenReturn("sha-2");
+
+        IndexCheckpointService restarted = newService();
+
+        assertFalse(restarted.restore());
+        assertFalse(referenceIndex.isLoaded());
+    }
+
+    @Test
+    @DisplayName("恢复期间模型发生写入时丢弃恢复的索引")
+    public void testRestore_DiscardsWhenModelChangesConcurrently() {
+        assertTrue(checkpointService.checkpoint());
+        when(fileModelRepository.getModelVersion("default")).thenReturn(1L, 2L);
+
+        IndexCheckpointService restarted = newService();
+
+        assertFalse(restarted.restore());
+        assertFalse(referenceIndex.isLoaded());
+    }
+
+    @Test
+    @DisplayName("模型未变化或快照落后于模型时跳过写入")
+    public void testCheckpoint_SkipsWhenUnchangedOrBehind() {
+        assertTrue(checkpointService.checkpoint());
+        assertFalse(checkpointService.checkpoint());
+
+        when(fileModelRepository.getModelChecksum("default")).thenReturn("sha-2");
+        when(fileModelRepository.getModelVersion("default")).thenReturn(2L);
+        assertFalse(checkpointService.checkpoint());
+
+        when(fileModelRepository.getModelChecksum("default")).thenReturn(null);
+        when(fileModelRepository.getModelVersion("default")).thenReturn(1L);
+        assertFalse(checkpointService.checkpoint());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private IndexCheckpointService newService() {
+        referenceIndex = new ReferenceIndex();
+        reqIdIndex = new ReqIdIndex(universalElementService);
+        return new IndexCheckpointService(fileModelRepository, universalElementService, referenceIndex, reqIdIndex,
+            new ProjectLockManager(new SimpleMeterRegistry(), fileModelRepository), new ObjectMapper(), new WarmupProperties());
+    }
+
+    private static ElementDTO element(String elementId, String eClass, String feature, String value) {
+        ElementDTO element = new ElementDTO();
+        element.setElementId(elementId);
+        element.setEClass(eClass);
+        element.setProperty(feature, value);
+        return element;
+    }
+}
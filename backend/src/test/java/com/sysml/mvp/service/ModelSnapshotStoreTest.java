@@ -0,0 +1,132 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.ElementDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ModelSnapshotStore / ModelSnapshot 测试用例
+ * 
+ * 验证不可变快照的派生、结构共享、版本发布与请求级固定
+ */
+@DisplayName("ModelSnapshotStore测试")
+public class ModelSnapshotStoreTest {
+    
+    private ModelSnapshotStore store;
+    private ElementDTO req1;
+    private ElementDTO req2;
+    
+    @BeforeEach
+    void setUp() {
+        store = new ModelSnapshotStore();
+        req1 = element("req-def-001", "RequirementDefinition");
+        req2 = element("req-def-002", "RequirementDefinition");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        store.unpin();
+    }
+    
+    @Test
+    @DisplayName("派生快照不影响旧版本，未改动的元素共享")
+    public void testDerivedSnapshots_AreIndependent() {
+        ModelSnapshot v1 = ModelSnapshot.of("p1", 1, Arrays.asList(req1, req2));
+        ElementDTO req1Updated = element("req-def-001", "RequirementDefinition");
+        req1Updated.setProperty("declaredName", "updated");
+        
+        ModelSnapshot v2 = v1.withReplaced(req1Updated, 2);
+        ModelSnapshot v3 = v2.withRemoved("req-def-001", 3);
+        ModelSnapshot v4 = v3.withAdded(element("req-def-003", "RequirementDefinition"), 4);
+        
+        assertSame(req1, v1.getElement("req-def-001"));
+        assertSame(req1Updated, v2.getElement("req-def-001"));
+        assertSame(req2, v2.getElement("req-def-002"));
+        assertNull(v3.getElement("req-def-001"));
+        assertSame(req2, v3.getElement("req-def-002"));
+        assertEquals(2, v4.size());
+        assertEquals("req-def-003", v4.getElements().get(1).getElementId());
+        assertEquals(2, v1.size());
+        assertThrows(UnsupportedOperationException.class, () -> v1.getElements().clear());
+    }
+    
+    @Test
+    @DisplayName("只发布版本更高的快照")
+    public void testPublish_KeepsNewestVersion() {
+        ModelSnapshot v2 = ModelSnapshot.of("p1", 2, Arrays.asList(req1));
+        ModelSnapshot v1 = ModelSnapshot.of("p1", 1, Arrays.asList(req1, req2));
+        
+        store.publish(v2);
+        assertSame(v2, store.publish(v1));
+        assertSame(v2, store.latest("p1"));
+        
+        store.invalidate("p1");
+        assertNull(store.latest("p1"));
+    }
+    
+    @Test
+    @DisplayName("固定的快照只对当前线程可见，本线程写入后随之前移")
+    public void testPin_IsThreadLocalAndFollowsOwnWrites() throws Exception {
+        ModelSnapshot v1 = ModelSnapshot.of("p1", 1, Arrays.asList(req1));
+        store.publish(v1);
+        store.pin(v1);
+        
+        // 其他线程发布新版本，本线程仍读固定版本
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> {
+            assertNull(store.pinned("p1"));
+            store.publish(v1.withAdded(req2, 2));
+        }).get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertSame(v1, store.pinned("p1"));
+        assertNull(store.pinned("p2"));
+        
+        // 本线程发布后，固定快照前移到最新版本
+        ModelSnapshot v3 = store.latest("p1").withRemoved("req-def-001", 3);
+        store.publish(v3);
+        assertSame(v3, store.pinned("p1"));
+        
+        store.unpin();
+        assertNull(store.pinned("p1"));
+    }
+    
+    @Test
+    @DisplayName("批量派生：原位替换、删除，新元素按顺序追加")
+    public void testWithChanges_KeepsModelOrder() {
+        ElementDTO req3 = element("req-def-003", "RequirementDefinition");
+        ModelSnapshot v1 = ModelSnapshot.of("p1", 1, Arrays.asList(req1, req2, req3));
+        ElementDTO req3Updated = element("req-def-003", "RequirementDefinition");
+        ElementDTO req1Recreated = element("req-def-001", "RequirementUsage");
+        ElementDTO req4 = element("req-def-004", "RequirementDefinition");
+        Map<String, ElementDTO> upserts = new LinkedHashMap<>();
+        upserts.put("req-def-004", req4);
+        upserts.put("req-def-001", req1Recreated);
+        upserts.put("req-def-003", req3Updated);
+        
+        ModelSnapshot v2 = v1.withChanges(new HashSet<>(Arrays.asList("req-def-001", "req-def-002")), upserts, 2);
+        
+        assertEquals(Arrays.asList(req3Updated, req4, req1Recreated), v2.getElements());
+        assertSame(req1Recreated, v2.getElement("req-def-001"));
+        assertNull(v2.getElement("req-def-002"));
+        assertEquals(3, v1.size());
+    }
+    
+    private ElementDTO element(String id, String eClass) {
+        ElementDTO dto = new ElementDTO();
+        dto.setElementId(id);
+        dto.setEClass(eClass);
+        return dto;
+    }
+}
@@ -0,0 +1,135 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.model.EMFModelRegistry;
+import com.sysml.mvp.repository.FileModelRepository;
+import com.sysml.mvp.repository.StorageFormat;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * ProjectFileWatcher 测试用例
+ *
+ * 验证外部修改模型文件后只清除该项目缓存和默认项目的索引，本进程自己的保存不触发
+ */
+@DisplayName("ProjectFileWatcher测试")
+public class ProjectFileWatcherTest {
+
+    private static final String NS_URI = "https://www.omg.org/spec/SysML/watcher-test";
+    private static final long DEBOUNCE_MS = 100;
+
+    @TempDir
+    Path dataRoot;
+
+    private EClass part;
+    private FileModelRepository repository;
+    private ReferenceIndex referenceIndex;
+    private ElementVersionRegistry versionRegistry;
+    private ProjectFileWatcher watcher;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        EPackage metamodel = createMetamodel();
+        part = (EClass) metamodel.getEClassifier("PartDefinition");
+        EMFModelRegistry modelRegistry = mock(EMFModelRegistry.class);
+        when(modelRegistry.getSysMLPackage()).thenReturn(metamodel);
+        repository = new FileModelRepository(modelRegistry);
+        repository.setDataRoot(dataRoot.toString());
+        repository.setDefaultStorageFormat(StorageFormat.BINARY);
+        repository.init();
+
+        save("default", "part-1");
+        save("other", "part-2");
+        referenceIndex = new ReferenceIndex();
+        referenceIndex.ensureLoaded(List::of);
+
+        versionRegistry = new ElementVersionRegistry();
+        watcher = new ProjectFileWatcher(repository, referenceIndex, mock(ReqIdIndex.class), versionRegistry);
+        watcher.setDebounceMs(DEBOUNCE_MS);
+        watcher.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        watcher.stop();
+    }
+
+    @Test
+    @DisplayName("本进程的保存不清除缓存")
+    public void testOwnSave_KeepsCache() throws Exception {
+        String eTag = versionRegistry.toETag(versionRegistry.current("part-1"));
+        save("default", "part-3");
+        Thread.sleep(DEBOUNCE_MS * 5);
+
+        assertTrue(repository.isLoaded("default"));
+        assertTrue(referenceIndex.isLoaded());
+        assertEquals(versionRegistry.current("part-1"), versionRegistry.parseIfMatch(eTag));
+    }
+
+    @Test
+    @DisplayName("外部修改只清除对应项目的缓存，默认项目同时丢弃索引，之前签发的ETag不再匹配")
+    public void testExternalEdit_InvalidatesAffectedProject() throws Exception {
+        long versionBefore = repository.getModelVersion("other");
+        String eTag = versionRegistry.toETag(versionRegistry.current("part-2"));
+        Path modelFile = repository.getProjectDirectory("other").resolve(StorageFormat.BINARY.getFileName());
+        Files.write(modelFile, Files.readAllBytes(modelFile));
+
+        await(() -> !repository.isLoaded("other")
+            && versionRegistry.parseIfMatch(eTag) == ElementVersionRegistry.UNMATCHABLE);
+        assertTrue(repository.getModelVersion("other") > versionBefore);
+        assertTrue(repository.isLoaded("default"));
+        assertTrue(referenceIndex.isLoaded());
+
+        modelFile = repository.getProjectDirectory("default").resolve(StorageFormat.BINARY.getFileName());
+        Files.write(modelFile, Files.readAllBytes(modelFile));
+
+        await(() -> !repository.isLoaded("default") && !referenceIndex.isLoaded());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void save(String projectId, String elementId) {
+        Resource resource = repository.loadProject(projectId);
+        EObject object = EcoreUtil.create(part);
+        object.eSet(part.getEStructuralFeature("elementId"), elementId);
+        resource.getContents().add(object);
+        repository.saveProject(projectId, resource);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            Thread.sleep(20);
+        }
+    }
+
+    private static EPackage createMetamodel() {
+        EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName("watcher");
+        ePackage.setNsPrefix("watcher");
+        ePackage.setNsURI(NS_URI);
+        EClass partDefinition = EcoreFactory.eINSTANCE.createEClass();
+        partDefinition.setName("PartDefinition");
+        EAttribute elementId = EcoreFactory.eINSTANCE.createEAttribute();
+        elementId.setName("elementId");
+        elementId.setEType(EcorePackage.Literals.ESTRING);
+        partDefinition.getEStructuralFeatures().add(elementId);
+        ePackage.getEClassifiers().add(partDefinition);
+        return ePackage;
+    }
+}
@@ -0,0 +1,156 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.config.WarmupHealthIndicator;
+import com.sysml.mvp.config.WarmupProperties;
+import com.sysml.mvp.repository.FileModelRepository;
+import com.sysml.mvp.repository.StorageFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProjectWarmupService 测试用例
+ *
+ * 验证按最近更新时间排序、项目数上限和内存预算内的选择、默认项目的索引构建、
+ * 单个项目失败的计数，以及WarmupHealthIndicator在预热前后的状态
+ */
+@DisplayName("ProjectWarmupService测试")
+public class ProjectWarmupServiceTest {
+
+    private static final long KB = 1024;
+
+    @Mock
+    private FileModelRepository fileModelRepository;
+
+    @Mock
+    private UniversalElementService universalElementService;
+
+    @Mock
+    private ReqIdIndex reqIdIndex;
+
+    private WarmupProperties properties;
+    private ProjectWarmupService warmupService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new WarmupProperties();
+        properties.setMaxProjects(3);
+        properties.setParallelism(2);
+        properties.setMemoryBudgetMb(1);
+        properties.setExpansionFactor(8.0);
+        when(fileModelRepository.getStorageFormat(anyString())).thenReturn(StorageFormat.JSON);
+        warmupService = new ProjectWarmupService(fileModelRepository, universalElementService, reqIdIndex, properties);
+    }
+
+    @Test
+    @DisplayName("按最近更新时间排序，超出内存预算的项目跳过，较小的项目仍可纳入")
+    public void testPlan_RanksByRecencyWithinBudget() {
+        givenProject("old", 100, 10 * KB);
+        givenProject("newest", 300, 40 * KB);
+        givenProject("large", 250, 100 * KB);
+        givenProject("middle", 200, 20 * KB);
+
+        List<String> plan = warmupService.plan().stream()
+            .map(ProjectWarmupService.Candidate::projectId)
+            .collect(Collectors.toList());
+
+        // 预算1MB：newest 320KB + middle 160KB + old 80KB，large 800KB 超出
+        assertEquals(List.of("newest", "middle", "old"), plan);
+        ProjectWarmupService.Progress progress = warmupService.getProgress();
+        assertEquals(3, progress.planned());
+        assertEquals(1, progress.skipped());
+        assertEquals(560 * KB, progress.estimatedBytes());
+    }
+
+    @Test
+    @DisplayName("达到项目数上限后不再纳入")
+    public void testPlan_StopsAtMaxProjects() {
+        properties.setMaxProjects(2);
+        givenProject("a", 100, KB);
+        givenProject("b", 200, KB);
+        givenProject("c", 300, KB);
+
+        List<String> plan = warmupService.plan().stream()
+            .map(ProjectWarmupService.Candidate::projectId)
+            .collect(Collectors.toList());
+
+        assertEquals(List.of("c", "b"), plan);
+        assertEquals(1, warmupService.getProgress().skipped());
+    }
+
+    @Test
+    @DisplayName("并行加载计划内项目，默认项目构建索引，indexed项目建立映射视图")
+    public void testWarmUp_LoadsProjectsAndBuildsIndexes() {
+        givenProject("default", 200, KB);
+        givenProject("indexed", 100, KB);
+        when(fileModelRepository.getStorageFormat("indexed")).thenReturn(StorageFormat.INDEXED);
+
+        warmupService.warmUp();
+
+        verify(fileModelRepository).loadProject("default");
+        verify(fileModelRepository).loadProject("indexed");
+        verify(fileModelRepository).getMappedView("indexed");
+        verify(fileModelRepository, never()).getMappedView("default");
+        verify(universalElementService).warmUp();
+        verify(reqIdIndex).ensureLoaded();
+        ProjectWarmupService.Progress progress = warmupService.getProgress();
+        assertEquals(ProjectWarmupService.State.COMPLETED, progress.state());
+        assertEquals(2, progress.completed());
+        assertEquals(0, progress.failed());
+    }
+
+    @Test
+    @DisplayName("单个项目失败只计数，不影响其他项目和就绪状态")
+    public void testWarmUp_CountsFailures() {
+        givenProject("broken", 200, KB);
+        givenProject("healthy", 100, KB);
+        when(fileModelRepository.loadProject("broken")).thenThrow(new IllegalStateException("corrupt"));
+        WarmupHealthIndicator indicator = new WarmupHealthIndicator(warmupService);
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        warmupService.warmUp();
+
+        verify(fileModelRepository).loadProject("healthy");
+        Health health = indicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(1, health.getDetails().get("completed"));
+        assertEquals(1, health.getDetails().get("failed"));
+        assertEquals("2/2", health.getDetails().get("progress"));
+    }
+
+    @Test
+    @DisplayName("关闭预热时不加载项目，直接报告UP")
+    public void testOnApplicationReady_Disabled() {
+        properties.setEnabled(false);
+        givenProject("default", 100, KB);
+
+        warmupService.onApplicationReady();
+
+        verify(fileModelRepository, never()).loadProject(anyString());
+        assertEquals(ProjectWarmupService.State.DISABLED, warmupService.getProgress().state());
+        assertEquals(Status.UP, new WarmupHealthIndicator(warmupService).health().getStatus());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void givenProject(String projectId, long updatedAtSeconds, long sizeOnDisk) {
+        List<String> projects = new ArrayList<>(fileModelRepository.listProjects());
+        projects.add(projectId);
+        when(fileModelRepository.listProjects()).thenReturn(projects);
+        when(fileModelRepository.getLastUpdated(projectId)).thenReturn(Instant.ofEpochSecond(updatedAtSeconds));
+        when(fileModelRepository.getModelSizeOnDisk(projectId)).thenReturn(sizeOnDisk);
+    }
+}
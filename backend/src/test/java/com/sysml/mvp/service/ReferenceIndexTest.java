@@ -0,0 +1,97 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.ElementDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReferenceIndex 测试用例
+ * 
+ * 需求对齐：
+ * - REQ-C2-4: 删除前检查被引用保护 - 反向引用索引
+ */
+@DisplayName("ReferenceIndex测试 - REQ-C2-4")
+public class ReferenceIndexTest {
+    
+    private ReferenceIndex referenceIndex;
+    private AtomicInteger loads;
+    
+    @BeforeEach
+    void setUp() {
+        referenceIndex = new ReferenceIndex();
+        loads = new AtomicInteger();
+        referenceIndex.ensureLoaded(() -> {
+            loads.incrementAndGet();
+            return Arrays.asList(
+                element("req-usage-001", "RequirementUsage", "of", "req-def-001", "subject", "part-001"),
+                element("satisfy-001", "Satisfy", "fromId", "part-001", "toId", "req-def-001"));
+        });
+    }
+    
+    @Test
+    @DisplayName("REQ-C2-4: 按特征返回引用者")
+    public void testGetReferrers_ShouldGroupByFeature() {
+        Map<String, Set<String>> references = referenceIndex.getReferrers("req-def-001");
+        
+        assertEquals(Set.of("req-usage-001"), references.get("of"));
+        assertEquals(Set.of("satisfy-001"), references.get("toId"));
+        assertEquals(Set.of("req-usage-001"), referenceIndex.getReferrers("part-001", "subject"));
+        assertTrue(referenceIndex.getReferrers("unknown").isEmpty());
+    }
+    
+    @Test
+    @DisplayName("REQ-C2-4: 只构建一次，之后增量维护")
+    public void testIncrementalMaintenance() {
+        referenceIndex.ensureLoaded(() -> {
+            loads.incrementAndGet();
+            return Arrays.asList();
+        });
+        assertEquals(1, loads.get());
+        
+        ElementDTO usage = element("req-usage-002", "RequirementUsage", "of", "req-def-001", null, null);
+        referenceIndex.add(usage);
+        assertEquals(Set.of("req-usage-001", "req-usage-002"), referenceIndex.getReferrers("req-def-001", "of"));
+        
+        ElementDTO moved = element("req-usage-002", "RequirementUsage", "of", "req-def-002", null, null);
+        referenceIndex.update(usage, moved);
+        assertEquals(Set.of("req-usage-001"), referenceIndex.getReferrers("req-def-001", "of"));
+        assertEquals(Set.of("req-usage-002"), referenceIndex.getReferrers("req-def-002", "of"));
+        
+        referenceIndex.remove(moved);
+        assertTrue(referenceIndex.getReferrers("req-def-002").isEmpty());
+    }
+    
+    @Test
+    @DisplayName("REQ-C2-4: 未构建时忽略增量，invalidate后重新构建")
+    public void testInvalidate_ShouldRebuild() {
+        referenceIndex.invalidate();
+        assertFalse(referenceIndex.isLoaded());
+        
+        referenceIndex.add(element("req-usage-003", "RequirementUsage", "of", "req-def-003", null, null));
+        assertTrue(referenceIndex.getReferrers("req-def-003").isEmpty());
+        
+        referenceIndex.ensureLoaded(() -> Arrays.asList(
+            element("req-usage-003", "RequirementUsage", "of", "req-def-003", null, null)));
+        assertEquals(Set.of("req-usage-003"), referenceIndex.getReferrers("req-def-003", "of"));
+    }
+    
+    private ElementDTO element(String id, String eClass, String feature1, String target1,
+                               String feature2, String target2) {
+        ElementDTO dto = new ElementDTO();
+        dto.setElementId(id);
+        dto.setEClass(eClass);
+        dto.setProperty(feature1, target1);
+        if (feature2 != null) {
+            dto.setProperty(feature2, target2);
+        }
+        return dto;
+    }
+}
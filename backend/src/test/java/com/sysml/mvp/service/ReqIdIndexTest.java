@@ -0,0 +1,110 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.ElementDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReqIdIndex 测试用例
+ * 
+ * 需求对齐：
+ * - REQ-C1-1: reqId唯一性验证 - 原子预留、确认与释放
+ */
+@DisplayName("ReqIdIndex测试 - REQ-C1-1")
+public class ReqIdIndexTest {
+    
+    @Mock
+    private UniversalElementService universalElementService;
+    
+    private ReqIdIndex reqIdIndex;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        
+        ElementDTO existing = new ElementDTO();
+        existing.setElementId("req-def-001");
+        existing.setEClass("RequirementDefinition");
+        existing.setProperty("reqId", "EBS-L1-001");
+        when(universalElementService.queryElements("RequirementDefinition")).thenReturn(Arrays.asList(existing));
+        
+        reqIdIndex = new ReqIdIndex(universalElementService);
+    }
+    
+    @Test
+    @DisplayName("REQ-C1-1: 首次使用时从模型加载，之后不再查询")
+    public void testIsAvailable_ShouldLoadOnce() {
+        assertFalse(reqIdIndex.isAvailable("EBS-L1-001"));
+        assertTrue(reqIdIndex.isAvailable("EBS-L1-002"));
+        
+        verify(universalElementService, times(1)).queryElements("RequirementDefinition");
+    }
+    
+    @Test
+    @DisplayName("REQ-C1-1: 预留后其他请求无法再预留，释放后可再次预留")
+    public void testReserve_ShouldBeExclusive() {
+        String token = reqIdIndex.reserve("EBS-L1-002");
+        
+        assertNotNull(token);
+        assertNull(reqIdIndex.reserve("EBS-L1-002"));
+        assertNull(reqIdIndex.reserve("EBS-L1-001"));
+        
+        reqIdIndex.release("EBS-L1-002", token);
+        assertNotNull(reqIdIndex.reserve("EBS-L1-002"));
+    }
+    
+    @Test
+    @DisplayName("REQ-C1-1: 只有占用者能释放reqId")
+    public void testRelease_ShouldOnlyReleaseOwnMapping() {
+        String token = reqIdIndex.reserve("EBS-L1-002");
+        reqIdIndex.confirm("EBS-L1-002", token, "req-def-002");
+        
+        reqIdIndex.release("EBS-L1-002", token);
+        reqIdIndex.release("EBS-L1-001", "req-def-999");
+        assertFalse(reqIdIndex.isAvailable("EBS-L1-002"));
+        assertFalse(reqIdIndex.isAvailable("EBS-L1-001"));
+        
+        reqIdIndex.release("EBS-L1-002", "req-def-002");
+        assertTrue(reqIdIndex.isAvailable("EBS-L1-002"));
+    }
+    
+    @Test
+    @DisplayName("REQ-C1-1: invalidate后重新从模型加载")
+    public void testInvalidate_ShouldReload() {
+        String token = reqIdIndex.reserve("EBS-L1-002");
+        reqIdIndex.confirm("EBS-L1-002", token, "req-def-002");
+        
+        reqIdIndex.invalidate();
+        
+        // 已确认的映射丢弃，以模型内容为准
+        assertTrue(reqIdIndex.isAvailable("EBS-L1-002"));
+        assertFalse(reqIdIndex.isAvailable("EBS-L1-001"));
+        verify(universalElementService, times(2)).queryElements("RequirementDefinition");
+    }
+    
+    @Test
+    @DisplayName("REQ-C1-1: invalidate保留进行中的预留，确认后仍然生效")
+    public void testInvalidate_ShouldKeepLiveReservations() {
+        String token = reqIdIndex.reserve("EBS-L1-002");
+        
+        reqIdIndex.invalidate();
+        
+        // 重新加载的模型尚不含该创建，并发创建不能再预留同一reqId
+        assertNull(reqIdIndex.reserve("EBS-L1-002"));
+        
+        reqIdIndex.confirm("EBS-L1-002", token, "req-def-002");
+        reqIdIndex.release("EBS-L1-002", token);
+        assertFalse(reqIdIndex.isAvailable("EBS-L1-002"));
+        
+        reqIdIndex.release("EBS-L1-002", "req-def-002");
+        assertTrue(reqIdIndex.isAvailable("EBS-L1-002"));
+    }
+}
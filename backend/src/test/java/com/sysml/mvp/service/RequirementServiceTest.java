@@ -10,7 +10,15 @@ import org.mockito.MockitoAnnotations;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,15 +40,15 @@ public class RequirementServiceTest {
     @Mock
     private UniversalElementService universalElementService;
     
-    @Mock 
-    private ValidationService validationService;
+    private ReqIdIndex reqIdIndex;
     
     private RequirementService requirementService;
     
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        requirementService = new RequirementService(universalElementService, validationService);
+        reqIdIndex = new ReqIdIndex(universalElementService);
+        requirementService = new RequirementService(universalElementService, reqIdIndex);
     }
     
     /**
@@ -62,7 +70,6 @@ public class RequirementServiceTest {
         expectedResult.setProperty("reqId", "EBS-L1-001");
         
         // When: reqId唯一性验证通过
-        when(validationService.validateReqIdUniqueness("EBS-L1-001")).thenReturn(true);
         when(universalElementService.createElement("RequirementDefinition", reqData)).thenReturn(expectedResult);
         
         ElementDTO result = requirementService.createRequirement(reqData);
@@ -73,7 +80,7 @@ public class RequirementServiceTest {
         assertEquals("RequirementDefinition", result.getEClass());
         assertEquals("EBS-L1-001", result.getProperty("reqId"));
         
-        verify(validationService).validateReqIdUniqueness("EBS-L1-001");
+        assertFalse(reqIdIndex.isAvailable("EBS-L1-001"));
         verify(universalElementService).createElement("RequirementDefinition", reqData);
     }
     
@@ -89,8 +96,13 @@ public class RequirementServiceTest {
         reqData.put("reqId", "EBS-L1-001");
         reqData.put("declaredName", "重复需求");
         
+        ElementDTO existing = new ElementDTO();
+        existing.setElementId("req-def-001");
+        existing.setEClass("RequirementDefinition");
+        existing.setProperty("reqId", "EBS-L1-001");
+        
         // When: reqId唯一性验证失败
-        when(validationService.validateReqIdUniqueness("EBS-L1-001")).thenReturn(false);
+        when(universalElementService.queryElements("RequirementDefinition")).thenReturn(Arrays.asList(existing));
         
         // Then: 应该抛出IllegalArgumentException
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
@@ -99,7 +111,7 @@ public class RequirementServiceTest {
         assertTrue(exception.getMessage().contains("reqId already exists"));
         assertTrue(exception.getMessage().contains("EBS-L1-001"));
         
-        verify(validationService).validateReqIdUniqueness("EBS-L1-001");
+        verify(universalElementService).queryElements("RequirementDefinition");
         verify(universalElementService, never()).createElement(anyString(), any());
     }
     
@@ -120,10 +132,118 @@ public class RequirementServiceTest {
         
         assertTrue(exception.getMessage().contains("reqId is required"));
         
-        verify(validationService, never()).validateReqIdUniqueness(anyString());
+        verify(universalElementService, never()).queryElements("RequirementDefinition");
         verify(universalElementService, never()).createElement(anyString(), any());
     }
     
+    /**
+     * 验收标准：REQ-C1-1
+     * 并发创建相同reqId时只有一个成功
+     */
+    @Test
+    @DisplayName("REQ-C1-1: 并发创建相同reqId只有一个成功")
+    public void testCreateRequirement_ConcurrentSameReqId_OnlyOneSucceeds() throws Exception {
+        // Given: 创建操作较慢，放大竞争窗口
+        when(universalElementService.createElement(eq("RequirementDefinition"), any())).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            Map<String, Object> data = invocation.getArgument(1);
+            ElementDTO dto = new ElementDTO();
+            dto.setElementId(data.get("elementId").toString());
+            dto.setEClass("RequirementDefinition");
+            dto.setProperty("reqId", data.get("reqId"));
+            return dto;
+        });
+        
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Map<String, Object> reqData = new HashMap<>();
+            reqData.put("elementId", "req-def-" + i);
+            reqData.put("reqId", "EBS-L1-001");
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    requirementService.createRequirement(reqData);
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }));
+        }
+        
+        // When: 同时发起创建
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get(5, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+        
+        // Then: 只有一个成功
+        assertEquals(1, succeeded);
+        verify(universalElementService, times(1)).createElement(eq("RequirementDefinition"), any());
+        verify(universalElementService, times(1)).queryElements("RequirementDefinition");
+    }
+    
+    /**
+     * 验收标准：REQ-C1-1
+     * 创建失败时释放预留的reqId
+     */
+    @Test
+    @DisplayName("REQ-C1-1: 创建失败时释放reqId")
+    public void testCreateRequirement_ShouldReleaseReqIdOnFailure() {
+        // Given: 创建时抛出异常
+        Map<String, Object> reqData = new HashMap<>();
+        reqData.put("reqId", "EBS-L1-001");
+        when(universalElementService.createElement("RequirementDefinition", reqData))
+            .thenThrow(new IllegalArgumentException("elementId is required"));
+        
+        // When & Then: 异常透传，reqId仍可用
+        assertThrows(IllegalArgumentException.class, () -> requirementService.createRequirement(reqData));
+        assertTrue(reqIdIndex.isAvailable("EBS-L1-001"));
+    }
+    
+    /**
+     * 验收标准：REQ-C1-1, REQ-C1-3
+     * 修改reqId为已存在的值时抛出IllegalStateException，修改成功后释放旧reqId
+     */
+    @Test
+    @DisplayName("REQ-C1-1: 修改reqId时检查唯一性并释放旧reqId")
+    public void testUpdateRequirement_RenameReqId() {
+        // Given: 两个已有需求
+        ElementDTO req1 = new ElementDTO();
+        req1.setElementId("req-def-001");
+        req1.setEClass("RequirementDefinition");
+        req1.setProperty("reqId", "EBS-L1-001");
+        ElementDTO req2 = new ElementDTO();
+        req2.setElementId("req-def-002");
+        req2.setEClass("RequirementDefinition");
+        req2.setProperty("reqId", "EBS-L1-002");
+        when(universalElementService.queryElements("RequirementDefinition")).thenReturn(Arrays.asList(req1, req2));
+        when(universalElementService.findElementById("req-def-001")).thenReturn(req1);
+        
+        // When & Then: 改为已存在的reqId
+        Map<String, Object> conflicting = new HashMap<>();
+        conflicting.put("reqId", "EBS-L1-002");
+        assertThrows(IllegalStateException.class,
+            () -> requirementService.updateRequirement("req-def-001", conflicting));
+        verify(universalElementService, never()).patchElement(anyString(), any(), any());
+        
+        // When: 改为新的reqId
+        Map<String, Object> renamed = new HashMap<>();
+        renamed.put("reqId", "EBS-L1-003");
+        when(universalElementService.patchElement("req-def-001", renamed, null)).thenReturn(req1);
+        requirementService.updateRequirement("req-def-001", renamed);
+        
+        // Then: 新reqId被占用，旧reqId被释放
+        assertFalse(reqIdIndex.isAvailable("EBS-L1-003"));
+        assertTrue(reqIdIndex.isAvailable("EBS-L1-001"));
+    }
+    
     /**
      * 验收标准：REQ-C1-3
      * 更新RequirementDefinition支持部分更新
@@ -144,7 +264,7 @@ public class RequirementServiceTest {
         expectedResult.setProperty("priority", "P0");
         
         // When: 委托给UniversalElementService更新
-        when(universalElementService.patchElement(elementId, updates)).thenReturn(expectedResult);
+        when(universalElementService.patchElement(elementId, updates, null)).thenReturn(expectedResult);
         
         ElementDTO result = requirementService.updateRequirement(elementId, updates);
         
@@ -154,7 +274,7 @@ public class RequirementServiceTest {
         assertEquals("更新后的需求描述", result.getProperty("documentation"));
         assertEquals("P0", result.getProperty("priority"));
         
-        verify(universalElementService).patchElement(elementId, updates);
+        verify(universalElementService).patchElement(elementId, updates, null);
     }
     
     /**
@@ -177,7 +297,7 @@ public class RequirementServiceTest {
         expectedResult.setProperty("of", "req-def-001");
         
         // When: 创建需求使用
-        when(universalElementService.createElement("RequirementUsage", usageData)).thenReturn(expectedResult);
+        when(universalElementService.createElement("RequirementUsage", usageData, true)).thenReturn(expectedResult);
         
         ElementDTO result = requirementService.createRequirementUsage(usageData);
         
@@ -187,7 +307,7 @@ public class RequirementServiceTest {
         assertEquals("RequirementUsage", result.getEClass());
         assertEquals("part-001", result.getProperty("subject"));
         
-        verify(universalElementService).createElement("RequirementUsage", usageData);
+        verify(universalElementService).createElement("RequirementUsage", usageData, true);
     }
     
     /**
@@ -208,7 +328,7 @@ public class RequirementServiceTest {
         
         assertTrue(exception.getMessage().contains("subject is required"));
         
-        verify(universalElementService, never()).createElement(anyString(), any());
+        verify(universalElementService, never()).createElement(anyString(), any(), anyBoolean());
     }
     
     /**
@@ -221,15 +341,8 @@ public class RequirementServiceTest {
         // Given: 被RequirementUsage引用的RequirementDefinition
         String elementId = "req-def-001";
         
-        ElementDTO referencingUsage = new ElementDTO();
-        referencingUsage.setElementId("req-usage-001");
-        referencingUsage.setEClass("RequirementUsage");
-        referencingUsage.setProperty("of", elementId);
-        
-        List<ElementDTO> allUsages = Arrays.asList(referencingUsage);
-        
-        // When: 查询到引用该需求定义的使用
-        when(universalElementService.queryElements("RequirementUsage")).thenReturn(allUsages);
+        // When: 反向引用索引中有引用该需求定义的使用
+        when(universalElementService.findReferrers(elementId, "of")).thenReturn(Set.of("req-usage-001"));
         
         // Then: 应该抛出IllegalStateException
         IllegalStateException exception = assertThrows(IllegalStateException.class, 
@@ -238,8 +351,9 @@ public class RequirementServiceTest {
         assertTrue(exception.getMessage().contains("Cannot delete requirement"));
         assertTrue(exception.getMessage().contains("referenced by 1 usages"));
         
-        verify(universalElementService).queryElements("RequirementUsage");
-        verify(universalElementService, never()).deleteElement(anyString());
+        verify(universalElementService).findReferrers(elementId, "of");
+        verify(universalElementService, never()).queryElements("RequirementUsage");
+        verify(universalElementService, never()).deleteElement(anyString(), any(), anyBoolean());
     }
     
     /**
@@ -252,24 +366,17 @@ public class RequirementServiceTest {
         // Given: 未被引用的RequirementDefinition
         String elementId = "req-def-001";
         
-        ElementDTO otherUsage = new ElementDTO();
-        otherUsage.setElementId("req-usage-002");
-        otherUsage.setEClass("RequirementUsage");
-        otherUsage.setProperty("of", "req-def-002"); // 引用其他需求定义
-        
-        List<ElementDTO> allUsages = Arrays.asList(otherUsage);
-        
         // When: 没有找到引用该需求定义的使用
-        when(universalElementService.queryElements("RequirementUsage")).thenReturn(allUsages);
-        when(universalElementService.deleteElement(elementId)).thenReturn(true);
+        when(universalElementService.findReferrers(elementId, "of")).thenReturn(Collections.emptySet());
+        when(universalElementService.deleteElement(elementId, null, true)).thenReturn(true);
         
         boolean result = requirementService.deleteRequirement(elementId);
         
         // Then: 应该成功删除
         assertTrue(result);
         
-        verify(universalElementService).queryElements("RequirementUsage");
-        verify(universalElementService).deleteElement(elementId);
+        verify(universalElementService).findReferrers(elementId, "of");
+        verify(universalElementService).deleteElement(elementId, null, true);
     }
     
     /**
@@ -0,0 +1,82 @@
+package com.sysml.mvp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimeOrderedIdGenerator 测试用例
+ *
+ * 验证ID格式、前缀约定、线程内单调递增和多线程唯一性
+ */
+@DisplayName("TimeOrderedIdGenerator测试")
+public class TimeOrderedIdGeneratorTest {
+
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+    @Test
+    @DisplayName("ID保留{prefix}-前缀并符合UUIDv7格式")
+    public void testNextId_KeepsPrefixAndVersion() {
+        long before = System.currentTimeMillis();
+        String id = generator.nextId("partdefinition");
+
+        assertTrue(id.startsWith("partdefinition-"));
+        UUID uuid = UUID.fromString(id.substring("partdefinition-".length()));
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = TimeOrderedIdGenerator.timestampOf(uuid);
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis());
+    }
+
+    @Test
+    @DisplayName("同一线程生成的ID按字典序严格递增")
+    public void testNextId_MonotonicWithinThread() {
+        List<String> ids = new ArrayList<>();
+        // 超过单毫秒计数器容量，覆盖溢出后借用下一毫秒的路径
+        for (int i = 0; i < 20_000; i++) {
+            ids.add(generator.nextId("trace"));
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0,
+                "not increasing at " + i + ": " + ids.get(i - 1) + " >= " + ids.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("多线程并发生成的ID互不重复")
+    public void testNextId_UniqueAcrossThreads() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId("req-def"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, ids.size());
+    }
+}
@@ -65,7 +65,7 @@ public class TraceServiceTest {
         // When: 创建satisfy追溯关系
         when(validationService.validateTraceDuplication("part-001", "req-def-001", "satisfy")).thenReturn(true);
         when(validationService.validateTraceSemantics("part-001", "req-def-001", "satisfy")).thenReturn(true);
-        when(universalElementService.createElement(eq("Satisfy"), any(Map.class))).thenReturn(expectedResult);
+        when(universalElementService.createElement(eq("Satisfy"), any(Map.class), eq(true))).thenReturn(expectedResult);
         
         ElementDTO result = traceService.createTrace(traceData);
         
@@ -78,7 +78,7 @@ public class TraceServiceTest {
         
         verify(validationService).validateTraceDuplication("part-001", "req-def-001", "satisfy");
         verify(validationService).validateTraceSemantics("part-001", "req-def-001", "satisfy");
-        verify(universalElementService).createElement(eq("Satisfy"), any(Map.class));
+        verify(universalElementService).createElement(eq("Satisfy"), any(Map.class), eq(true));
     }
     
     /**
@@ -101,7 +101,7 @@ public class TraceServiceTest {
         // When: 创建derive追溯关系
         when(validationService.validateTraceDuplication("req-def-001", "req-def-002", "derive")).thenReturn(true);
         when(validationService.validateTraceSemantics("req-def-001", "req-def-002", "derive")).thenReturn(true);
-        when(universalElementService.createElement(eq("DeriveRequirement"), any(Map.class))).thenReturn(expectedResult);
+        when(universalElementService.createElement(eq("DeriveRequirement"), any(Map.class), eq(true))).thenReturn(expectedResult);
         
         ElementDTO result = traceService.createTrace(traceData);
         
@@ -110,7 +110,7 @@ public class TraceServiceTest {
         assertEquals("derive-001", result.getElementId());
         assertEquals("DeriveRequirement", result.getEClass());
         
-        verify(universalElementService).createElement(eq("DeriveRequirement"), any(Map.class));
+        verify(universalElementService).createElement(eq("DeriveRequirement"), any(Map.class), eq(true));
     }
     
     /**
@@ -144,7 +144,7 @@ public class TraceServiceTest {
             // When: 创建追溯关系
             when(validationService.validateTraceDuplication("element-001", "element-002", type)).thenReturn(true);
             when(validationService.validateTraceSemantics("element-001", "element-002", type)).thenReturn(true);
-            when(universalElementService.createElement(eq(expectedEClass), any(Map.class))).thenReturn(expectedResult);
+            when(universalElementService.createElement(eq(expectedEClass), any(Map.class), eq(true))).thenReturn(expectedResult);
             
             ElementDTO result = traceService.createTrace(traceData);
             
@@ -152,7 +152,7 @@ public class TraceServiceTest {
             assertNotNull(result, "Failed for type: " + type);
             assertEquals(expectedEClass, result.getEClass(), "Wrong EClass for type: " + type);
             
-            verify(universalElementService).createElement(eq(expectedEClass), any(Map.class));
+            verify(universalElementService).createElement(eq(expectedEClass), any(Map.class), eq(true));
         }
     }
     
@@ -182,7 +182,7 @@ public class TraceServiceTest {
         assertTrue(exception.getMessage().contains("satisfy"));
         
         verify(validationService).validateTraceDuplication("part-001", "req-def-001", "satisfy");
-        verify(universalElementService, never()).createElement(anyString(), any(Map.class));
+        verify(universalElementService, never()).createElement(anyString(), any(Map.class), anyBoolean());
     }
     
     /**
@@ -211,7 +211,7 @@ public class TraceServiceTest {
         
         verify(validationService).validateTraceDuplication("invalid-element", "req-def-001", "satisfy");
         verify(validationService).validateTraceSemantics("invalid-element", "req-def-001", "satisfy");
-        verify(universalElementService, never()).createElement(anyString(), any(Map.class));
+        verify(universalElementService, never()).createElement(anyString(), any(Map.class), anyBoolean());
     }
     
     /**
@@ -232,7 +232,7 @@ public class TraceServiceTest {
         
         assertTrue(exception.getMessage().contains("source is required"));
         
-        verify(universalElementService, never()).createElement(anyString(), any(Map.class));
+        verify(universalElementService, never()).createElement(anyString(), any(Map.class), anyBoolean());
     }
     
     /**
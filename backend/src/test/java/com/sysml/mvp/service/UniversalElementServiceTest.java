@@ -1,8 +1,18 @@
 package com.sysml.mvp.service;
 
+import com.sysml.mvp.config.ExecutionProperties;
+import com.sysml.mvp.config.ModelSnapshotInterceptor;
+import com.sysml.mvp.config.LimitsProperties;
+import com.sysml.mvp.dto.BatchOperationDTO;
+import com.sysml.mvp.dto.BatchOperationResultDTO;
+import com.sysml.mvp.dto.BatchResultDTO;
 import com.sysml.mvp.dto.ElementDTO;
+import com.sysml.mvp.exception.VersionConflictException;
 import com.sysml.mvp.model.EMFModelRegistry;
 import com.sysml.mvp.repository.FileModelRepository;
+import com.sysml.mvp.repository.MappedModelView;
+import com.sysml.mvp.repository.ProjectLockManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
@@ -12,6 +22,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.EList;
@@ -20,6 +33,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -63,7 +78,13 @@ public class UniversalElementServiceTest {
         universalElementService = new UniversalElementService(
             pilotEMFService, 
             fileModelRepository, 
-            emfModelRegistry
+            emfModelRegistry,
+            new ReferenceIndex(),
+            new ProjectLockManager(new SimpleMeterRegistry(), fileModelRepository),
+            new ModelSnapshotStore(),
+            new ElementVersionRegistry(),
+            new LimitsProperties(),
+            new ExecutionProperties()
         );
     }
 
@@ -105,6 +126,102 @@ public class UniversalElementServiceTest {
         verify(fileModelRepository).saveProject(eq("default"), eq(mockResource));
     }
 
+    /**
+     * 写操作在写线程中发布快照，请求线程固定的快照随之前移，同一请求内读到自己的写入
+     */
+    @Test
+    @DisplayName("请求内创建元素后，固定的快照前移并能读到新元素")
+    public void testCreateElement_AdvancesPinnedSnapshot() {
+        AtomicLong modelVersion = new AtomicLong(1L);
+        when(fileModelRepository.getModelVersion("default")).thenAnswer(invocation -> modelVersion.get());
+        doAnswer(invocation -> modelVersion.incrementAndGet()).when(fileModelRepository)
+            .saveProject(eq("default"), any(Resource.class));
+        when(fileModelRepository.loadProject("default")).thenReturn(mockResource);
+        when(mockResource.getContents()).thenReturn(new BasicEList<>());
+        when(pilotEMFService.createElement(any(String.class), any(Map.class))).thenReturn(mockEObject);
+        when(mockEObject.eClass()).thenReturn(mockEClass);
+        when(mockEClass.getName()).thenReturn("RequirementDefinition");
+        when(mockEClass.getEAllStructuralFeatures()).thenReturn(new BasicEList<>());
+        when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn("req-def-001");
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("elementId", "req-def-001");
+
+        try {
+            assertEquals(1L, universalElementService.pinSnapshot().getVersion());
+            universalElementService.createElement("RequirementDefinition", attributes);
+
+            assertEquals(2L, universalElementService.pinnedSnapshot().getVersion());
+            assertEquals(2L, universalElementService.getModelVersion());
+            assertNotNull(universalElementService.findElementById("req-def-001"));
+        } finally {
+            universalElementService.unpinSnapshot();
+        }
+    }
+
+    /**
+     * 请求只声明延迟固定时不加载模型，首次读取时才构建并固定快照，之后的读取基于同一版本
+     */
+    @Test
+    @DisplayName("延迟固定：首次读取时才固定快照，请求结束后取消")
+    public void testPinSnapshotOnFirstRead_PinsLazily() {
+        when(mockResource.getContents()).thenReturn(new BasicEList<>());
+        when(fileModelRepository.loadProject("default")).thenReturn(mockResource);
+        when(fileModelRepository.getModelVersion("default")).thenReturn(1L);
+
+        try {
+            universalElementService.pinSnapshotOnFirstRead();
+            assertNull(universalElementService.pinnedSnapshot());
+            verify(fileModelRepository, never()).loadProject(anyString());
+
+            universalElementService.queryElements(null);
+            assertEquals(1L, universalElementService.pinnedSnapshot().getVersion());
+
+            // 请求内模型被外部修改，读取仍基于固定的版本
+            when(fileModelRepository.getModelVersion("default")).thenReturn(2L);
+            universalElementService.queryElements(null);
+            assertEquals(1L, universalElementService.getModelVersion());
+            verify(fileModelRepository, times(1)).loadProject("default");
+        } finally {
+            universalElementService.unpinSnapshot();
+        }
+
+        // 请求结束后不再固定
+        assertEquals(2L, universalElementService.snapshot().getVersion());
+        assertNull(universalElementService.pinnedSnapshot());
+    }
+
+    /**
+     * 模型节点数达到app.limits.max-nodes时拒绝创建
+     */
+    @Test
+    @DisplayName("节点数达到上限时拒绝创建元素")
+    public void testCreateElement_RejectsWhenNodeLimitReached() {
+        LimitsProperties limits = new LimitsProperties();
+        limits.setMaxNodes(1);
+        UniversalElementService limited = new UniversalElementService(
+            pilotEMFService, fileModelRepository, emfModelRegistry, new ReferenceIndex(),
+            new ProjectLockManager(new SimpleMeterRegistry(), fileModelRepository), new ModelSnapshotStore(),
+            new ElementVersionRegistry(), limits, new ExecutionProperties());
+        try {
+            EList<EObject> contents = new BasicEList<>();
+            contents.add(mockEObject);
+            when(fileModelRepository.loadProject("default")).thenReturn(mockResource);
+            when(mockResource.getContents()).thenReturn(contents);
+            when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn("existing-001");
+            
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put("elementId", "part-def-002");
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> limited.createElement("PartDefinition", attributes));
+            
+            assertTrue(e.getMessage().contains("node limit"));
+            verify(pilotEMFService, never()).createElement(any(String.class), any(Map.class));
+            verify(fileModelRepository, never()).saveProject(any(), any());
+        } finally {
+            limited.shutdown();
+        }
+    }
+
     /**
      * 验收标准：REQ-B5-3
      * 支持多种SysML类型的创建
@@ -186,6 +303,43 @@ public class UniversalElementServiceTest {
         assertEquals("RequirementUsage", results.get(1).getEClass());
     }
 
+    /**
+     * 验收标准：REQ-D0-1
+     * 模型版本不变时查询复用快照，版本变化后重建
+     */
+    @Test
+    @DisplayName("REQ-D0-1: 查询基于模型快照")
+    public void testQueryElements_ShouldReuseSnapshotUntilVersionChanges() {
+        // Given: 模型中有一个元素，版本为1
+        EList<EStructuralFeature> features = new BasicEList<>();
+        when(mockEClass.getName()).thenReturn("RequirementDefinition");
+        when(mockEClass.getEAllStructuralFeatures()).thenReturn(features);
+        when(mockEObject.eClass()).thenReturn(mockEClass);
+        when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn("req-def-001");
+        EList<EObject> contents = new BasicEList<>();
+        contents.add(mockEObject);
+        when(mockResource.getContents()).thenReturn(contents);
+        when(fileModelRepository.loadProject("default")).thenReturn(mockResource);
+        when(fileModelRepository.getModelVersion("default")).thenReturn(1L);
+        
+        // When: 多次查询
+        universalElementService.queryElements(null);
+        ElementDTO found = universalElementService.findElementById("req-def-001");
+        
+        // Then: 只构建一次快照
+        assertNotNull(found);
+        assertEquals(1L, universalElementService.snapshot().getVersion());
+        verify(fileModelRepository, times(1)).loadProject("default");
+        
+        // When: 模型版本变化（如外部导入）
+        when(fileModelRepository.getModelVersion("default")).thenReturn(2L);
+        universalElementService.queryElements(null);
+        
+        // Then: 重建快照
+        assertEquals(2L, universalElementService.snapshot().getVersion());
+        verify(fileModelRepository, times(2)).loadProject("default");
+    }
+
     /**
      * 验收标准：REQ-D0-2
      * 按类型查询元素
@@ -299,6 +453,235 @@ public class UniversalElementServiceTest {
         verify(pilotEMFService, never()).setAttributeIfExists(eq(mockEObject), eq("documentation"), any());
     }
 
+    /**
+     * 验收标准：REQ-B2-4
+     * 携带过期版本的PATCH应被拒绝，成功的PATCH使版本递增
+     */
+    @Test
+    @DisplayName("REQ-B2-4: PATCH版本冲突检测")
+    public void testPatchElement_ShouldRejectStaleVersion() {
+        // Given: 现有元素，初始版本为1
+        String elementId = "req-def-001";
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("priority", "P1");
+        
+        when(fileModelRepository.loadProject("default")).thenReturn(mockResource);
+        EList<EObject> contents = new BasicEList<>();
+        contents.add(mockEObject);
+        when(mockResource.getContents()).thenReturn(contents);
+        when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn(elementId);
+        when(mockEObject.eClass()).thenReturn(mockEClass);
+        when(mockEClass.getName()).thenReturn("RequirementDefinition");
+        EList<EStructuralFeature> features = new BasicEList<>();
+        when(mockEClass.getEAllStructuralFeatures()).thenReturn(features);
+        
+        // When: 以版本1更新成功
+        ElementDTO result = universalElementService.patchElement(elementId, updates, 1L);
+        assertEquals(2L, result.getVersion());
+        
+        // Then: 再次以版本1更新应冲突，且不写入
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+            () -> universalElementService.patchElement(elementId, updates, 1L));
+        assertEquals(2L, conflict.getCurrentVersion());
+        verify(pilotEMFService, times(1)).setAttributeIfExists(eq(mockEObject), eq("priority"), eq("P1"));
+    }
+
+    /**
+     * 写队列组提交时逐条校验：非法命令只拒绝自身，不影响同组其他调用者的命令
+     */
+    @Test
+    @DisplayName("组提交中非法的PATCH和创建只拒绝自身，其余命令照常应用")
+    public void testApplyGroup_RejectsInvalidCommandsIndividually() {
+        String elementId = "req-def-001";
+        when(fileModelRepository.loadProject("default")).thenReturn(mockResource);
+        EList<EObject> contents = new BasicEList<>();
+        contents.add(mockEObject);
+        when(mockResource.getContents()).thenReturn(contents);
+        when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn(elementId);
+        when(mockEObject.eClass()).thenReturn(mockEClass);
+        when(mockEClass.getName()).thenReturn("RequirementDefinition");
+        when(mockEClass.getEAllStructuralFeatures()).thenReturn(new BasicEList<>());
+        when(pilotEMFService.createElement(eq("PartUsage"), any(Map.class)))
+            .thenThrow(new IllegalStateException("cannot convert value"));
+        Map<String, Object> rename = new HashMap<>();
+        rename.put("declaredName", "新名称");
+        Map<String, Object> changeId = new HashMap<>();
+        changeId.put("elementId", "req-def-999");
+        changeId.put("status", "rejected");
+        Map<String, Object> priority = new HashMap<>();
+        priority.put("priority", "P1");
+
+        List<BatchOperationResultDTO> results = universalElementService.applyGroup("default", Arrays.asList(
+            new BatchOperationDTO(BatchOperationDTO.OP_PATCH, elementId, null, rename, null),
+            new BatchOperationDTO(BatchOperationDTO.OP_PATCH, elementId, null, changeId, null),
+            new BatchOperationDTO(BatchOperationDTO.OP_CREATE, "part-001", "PartUsage", new HashMap<>(), null),
+            new BatchOperationDTO(BatchOperationDTO.OP_PATCH, elementId, null, priority, null)));
+
+        assertEquals(Arrays.asList(200, 400, 400, 200),
+            results.stream().map(BatchOperationResultDTO::getStatus).collect(Collectors.toList()));
+        verify(pilotEMFService).setAttributeIfExists(mockEObject, "declaredName", "新名称");
+        verify(pilotEMFService).setAttributeIfExists(mockEObject, "priority", "P1");
+        verify(pilotEMFService, never()).setAttributeIfExists(eq(mockEObject), eq("status"), any());
+        verify(fileModelRepository, times(1)).saveProject(eq("default"), eq(mockResource));
+    }
+
+    /**
+     * 写队列组提交时，通过校验的同一元素连续PATCH合并为一次属性写入，每个调用者各自得到结果
+     */
+    @Test
+    @DisplayName("组提交中同一元素的连续PATCH合并写入，后写覆盖先写")
+    public void testApplyGroup_CoalescesConsecutivePatches() {
+        String elementId = "req-def-001";
+        when(fileModelRepository.loadProject("default")).thenReturn(mockResource);
+        EList<EObject> contents = new BasicEList<>();
+        contents.add(mockEObject);
+        when(mockResource.getContents()).thenReturn(contents);
+        when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn(elementId);
+        when(mockEObject.eClass()).thenReturn(mockEClass);
+        when(mockEClass.getName()).thenReturn("RequirementDefinition");
+        when(mockEClass.getEAllStructuralFeatures()).thenReturn(new BasicEList<>());
+        Map<String, Object> first = new HashMap<>();
+        first.put("priority", "P1");
+        first.put("declaredName", "旧名称");
+        Map<String, Object> second = new HashMap<>();
+        second.put("priority", "P2");
+        Map<String, Object> third = new HashMap<>();
+        third.put("declaredName", "新名称");
+
+        List<BatchOperationResultDTO> results = universalElementService.applyGroup("default", Arrays.asList(
+            new BatchOperationDTO(BatchOperationDTO.OP_PATCH, elementId, null, first, null),
+            new BatchOperationDTO(BatchOperationDTO.OP_PATCH, elementId, null, second, null),
+            new BatchOperationDTO(BatchOperationDTO.OP_PATCH, elementId, null, third, null)));
+
+        assertEquals(Arrays.asList(200, 200, 200),
+            results.stream().map(BatchOperationResultDTO::getStatus).collect(Collectors.toList()));
+        verify(pilotEMFService, times(1)).setAttributeIfExists(eq(mockEObject), eq("priority"), any());
+        verify(pilotEMFService).setAttributeIfExists(mockEObject, "priority", "P2");
+        verify(pilotEMFService, times(1)).setAttributeIfExists(eq(mockEObject), eq("declaredName"), any());
+        verify(pilotEMFService).setAttributeIfExists(mockEObject, "declaredName", "新名称");
+        // 每条命令仍是一次逻辑更新，版本按命令数递增
+        assertEquals(4L, results.get(2).getElement().getVersion());
+        verify(fileModelRepository, times(1)).saveProject(eq("default"), eq(mockResource));
+    }
+
+    /**
+     * 验收标准：REQ-B2-1/REQ-B2-4
+     * 批量操作一次写入：创建与更新在同一次持久化中完成
+     */
+    @Test
+    @DisplayName("REQ-B2-4: 批量操作只持久化一次")
+    public void testApplyBatch_ShouldApplyAllAndSaveOnce() {
+        // Given: 现有元素req-def-001，批次中创建req-def-002并更新req-def-001
+        EObject newEObject = mock(EObject.class);
+        when(fileModelRepository.loadProject("default")).thenReturn(mockResource);
+        EList<EObject> contents = new BasicEList<>();
+        contents.add(mockEObject);
+        when(mockResource.getContents()).thenReturn(contents);
+        when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn("req-def-001");
+        when(pilotEMFService.getAttributeValue(newEObject, "elementId")).thenReturn("req-def-002");
+        when(pilotEMFService.createElement(eq("RequirementDefinition"), any(Map.class))).thenReturn(newEObject);
+        when(mockEObject.eClass()).thenReturn(mockEClass);
+        when(newEObject.eClass()).thenReturn(mockEClass);
+        when(mockEClass.getName()).thenReturn("RequirementDefinition");
+        when(mockEClass.getEAllStructuralFeatures()).thenReturn(new BasicEList<>());
+        
+        Map<String, Object> createAttributes = new HashMap<>();
+        createAttributes.put("declaredName", "新需求");
+        Map<String, Object> patchAttributes = new HashMap<>();
+        patchAttributes.put("priority", "P0");
+        List<BatchOperationDTO> operations = Arrays.asList(
+            new BatchOperationDTO("create", "req-def-002", "RequirementDefinition", createAttributes, null),
+            new BatchOperationDTO("patch", "req-def-001", null, patchAttributes, 1L)
+        );
+        
+        // When: 执行批次
+        BatchResultDTO result = universalElementService.applyBatch(operations);
+        
+        // Then: 全部生效，只保存一次
+        assertTrue(result.isCommitted());
+        assertEquals(201, result.getResults().get(0).getStatus());
+        assertEquals(200, result.getResults().get(1).getStatus());
+        assertEquals(2L, result.getResults().get(1).getElement().getVersion());
+        assertEquals(2, contents.size());
+        verify(pilotEMFService).setAttributeIfExists(eq(mockEObject), eq("priority"), eq("P0"));
+        verify(fileModelRepository, times(1)).saveProject(eq("default"), eq(mockResource));
+    }
+    
+    /**
+     * 验收标准：REQ-B2-4
+     * 批次中任一操作校验失败时整批不执行
+     */
+    @Test
+    @DisplayName("REQ-B2-4: 批量操作失败时整批不生效")
+    public void testApplyBatch_ShouldRejectWholeBatchOnFailure() {
+        // Given: 批次中创建合法，但更新的元素不存在
+        EObject newEObject = mock(EObject.class);
+        when(fileModelRepository.loadProject("default")).thenReturn(mockResource);
+        EList<EObject> contents = new BasicEList<>();
+        contents.add(mockEObject);
+        when(mockResource.getContents()).thenReturn(contents);
+        when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn("req-def-001");
+        when(pilotEMFService.createElement(eq("RequirementDefinition"), any(Map.class))).thenReturn(newEObject);
+        
+        List<BatchOperationDTO> operations = Arrays.asList(
+            new BatchOperationDTO("create", "req-def-002", "RequirementDefinition", new HashMap<>(), null),
+            new BatchOperationDTO("patch", "non-existent", null, new HashMap<>(), null),
+            new BatchOperationDTO("delete", "req-def-001", null, null, 5L)
+        );
+        
+        // When: 执行批次
+        BatchResultDTO result = universalElementService.applyBatch(operations);
+        
+        // Then: 未提交，模型未变化，也未保存
+        assertFalse(result.isCommitted());
+        assertEquals(424, result.getResults().get(0).getStatus());
+        assertEquals(404, result.getResults().get(1).getStatus());
+        assertEquals(412, result.getResults().get(2).getStatus());
+        assertEquals(404, result.getFirstFailure().getStatus());
+        assertEquals(1, contents.size());
+        verify(fileModelRepository, never()).saveProject(any(), any());
+    }
+
+    /**
+     * 验收标准：REQ-B2-4
+     * 领域规则在写锁内基于当前模型检查，拒绝时整批不执行
+     */
+    @Test
+    @DisplayName("REQ-B2-4: 批量操作的领域检查在写锁内读取模型")
+    public void testApplyBatch_ShouldRunDomainRulesUnderLock() {
+        // Given: 现有需求定义req-def-001
+        when(fileModelRepository.loadProject("default")).thenReturn(mockResource);
+        EList<EObject> contents = new BasicEList<>();
+        contents.add(mockEObject);
+        when(mockResource.getContents()).thenReturn(contents);
+        when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn("req-def-001");
+        when(pilotEMFService.getAttributeValue(mockEObject, "reqId")).thenReturn("REQ-001");
+        when(mockEObject.eClass()).thenReturn(mockEClass);
+        when(mockEClass.getName()).thenReturn("RequirementDefinition");
+        when(mockEClass.getEAllStructuralFeatures()).thenReturn(new BasicEList<>());
+        
+        List<BatchOperationDTO> operations = Arrays.asList(
+            new BatchOperationDTO("patch", "req-def-001", null, new HashMap<>(), null),
+            new BatchOperationDTO("delete", "req-def-001", null, null, null)
+        );
+        
+        // When: 领域检查读取锁内模型并拒绝删除
+        BatchResultDTO result = universalElementService.applyBatch(operations, model -> {
+            assertEquals("RequirementDefinition", model.getEClass("req-def-001"));
+            assertEquals("REQ-001", model.getAttribute("req-def-001", "reqId"));
+            assertNull(model.getEClass("non-existent"));
+            assertEquals(1, model.queryElements("RequirementDefinition").size());
+            return Map.of(1, new BatchOperationResultDTO(1, "delete", "req-def-001", 409, null, "referenced"));
+        });
+        
+        // Then: 整批不生效，未保存
+        assertFalse(result.isCommitted());
+        assertEquals(424, result.getResults().get(0).getStatus());
+        assertEquals(409, result.getResults().get(1).getStatus());
+        assertEquals(1, contents.size());
+        verify(fileModelRepository, never()).saveProject(any(), any());
+    }
+
     /**
      * 验收标准：REQ-B5-3
      * 删除元素
@@ -460,4 +843,54 @@ public class UniversalElementServiceTest {
         assertEquals("需求描述", dto.getProperty("documentation"));
         assertEquals("P0", dto.getProperty("priority"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("项目未加载时按ID查询走内存映射视图，不整体加载")
+    public void testFindElementById_UsesMappedViewBeforeLoad() {
+        MappedModelView view = mock(MappedModelView.class);
+        when(fileModelRepository.isLoaded("default")).thenReturn(false);
+        when(fileModelRepository.getMappedView("default")).thenReturn(view);
+        when(view.get("part-1")).thenReturn(mockEObject);
+        when(mockEObject.eClass()).thenReturn(mockEClass);
+        when(mockEClass.getName()).thenReturn("PartDefinition");
+        when(mockEClass.getEAllStructuralFeatures()).thenReturn(new BasicEList<>());
+        when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn("part-1");
+
+        ElementDTO result = universalElementService.findElementById("part-1");
+
+        assertEquals("part-1", result.getElementId());
+        assertEquals("PartDefinition", result.getEClass());
+        verify(fileModelRepository, never()).loadProject(anyString());
+    }
+
+    @Test
+    @DisplayName("经快照拦截器的请求内，按ID查询仍走内存映射视图，不整体加载")
+    @SuppressWarnings("unchecked")
+    public void testFindElementById_UsesMappedViewThroughInterceptor() {
+        ObjectProvider<UniversalElementService> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(universalElementService);
+        ModelSnapshotInterceptor interceptor = new ModelSnapshotInterceptor(provider);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/requirements/part-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MappedModelView view = mock(MappedModelView.class);
+        when(fileModelRepository.isLoaded("default")).thenReturn(false);
+        when(fileModelRepository.getMappedView("default")).thenReturn(view);
+        when(view.get("part-1")).thenReturn(mockEObject);
+        when(mockEObject.eClass()).thenReturn(mockEClass);
+        when(mockEClass.getName()).thenReturn("PartDefinition");
+        when(mockEClass.getEAllStructuralFeatures()).thenReturn(new BasicEList<>());
+        when(pilotEMFService.getAttributeValue(mockEObject, "elementId")).thenReturn("part-1");
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        try {
+            ElementDTO result = universalElementService.findElementById("part-1");
+            assertEquals("part-1", result.getElementId());
+        } finally {
+            interceptor.afterCompletion(request, response, null, null);
+        }
+
+        verify(fileModelRepository, never()).loadProject(anyString());
+        assertNull(universalElementService.pinnedSnapshot());
+    }
+}
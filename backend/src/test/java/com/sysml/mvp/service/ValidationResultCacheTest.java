@@ -0,0 +1,60 @@
+package com.sysml.mvp.service;
+
+import com.sysml.mvp.dto.ValidationResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ValidationResultCache 测试用例
+ * 
+ * 需求对齐：
+ * - REQ-E1-3: 静态验证结果按(项目, 模型版本, 规则集)缓存
+ */
+@DisplayName("ValidationResultCache测试 - REQ-E1-3")
+public class ValidationResultCacheTest {
+    
+    private ValidationResultCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new ValidationResultCache();
+    }
+    
+    @Test
+    @DisplayName("REQ-E1-3: 相同模型版本命中缓存")
+    public void testGet_ShouldHitForSameVersion() {
+        ValidationResultDTO result = new ValidationResultDTO();
+        ValidationResultCache.Entry stored = cache.put("default", 3L, "1.0", result);
+        
+        ValidationResultCache.Entry entry = cache.get("default", 3L, "1.0");
+        
+        assertSame(stored, entry);
+        assertSame(result, entry.getResult());
+        assertTrue(entry.getETag().startsWith("\"") && entry.getETag().endsWith("\""));
+    }
+    
+    @Test
+    @DisplayName("REQ-E1-3: 模型版本或规则集变化后缓存失效")
+    public void testGet_ShouldMissWhenVersionOrRuleSetChanges() {
+        cache.put("default", 3L, "1.0", new ValidationResultDTO());
+        
+        assertNull(cache.get("default", 4L, "1.0"));
+        assertNull(cache.get("default", 3L, "2.0"));
+        assertNull(cache.get("other", 3L, "1.0"));
+    }
+    
+    @Test
+    @DisplayName("REQ-E1-3: 并发写入时保留较新版本的结果")
+    public void testPut_ShouldKeepNewerVersion() {
+        cache.put("default", 5L, "1.0", new ValidationResultDTO());
+        cache.put("default", 4L, "1.0", new ValidationResultDTO());
+        
+        assertNotNull(cache.get("default", 5L, "1.0"));
+        assertNull(cache.get("default", 4L, "1.0"));
+        assertNotEquals(cache.put("default", 6L, "1.0", new ValidationResultDTO()).getETag(),
+            cache.put("default", 7L, "1.0", new ValidationResultDTO()).getETag());
+    }
+}
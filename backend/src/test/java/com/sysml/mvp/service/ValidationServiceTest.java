@@ -1,8 +1,11 @@
 package com.sysml.mvp.service;
 
 import com.sysml.mvp.dto.ElementDTO;
+import com.sysml.mvp.dto.TraceDTO;
 import com.sysml.mvp.dto.ValidationResultDTO;
 import com.sysml.mvp.dto.ValidationViolationDTO;
+import com.sysml.mvp.config.TraceSemanticsProperties;
+import com.sysml.mvp.model.TraceSemanticsMatrix;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Arrays;
 import java.util.ArrayList;
 
@@ -39,7 +43,11 @@ public class ValidationServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        validationService = new ValidationService(universalElementService);
+        // 不加载元模型时，语义矩阵按类型名精确匹配默认规则
+        TraceSemanticsMatrix traceSemanticsMatrix = new TraceSemanticsMatrix(
+            null, new TraceSemanticsProperties().getRules());
+        validationService = new ValidationService(universalElementService, traceSemanticsMatrix,
+            new ReqIdIndex(universalElementService));
     }
     
     /**
@@ -488,4 +496,85 @@ public class ValidationServiceTest {
         assertTrue(result.getProcessingTimeMs() > 0);
         assertTrue(result.getProcessingTimeMs() < (endTime - startTime + 100)); // 合理范围
     }
-}
\ No newline at end of file
+    
+    /**
+     * 验收标准：REQ-C3-3/REQ-C3-4
+     * 批量验证追溯候选 - 一次遍历模型，逐条返回去重和语义结果
+     */
+    @Test
+    @DisplayName("REQ-C3-3/REQ-C3-4: 批量验证追溯候选")
+    public void testValidateTraceCandidates_ShouldCheckAllCandidatesInOnePass() {
+        // Given: 模型包含一个PartUsage、两个需求定义和一条已有的Satisfy
+        ElementDTO part = new ElementDTO();
+        part.setElementId("part-001");
+        part.setEClass("PartUsage");
+        
+        ElementDTO req1 = new ElementDTO();
+        req1.setElementId("req-def-001");
+        req1.setEClass("RequirementDefinition");
+        
+        ElementDTO req2 = new ElementDTO();
+        req2.setElementId("req-def-002");
+        req2.setEClass("RequirementDefinition");
+        
+        ElementDTO satisfy = new ElementDTO();
+        satisfy.setElementId("satisfy-001");
+        satisfy.setEClass("Satisfy");
+        satisfy.setProperty("fromId", "part-001");
+        satisfy.setProperty("toId", "req-def-001");
+        
+        when(universalElementService.getAllElements()).thenReturn(Arrays.asList(part, req1, req2, satisfy));
+        
+        TraceDTO existing = new TraceDTO();
+        existing.setSource("part-001");
+        existing.setTarget("req-def-001");
+        existing.setType("satisfy");
+        
+        TraceDTO valid = new TraceDTO();
+        valid.setSource("req-def-001");
+        valid.setTarget("req-def-002");
+        valid.setType("derive");
+        
+        TraceDTO repeated = new TraceDTO();
+        repeated.setSource("req-def-001");
+        repeated.setTarget("req-def-002");
+        repeated.setType("derive");
+        
+        TraceDTO invalidSemantics = new TraceDTO();
+        invalidSemantics.setSource("req-def-001");
+        invalidSemantics.setTarget("req-def-002");
+        invalidSemantics.setType("satisfy");
+        
+        TraceDTO missingEndpoint = new TraceDTO();
+        missingEndpoint.setSource("req-def-001");
+        missingEndpoint.setTarget("req-def-999");
+        missingEndpoint.setType("refine");
+        
+        // When: 批量验证
+        List<Map<String, Object>> results = validationService.validateTraceCandidates(
+            Arrays.asList(existing, valid, repeated, invalidSemantics, missingEndpoint));
+        
+        // Then: 结果顺序与输入一致，逐条判定正确
+        assertEquals(5, results.size());
+        
+        assertEquals(true, results.get(0).get("isDuplicate"));
+        assertEquals(false, results.get(0).get("isValid"));
+        
+        assertEquals(false, results.get(1).get("isDuplicate"));
+        assertEquals(true, results.get(1).get("isSemanticValid"));
+        assertEquals(true, results.get(1).get("isValid"));
+        
+        assertEquals(true, results.get(2).get("isDuplicate"));
+        assertEquals(true, results.get(2).get("duplicateInBatch"));
+        
+        assertEquals(false, results.get(3).get("isSemanticValid"));
+        
+        assertEquals(false, results.get(4).get("isSemanticValid"));
+        assertTrue(results.get(4).get("validationMessage").toString().contains("element not found"));
+        
+        // 模型只被遍历一次
+        verify(universalElementService, times(1)).getAllElements();
+        verify(universalElementService, never()).findElementById(anyString());
+        verify(universalElementService, never()).queryElements(anyString());
+    }
+}
@@ -0,0 +1,420 @@
+package com.sysml.mvp.stress;
+
+import com.sysml.mvp.config.ExecutionProperties;
+import com.sysml.mvp.config.LimitsProperties;
+import com.sysml.mvp.config.TraceSemanticsProperties;
+import com.sysml.mvp.dto.ElementDTO;
+import com.sysml.mvp.exception.VersionConflictException;
+import com.sysml.mvp.model.EMFModelRegistry;
+import com.sysml.mvp.model.TraceSemanticsMatrix;
+import com.sysml.mvp.repository.FileModelRepository;
+import com.sysml.mvp.repository.ProjectLockManager;
+import com.sysml.mvp.service.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.emf.ecore.*;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 并发写入压力测试
+ *
+ * 在最小动态元模型上装配真实的服务栈（UniversalElementService → FileModelRepository，落盘到临时目录），
+ * 多线程混合执行创建、更新、删除、追溯创建和需求使用创建，其中需求定义（追溯两端、使用的of目标）
+ * 与引用它们的追溯和使用并发创建和删除，结束后检查不变式：
+ * 1. 无丢失更新：If-Match计数器等于成功递增次数；无版本校验的合并PATCH保留每个线程最后写入的值
+ * 2. reqId唯一：每个reqId至多对应一个需求，成功创建与删除后的数量与模型一致
+ * 3. 无悬挂引用：所有追溯关系的两端、所有需求使用的of目标都存在
+ * 4. 落盘一致：清除缓存后从文件重新加载，内容与内存模型相同
+ *
+ * 服务层固定访问default项目，因此多项目场景直接经ProjectLockManager和FileModelRepository写入，
+ * 只执行创建，用于检验不同项目的锁互不阻塞、各自正确落盘；引用完整性由同项目场景覆盖
+ *
+ * 线程数和每线程操作数可通过 -Dstress.threads、-Dstress.ops 调整，结果输出吞吐量和延迟分位数。
+ * 默认不运行：mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DisplayName("并发写入压力测试")
+public class ConcurrentMutationStressTest {
+
+    private static final int THREADS = Integer.getInteger("stress.threads", 8);
+    private static final int OPS_PER_THREAD = Integer.getInteger("stress.ops", 150);
+    private static final String NS_URI = "https://www.omg.org/spec/SysML/stress";
+
+    @TempDir
+    Path dataRoot;
+
+    private EMFModelRegistry modelRegistry;
+    private PilotEMFService pilotEMFService;
+    private FileModelRepository fileModelRepository;
+    private ProjectLockManager projectLockManager;
+    private UniversalElementService universalElementService;
+    private RequirementService requirementService;
+    private TraceService traceService;
+    private ExecutorService workers;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        modelRegistry = mock(EMFModelRegistry.class);
+        when(modelRegistry.getSysMLPackage()).thenReturn(createMetamodel());
+
+        pilotEMFService = new PilotEMFService(modelRegistry, new TimeOrderedIdGenerator());
+        fileModelRepository = new FileModelRepository(modelRegistry);
+        fileModelRepository.setDataRoot(dataRoot.toString());
+        fileModelRepository.init();
+        projectLockManager = new ProjectLockManager(new SimpleMeterRegistry(), fileModelRepository);
+
+        LimitsProperties limits = new LimitsProperties();
+        limits.setMaxNodes(Integer.MAX_VALUE);
+        universalElementService = new UniversalElementService(pilotEMFService, fileModelRepository, modelRegistry,
+            new ReferenceIndex(), projectLockManager, new ModelSnapshotStore(), new ElementVersionRegistry(),
+            limits, new ExecutionProperties());
+        ReqIdIndex reqIdIndex = new ReqIdIndex(universalElementService);
+        requirementService = new RequirementService(universalElementService, reqIdIndex);
+        TraceSemanticsMatrix matrix = new TraceSemanticsMatrix(modelRegistry.getSysMLPackage(),
+            new TraceSemanticsProperties().getRules());
+        traceService = new TraceService(universalElementService,
+            new ValidationService(universalElementService, matrix, reqIdIndex));
+        workers = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+        universalElementService.shutdown();
+    }
+
+    @Test
+    @DisplayName("同一项目上的混合并发写入保持不变式")
+    public void testMixedMutations_SameProject() throws Exception {
+        Map<String, Object> counterData = new HashMap<>();
+        counterData.put("elementId", "counter-0");
+        counterData.put("counter", 0);
+        universalElementService.createElement("PartDefinition", counterData);
+
+        Stats stats = new Stats();
+        int reqIdSpace = Math.max(1, THREADS * OPS_PER_THREAD / 6);
+        AtomicInteger increments = new AtomicInteger();
+        Map<String, String> reqIdOwners = new ConcurrentHashMap<>();
+        List<String> requirements = new CopyOnWriteArrayList<>();
+        Map<String, String> lastNames = new ConcurrentHashMap<>();
+        Set<String> liveParts = ConcurrentHashMap.newKeySet();
+        Set<String> deletedParts = ConcurrentHashMap.newKeySet();
+        Set<String> deletedRequirements = ConcurrentHashMap.newKeySet();
+        AtomicInteger sequence = new AtomicInteger();
+
+        long elapsed = runWorkers(thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Map<String, String> ownRequirements = new LinkedHashMap<>();
+            Deque<String> ownParts = new ArrayDeque<>();
+            for (int op = 0; op < OPS_PER_THREAD; op++) {
+                int dice = random.nextInt(100);
+                if (dice < 20) {
+                    // 创建需求：reqId取自较小的空间，线程间必然冲突
+                    String reqId = "REQ-" + random.nextInt(reqIdSpace);
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("elementId", "req-" + thread + "-" + sequence.incrementAndGet());
+                    data.put("reqId", reqId);
+                    data.put("declaredName", "initial");
+                    try {
+                        ElementDTO created = stats.time("createRequirement", () -> requirementService.createRequirement(data));
+                        assertNull(reqIdOwners.putIfAbsent(reqId, created.getElementId()), "reqId granted twice: " + reqId);
+                        requirements.add(created.getElementId());
+                        ownRequirements.put(created.getElementId(), reqId);
+                    } catch (IllegalArgumentException e) {
+                        assertTrue(e.getMessage().contains("already exists"), e.getMessage());
+                    }
+                } else if (dice < 40) {
+                    // If-Match读改写，冲突时重试
+                    stats.time("incrementCounter", () -> {
+                        while (true) {
+                            ElementDTO current = universalElementService.findElementById("counter-0");
+                            int value = ((Number) current.getProperty("counter")).intValue();
+                            try {
+                                universalElementService.patchElement("counter-0",
+                                    Map.of("counter", value + 1), current.getVersion());
+                                increments.incrementAndGet();
+                                return null;
+                            } catch (VersionConflictException e) {
+                                // 被其他线程抢先，重读后重试
+                            }
+                        }
+                    });
+                } else if (dice < 52 && !ownRequirements.isEmpty()) {
+                    // 无版本校验的PATCH，写线程中会与其他PATCH合并
+                    String target = pick(random, new ArrayList<>(ownRequirements.keySet()));
+                    String name = "name-" + thread + "-" + op;
+                    stats.time("patchRequirement", () -> universalElementService.patchElement(target,
+                        Map.of("declaredName", name)));
+                    lastNames.put(target, name);
+                } else if (dice < 64 && requirements.size() >= 2) {
+                    // 两端可能正被其他线程删除
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("elementId", "trace-" + thread + "-" + sequence.incrementAndGet());
+                    data.put("source", pick(random, requirements));
+                    data.put("target", pick(random, requirements));
+                    data.put("type", "trace");
+                    try {
+                        stats.time("createTrace", () -> traceService.createTrace(data));
+                    } catch (IllegalArgumentException e) {
+                        // 同一对元素的重复追溯被拒绝；预检查时端点已被删除则语义校验失败
+                        assertTrue(e.getMessage().startsWith("Duplicate")
+                            || e.getMessage().startsWith("Invalid trace semantics"), e.getMessage());
+                    } catch (IllegalStateException e) {
+                        // 预检查之后、写锁之内端点被删除
+                        assertTrue(e.getMessage().startsWith("Referenced element not found"), e.getMessage());
+                    }
+                } else if (dice < 72 && !requirements.isEmpty()) {
+                    // of目标可能正被其他线程删除
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("elementId", "usage-" + thread + "-" + sequence.incrementAndGet());
+                    data.put("of", pick(random, requirements));
+                    data.put("subject", "counter-0");
+                    try {
+                        stats.time("createUsage", () -> requirementService.createRequirementUsage(data));
+                    } catch (IllegalStateException e) {
+                        assertTrue(e.getMessage().startsWith("Referenced element not found"), e.getMessage());
+                    }
+                } else if (dice < 80 && !ownRequirements.isEmpty()) {
+                    // 删除自己创建的需求定义，与引用它的追溯和使用的创建并发
+                    String target = pick(random, new ArrayList<>(ownRequirements.keySet()));
+                    String reqId = ownRequirements.get(target);
+                    // 需求仍存在时reqId不会授予其他线程，先移除登记以免删除后被立即复用时误报
+                    reqIdOwners.remove(reqId);
+                    try {
+                        assertTrue(stats.time("deleteRequirement", () -> requirementService.deleteRequirement(target)));
+                        ownRequirements.remove(target);
+                        lastNames.remove(target);
+                        deletedRequirements.add(target);
+                    } catch (IllegalStateException e) {
+                        assertTrue(e.getMessage().contains("referenced by"), e.getMessage());
+                        reqIdOwners.put(reqId, target);
+                    }
+                } else if (dice < 92 || ownParts.isEmpty()) {
+                    String partId = "part-" + thread + "-" + sequence.incrementAndGet();
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("elementId", partId);
+                    data.put("declaredName", partId);
+                    stats.time("createPart", () -> universalElementService.createElement("PartDefinition", data));
+                    liveParts.add(partId);
+                    ownParts.add(partId);
+                } else {
+                    String partId = ownParts.poll();
+                    assertTrue(stats.time("deletePart", () -> universalElementService.deleteElement(partId)));
+                    liveParts.remove(partId);
+                    deletedParts.add(partId);
+                }
+            }
+        });
+        stats.report("same-project", elapsed);
+
+        Map<String, ElementDTO> model = universalElementService.getAllElements().stream()
+            .collect(Collectors.toMap(ElementDTO::getElementId, Function.identity()));
+
+        // 1. 无丢失更新
+        assertEquals(increments.get(), ((Number) model.get("counter-0").getProperty("counter")).intValue());
+        lastNames.forEach((id, name) -> assertEquals(name, model.get(id).getProperty("declaredName"), id));
+
+        // 2. reqId唯一
+        List<ElementDTO> definitions = model.values().stream()
+            .filter(e -> "RequirementDefinition".equals(e.getEClass())).collect(Collectors.toList());
+        Set<Object> reqIds = definitions.stream().map(e -> e.getProperty("reqId")).collect(Collectors.toSet());
+        assertEquals(definitions.size(), reqIds.size(), "duplicate reqIds in model");
+        assertEquals(reqIdOwners.size(), definitions.size());
+        deletedRequirements.forEach(id -> assertFalse(model.containsKey(id), "resurrected requirement " + id));
+
+        // 3. 无悬挂引用
+        for (ElementDTO element : model.values()) {
+            if ("Trace".equals(element.getEClass())) {
+                assertTrue(model.containsKey(element.getProperty("fromId")), "dangling source: " + element.getElementId());
+                assertTrue(model.containsKey(element.getProperty("toId")), "dangling target: " + element.getElementId());
+            } else if ("RequirementUsage".equals(element.getEClass())) {
+                assertTrue(model.containsKey(element.getProperty("of")), "dangling usage: " + element.getElementId());
+            }
+        }
+        liveParts.forEach(id -> assertTrue(model.containsKey(id), "lost part " + id));
+        deletedParts.forEach(id -> assertFalse(model.containsKey(id), "resurrected part " + id));
+
+        // 4. 落盘一致
+        fileModelRepository.clearCache("default");
+        Map<String, ElementDTO> reloaded = universalElementService.getAllElements().stream()
+            .collect(Collectors.toMap(ElementDTO::getElementId, Function.identity()));
+        assertEquals(model.keySet(), reloaded.keySet());
+        for (ElementDTO element : model.values()) {
+            ElementDTO copy = reloaded.get(element.getElementId());
+            assertEquals(element.getEClass(), copy.getEClass());
+            for (String property : List.of("declaredName", "reqId", "fromId", "toId", "of", "subject", "counter")) {
+                assertEquals(element.getProperty(property), copy.getProperty(property),
+                    element.getElementId() + "." + property);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("多个项目并发写入互不干扰且都能正确落盘")
+    public void testConcurrentWrites_DifferentProjects() throws Exception {
+        int projects = Math.max(2, THREADS / 2);
+        Stats stats = new Stats();
+        Map<String, AtomicInteger> expected = new ConcurrentHashMap<>();
+
+        long elapsed = runWorkers(thread -> {
+            for (int op = 0; op < OPS_PER_THREAD; op++) {
+                String projectId = "stress-" + ((thread + op) % projects);
+                String partId = "part-" + thread + "-" + op;
+                stats.time("repositoryWrite", () -> projectLockManager.write(projectId, () -> {
+                    Resource resource = fileModelRepository.loadProject(projectId);
+                    Map<String, Object> attributes = new HashMap<>();
+                    attributes.put("elementId", partId);
+                    resource.getContents().add(pilotEMFService.createElement("PartDefinition", attributes));
+                    fileModelRepository.saveProject(projectId, resource);
+                    return null;
+                }));
+                expected.computeIfAbsent(projectId, k -> new AtomicInteger()).incrementAndGet();
+            }
+        });
+        stats.report("multi-project", elapsed);
+
+        fileModelRepository.clearAllCache();
+        for (Map.Entry<String, AtomicInteger> entry : expected.entrySet()) {
+            assertTrue(Files.exists(dataRoot.resolve("projects").resolve(entry.getKey()).resolve("model.json")));
+            Resource reloaded = fileModelRepository.loadProject(entry.getKey());
+            Set<Object> ids = reloaded.getContents().stream()
+                .map(object -> pilotEMFService.getAttributeValue(object, "elementId"))
+                .collect(Collectors.toSet());
+            assertEquals(entry.getValue().get(), ids.size(), entry.getKey());
+        }
+    }
+
+    private static String pick(ThreadLocalRandom random, List<String> candidates) {
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    /**
+     * 并发运行工作线程，返回耗时（纳秒）
+     */
+    private long runWorkers(Worker worker) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(workers.submit(() -> {
+                start.await();
+                worker.run(thread);
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        return System.nanoTime() - begin;
+    }
+
+    /**
+     * 最小SysML元模型：覆盖压力测试用到的类型和属性
+     */
+    private static EPackage createMetamodel() {
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        EPackage sysml = factory.createEPackage();
+        sysml.setName("sysml");
+        sysml.setNsPrefix("sysml");
+        sysml.setNsURI(NS_URI);
+
+        EClass element = createEClass(sysml, "Element");
+        addAttribute(element, "elementId", EcorePackage.Literals.ESTRING);
+        addAttribute(element, "declaredName", EcorePackage.Literals.ESTRING);
+        EClass requirement = createEClass(sysml, "RequirementDefinition", element);
+        addAttribute(requirement, "reqId", EcorePackage.Literals.ESTRING);
+        EClass usage = createEClass(sysml, "RequirementUsage", element);
+        addAttribute(usage, "of", EcorePackage.Literals.ESTRING);
+        addAttribute(usage, "subject", EcorePackage.Literals.ESTRING);
+        EClass part = createEClass(sysml, "PartDefinition", element);
+        addAttribute(part, "counter", EcorePackage.Literals.EINT);
+        EClass dependency = createEClass(sysml, "Dependency", element);
+        addAttribute(dependency, "fromId", EcorePackage.Literals.ESTRING);
+        addAttribute(dependency, "toId", EcorePackage.Literals.ESTRING);
+        for (String name : List.of("Trace", "DeriveRequirement", "Satisfy", "Refine")) {
+            createEClass(sysml, name, dependency);
+        }
+        return sysml;
+    }
+
+    private static EClass createEClass(EPackage ePackage, String name, EClass... superTypes) {
+        EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName(name);
+        eClass.getESuperTypes().addAll(Arrays.asList(superTypes));
+        ePackage.getEClassifiers().add(eClass);
+        return eClass;
+    }
+
+    private static void addAttribute(EClass eClass, String name, EDataType type) {
+        EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName(name);
+        attribute.setEType(type);
+        eClass.getEStructuralFeatures().add(attribute);
+    }
+
+    @FunctionalInterface
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * 按操作类型记录延迟，输出吞吐量和分位数
+     */
+    private static final class Stats {
+        private static final Logger log = LoggerFactory.getLogger(ConcurrentMutationStressTest.class);
+        private final Map<String, Queue<Long>> latencies = new ConcurrentSkipListMap<>();
+
+        <T> T time(String operation, Callable<T> action) {
+            long start = System.nanoTime();
+            try {
+                return action.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                latencies.computeIfAbsent(operation, k -> new ConcurrentLinkedQueue<>())
+                    .add(System.nanoTime() - start);
+            }
+        }
+
+        void report(String scenario, long elapsedNanos) {
+            double seconds = elapsedNanos / 1e9;
+            int total = latencies.values().stream().mapToInt(Queue::size).sum();
+            log.info(String.format("[stress] %s threads=%d ops=%d elapsed=%.2fs throughput=%.0f ops/s",
+                scenario, THREADS, total, seconds, total / seconds));
+            latencies.forEach((operation, samples) -> {
+                long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+                log.info(String.format("[stress]   %-18s n=%-6d p50=%7.2fms p95=%7.2fms p99=%7.2fms max=%7.2fms",
+                    operation, sorted.length, percentile(sorted, 0.50), percentile(sorted, 0.95),
+                    percentile(sorted, 0.99), sorted[sorted.length - 1] / 1e6));
+            });
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.sysml.mvp.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SingleFlight 测试用例
+ *
+ * 验证同一key的并发调用只计算一次并共享结果与异常，完成后不缓存
+ */
+@DisplayName("SingleFlight测试")
+public class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("并发调用同一key只计算一次")
+    public void testExecute_CoalescesConcurrentCalls() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> flight.execute("p1", () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return 42;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<Future<Integer>> waiters = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            waiters.add(executor.submit(() -> flight.execute("p1", () -> {
+                computations.incrementAndGet();
+                return -1;
+            })));
+        }
+        // 不同key不受影响
+        assertEquals(7, flight.execute("p2", () -> 7));
+        release.countDown();
+
+        assertEquals(42, leader.get(5, TimeUnit.SECONDS));
+        for (Future<Integer> waiter : waiters) {
+            int value = waiter.get(5, TimeUnit.SECONDS);
+            // 在领先者完成后才到达的调用会重新计算
+            assertTrue(value == 42 || value == -1);
+        }
+        assertTrue(computations.get() < 8);
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("计算失败时异常传给所有等待者，之后可重新计算")
+    public void testExecute_SharesFailure() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> flight.execute("p1", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("load failed");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Integer> waiter = executor.submit(() -> flight.execute("p1", () -> 1));
+        release.countDown();
+
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        try {
+            // 等待者可能共享异常，也可能在失败后到达而重新计算
+            assertEquals(1, waiter.get(5, TimeUnit.SECONDS));
+        } catch (ExecutionException e) {
+            assertEquals("load failed", e.getCause().getMessage());
+        }
+        assertEquals(2, flight.execute("p1", () -> 2));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}